@@ -5,6 +5,7 @@ import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
 
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.SystemNotice;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.Place;
 import org.opentripplanner.model.plan.PlanTestConstants;
@@ -40,4 +41,19 @@ public class FaresFilterTest implements PlanTestConstants {
       assertEquals(twoEighty, i.getFares());
     });
   }
+
+  @Test
+  public void shouldNotAddFareToItinerariesFlaggedForDeletion() {
+    Itinerary i1 = newItinerary(A, 0).bus(1, 0, 50, B).build();
+    Itinerary i2 = newItinerary(A, 0).bus(2, 0, 60, B).build();
+    i2.flagForDeletion(new SystemNotice("test", "Flagged by test"));
+
+    var fare = new ItineraryFares();
+    fare.addFare(FareType.regular, Money.euros(280));
+
+    var filtered = new FaresFilter((FareService) itinerary -> fare).filter(List.of(i1, i2));
+
+    assertEquals(fare, filtered.get(0).getFares());
+    assertEquals(ItineraryFares.empty(), filtered.get(1).getFares());
+  }
 }
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.ext.fares.impl.DefaultFareService;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.PlanTestConstants;
@@ -137,7 +138,8 @@ class GraphQLIntegrationTest {
         new DefaultVehicleRentalService(),
         new DefaultVehiclePositionService(),
         GraphFinder.getInstance(graph, transitService::findRegularStop),
-        new RouteRequest()
+        new RouteRequest(),
+        CancellationToken.NONE
       );
   }
 
@@ -149,6 +151,7 @@ class GraphQLIntegrationTest {
       query,
       null,
       null,
+      null,
       2000,
       2000,
       Locale.ENGLISH,
@@ -15,6 +15,7 @@ import org.opentripplanner._support.time.ZoneIds;
 import org.opentripplanner.ext.fares.impl.DefaultFareService;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.TestRoutingService;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.model.plan.PlanTestConstants;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.request.VehicleParkingRequest;
@@ -43,7 +44,8 @@ class RouteRequestMapperTest implements PlanTestConstants {
         new DefaultVehicleRentalService(),
         new DefaultVehiclePositionService(),
         GraphFinder.getInstance(graph, transitService::findRegularStop),
-        new RouteRequest()
+        new RouteRequest(),
+        CancellationToken.NONE
       );
   }
 
@@ -18,6 +18,7 @@ import graphql.execution.instrumentation.parameters.InstrumentationValidationPar
 import graphql.language.Document;
 import graphql.schema.GraphQLTypeUtil;
 import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Timer;
@@ -31,6 +32,11 @@ import java.util.concurrent.CompletableFuture;
  * There are two types of metrics: one for query execution, and another for resolver timing. The
  * timers are registered to micrometer using graphql.timer.query and graphql.timer.resolver.
  * <p>
+ * The graphql.document.cache counter counts the executed operations, tagged with result=hit if
+ * the document was found in the document cache and result=miss if it had to be parsed. The hit
+ * rate of the {@link org.opentripplanner.framework.graphql.PreparsedDocumentCache} is the hits
+ * divided by the total.
+ * <p>
  * ### See also: - https://github.com/symbaloo/graphql-micrometer/blob/main/src/main/kotlin/com/symbaloo/graphqlmicrometer/MicrometerInstrumentation.kt
  * - https://github.com/graphql-java-kickstart/graphql-spring-boot/blob/master/graphql-spring-boot-autoconfigure/src/main/java/graphql/kickstart/autoconfigure/web/servlet/metrics/MetricsInstrumentation.java
  * - https://github.com/apollographql/apollo-tracing - [TracingInstrumentation]
@@ -39,10 +45,12 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
 
   private static final String QUERY_TIME_METRIC_NAME = "graphql.timer.query";
   private static final String RESOLVER_TIME_METRIC_NAME = "graphql.timer.resolver";
+  private static final String DOCUMENT_CACHE_METRIC_NAME = "graphql.document.cache";
   private static final String OPERATION_NAME_TAG = "operationName";
   private static final String OPERATION = "operation";
   private static final String PARENT = "parent";
   private static final String FIELD = "field";
+  private static final String RESULT = "result";
   private static final String TIMER_DESCRIPTION =
     "Timer that records the time to fetch the data by Operation Name";
 
@@ -75,6 +83,7 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
     InstrumentationExecutionParameters parameters,
     InstrumentationState state
   ) {
+    ((TraceState) state).parsed = true;
     Timer.Sample sample = Timer.start(meterRegistry);
     return whenCompleted((res, err) ->
       sample.stop(buildQueryTimer(((TraceState) state).operationName, "parse"))
@@ -97,6 +106,9 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
     InstrumentationExecuteOperationParameters parameters,
     InstrumentationState state
   ) {
+    var traceState = (TraceState) state;
+    buildDocumentCacheCounter(traceState.operationName, traceState.parsed ? "miss" : "hit")
+      .increment();
     return noOp();
   }
 
@@ -161,7 +173,23 @@ public class MicrometerGraphQLInstrumentation implements Instrumentation {
       .register(meterRegistry);
   }
 
-  private record TraceState(String operationName) implements InstrumentationState {
+  private Counter buildDocumentCacheCounter(String operationName, String result) {
+    return Counter
+      .builder(DOCUMENT_CACHE_METRIC_NAME)
+      .description("Counter of executed operations by parsed document cache hit or miss")
+      .tag(OPERATION_NAME_TAG, operationName)
+      .tag(RESULT, result)
+      .tags(tags)
+      .register(meterRegistry);
+  }
+
+  private static class TraceState implements InstrumentationState {
+
+    private final String operationName;
+
+    /** Set if the document was parsed, that is if it was not found in the document cache. */
+    private volatile boolean parsed = false;
+
     private TraceState(String operationName) {
       this.operationName = operationName == null ? "__UNKNOWN__" : operationName;
     }
@@ -6,12 +6,19 @@ import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilter;
 import org.opentripplanner.routing.fares.FareService;
 
+/**
+ * Calculate the fares of the itineraries. Itineraries flagged for deletion are not returned, so
+ * their fares are not calculated.
+ */
 public record FaresFilter(FareService fareService) implements ItineraryListFilter {
   @Override
   public List<Itinerary> filter(List<Itinerary> itineraries) {
     return itineraries
       .stream()
       .peek(i -> {
+        if (i.isFlaggedForDeletion()) {
+          return;
+        }
         var fare = fareService.getCost(i);
         if (Objects.nonNull(fare)) {
           i.setFare(fare);
@@ -85,7 +85,10 @@ class IntrospectionTypeWiring {
                           .anyMatch(directive -> directive.getName().equals("async"))
                       )
                   ) {
-                    return AsyncDataFetcher.async(dataFetcher);
+                    return AsyncDataFetcher.async(
+                      dataFetcher,
+                      LegacyGraphQLIndex.asyncFetcherExecutor
+                    );
                   }
 
                   return dataFetcher;
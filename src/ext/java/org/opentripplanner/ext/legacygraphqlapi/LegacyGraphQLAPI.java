@@ -9,11 +9,14 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,7 +24,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
+import org.glassfish.grizzly.http.server.Request;
+import org.opentripplanner.api.common.AsyncRoutingRequests;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
+import org.opentripplanner.framework.application.CancellationToken;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,26 +58,38 @@ public class LegacyGraphQLAPI {
 
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
-  public Response getGraphQL(
+  public void getGraphQL(
     HashMap<String, Object> queryParameters,
     @HeaderParam("OTPTimeout") @DefaultValue("30000") int timeout,
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
-    @Context HttpHeaders headers
+    @Context HttpHeaders headers,
+    @Context Request grizzlyRequest,
+    @Suspended AsyncResponse asyncResponse
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Map<String, Object> extensions = getExtensions(queryParameters);
+    if (
+      queryParameters == null ||
+      !(
+        queryParameters.containsKey("query") ||
+        PreparsedDocumentCache.hasPersistedQuery(extensions)
+      )
+    ) {
       LOG.debug("No query found in body");
-      return Response
-        .status(Response.Status.BAD_REQUEST)
-        .type(MediaType.TEXT_PLAIN_TYPE)
-        .entity("No query found in body")
-        .build();
+      asyncResponse.resume(
+        Response
+          .status(Response.Status.BAD_REQUEST)
+          .type(MediaType.TEXT_PLAIN_TYPE)
+          .entity("No query found in body")
+          .build()
+      );
+      return;
     }
 
     Locale locale = headers.getAcceptableLanguages().size() > 0
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
 
-    String query = (String) queryParameters.get("query");
+    String query = (String) queryParameters.getOrDefault("query", "");
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -81,57 +100,82 @@ public class LegacyGraphQLAPI {
       try {
         variables = deserializer.readValue((String) queryVariables, Map.class);
       } catch (IOException e) {
-        return Response
-          .status(Response.Status.BAD_REQUEST)
-          .type(MediaType.TEXT_PLAIN_TYPE)
-          .entity("Variables must be a valid json object")
-          .build();
+        asyncResponse.resume(
+          Response
+            .status(Response.Status.BAD_REQUEST)
+            .type(MediaType.TEXT_PLAIN_TYPE)
+            .entity("Variables must be a valid json object")
+            .build()
+        );
+        return;
       }
     } else {
       variables = new HashMap<>();
     }
-    return LegacyGraphQLIndex.getGraphQLResponse(
-      query,
-      variables,
-      operationName,
-      maxResolves,
-      timeout,
-      locale,
-      LegacyGraphQLRequestContext.ofServerContext(serverContext)
+    var cancellationToken = CancellationToken.withTimeout(Duration.ofMillis(timeout));
+    AsyncRoutingRequests.handle(
+      grizzlyRequest,
+      cancellationToken,
+      asyncResponse,
+      () ->
+        LegacyGraphQLIndex.getGraphQLResponse(
+          query,
+          variables,
+          extensions,
+          operationName,
+          maxResolves,
+          timeout,
+          locale,
+          LegacyGraphQLRequestContext.ofServerContext(serverContext, cancellationToken)
+        )
     );
   }
 
   @POST
   @Consumes("application/graphql")
-  public Response getGraphQL(
+  public void getGraphQL(
     String query,
     @HeaderParam("OTPTimeout") @DefaultValue("30000") int timeout,
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
-    @Context HttpHeaders headers
+    @Context HttpHeaders headers,
+    @Context Request grizzlyRequest,
+    @Suspended AsyncResponse asyncResponse
   ) {
     Locale locale = headers.getAcceptableLanguages().size() > 0
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
-    return LegacyGraphQLIndex.getGraphQLResponse(
-      query,
-      null,
-      null,
-      maxResolves,
-      timeout,
-      locale,
-      LegacyGraphQLRequestContext.ofServerContext(serverContext)
+    var cancellationToken = CancellationToken.withTimeout(Duration.ofMillis(timeout));
+    AsyncRoutingRequests.handle(
+      grizzlyRequest,
+      cancellationToken,
+      asyncResponse,
+      () ->
+        LegacyGraphQLIndex.getGraphQLResponse(
+          query,
+          null,
+          null,
+          null,
+          maxResolves,
+          timeout,
+          locale,
+          LegacyGraphQLRequestContext.ofServerContext(serverContext, cancellationToken)
+        )
     );
   }
 
   @POST
   @Path("/batch")
   @Consumes(MediaType.APPLICATION_JSON)
-  public Response getGraphQLBatch(
+  public void getGraphQLBatch(
     List<HashMap<String, Object>> queries,
     @HeaderParam("OTPTimeout") @DefaultValue("30000") int timeout,
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
-    @Context HttpHeaders headers
+    @Context HttpHeaders headers,
+    @Context Request grizzlyRequest,
+    @Suspended AsyncResponse asyncResponse
   ) {
+    // Cancelled if the client disconnects, each query has its own timeout
+    var batchCancellationToken = CancellationToken.create();
     List<Callable<ExecutionResult>> futures = new ArrayList<>();
     Locale locale = headers.getAcceptableLanguages().size() > 0
       ? headers.getAcceptableLanguages().get(0)
@@ -147,39 +191,63 @@ public class LegacyGraphQLAPI {
         try {
           variables = deserializer.readValue((String) query.get("variables"), Map.class);
         } catch (IOException e) {
-          return Response
-            .status(Response.Status.BAD_REQUEST)
-            .type(MediaType.TEXT_PLAIN_TYPE)
-            .entity("Variables must be a valid json object")
-            .build();
+          asyncResponse.resume(
+            Response
+              .status(Response.Status.BAD_REQUEST)
+              .type(MediaType.TEXT_PLAIN_TYPE)
+              .entity("Variables must be a valid json object")
+              .build()
+          );
+          return;
         }
       } else {
         variables = null;
       }
       String operationName = (String) query.getOrDefault("operationName", null);
+      Map<String, Object> extensions = getExtensions(query);
 
       futures.add(() ->
         LegacyGraphQLIndex.getGraphQLExecutionResult(
-          (String) query.get("query"),
+          (String) query.getOrDefault("query", ""),
           variables,
+          extensions,
           operationName,
           maxResolves,
           timeout,
           locale,
-          LegacyGraphQLRequestContext.ofServerContext(serverContext)
+          LegacyGraphQLRequestContext.ofServerContext(
+            serverContext,
+            CancellationToken.withTimeout(Duration.ofMillis(timeout), batchCancellationToken)
+          )
         )
       );
     }
 
-    try {
-      List<Future<ExecutionResult>> results = LegacyGraphQLIndex.threadPool.invokeAll(futures);
-      return Response
-        .status(Response.Status.OK)
-        .entity(GraphQLResponseSerializer.serializeBatch(queries, results))
-        .build();
-    } catch (InterruptedException e) {
-      LOG.error("Batch query interrupted", e);
-      throw new RuntimeException(e);
-    }
+    AsyncRoutingRequests.handle(
+      grizzlyRequest,
+      batchCancellationToken,
+      asyncResponse,
+      () -> {
+        try {
+          List<Future<ExecutionResult>> results = LegacyGraphQLIndex.batchExecutor.invokeAll(
+            futures
+          );
+          return Response
+            .status(Response.Status.OK)
+            .entity(GraphQLResponseSerializer.serializeBatch(queries, results))
+            .build();
+        } catch (InterruptedException e) {
+          LOG.error("Batch query interrupted", e);
+          throw new RuntimeException(e);
+        }
+      }
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getExtensions(Map<String, Object> queryParameters) {
+    return queryParameters != null && queryParameters.get("extensions") instanceof Map
+      ? (Map<String, Object>) queryParameters.get("extensions")
+      : null;
   }
 }
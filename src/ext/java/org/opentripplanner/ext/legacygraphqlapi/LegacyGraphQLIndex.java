@@ -1,7 +1,6 @@
 package org.opentripplanner.ext.legacygraphqlapi;
 
 import com.google.common.io.Resources;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
@@ -25,9 +24,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import org.opentripplanner.api.dataloader.TransitDataLoaders;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLAgencyImpl;
@@ -40,6 +39,7 @@ import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLBookin
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLCarParkImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLContactInfoImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLCoordinatesImpl;
+import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLDebugTimingImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLDepartureRowImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLFeedImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLGeometryImpl;
@@ -81,6 +81,8 @@ import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLservic
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLstepImpl;
 import org.opentripplanner.ext.legacygraphqlapi.datafetchers.LegacyGraphQLstopAtDistanceImpl;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.RequestExecutors;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,12 +90,23 @@ class LegacyGraphQLIndex {
 
   static final Logger LOG = LoggerFactory.getLogger(LegacyGraphQLIndex.class);
 
-  private static final GraphQLSchema indexSchema = buildSchema();
+  /** Runs the queries of a batch request in parallel. */
+  static final ExecutorService batchExecutor = RequestExecutors.create(
+    "legacyGraphQLBatch",
+    RequestExecutors.defaultMaxConcurrency()
+  );
 
-  static final ExecutorService threadPool = Executors.newCachedThreadPool(
-    new ThreadFactoryBuilder().setNameFormat("GraphQLExecutor-%d").build()
+  /** Runs the fetchers annotated with @async, see {@link OTPFeature#AsyncGraphQLFetchers}. */
+  static final ExecutorService asyncFetcherExecutor = RequestExecutors.create(
+    "legacyGraphQLAsyncFetchers",
+    RequestExecutors.defaultMaxConcurrency()
   );
 
+  // The executors must be created before the schema, the @async fetchers are wired to them
+  private static final GraphQLSchema indexSchema = buildSchema();
+
+  private static final PreparsedDocumentCache documentCache = new PreparsedDocumentCache();
+
   protected static GraphQLSchema buildSchema() {
     try {
       URL url = Resources.getResource("legacygraphqlapi/schema.graphqls");
@@ -119,6 +132,7 @@ class LegacyGraphQLIndex {
         .type(typeWiring.build(LegacyGraphQLCarParkImpl.class))
         .type(typeWiring.build(LegacyGraphQLCoordinatesImpl.class))
         .type(typeWiring.build(LegacyGraphQLdebugOutputImpl.class))
+        .type(typeWiring.build(LegacyGraphQLDebugTimingImpl.class))
         .type(typeWiring.build(LegacyGraphQLDepartureRowImpl.class))
         .type(typeWiring.build(LegacyGraphQLelevationProfileComponentImpl.class))
         .type(typeWiring.build(LegacyGraphQLfareComponentImpl.class))
@@ -172,12 +186,18 @@ class LegacyGraphQLIndex {
   static ExecutionResult getGraphQLExecutionResult(
     String query,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     int timeoutMs,
     Locale locale,
     LegacyGraphQLRequestContext requestContext
   ) {
+    // Skip the query if the client is gone while it waited in line
+    if (requestContext.cancellationToken().isCancelled()) {
+      return new AbortExecutionException("The request is cancelled").toExecutionResult();
+    }
+
     Instrumentation instrumentation = new MaxQueryComplexityInstrumentation(maxResolves);
 
     if (OTPFeature.ActuatorAPI.isOn()) {
@@ -188,7 +208,11 @@ class LegacyGraphQLIndex {
         );
     }
 
-    GraphQL graphQL = GraphQL.newGraphQL(indexSchema).instrumentation(instrumentation).build();
+    GraphQL graphQL = GraphQL
+      .newGraphQL(indexSchema)
+      .instrumentation(instrumentation)
+      .preparsedDocumentProvider(documentCache)
+      .build();
 
     if (variables == null) {
       variables = new HashMap<>();
@@ -197,14 +221,20 @@ class LegacyGraphQLIndex {
     ExecutionInput executionInput = ExecutionInput
       .newExecutionInput()
       .query(query)
+      .extensions(extensions == null ? Map.of() : extensions)
       .operationName(operationName)
       .context(requestContext)
+      .dataLoaderRegistry(
+        TransitDataLoaders.createRegistry(requestContext.transitService(), Metrics.globalRegistry)
+      )
       .variables(variables)
       .locale(locale)
       .build();
     try {
       return graphQL.executeAsync(executionInput).get(timeoutMs, TimeUnit.MILLISECONDS);
     } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      // Stop the routing of the plan queries, nobody waits for the result
+      requestContext.cancellationToken().cancel();
       return new AbortExecutionException(e).toExecutionResult();
     }
   }
@@ -212,6 +242,7 @@ class LegacyGraphQLIndex {
   static Response getGraphQLResponse(
     String query,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     int timeoutMs,
@@ -221,6 +252,7 @@ class LegacyGraphQLIndex {
     ExecutionResult executionResult = getGraphQLExecutionResult(
       query,
       variables,
+      extensions,
       operationName,
       maxResolves,
       timeoutMs,
@@ -1,6 +1,7 @@
 package org.opentripplanner.ext.legacygraphqlapi;
 
 import javax.annotation.Nonnull;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.fares.FareService;
@@ -19,9 +20,17 @@ public record LegacyGraphQLRequestContext(
   VehicleRentalService vehicleRentalService,
   VehiclePositionService vehiclePositionService,
   GraphFinder graphFinder,
-  RouteRequest defaultRouteRequest
+  RouteRequest defaultRouteRequest,
+  CancellationToken cancellationToken
 ) {
-  public static LegacyGraphQLRequestContext ofServerContext(OtpServerRequestContext context) {
+  /**
+   * @param cancellationToken used to stop the routing of the plan queries, when the timeout of the
+   *                          request has passed.
+   */
+  public static LegacyGraphQLRequestContext ofServerContext(
+    OtpServerRequestContext context,
+    CancellationToken cancellationToken
+  ) {
     return new LegacyGraphQLRequestContext(
       context.routingService(),
       context.transitService(),
@@ -30,7 +39,8 @@ public record LegacyGraphQLRequestContext(
       context.vehicleRentalService(),
       context.vehiclePositionService(),
       context.graphFinder(),
-      context.defaultRouteRequest()
+      context.defaultRouteRequest(),
+      cancellationToken
     );
   }
 
@@ -1,7 +1,9 @@
 package org.opentripplanner.ext.legacygraphqlapi;
 
+import graphql.schema.DataFetcher;
 import java.time.Instant;
 import java.util.Locale;
+import java.util.concurrent.CompletionStage;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLFilterPlaceType;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLFormFactor;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLInputField;
@@ -102,6 +104,18 @@ public class LegacyGraphQLUtils {
     return epochSeconds != 0 ? Instant.ofEpochSecond(epochSeconds) : Instant.now();
   }
 
+  /**
+   * The generated data fetcher interfaces are typed with the value of the field, but graphql-java
+   * also accepts a {@link CompletionStage} of the value from any data fetcher and waits for it.
+   * Use this to return the future of a data loader from a data fetcher of a generated interface.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> DataFetcher<T> async(
+    DataFetcher<? extends CompletionStage<? extends T>> dataFetcher
+  ) {
+    return (DataFetcher<T>) (DataFetcher<?>) dataFetcher;
+  }
+
   public static boolean startsWith(String str, String name, Locale locale) {
     return str != null && str.toLowerCase(locale).startsWith(name);
   }
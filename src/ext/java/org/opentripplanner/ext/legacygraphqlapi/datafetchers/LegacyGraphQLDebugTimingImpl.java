@@ -0,0 +1,31 @@
+package org.opentripplanner.ext.legacygraphqlapi.datafetchers;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.opentripplanner.api.resource.TimingOutput;
+import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
+
+public class LegacyGraphQLDebugTimingImpl
+  implements LegacyGraphQLDataFetchers.LegacyGraphQLDebugTiming {
+
+  private static final long nanosToMillis = 1000000;
+
+  @Override
+  public DataFetcher<Iterable<TimingOutput>> children() {
+    return environment -> getSource(environment).children;
+  }
+
+  @Override
+  public DataFetcher<String> name() {
+    return environment -> getSource(environment).name;
+  }
+
+  @Override
+  public DataFetcher<Long> time() {
+    return environment -> getSource(environment).time / nanosToMillis;
+  }
+
+  private TimingOutput getSource(DataFetchingEnvironment environment) {
+    return environment.getSource();
+  }
+}
@@ -50,6 +50,7 @@ import org.opentripplanner.routing.graphfinder.PlaceAtDistance;
 import org.opentripplanner.routing.graphfinder.PlaceType;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingService;
+import org.opentripplanner.service.vehiclepositions.model.RealtimeVehiclePosition;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalPlace;
 import org.opentripplanner.service.vehiclerental.model.VehicleRentalStation;
@@ -496,6 +497,7 @@ public class LegacyGraphQLQueryTypeImpl
     return environment -> {
       LegacyGraphQLRequestContext context = environment.<LegacyGraphQLRequestContext>getContext();
       RouteRequest request = RouteRequestMapper.toRouteRequest(environment, context);
+      request.setCancellationToken(context.cancellationToken());
       RoutingResponse res = context.routingService().route(request);
       return DataFetcherResult
         .<RoutingResponse>newResult()
@@ -867,6 +869,34 @@ public class LegacyGraphQLQueryTypeImpl
     };
   }
 
+  @Override
+  public DataFetcher<Iterable<RealtimeVehiclePosition>> vehiclePositionsByBbox() {
+    return environment -> {
+      var args = new LegacyGraphQLTypes.LegacyGraphQLQueryTypeVehiclePositionsByBboxArgs(
+        environment.getArguments()
+      );
+
+      Envelope envelope = new Envelope(
+        new Coordinate(args.getLegacyGraphQLMinLon(), args.getLegacyGraphQLMinLat()),
+        new Coordinate(args.getLegacyGraphQLMaxLon(), args.getLegacyGraphQLMaxLat())
+      );
+
+      Stream<RealtimeVehiclePosition> positions = environment
+        .<LegacyGraphQLRequestContext>getContext()
+        .vehiclePositionService()
+        .getVehiclePositions(envelope)
+        .stream();
+
+      if (args.getLegacyGraphQLFeeds() != null) {
+        List<String> feedIds = args.getLegacyGraphQLFeeds();
+        positions =
+          positions.filter(position -> feedIds.contains(position.trip().getId().getFeedId()));
+      }
+
+      return positions.collect(Collectors.toList());
+    };
+  }
+
   @Override
   public DataFetcher<VehicleRentalStation> vehicleRentalStation() {
     return environment -> {
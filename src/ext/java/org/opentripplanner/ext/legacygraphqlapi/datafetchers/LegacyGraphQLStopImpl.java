@@ -12,9 +12,13 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.opentripplanner.api.dataloader.TransitDataLoaders;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopEntityAlert;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopTimesQuery;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLRequestContext;
 import org.opentripplanner.ext.legacygraphqlapi.LegacyGraphQLUtils;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
@@ -25,8 +29,6 @@ import org.opentripplanner.framework.graphql.GraphQLUtils;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.TripTimeOnDate;
-import org.opentripplanner.routing.alertpatch.EntitySelector;
-import org.opentripplanner.routing.alertpatch.EntitySelector.StopAndRoute;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.routing.services.TransitAlertService;
@@ -44,84 +46,23 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
 
   @Override
   public DataFetcher<Iterable<TransitAlert>> alerts() {
-    return environment -> {
-      TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
+    return LegacyGraphQLUtils.async(environment -> {
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopAlertsArgs(environment.getArguments());
       List<LegacyGraphQLTypes.LegacyGraphQLStopAlertType> types = args.getLegacyGraphQLTypes();
       FeedScopedId id = getValue(environment, StopLocation::getId, AbstractTransitEntity::getId);
-      if (types != null) {
-        Collection<TransitAlert> alerts = new ArrayList<>();
-        if (types.contains(LegacyGraphQLStopAlertType.STOP)) {
-          alerts.addAll(alertService.getStopAlerts(id));
-        }
-        if (
+      if (
+        types != null &&
+        (
           types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) ||
           types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS)
-        ) {
-          alerts.addAll(
-            alertService
-              .getAllAlerts()
-              .stream()
-              .filter(alert ->
-                alert
-                  .entities()
-                  .stream()
-                  .anyMatch(entity ->
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) &&
-                      entity instanceof StopAndRoute stopAndRoute &&
-                      stopAndRoute.stopId().equals(id)
-                    ) ||
-                    (
-                      types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS) &&
-                      entity instanceof EntitySelector.StopAndTrip stopAndTrip &&
-                      stopAndTrip.stopId().equals(id)
-                    )
-                  )
-              )
-              .toList()
-          );
-        }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.PATTERNS) ||
-          types.contains(LegacyGraphQLStopAlertType.TRIPS)
-        ) {
-          getPatterns(environment)
-            .forEach(pattern -> {
-              if (types.contains(LegacyGraphQLStopAlertType.PATTERNS)) {
-                alerts.addAll(
-                  alertService.getDirectionAndRouteAlerts(
-                    pattern.getDirection(),
-                    pattern.getRoute().getId()
-                  )
-                );
-              }
-              if (types.contains(LegacyGraphQLStopAlertType.TRIPS)) {
-                pattern
-                  .scheduledTripsAsStream()
-                  .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
-              }
-            });
-        }
-        if (
-          types.contains(LegacyGraphQLStopAlertType.ROUTES) ||
-          types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)
-        ) {
-          getRoutes(environment)
-            .forEach(route -> {
-              if (types.contains(LegacyGraphQLStopAlertType.ROUTES)) {
-                alerts.addAll(alertService.getRouteAlerts(route.getId()));
-              }
-              if (types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
-                alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
-              }
-            });
-        }
-        return alerts.stream().distinct().collect(Collectors.toList());
-      } else {
-        return alertService.getStopAlerts(id);
+        )
+      ) {
+        return TransitDataLoaders
+          .stopEntityAlerts(environment, id)
+          .thenApply(stopEntityAlerts -> getAlerts(environment, types, id, stopEntityAlerts));
       }
-    };
+      return CompletableFuture.completedFuture(getAlerts(environment, types, id, List.of()));
+    });
   }
 
   @Override
@@ -213,7 +154,13 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
 
   @Override
   public DataFetcher<Iterable<TripPattern>> patterns() {
-    return this::getPatterns;
+    return LegacyGraphQLUtils.async(environment ->
+      getValue(
+        environment,
+        stop -> TransitDataLoaders.patternsForStop(environment, stop),
+        station -> null
+      )
+    );
   }
 
   @Override
@@ -281,36 +228,12 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
 
   @Override
   public DataFetcher<Iterable<StopTimesInPattern>> stoptimesForPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return LegacyGraphQLUtils.async(environment -> {
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs(
         environment.getArguments()
       );
-
-      Function<StopLocation, List<StopTimesInPattern>> stopTFunction = stop ->
-        transitService.stopTimesForStop(
-          stop,
-          LegacyGraphQLUtils.getTimeOrNow(args.getLegacyGraphQLStartTime()),
-          Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
-          args.getLegacyGraphQLNumberOfDepartures(),
-          args.getLegacyGraphQLOmitNonPickups()
-            ? ArrivalDeparture.DEPARTURES
-            : ArrivalDeparture.BOTH,
-          !args.getLegacyGraphQLOmitCanceled()
-        );
-
-      return getValue(
-        environment,
-        stopTFunction,
-        station ->
-          station
-            .getChildStops()
-            .stream()
-            .map(stopTFunction)
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList())
-      );
-    };
+      return getStopTimes(environment, getStopTimesQuery(args));
+    });
   }
 
   @Override
@@ -353,38 +276,27 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
 
   @Override
   public DataFetcher<Iterable<TripTimeOnDate>> stoptimesWithoutPatterns() {
-    return environment -> {
-      TransitService transitService = getTransitService(environment);
+    return LegacyGraphQLUtils.async(environment -> {
       var args = new LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs(
         environment.getArguments()
       );
-
-      Function<StopLocation, Stream<StopTimesInPattern>> stopTFunction = stop ->
-        transitService
-          .stopTimesForStop(
-            stop,
-            LegacyGraphQLUtils.getTimeOrNow(args.getLegacyGraphQLStartTime()),
-            Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
-            args.getLegacyGraphQLNumberOfDepartures(),
-            args.getLegacyGraphQLOmitNonPickups()
-              ? ArrivalDeparture.DEPARTURES
-              : ArrivalDeparture.BOTH,
-            !args.getLegacyGraphQLOmitCanceled()
-          )
-          .stream();
-
-      Stream<StopTimesInPattern> stream = getValue(
+      CompletableFuture<List<StopTimesInPattern>> stopTimes = getStopTimes(
         environment,
-        stopTFunction,
-        station -> station.getChildStops().stream().flatMap(stopTFunction)
+        getStopTimesQuery(args)
       );
+      if (stopTimes == null) {
+        return null;
+      }
 
-      return stream
-        .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
-        .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
-        .limit(args.getLegacyGraphQLNumberOfDepartures())
-        .collect(Collectors.toList());
-    };
+      return stopTimes.thenApply(stopTimesInPatterns ->
+        stopTimesInPatterns
+          .stream()
+          .flatMap(stoptimesWithPattern -> stoptimesWithPattern.times.stream())
+          .sorted(Comparator.comparing(t -> t.getServiceDayMidnight() + t.getRealtimeDeparture()))
+          .limit(args.getLegacyGraphQLNumberOfDepartures())
+          .collect(Collectors.toList())
+      );
+    });
   }
 
   @Override
@@ -486,6 +398,96 @@ public class LegacyGraphQLStopImpl implements LegacyGraphQLDataFetchers.LegacyGr
       getValue(environment, StopLocation::getFirstZoneAsString, station -> null);
   }
 
+  private Collection<TransitAlert> getAlerts(
+    DataFetchingEnvironment environment,
+    List<LegacyGraphQLStopAlertType> types,
+    FeedScopedId id,
+    List<StopEntityAlert> stopEntityAlerts
+  ) {
+    TransitAlertService alertService = getTransitService(environment).getTransitAlertService();
+    if (types == null) {
+      return alertService.getStopAlerts(id);
+    }
+    Collection<TransitAlert> alerts = new ArrayList<>();
+    if (types.contains(LegacyGraphQLStopAlertType.STOP)) {
+      alerts.addAll(alertService.getStopAlerts(id));
+    }
+    stopEntityAlerts
+      .stream()
+      .filter(it ->
+        (types.contains(LegacyGraphQLStopAlertType.STOP_ON_ROUTES) && it.onRoute()) ||
+        (types.contains(LegacyGraphQLStopAlertType.STOP_ON_TRIPS) && it.onTrip())
+      )
+      .forEach(it -> alerts.add(it.alert()));
+    if (
+      types.contains(LegacyGraphQLStopAlertType.PATTERNS) ||
+      types.contains(LegacyGraphQLStopAlertType.TRIPS)
+    ) {
+      getPatterns(environment)
+        .forEach(pattern -> {
+          if (types.contains(LegacyGraphQLStopAlertType.PATTERNS)) {
+            alerts.addAll(
+              alertService.getDirectionAndRouteAlerts(
+                pattern.getDirection(),
+                pattern.getRoute().getId()
+              )
+            );
+          }
+          if (types.contains(LegacyGraphQLStopAlertType.TRIPS)) {
+            pattern
+              .scheduledTripsAsStream()
+              .forEach(trip -> alerts.addAll(alertService.getTripAlerts(trip.getId(), null)));
+          }
+        });
+    }
+    if (
+      types.contains(LegacyGraphQLStopAlertType.ROUTES) ||
+      types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)
+    ) {
+      getRoutes(environment)
+        .forEach(route -> {
+          if (types.contains(LegacyGraphQLStopAlertType.ROUTES)) {
+            alerts.addAll(alertService.getRouteAlerts(route.getId()));
+          }
+          if (types.contains(LegacyGraphQLStopAlertType.AGENCIES_OF_ROUTES)) {
+            alerts.addAll(alertService.getAgencyAlerts(route.getAgency().getId()));
+          }
+        });
+    }
+    return alerts.stream().distinct().collect(Collectors.toList());
+  }
+
+  /**
+   * The stop times are loaded in batches, see {@link TransitDataLoaders}. For a station the stop
+   * times of all child stops are loaded.
+   */
+  private CompletableFuture<List<StopTimesInPattern>> getStopTimes(
+    DataFetchingEnvironment environment,
+    StopTimesQuery query
+  ) {
+    return getValue(
+      environment,
+      stop -> TransitDataLoaders.stopTimes(environment, stop, query),
+      station ->
+        TransitDataLoaders
+          .stopTimes(environment, station.getChildStops(), query)
+          .thenApply(it -> it.stream().flatMap(Collection::stream).toList())
+    );
+  }
+
+  private StopTimesQuery getStopTimesQuery(
+    LegacyGraphQLTypes.LegacyGraphQLStopStoptimesForPatternsArgs args
+  ) {
+    long startTime = args.getLegacyGraphQLStartTime();
+    return new StopTimesQuery(
+      startTime != 0 ? Instant.ofEpochSecond(startTime) : null,
+      Duration.ofSeconds(args.getLegacyGraphQLTimeRange()),
+      args.getLegacyGraphQLNumberOfDepartures(),
+      args.getLegacyGraphQLOmitNonPickups() ? ArrivalDeparture.DEPARTURES : ArrivalDeparture.BOTH,
+      !args.getLegacyGraphQLOmitCanceled()
+    );
+  }
+
   private Collection<TripPattern> getPatterns(DataFetchingEnvironment environment) {
     return getValue(
       environment,
@@ -3,6 +3,7 @@ package org.opentripplanner.ext.legacygraphqlapi.datafetchers;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.TimingOutput;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLDataFetchers;
 
 public class LegacyGraphQLdebugOutputImpl
@@ -30,6 +31,11 @@ public class LegacyGraphQLdebugOutputImpl
     return environment -> false;
   }
 
+  @Override
+  public DataFetcher<TimingOutput> timings() {
+    return environment -> getSource(environment).timings;
+  }
+
   @Override
   public DataFetcher<Long> totalTime() {
     return environment -> getSource(environment).totalTime / nanosToMillis;
@@ -9,6 +9,7 @@ import java.util.Map;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.TimingOutput;
 import org.opentripplanner.ext.fares.model.FareRuleSet;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLAbsoluteDirection;
 import org.opentripplanner.ext.legacygraphqlapi.generated.LegacyGraphQLTypes.LegacyGraphQLAlertCauseType;
@@ -615,6 +616,8 @@ public class LegacyGraphQLDataFetchers {
 
     public DataFetcher<Iterable<VehicleParking>> vehicleParkings();
 
+    public DataFetcher<Iterable<RealtimeVehiclePosition>> vehiclePositionsByBbox();
+
     public DataFetcher<VehicleRentalStation> vehicleRentalStation();
 
     public DataFetcher<Iterable<VehicleRentalStation>> vehicleRentalStations();
@@ -1054,9 +1057,20 @@ public class LegacyGraphQLDataFetchers {
 
     public DataFetcher<Boolean> timedOut();
 
+    public DataFetcher<TimingOutput> timings();
+
     public DataFetcher<Long> totalTime();
   }
 
+  /** The time taken by a step of the routing, and by the parts of the step */
+  public interface LegacyGraphQLDebugTiming {
+    public DataFetcher<Iterable<TimingOutput>> children();
+
+    public DataFetcher<String> name();
+
+    public DataFetcher<Long> time();
+  }
+
   public interface LegacyGraphQLElevationProfileComponent {
     public DataFetcher<Double> distance();
 
@@ -2635,6 +2635,65 @@ public class LegacyGraphQLTypes {
     }
   }
 
+  public static class LegacyGraphQLQueryTypeVehiclePositionsByBboxArgs {
+
+    private List<String> feeds;
+    private Double maxLat;
+    private Double maxLon;
+    private Double minLat;
+    private Double minLon;
+
+    public LegacyGraphQLQueryTypeVehiclePositionsByBboxArgs(Map<String, Object> args) {
+      if (args != null) {
+        this.feeds = (List<String>) args.get("feeds");
+        this.maxLat = (Double) args.get("maxLat");
+        this.maxLon = (Double) args.get("maxLon");
+        this.minLat = (Double) args.get("minLat");
+        this.minLon = (Double) args.get("minLon");
+      }
+    }
+
+    public List<String> getLegacyGraphQLFeeds() {
+      return this.feeds;
+    }
+
+    public Double getLegacyGraphQLMaxLat() {
+      return this.maxLat;
+    }
+
+    public Double getLegacyGraphQLMaxLon() {
+      return this.maxLon;
+    }
+
+    public Double getLegacyGraphQLMinLat() {
+      return this.minLat;
+    }
+
+    public Double getLegacyGraphQLMinLon() {
+      return this.minLon;
+    }
+
+    public void setLegacyGraphQLFeeds(List<String> feeds) {
+      this.feeds = feeds;
+    }
+
+    public void setLegacyGraphQLMaxLat(Double maxLat) {
+      this.maxLat = maxLat;
+    }
+
+    public void setLegacyGraphQLMaxLon(Double maxLon) {
+      this.maxLon = maxLon;
+    }
+
+    public void setLegacyGraphQLMinLat(Double minLat) {
+      this.minLat = minLat;
+    }
+
+    public void setLegacyGraphQLMinLon(Double minLon) {
+      this.minLon = minLon;
+    }
+  }
+
   public static class LegacyGraphQLQueryTypeVehicleRentalStationArgs {
 
     private String id;
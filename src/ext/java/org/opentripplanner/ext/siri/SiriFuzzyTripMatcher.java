@@ -129,17 +129,20 @@ public class SiriFuzzyTripMatcher {
         trips = getMatchingTripsOnStopOrSiblings(lastStopPoint, arrivalTime, entityResolver);
       }
     }
+    Route route = journey.getLineRef() != null
+      ? entityResolver.resolveRoute(journey.getLineRef().getValue())
+      : null;
+
+    if ((trips == null || trips.isEmpty()) && route != null) {
+      trips = getMatchingTripsOnRouteAndStartTime(route, calls.get(0));
+    }
     if (trips == null || trips.isEmpty()) {
       return null;
     }
 
-    if (journey.getLineRef() != null) {
-      var lineRef = journey.getLineRef().getValue();
-      Route route = entityResolver.resolveRoute(lineRef);
-      if (route != null) {
-        trips =
-          trips.stream().filter(trip -> trip.getRoute().equals(route)).collect(Collectors.toSet());
-      }
+    if (route != null) {
+      trips =
+        trips.stream().filter(trip -> trip.getRoute().equals(route)).collect(Collectors.toSet());
     }
 
     return getTripAndPatternForJourney(
@@ -259,6 +262,25 @@ public class SiriFuzzyTripMatcher {
     return trips;
   }
 
+  /**
+   * Find the scheduled trips on the route departing from the first stop at the aimed departure
+   * time of the first call. This is used if the last stop of the journey can not be matched.
+   */
+  private Set<Trip> getMatchingTripsOnRouteAndStartTime(Route route, CallWrapper firstCall) {
+    ZonedDateTime departureTime = firstCall.getAimedDepartureTime();
+    if (departureTime == null) {
+      return Set.of();
+    }
+    int secondsSinceMidnight = ServiceDateUtils.secondsSinceStartOfService(
+      departureTime,
+      departureTime,
+      transitService.getTimeZone()
+    );
+    return new HashSet<>(
+      transitService.getTripStartTimeIndex().getTrips(route, secondsSinceMidnight)
+    );
+  }
+
   private Set<Trip> getCachedTripsByInternalPlanningCode(String internalPlanningCode) {
     if (internalPlanningCode == null) {
       return null;
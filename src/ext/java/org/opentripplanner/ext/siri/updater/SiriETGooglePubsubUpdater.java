@@ -34,6 +34,7 @@ import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.transit.service.TransitService;
 import org.opentripplanner.updater.GraphUpdater;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.UpdateResult;
 import org.opentripplanner.updater.WriteToGraphCallback;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
@@ -166,6 +167,11 @@ public class SiriETGooglePubsubUpdater implements GraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   @Override
   public void run() throws IOException {
     if (subscriptionAdminClient == null) {
@@ -26,6 +26,7 @@ import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.framework.io.HttpUtils;
 import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.UpdateResult;
 import org.opentripplanner.updater.trip.metrics.TripUpdateMetrics;
 import org.rutebanken.siri20.util.SiriXml;
@@ -57,6 +58,11 @@ public class SiriAzureETUpdater extends AbstractAzureSiriUpdater {
     this.recordMetrics = TripUpdateMetrics.streaming(config);
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   @Override
   protected void messageConsumer(ServiceBusReceivedMessageContext messageContext) {
     var message = messageContext.getMessage();
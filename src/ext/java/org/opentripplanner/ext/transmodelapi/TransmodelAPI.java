@@ -29,6 +29,7 @@ import java.util.stream.Collectors;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
 import org.opentripplanner.ext.transmodelapi.mapping.TransitIdMapper;
 import org.opentripplanner.ext.transmodelapi.support.GqlUtil;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.transit.service.TransitModel;
@@ -46,6 +47,7 @@ public class TransmodelAPI {
   private static final Logger LOG = LoggerFactory.getLogger(TransmodelAPI.class);
 
   private static GraphQLSchema schema;
+  private static PreparsedDocumentCache documentCache;
   private static Collection<String> tracingHeaderTags;
 
   private final OtpServerRequestContext serverContext;
@@ -61,7 +63,7 @@ public class TransmodelAPI {
     @Deprecated @PathParam("ignoreRouterId") String ignoreRouterId
   ) {
     this.serverContext = serverContext;
-    this.index = new TransmodelGraph(schema);
+    this.index = new TransmodelGraph(schema, documentCache);
   }
 
   /**
@@ -80,6 +82,7 @@ public class TransmodelAPI {
     tracingHeaderTags = config.tracingHeaderTags();
     GqlUtil gqlUtil = new GqlUtil(transitModel.getTimeZone());
     schema = TransmodelGraphQLSchema.create(defaultRouteRequest, gqlUtil);
+    documentCache = new PreparsedDocumentCache();
   }
 
   /**
@@ -99,12 +102,19 @@ public class TransmodelAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Map<String, Object> extensions = getExtensions(queryParameters);
+    if (
+      queryParameters == null ||
+      !(
+        queryParameters.containsKey("query") ||
+        PreparsedDocumentCache.hasPersistedQuery(extensions)
+      )
+    ) {
       LOG.debug("No query found in body");
       throw new BadRequestException("No query found in body");
     }
 
-    String query = (String) queryParameters.get("query");
+    String query = (String) queryParameters.getOrDefault("query", "");
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -123,6 +133,7 @@ public class TransmodelAPI {
       query,
       serverContext,
       variables,
+      extensions,
       operationName,
       maxResolves,
       getTagsFromHeaders(headers)
@@ -142,6 +153,7 @@ public class TransmodelAPI {
       serverContext,
       null,
       null,
+      null,
       maxResolves,
       getTagsFromHeaders(headers)
     );
@@ -174,12 +186,14 @@ public class TransmodelAPI {
         variables = null;
       }
       String operationName = (String) query.getOrDefault("operationName", null);
+      Map<String, Object> extensions = getExtensions(query);
 
       futures.add(() ->
         index.getGraphQLExecutionResult(
-          (String) query.get("query"),
+          (String) query.getOrDefault("query", ""),
           serverContext,
           variables,
+          extensions,
           operationName,
           maxResolves,
           getTagsFromHeaders(headers)
@@ -188,7 +202,7 @@ public class TransmodelAPI {
     }
 
     try {
-      List<Future<ExecutionResult>> results = index.threadPool.invokeAll(futures);
+      List<Future<ExecutionResult>> results = TransmodelGraph.batchExecutor.invokeAll(futures);
       return Response
         .status(Response.Status.OK)
         .entity(GraphQLResponseSerializer.serializeBatch(queries, results))
@@ -208,4 +222,11 @@ public class TransmodelAPI {
       })
       .collect(Collectors.toList());
   }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> getExtensions(Map<String, Object> queryParameters) {
+    return queryParameters != null && queryParameters.get("extensions") instanceof Map
+      ? (Map<String, Object>) queryParameters.get("extensions")
+      : null;
+  }
 }
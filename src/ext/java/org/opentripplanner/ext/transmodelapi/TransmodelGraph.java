@@ -1,6 +1,5 @@
 package org.opentripplanner.ext.transmodelapi;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
@@ -14,10 +13,12 @@ import jakarta.ws.rs.core.Response;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import org.opentripplanner.api.dataloader.TransitDataLoaders;
 import org.opentripplanner.api.json.GraphQLResponseSerializer;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.RequestExecutors;
+import org.opentripplanner.framework.graphql.PreparsedDocumentCache;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,20 +29,24 @@ class TransmodelGraph {
 
   private final GraphQLSchema indexSchema;
 
-  final ExecutorService threadPool;
+  private final PreparsedDocumentCache documentCache;
 
-  TransmodelGraph(GraphQLSchema schema) {
-    this.threadPool =
-      Executors.newCachedThreadPool(
-        new ThreadFactoryBuilder().setNameFormat("GraphQLExecutor-%d").build()
-      );
+  /** Runs the queries of a batch request in parallel, shared by all requests. */
+  static final ExecutorService batchExecutor = RequestExecutors.create(
+    "transmodelGraphQLBatch",
+    RequestExecutors.defaultMaxConcurrency()
+  );
+
+  TransmodelGraph(GraphQLSchema schema, PreparsedDocumentCache documentCache) {
     this.indexSchema = schema;
+    this.documentCache = documentCache;
   }
 
   ExecutionResult getGraphQLExecutionResult(
     String query,
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     Iterable<Tag> tracingTags
@@ -55,7 +60,11 @@ class TransmodelGraph {
         );
     }
 
-    GraphQL graphQL = GraphQL.newGraphQL(indexSchema).instrumentation(instrumentation).build();
+    GraphQL graphQL = GraphQL
+      .newGraphQL(indexSchema)
+      .instrumentation(instrumentation)
+      .preparsedDocumentProvider(documentCache)
+      .build();
 
     if (variables == null) {
       variables = new HashMap<>();
@@ -70,8 +79,15 @@ class TransmodelGraph {
     ExecutionInput executionInput = ExecutionInput
       .newExecutionInput()
       .query(query)
+      .extensions(extensions == null ? Map.of() : extensions)
       .operationName(operationName)
       .context(transmodelRequestContext)
+      .dataLoaderRegistry(
+        TransitDataLoaders.createRegistry(
+          transmodelRequestContext.getTransitService(),
+          Metrics.globalRegistry
+        )
+      )
       .root(serverContext)
       .variables(variables)
       .build();
@@ -82,6 +98,7 @@ class TransmodelGraph {
     String query,
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
+    Map<String, Object> extensions,
     String operationName,
     int maxResolves,
     Iterable<Tag> tracingTags
@@ -90,6 +107,7 @@ class TransmodelGraph {
       query,
       serverContext,
       variables,
+      extensions,
       operationName,
       maxResolves,
       tracingTags
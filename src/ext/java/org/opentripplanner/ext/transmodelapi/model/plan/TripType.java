@@ -7,6 +7,7 @@ import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLTypeReference;
 import java.util.stream.Collectors;
 import org.opentripplanner.api.mapping.PlannerErrorMapper;
 import org.opentripplanner.ext.transmodelapi.model.PlanResponse;
@@ -16,6 +17,8 @@ import org.opentripplanner.model.plan.pagecursor.PageCursor;
 
 public class TripType {
 
+  private static final String DEBUG_TIMING = "DebugTiming";
+
   public static GraphQLObjectType create(
     GraphQLObjectType placeType,
     GraphQLObjectType tripPatternType,
@@ -131,6 +134,16 @@ public class TripType {
                     .type(ExtendedScalars.GraphQLLong)
                     .build()
                 )
+                .field(
+                  GraphQLFieldDefinition
+                    .newFieldDefinition()
+                    .name("timings")
+                    .description(
+                      "The timings of the steps of the routing, the root is the request total"
+                    )
+                    .type(debugTimingType())
+                    .build()
+                )
                 .build()
             )
           )
@@ -173,4 +186,40 @@ public class TripType {
       )
       .build();
   }
+
+  private static GraphQLObjectType debugTimingType() {
+    return GraphQLObjectType
+      .newObject()
+      .name(DEBUG_TIMING)
+      .description("The time taken by a step of the routing, and by the parts of the step")
+      .field(
+        GraphQLFieldDefinition
+          .newFieldDefinition()
+          .name("name")
+          .description("The name of the routing step")
+          .type(new GraphQLNonNull(Scalars.GraphQLString))
+          .build()
+      )
+      .field(
+        GraphQLFieldDefinition
+          .newFieldDefinition()
+          .name("time")
+          .description("The time taken by the routing step, in nanoseconds")
+          .type(new GraphQLNonNull(ExtendedScalars.GraphQLLong))
+          .build()
+      )
+      .field(
+        GraphQLFieldDefinition
+          .newFieldDefinition()
+          .name("children")
+          .description("The timings of the parts of the routing step")
+          .type(
+            new GraphQLNonNull(
+              new GraphQLList(new GraphQLNonNull(new GraphQLTypeReference(DEBUG_TIMING)))
+            )
+          )
+          .build()
+      )
+      .build();
+  }
 }
@@ -19,6 +19,8 @@ import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.opentripplanner.api.dataloader.TransitDataLoaders;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopTimesQuery;
 import org.opentripplanner.ext.transmodelapi.model.EnumTypes;
 import org.opentripplanner.ext.transmodelapi.model.plan.JourneyWhiteListed;
 import org.opentripplanner.ext.transmodelapi.model.scalars.GeoJSONCoordinatesScalar;
@@ -312,26 +314,32 @@ public class QuayType {
 
             Instant startTime = environment.containsArgument("startTime")
               ? Instant.ofEpochMilli(environment.getArgument("startTime"))
-              : Instant.now();
+              : null;
 
-            return StopPlaceType
-              .getTripTimesForStop(
-                stop,
-                startTime,
-                timeRange,
-                arrivalDeparture,
-                includeCancelledTrips,
-                numberOfDepartures,
-                departuresPerLineAndDestinationDisplay,
-                whiteListed.authorityIds,
-                whiteListed.lineIds,
-                transitModes,
-                environment
-              )
-              .sorted(TripTimeOnDate.compareByDeparture())
-              .distinct()
-              .limit(numberOfDepartures)
-              .collect(Collectors.toList());
+            var query = new StopTimesQuery(
+              startTime,
+              timeRange,
+              numberOfDepartures,
+              arrivalDeparture,
+              includeCancelledTrips
+            );
+
+            return TransitDataLoaders
+              .stopTimes(environment, stop, query)
+              .thenApply(stopTimes ->
+                StopPlaceType
+                  .getTripTimesForStop(
+                    stopTimes,
+                    departuresPerLineAndDestinationDisplay,
+                    whiteListed.authorityIds,
+                    whiteListed.lineIds,
+                    transitModes
+                  )
+                  .sorted(TripTimeOnDate.compareByDeparture())
+                  .distinct()
+                  .limit(numberOfDepartures)
+                  .collect(Collectors.toList())
+              );
           })
           .build()
       )
@@ -28,6 +28,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.api.dataloader.TransitDataLoaders;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopTimesQuery;
 import org.opentripplanner.ext.transmodelapi.mapping.TransitIdMapper;
 import org.opentripplanner.ext.transmodelapi.model.EnumTypes;
 import org.opentripplanner.ext.transmodelapi.model.TransmodelTransportSubmode;
@@ -357,35 +359,40 @@ public class StopPlaceType {
 
             Instant startTime = environment.containsArgument("startTime")
               ? Instant.ofEpochMilli(environment.getArgument("startTime"))
-              : Instant.now();
+              : null;
+
+            var query = new StopTimesQuery(
+              startTime,
+              timeRage,
+              numberOfDepartures,
+              arrivalDeparture,
+              includeCancelledTrips
+            );
 
-            Stream<TripTimeOnDate> tripTimeOnDateStream = monoOrMultiModalStation
-              .getChildStops()
-              .stream()
-              .flatMap(singleStop ->
-                getTripTimesForStop(
-                  singleStop,
-                  startTime,
-                  timeRage,
-                  arrivalDeparture,
-                  includeCancelledTrips,
-                  numberOfDepartures,
-                  departuresPerLineAndDestinationDisplay,
-                  whiteListed.authorityIds,
-                  whiteListed.lineIds,
-                  transitModes,
-                  environment
+            return TransitDataLoaders
+              .stopTimes(environment, monoOrMultiModalStation.getChildStops(), query)
+              .thenApply(stopTimesPerStop -> {
+                Stream<TripTimeOnDate> tripTimeOnDateStream = stopTimesPerStop
+                  .stream()
+                  .flatMap(stopTimes ->
+                    getTripTimesForStop(
+                      stopTimes,
+                      departuresPerLineAndDestinationDisplay,
+                      whiteListed.authorityIds,
+                      whiteListed.lineIds,
+                      transitModes
+                    )
+                  );
+
+                return limitPerLineAndDestinationDisplay(
+                  tripTimeOnDateStream,
+                  departuresPerLineAndDestinationDisplay
                 )
-              );
-
-            return limitPerLineAndDestinationDisplay(
-              tripTimeOnDateStream,
-              departuresPerLineAndDestinationDisplay
-            )
-              .sorted(TripTimeOnDate.compareByDeparture())
-              .distinct()
-              .limit(numberOfDepartures)
-              .collect(Collectors.toList());
+                  .sorted(TripTimeOnDate.compareByDeparture())
+                  .distinct()
+                  .limit(numberOfDepartures)
+                  .collect(Collectors.toList());
+              });
           })
           .build()
       )
@@ -408,30 +415,17 @@ public class StopPlaceType {
       .build();
   }
 
+  /**
+   * Filter the stop times of a stop, loaded with {@link TransitDataLoaders#stopTimes}, by mode,
+   * authority and line, and limit them per line and destination display.
+   */
   public static Stream<TripTimeOnDate> getTripTimesForStop(
-    StopLocation stop,
-    Instant startTimeSeconds,
-    Duration timeRage,
-    ArrivalDeparture arrivalDeparture,
-    boolean includeCancelledTrips,
-    int numberOfDepartures,
+    List<StopTimesInPattern> stopTimesInPatterns,
     Integer departuresPerLineAndDestinationDisplay,
     Collection<FeedScopedId> authorityIdsWhiteListed,
     Collection<FeedScopedId> lineIdsWhiteListed,
-    Collection<TransitMode> transitModes,
-    DataFetchingEnvironment environment
+    Collection<TransitMode> transitModes
   ) {
-    TransitService transitService = GqlUtil.getTransitService(environment);
-
-    List<StopTimesInPattern> stopTimesInPatterns = transitService.stopTimesForStop(
-      stop,
-      startTimeSeconds,
-      timeRage,
-      numberOfDepartures,
-      arrivalDeparture,
-      includeCancelledTrips
-    );
-
     Stream<StopTimesInPattern> stopTimesStream = stopTimesInPatterns.stream();
 
     if (transitModes != null && !transitModes.isEmpty()) {
@@ -0,0 +1,76 @@
+package org.opentripplanner.api.common;
+
+import jakarta.ws.rs.container.AsyncResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import org.glassfish.grizzly.CloseListener;
+import org.glassfish.grizzly.Closeable;
+import org.glassfish.grizzly.Connection;
+import org.glassfish.grizzly.ICloseType;
+import org.glassfish.grizzly.http.server.Request;
+import org.opentripplanner.framework.application.CancellationToken;
+import org.opentripplanner.framework.concurrent.RequestExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handle the requests that route, like the REST plan endpoint and the GraphQL queries,
+ * asynchronously. The request is handled in a separate executor, so the HTTP handler thread is
+ * free to handle other requests while the routing runs. The executor handles at most
+ * {@link RequestExecutors#maxRequestConcurrency()} requests at the same time, the same limit as
+ * when the requests were handled in the HTTP handler threads.
+ * <p>
+ * The cancellation token of the request is cancelled if the client disconnects, so the routing
+ * stops and requests waiting in line are skipped.
+ */
+public class AsyncRoutingRequests {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncRoutingRequests.class);
+
+  private AsyncRoutingRequests() {}
+
+  /**
+   * Handle the request in the routing executor, and resume the response with the result. If the
+   * handler throws, the response is resumed with the exception, so the client always gets a
+   * response.
+   * <p>
+   * Read all that is needed from the HTTP request before calling this, the request objects are
+   * not safe to use in the thread handling the request.
+   */
+  public static void handle(
+    Request grizzlyRequest,
+    CancellationToken cancellationToken,
+    AsyncResponse asyncResponse,
+    Supplier<?> handler
+  ) {
+    Connection<?> connection = grizzlyRequest.getContext().getConnection();
+    CloseListener<Closeable, ICloseType> closeListener = (closeable, type) -> {
+      cancellationToken.cancel();
+    };
+    connection.addCloseListener(closeListener);
+
+    Executor.INSTANCE.execute(() -> {
+      try {
+        asyncResponse.resume(handler.get());
+      } catch (Throwable e) {
+        LOG.error("System error", e);
+        asyncResponse.resume(e);
+      } finally {
+        // The connection is kept alive for the next request, which should not cancel this one
+        connection.removeCloseListener(closeListener);
+      }
+    });
+  }
+
+  /**
+   * The executor is created when the first request is handled, after the server has set the
+   * number of requests handled at the same time.
+   */
+  private static class Executor {
+
+    private static final ExecutorService INSTANCE = RequestExecutors.create(
+      "routingRequests",
+      RequestExecutors.maxRequestConcurrency()
+    );
+  }
+}
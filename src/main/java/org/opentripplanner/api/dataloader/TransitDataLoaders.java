@@ -0,0 +1,252 @@
+package org.opentripplanner.api.dataloader;
+
+import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.MappedBatchLoader;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Data loaders shared by the GraphQL APIs. A query for a list of stops resolves the fields of each
+ * stop one at a time, so a departure board for 50 stops would do 50 stop times searches. The data
+ * loaders collect the keys requested by all the stops on the same level of the query, and load
+ * them in one batch when graphql-java dispatches the registry.
+ * <p>
+ * A new registry must be created for each request, with {@link #createRegistry}, and set on the
+ * {@link graphql.ExecutionInput}. The loaders cache the loaded values by key for the lifetime of
+ * the registry, so the same stop is only looked up once per request.
+ * <p>
+ * The time and size of each batch are recorded with Micrometer, using the
+ * {@code graphql.dataloader.batch} timer and the {@code graphql.dataloader.batch.size} summary,
+ * tagged with the name of the loader.
+ */
+public class TransitDataLoaders {
+
+  private static final String STOP_TIMES = "stopTimes";
+  private static final String PATTERNS_FOR_STOP = "patternsForStop";
+  private static final String STOP_ENTITY_ALERTS = "stopEntityAlerts";
+
+  private static final String BATCH_TIME_METRIC_NAME = "graphql.dataloader.batch";
+  private static final String BATCH_SIZE_METRIC_NAME = "graphql.dataloader.batch.size";
+  private static final String LOADER = "loader";
+
+  private final TransitService transitService;
+  private final MeterRegistry meterRegistry;
+
+  private TransitDataLoaders(TransitService transitService, MeterRegistry meterRegistry) {
+    this.transitService = transitService;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static DataLoaderRegistry createRegistry(
+    TransitService transitService,
+    MeterRegistry meterRegistry
+  ) {
+    var loaders = new TransitDataLoaders(transitService, meterRegistry);
+    var registry = new DataLoaderRegistry();
+    registry.register(STOP_TIMES, loaders.create(STOP_TIMES, loaders::loadStopTimes));
+    registry.register(
+      PATTERNS_FOR_STOP,
+      loaders.create(PATTERNS_FOR_STOP, loaders::loadPatternsForStops)
+    );
+    registry.register(
+      STOP_ENTITY_ALERTS,
+      loaders.create(STOP_ENTITY_ALERTS, loaders::loadStopEntityAlerts)
+    );
+    return registry;
+  }
+
+  /**
+   * The upcoming stop times of a stop, see {@link TransitService#stopTimesForStop}.
+   */
+  public static CompletableFuture<List<StopTimesInPattern>> stopTimes(
+    DataFetchingEnvironment environment,
+    StopLocation stop,
+    StopTimesQuery query
+  ) {
+    return environment
+      .<StopTimesKey, List<StopTimesInPattern>>getDataLoader(STOP_TIMES)
+      .load(new StopTimesKey(stop, query));
+  }
+
+  /**
+   * The upcoming stop times of several stops, for example the quays of a station, in the order of
+   * the stops.
+   */
+  public static CompletableFuture<List<List<StopTimesInPattern>>> stopTimes(
+    DataFetchingEnvironment environment,
+    Collection<? extends StopLocation> stops,
+    StopTimesQuery query
+  ) {
+    List<StopTimesKey> keys = stops.stream().map(it -> new StopTimesKey(it, query)).toList();
+    return environment
+      .<StopTimesKey, List<StopTimesInPattern>>getDataLoader(STOP_TIMES)
+      .loadMany(keys);
+  }
+
+  /**
+   * All patterns visiting a stop, including the patterns added by realtime updates.
+   */
+  public static CompletableFuture<Collection<TripPattern>> patternsForStop(
+    DataFetchingEnvironment environment,
+    StopLocation stop
+  ) {
+    return environment
+      .<StopLocation, Collection<TripPattern>>getDataLoader(PATTERNS_FOR_STOP)
+      .load(stop);
+  }
+
+  /**
+   * The alerts with a {@link EntitySelector.StopAndRoute} or {@link EntitySelector.StopAndTrip}
+   * entity for a stop, in the order they are returned by the alert service. The alert service does
+   * not index these entities by stop, so finding them means going through all alerts. Doing this
+   * once for all stops in a batch, instead of once per stop, is the main gain of batching the
+   * alerts.
+   */
+  public static CompletableFuture<List<StopEntityAlert>> stopEntityAlerts(
+    DataFetchingEnvironment environment,
+    FeedScopedId stopId
+  ) {
+    return environment
+      .<FeedScopedId, List<StopEntityAlert>>getDataLoader(STOP_ENTITY_ALERTS)
+      .load(stopId);
+  }
+
+  private Map<StopTimesKey, List<StopTimesInPattern>> loadStopTimes(Set<StopTimesKey> keys) {
+    // A missing start time means now, resolve it once so all stops in the batch use the same time
+    Instant now = Instant.now();
+    Map<StopTimesQuery, List<StopLocation>> stopsByQuery = keys
+      .stream()
+      .collect(
+        Collectors.groupingBy(
+          StopTimesKey::query,
+          Collectors.mapping(StopTimesKey::stop, Collectors.toList())
+        )
+      );
+
+    Map<StopTimesKey, List<StopTimesInPattern>> result = new HashMap<>();
+    stopsByQuery.forEach((query, stops) ->
+      transitService
+        .stopTimesForStops(
+          stops,
+          query.startTime() == null ? now : query.startTime(),
+          query.timeRange(),
+          query.numberOfDepartures(),
+          query.arrivalDeparture(),
+          query.includeCancelledTrips()
+        )
+        .forEach((stop, stopTimes) -> result.put(new StopTimesKey(stop, query), stopTimes))
+    );
+    return result;
+  }
+
+  private Map<StopLocation, Collection<TripPattern>> loadPatternsForStops(Set<StopLocation> stops) {
+    Map<StopLocation, Collection<TripPattern>> result = new HashMap<>();
+    for (StopLocation stop : stops) {
+      result.put(stop, transitService.getPatternsForStop(stop, true));
+    }
+    return result;
+  }
+
+  private Map<FeedScopedId, List<StopEntityAlert>> loadStopEntityAlerts(Set<FeedScopedId> stopIds) {
+    Map<FeedScopedId, Map<TransitAlert, StopEntityAlert>> alertsByStop = new HashMap<>();
+    for (TransitAlert alert : transitService.getTransitAlertService().getAllAlerts()) {
+      for (EntitySelector entity : alert.entities()) {
+        if (entity instanceof EntitySelector.StopAndRoute stopAndRoute) {
+          addStopEntityAlert(alertsByStop, stopIds, stopAndRoute.stopId(), alert, true, false);
+        } else if (entity instanceof EntitySelector.StopAndTrip stopAndTrip) {
+          addStopEntityAlert(alertsByStop, stopIds, stopAndTrip.stopId(), alert, false, true);
+        }
+      }
+    }
+    Map<FeedScopedId, List<StopEntityAlert>> result = new HashMap<>();
+    alertsByStop.forEach((stopId, alerts) -> result.put(stopId, List.copyOf(alerts.values())));
+    for (FeedScopedId stopId : stopIds) {
+      result.putIfAbsent(stopId, List.of());
+    }
+    return result;
+  }
+
+  private static void addStopEntityAlert(
+    Map<FeedScopedId, Map<TransitAlert, StopEntityAlert>> alertsByStop,
+    Set<FeedScopedId> stopIds,
+    FeedScopedId stopId,
+    TransitAlert alert,
+    boolean onRoute,
+    boolean onTrip
+  ) {
+    if (!stopIds.contains(stopId)) {
+      return;
+    }
+    alertsByStop
+      .computeIfAbsent(stopId, it -> new LinkedHashMap<>())
+      .merge(
+        alert,
+        new StopEntityAlert(alert, onRoute, onTrip),
+        (a, b) -> new StopEntityAlert(alert, a.onRoute() || b.onRoute(), a.onTrip() || b.onTrip())
+      );
+  }
+
+  private <K, V> DataLoader<K, V> create(String name, Function<Set<K>, Map<K, V>> loader) {
+    Timer timer = Timer.builder(BATCH_TIME_METRIC_NAME).tag(LOADER, name).register(meterRegistry);
+    DistributionSummary batchSize = DistributionSummary
+      .builder(BATCH_SIZE_METRIC_NAME)
+      .tag(LOADER, name)
+      .register(meterRegistry);
+
+    MappedBatchLoader<K, V> batchLoader = keys -> {
+      batchSize.record(keys.size());
+      return CompletableFuture.completedFuture(timer.record(() -> loader.apply(keys)));
+    };
+    return DataLoaderFactory.newMappedDataLoader(batchLoader);
+  }
+
+  /**
+   * The parameters of a stop times search, see {@link TransitService#stopTimesForStop}. Searches
+   * with equal parameters are batched together.
+   *
+   * @param startTime the start of the search, or {@code null} for now. Using {@code null} instead
+   *                  of {@link Instant#now()} in the resolvers lets the searches for all the stops
+   *                  of a query be batched, as they would otherwise differ by a few milliseconds.
+   */
+  public record StopTimesQuery(
+    @Nullable Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {}
+
+  /**
+   * An alert with a stop on route or stop on trip entity for a stop.
+   *
+   * @param onRoute if the alert has a {@link EntitySelector.StopAndRoute} entity for the stop
+   * @param onTrip  if the alert has a {@link EntitySelector.StopAndTrip} entity for the stop
+   */
+  public record StopEntityAlert(TransitAlert alert, boolean onRoute, boolean onTrip) {}
+
+  private record StopTimesKey(StopLocation stop, StopTimesQuery query) {}
+}
@@ -44,6 +44,12 @@ public class DebugOutput {
    */
   public final TransitTimingOutput transitRouterTimes;
 
+  /**
+   * The timings of all steps of the request as a tree, the root is the request total. Steps which
+   * did not run, like direct flex routing when flex is off, are left out.
+   */
+  public final TimingOutput timings;
+
   public DebugOutput(
     long precalculationTime,
     long directStreetRouterTime,
@@ -51,7 +57,8 @@ public class DebugOutput {
     long filteringTime,
     long renderingTime,
     long totalTime,
-    TransitTimingOutput transitRouterTimes
+    TransitTimingOutput transitRouterTimes,
+    TimingOutput timings
   ) {
     this.precalculationTime = precalculationTime;
     this.directStreetRouterTime = directStreetRouterTime;
@@ -60,5 +67,6 @@ public class DebugOutput {
     this.renderingTime = renderingTime;
     this.totalTime = totalTime;
     this.transitRouterTimes = transitRouterTimes;
+    this.timings = timings;
   }
 }
@@ -1,21 +1,30 @@
 package org.opentripplanner.api.resource;
 
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.CancellationException;
 import org.glassfish.grizzly.http.server.Request;
+import org.opentripplanner.api.common.AsyncRoutingRequests;
 import org.opentripplanner.api.common.Message;
 import org.opentripplanner.api.common.RoutingResource;
 import org.opentripplanner.api.mapping.PlannerErrorMapper;
 import org.opentripplanner.api.mapping.TripPlanMapper;
 import org.opentripplanner.api.mapping.TripSearchMetadataMapper;
 import org.opentripplanner.api.model.error.PlannerError;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.response.RoutingResponse;
@@ -30,6 +39,10 @@ import org.slf4j.LoggerFactory;
  * allows multiple web services to have the same set of query parameters. In order for inheritance
  * to work, the REST resources are request-scoped (constructed at each request) rather than
  * singleton-scoped (a single instance existing for the lifetime of the OTP server).
+ * <p>
+ * The plan requests are routed asynchronously, see {@link AsyncRoutingRequests}. The routing is
+ * cancelled if the client disconnects, or if the optional {@code OTPTimeout} header, in
+ * milliseconds, is set and the deadline has passed.
  */
 @Path("routers/{ignoreRouterId}/plan")
 // final element needed here rather than on method to distinguish from routers API
@@ -50,7 +63,33 @@ public class PlannerResource extends RoutingResource {
   // Jersey uses @Context to inject internal types and @InjectParam or @Resource for DI objects.
   @GET
   @Produces(MediaType.APPLICATION_JSON)
-  public TripPlannerResponse plan(@Context UriInfo uriInfo, @Context Request grizzlyRequest) {
+  public void plan(
+    @Context UriInfo uriInfo,
+    @Context Request grizzlyRequest,
+    @HeaderParam("OTPTimeout") @DefaultValue("0") int timeout,
+    @Suspended AsyncResponse asyncResponse
+  ) {
+    // Read all we need from the HTTP request in this thread, the request objects are not safe to
+    // use in the thread routing the request.
+    TripPlannerResponse response = new TripPlannerResponse(uriInfo);
+    MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
+    String clientIpAddress = grizzlyRequest.getRemoteAddr();
+
+    var cancellationToken = CancellationToken.withTimeout(Duration.ofMillis(timeout));
+    AsyncRoutingRequests.handle(
+      grizzlyRequest,
+      cancellationToken,
+      asyncResponse,
+      () -> plan(response, queryParameters, clientIpAddress, cancellationToken)
+    );
+  }
+
+  private TripPlannerResponse plan(
+    TripPlannerResponse response,
+    MultivaluedMap<String, String> queryParameters,
+    String clientIpAddress,
+    CancellationToken cancellationToken
+  ) {
     /*
      * TODO: add Lang / Locale parameter, and thus get localized content (Messages & more...)
      * TODO: from/to inputs should be converted / geocoded / etc... here, and maybe send coords
@@ -59,13 +98,15 @@ public class PlannerResource extends RoutingResource {
      *       out so it's used here too...
      */
 
-    // Create response object, containing a copy of all request parameters. Maybe they should be in the debug section of the response.
-    TripPlannerResponse response = new TripPlannerResponse(uriInfo);
     RouteRequest request = null;
     RoutingResponse res = null;
     try {
+      // Skip the request if the client is gone while it waited in line
+      cancellationToken.throwIfCancelled();
+
       /* Fill in request fields from query parameters via shared superclass method, catching any errors. */
-      request = super.buildRequest(uriInfo.getQueryParameters());
+      request = super.buildRequest(queryParameters);
+      request.setCancellationToken(cancellationToken);
 
       // Route
       res = serverContext.routingService().route(request);
@@ -93,6 +134,10 @@ public class PlannerResource extends RoutingResource {
       response.elevationMetadata.geoidElevation = request.preferences().system().geoidElevation();
 
       response.debugOutput = res.getDebugTimingAggregator().finishedRendering();
+    } catch (CancellationException e) {
+      // If the client is gone nobody reads the response, so this is only seen after a timeout
+      LOG.debug("Request cancelled: {}", e.getMessage());
+      response.setError(new PlannerError(Message.REQUEST_TIMEOUT));
     } catch (Exception e) {
       LOG.error("System error", e);
       PlannerError error = new PlannerError(Message.SYSTEM_ERROR);
@@ -100,20 +145,19 @@ public class PlannerResource extends RoutingResource {
     }
 
     /* Log this request if such logging is enabled. */
-    logRequest(grizzlyRequest, request, serverContext, res);
+    logRequest(clientIpAddress, request, serverContext, res);
 
     return response;
   }
 
   private void logRequest(
-    Request grizzlyRequest,
+    String clientIpAddress,
     RouteRequest request,
     OtpServerRequestContext serverContext,
     RoutingResponse res
   ) {
     if (request != null && serverContext != null && serverContext.requestLogger() != null) {
       StringBuilder sb = new StringBuilder();
-      String clientIpAddress = grizzlyRequest.getRemoteAddr();
       //sb.append(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
       sb.append(clientIpAddress);
       sb.append(' ');
@@ -0,0 +1,36 @@
+package org.opentripplanner.api.resource;
+
+import java.util.List;
+
+/**
+ * A node in the timing tree of a routing request, included in the REST Response for debugging and
+ * profiling purposes. The name of the node is the name of the Micrometer timer with the
+ * {@code routing.} prefix removed, and the time of a node includes the time of its children.
+ */
+public class TimingOutput {
+
+  /**
+   * The name of the routing step, like {@code raptor}.
+   */
+  public final String name;
+
+  /**
+   * Time taken in the routing step in nanoseconds.
+   */
+  public final long time;
+
+  /**
+   * The timings of the parts of the routing step, if any.
+   */
+  public final List<TimingOutput> children;
+
+  public TimingOutput(String name, long time, List<TimingOutput> children) {
+    this.name = name;
+    this.time = time;
+    this.children = children;
+  }
+
+  public TimingOutput(String name, long time) {
+    this(name, time, List.of());
+  }
+}
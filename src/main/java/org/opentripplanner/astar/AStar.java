@@ -19,6 +19,7 @@ import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.time.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +46,7 @@ public class AStar<
   private final SearchTerminationStrategy<State> terminationStrategy;
   private final TraverseVisitor<State, Edge> traverseVisitor;
   private final Duration timeout;
+  private final CancellationToken cancellationToken;
 
   private final ShortestPathTree<State, Edge, Vertex> spt;
   private final BinHeap<State> pq;
@@ -63,6 +65,7 @@ public class AStar<
     SearchTerminationStrategy<State> terminationStrategy,
     DominanceFunction<State> dominanceFunction,
     @Nonnull Duration timeout,
+    @Nonnull CancellationToken cancellationToken,
     Collection<State> initialStates
   ) {
     this.heuristic = heuristic;
@@ -73,6 +76,7 @@ public class AStar<
     this.arriveBy = arriveBy;
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
+    this.cancellationToken = Objects.requireNonNull(cancellationToken);
 
     this.spt = new ShortestPathTree<>(dominanceFunction);
 
@@ -200,6 +204,16 @@ public class AStar<
         break;
       }
 
+      /*
+       * Terminate if the request is cancelled, because the client is gone or the deadline of the
+       * request has passed. Like the timeout, this is not checked on every round.
+       */
+      if (nVisited % 100 == 0 && cancellationToken.isCancelled()) {
+        LOG.debug("Search cancelled. origin={} target={}", fromVertices, toVertices);
+        spt.setAborted();
+        break;
+      }
+
       /*
        * Get next best state and, if it hasn't already been dominated, add adjacent states to queue.
        * If it has been dominated, the iteration is over; don't bother checking for termination condition.
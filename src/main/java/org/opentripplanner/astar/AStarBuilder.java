@@ -17,6 +17,7 @@ import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
 import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.application.CancellationToken;
 
 public abstract class AStarBuilder<
   State extends AStarState<State, Edge, Vertex>,
@@ -101,6 +102,15 @@ public abstract class AStarBuilder<
   @Nonnull
   protected abstract Duration streetRoutingTimeout();
 
+  /**
+   * The search is aborted if this token is cancelled. The default is a token which is never
+   * cancelled.
+   */
+  @Nonnull
+  protected CancellationToken cancellationToken() {
+    return CancellationToken.NONE;
+  }
+
   public Builder setOriginBackEdge(Edge originBackEdge) {
     this.originBackEdge = originBackEdge;
     return builder;
@@ -150,6 +160,7 @@ public abstract class AStarBuilder<
       terminationStrategy,
       Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
+      cancellationToken(),
       initialStates
     );
   }
@@ -0,0 +1,90 @@
+package org.opentripplanner.framework.application;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import javax.annotation.Nullable;
+
+/**
+ * Used to stop the work done for a request, when the client no longer waits for the response.
+ * The token is cancelled when the client disconnects, and it is cancelled by itself when its
+ * deadline has passed. The work for a request may run in several threads, so the long-running
+ * loops, like the street search and the Raptor iterations, check the token and stop.
+ * <p>
+ * A token is shared by all threads working on the same request, and it is safe to use from any
+ * thread.
+ */
+public final class CancellationToken {
+
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  /** A token which is never cancelled, used if the request can not be cancelled. */
+  public static final CancellationToken NONE = new CancellationToken(NO_DEADLINE, false, null);
+
+  private final long deadline;
+  private final boolean cancellable;
+  private final CancellationToken parent;
+  private volatile boolean cancelled = false;
+
+  private CancellationToken(long deadline, boolean cancellable, CancellationToken parent) {
+    this.deadline = deadline;
+    this.cancellable = cancellable;
+    this.parent = parent;
+  }
+
+  /** Create a new token without a deadline, it is only cancelled by calling {@link #cancel()}. */
+  public static CancellationToken create() {
+    return new CancellationToken(NO_DEADLINE, true, null);
+  }
+
+  /**
+   * Create a new token, which is cancelled when the given timeout has passed. A zero or negative
+   * timeout means no deadline.
+   */
+  public static CancellationToken withTimeout(Duration timeout) {
+    return withTimeout(timeout, null);
+  }
+
+  /**
+   * Create a new token with its own deadline, which is also cancelled when the parent token is
+   * cancelled. This is used when a client request, like a GraphQL batch, is split into several
+   * requests with their own timeout.
+   */
+  public static CancellationToken withTimeout(
+    Duration timeout,
+    @Nullable CancellationToken parent
+  ) {
+    long deadline = timeout.isZero() || timeout.isNegative()
+      ? NO_DEADLINE
+      : System.currentTimeMillis() + timeout.toMillis();
+    return new CancellationToken(deadline, true, parent);
+  }
+
+  /** Cancel the token. Cancelling {@link #NONE} has no effect. */
+  public void cancel() {
+    if (cancellable) {
+      cancelled = true;
+    }
+  }
+
+  /**
+   * Return {@code true} if the token is cancelled, or if the deadline has passed. This reads the
+   * current time, so tight loops should not check it on every step.
+   */
+  public boolean isCancelled() {
+    return cancelled || isDeadlinePassed() || (parent != null && parent.isCancelled());
+  }
+
+  /** Return {@code true} if the deadline has passed. */
+  public boolean isDeadlinePassed() {
+    return deadline != NO_DEADLINE && System.currentTimeMillis() > deadline;
+  }
+
+  /**
+   * @throws CancellationException if the token is cancelled, or the deadline has passed.
+   */
+  public void throwIfCancelled() {
+    if (isCancelled()) {
+      throw new CancellationException("The request is cancelled");
+    }
+  }
+}
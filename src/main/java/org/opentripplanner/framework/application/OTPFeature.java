@@ -66,6 +66,26 @@ public enum OTPFeature {
     false,
     "Whether the @async annotation in the GraphQL schema should lead to the fetch being executed asynchronously. This allows batch or alias queries to run in parallel at the cost of consuming extra threads."
   ),
+  GraphQLPersistedQueries(
+    false,
+    false,
+    "Accept Automatic Persisted Queries in the GraphQL APIs, where the client sends the SHA-256 hash of a query it has sent before instead of the query."
+  ),
+  VirtualThreads(
+    false,
+    false,
+    "Run the HTTP request handlers and the asynchronous GraphQL fetchers on virtual threads, if the JVM supports them. The number of tasks running at the same time is limited as without them."
+  ),
+  PlanResponseCache(
+    false,
+    false,
+    "Cache the responses of identical plan requests for a minute, or until the realtime data is updated. Concurrent identical requests wait for the first one instead of routing."
+  ),
+  FilterPathsBeforeMapping(
+    false,
+    false,
+    "Remove transit results on generalized-cost and departure time before mapping them to itineraries. This is faster with long search windows, but the result may differ slightly."
+  ),
 
   DataOverlay(
     false,
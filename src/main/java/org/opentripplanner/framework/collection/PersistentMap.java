@@ -0,0 +1,414 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * An immutable map implemented as a hash array mapped trie (HAMT). Adding or removing an entry
+ * returns a new map which shares all unchanged nodes with the original map, so the cost of a
+ * change is proportional to the depth of the trie (at most 7 levels), not the size of the map.
+ * Keeping a reference to an old version of the map is free, which makes this a good fit for
+ * snapshots that must not be affected by later changes.
+ * <p>
+ * The map implements the read-only part of {@link Map}, the mutating methods of {@link Map}
+ * throw {@link UnsupportedOperationException}. Use {@link #with(Object, Object)} and
+ * {@link #without(Object)} instead. {@code null} keys and values are not allowed.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentMap EMPTY = new PersistentMap<>(null, 0);
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentMap) {
+      @SuppressWarnings("unchecked")
+      PersistentMap<K, V> persistentMap = (PersistentMap<K, V>) map;
+      return persistentMap;
+    }
+    PersistentMap<K, V> result = empty();
+    for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+      result = result.with(e.getKey(), e.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Return a map with the given key mapped to the given value. If the key is already mapped to
+   * the same value instance, this map is returned.
+   */
+  public PersistentMap<K, V> with(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    int hash = hash(key);
+    boolean[] added = new boolean[1];
+    Node newRoot = root == null
+      ? BitmapNode.EMPTY.with(0, hash, key, value, added)
+      : root.with(0, hash, key, value, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Return a map without the given key. If the key is not in the map, this map is returned.
+   */
+  public PersistentMap<K, V> without(Object key) {
+    if (root == null || key == null) {
+      return this;
+    }
+    Node newRoot = root.without(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+  }
+
+  /**
+   * Return a map without all entries matching the given predicate.
+   */
+  public PersistentMap<K, V> withoutIf(BiPredicate<? super K, ? super V> predicate) {
+    PersistentMap<K, V> result = this;
+    for (Entry<K, V> e : entrySet()) {
+      if (predicate.test(e.getKey(), e.getValue())) {
+        result = result.without(e.getKey());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    if (root == null || key == null) {
+      return null;
+    }
+    return (V) root.find(0, hash(key), key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitpos(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int i, Object a) {
+    Object[] clone = array.clone();
+    clone[i] = a;
+    return clone;
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int i, Object a, int j, Object b) {
+    Object[] clone = array.clone();
+    clone[i] = a;
+    clone[j] = b;
+    return clone;
+  }
+
+  private static Object[] removePair(Object[] array, int i) {
+    Object[] result = new Object[array.length - 2];
+    System.arraycopy(array, 0, result, 0, 2 * i);
+    System.arraycopy(array, 2 * (i + 1), result, 2 * i, result.length - 2 * i);
+    return result;
+  }
+
+  private abstract static class Node {
+
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node with(int shift, int hash, Object key, Object value, boolean[] added);
+
+    /** Return the node without the key, or {@code null} if the node becomes empty. */
+    abstract Node without(int shift, int hash, Object key);
+
+    /**
+     * The node array holds pairs of key and value. A {@code null} key means the value is a
+     * sub-node.
+     */
+    abstract Object[] array();
+  }
+
+  /**
+   * A node with up to 32 entries or sub-nodes, indexed by 5 bits of the hash at the current
+   * level.
+   */
+  private static final class BitmapNode extends Node {
+
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] array;
+
+    BitmapNode(int bitmap, Object[] array) {
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int i = index(bit);
+      Object k = array[2 * i];
+      Object v = array[2 * i + 1];
+      if (k == null) {
+        return ((Node) v).find(shift + BITS, hash, key);
+      }
+      return key.equals(k) ? v : null;
+    }
+
+    @Override
+    Node with(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitpos(hash, shift);
+      int i = index(bit);
+      if ((bitmap & bit) != 0) {
+        Object k = array[2 * i];
+        Object v = array[2 * i + 1];
+        if (k == null) {
+          Node n = ((Node) v).with(shift + BITS, hash, key, value, added);
+          return n == v ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, n));
+        }
+        if (key.equals(k)) {
+          return v == value ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, value));
+        }
+        added[0] = true;
+        Node sub = createNode(shift + BITS, k, v, hash, key, value);
+        return new BitmapNode(bitmap, cloneAndSet(array, 2 * i, null, 2 * i + 1, sub));
+      }
+      int n = Integer.bitCount(bitmap);
+      Object[] newArray = new Object[2 * (n + 1)];
+      System.arraycopy(array, 0, newArray, 0, 2 * i);
+      newArray[2 * i] = key;
+      newArray[2 * i + 1] = value;
+      System.arraycopy(array, 2 * i, newArray, 2 * (i + 1), 2 * (n - i));
+      added[0] = true;
+      return new BitmapNode(bitmap | bit, newArray);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int i = index(bit);
+      Object k = array[2 * i];
+      Object v = array[2 * i + 1];
+      if (k == null) {
+        Node n = ((Node) v).without(shift + BITS, hash, key);
+        if (n == v) {
+          return this;
+        }
+        if (n != null) {
+          return new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, n));
+        }
+      } else if (!key.equals(k)) {
+        return this;
+      }
+      return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, i));
+    }
+
+    @Override
+    Object[] array() {
+      return array;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static Node createNode(
+      int shift,
+      Object key1,
+      Object value1,
+      int hash2,
+      Object key2,
+      Object value2
+    ) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] { key1, value1, key2, value2 });
+      }
+      boolean[] added = new boolean[1];
+      return EMPTY
+        .with(shift, hash1, key1, value1, added)
+        .with(shift, hash2, key2, value2, added);
+    }
+  }
+
+  /**
+   * A node with keys that have the same hash code.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+    private final Object[] array;
+
+    CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int i = indexOf(key);
+      return i < 0 ? null : array[i + 1];
+    }
+
+    @Override
+    Node with(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        // Nest this node in a bitmap node, and add the new key to that
+        return new BitmapNode(bitpos(this.hash, shift), new Object[] { null, this })
+          .with(shift, hash, key, value, added);
+      }
+      int i = indexOf(key);
+      if (i >= 0) {
+        return array[i + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, i + 1, value));
+      }
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      added[0] = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      int i = indexOf(key);
+      if (i < 0) {
+        return this;
+      }
+      return array.length == 2 ? null : new CollisionNode(hash, removePair(array, i / 2));
+    }
+
+    @Override
+    Object[] array() {
+      return array;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Depth first iterator over the entries of the trie.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+    /** Stack of node arrays and the position of the next pair to visit in each of them. */
+    private final Deque<Object[]> arrays = new ArrayDeque<>();
+    private final Deque<Integer> positions = new ArrayDeque<>();
+    private Entry<K, V> next;
+
+    EntryIterator(Node root) {
+      if (root != null) {
+        push(root);
+      }
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry<K, V> result = next;
+      advance();
+      return result;
+    }
+
+    private void push(Node node) {
+      arrays.push(node.array());
+      positions.push(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      next = null;
+      while (!arrays.isEmpty()) {
+        Object[] array = arrays.peek();
+        int i = positions.pop();
+        if (i >= array.length) {
+          arrays.pop();
+          continue;
+        }
+        positions.push(i + 2);
+        Object k = array[i];
+        Object v = array[i + 1];
+        if (k == null) {
+          push((Node) v);
+        } else {
+          next = new SimpleImmutableEntry<>((K) k, (V) v);
+          return;
+        }
+      }
+    }
+  }
+}
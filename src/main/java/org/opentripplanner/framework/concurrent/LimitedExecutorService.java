@@ -0,0 +1,130 @@
+package org.opentripplanner.framework.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An executor service that runs at most {@code maxConcurrency} tasks at the same time. The tasks
+ * are handed to a delegate executor, and each task waits for a permit in the delegate thread
+ * before it runs. Waiting is cheap when the delegate starts a virtual thread per task, as a
+ * blocked virtual thread does not hold on to a platform thread.
+ * <p>
+ * The number of running and waiting tasks is counted, so it can be reported as metrics.
+ * <p>
+ * Use {@link RequestExecutors#create(String, int)} to create an instance.
+ */
+public class LimitedExecutorService extends AbstractExecutorService {
+
+  private final String name;
+  private final ExecutorService delegate;
+  private final boolean virtualThreads;
+  private final int maxConcurrency;
+  private final Semaphore permits;
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  LimitedExecutorService(
+    String name,
+    ExecutorService delegate,
+    boolean virtualThreads,
+    int maxConcurrency
+  ) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+    }
+    this.name = name;
+    this.delegate = delegate;
+    this.virtualThreads = virtualThreads;
+    this.maxConcurrency = maxConcurrency;
+    this.permits = new Semaphore(maxConcurrency, true);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /** Whether the tasks run in virtual threads. */
+  public boolean virtualThreads() {
+    return virtualThreads;
+  }
+
+  public int maxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /** The number of tasks running now. */
+  public int running() {
+    return running.get();
+  }
+
+  /** The number of tasks submitted, but not started, because the limit is reached. */
+  public int waiting() {
+    return waiting.get();
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    waiting.incrementAndGet();
+    try {
+      delegate.execute(() -> run(command));
+    } catch (RejectedExecutionException e) {
+      waiting.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "LimitedExecutorService{name: " +
+      name +
+      ", virtualThreads: " +
+      virtualThreads +
+      ", maxConcurrency: " +
+      maxConcurrency +
+      "}"
+    );
+  }
+
+  private void run(Runnable command) {
+    permits.acquireUninterruptibly();
+    waiting.decrementAndGet();
+    running.incrementAndGet();
+    try {
+      command.run();
+    } finally {
+      running.decrementAndGet();
+      permits.release();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package org.opentripplanner.framework.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Create the executors that handle requests, like the HTTP request handlers and the asynchronous
+ * GraphQL fetchers. If the {@link OTPFeature#VirtualThreads} feature is on, and the JVM supports
+ * virtual threads, each task runs in a new virtual thread. Otherwise, the tasks run in a pool of
+ * platform threads. In both cases at most {@code maxConcurrency} tasks run at the same time, and
+ * the rest wait in line. This avoids creating a new thread for every task under bursty load.
+ * <p>
+ * OTP is compiled for Java 17, so the virtual thread executor is looked up by reflection. On Java
+ * 19 and 20 virtual threads are a preview feature, and they are only used if the JVM is started
+ * with {@code --enable-preview}.
+ */
+public class RequestExecutors {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RequestExecutors.class);
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final List<LimitedExecutorService> executors = new ArrayList<>();
+  private static final List<Consumer<LimitedExecutorService>> listeners = new ArrayList<>();
+
+  private static volatile int maxRequestConcurrency = defaultMaxConcurrency();
+
+  private RequestExecutors() {}
+
+  /**
+   * Create a new executor, running at most {@code maxConcurrency} tasks at the same time.
+   */
+  public static LimitedExecutorService create(String name, int maxConcurrency) {
+    ExecutorService virtualThreads = OTPFeature.VirtualThreads.isOn()
+      ? newVirtualThreadPerTaskExecutor()
+      : null;
+
+    LimitedExecutorService executor = virtualThreads != null
+      ? new LimitedExecutorService(name, virtualThreads, true, maxConcurrency)
+      : new LimitedExecutorService(
+        name,
+        newPlatformThreadPool(name, maxConcurrency),
+        false,
+        maxConcurrency
+      );
+
+    LOG.info("Created request executor: {}", executor);
+    register(executor);
+    return executor;
+  }
+
+  /**
+   * The default number of tasks allowed to run at the same time: twice the number of processors,
+   * but at least 4.
+   */
+  public static int defaultMaxConcurrency() {
+    return Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * The number of routing requests handled at the same time. The server sets this to the number
+   * of HTTP handler threads, which is configured with {@code --maxThreads}, so routing the
+   * requests asynchronously does not change how many of them run at the same time.
+   */
+  public static int maxRequestConcurrency() {
+    return maxRequestConcurrency;
+  }
+
+  /**
+   * Set the number of routing requests handled at the same time. This must be called before the
+   * first request is handled, the executors read it when they are created.
+   */
+  public static void setMaxRequestConcurrency(int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+    }
+    maxRequestConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Call the given listener for each executor created so far, and for each executor created later.
+   * This is used to report metrics for the executors.
+   */
+  public static synchronized void forEach(Consumer<LimitedExecutorService> listener) {
+    listeners.add(listener);
+    executors.forEach(listener);
+  }
+
+  private static synchronized void register(LimitedExecutorService executor) {
+    executors.add(executor);
+    listeners.forEach(it -> it.accept(executor));
+  }
+
+  /**
+   * Return a new virtual thread per task executor, or {@code null} if the JVM does not support
+   * virtual threads.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+        .getMethod("newVirtualThreadPerTaskExecutor")
+        .invoke(null);
+    } catch (NoSuchMethodException e) {
+      LOG.warn("Virtual threads are not supported by this JVM, using platform threads.");
+    } catch (InvocationTargetException | IllegalAccessException e) {
+      LOG.warn("Virtual threads are not available, using platform threads: {}", e.toString());
+    }
+    return null;
+  }
+
+  /**
+   * Platform threads are expensive, so the pool has {@code maxConcurrency} threads and an
+   * unbounded queue. Idle threads are stopped after a minute.
+   */
+  private static ExecutorService newPlatformThreadPool(String name, int maxConcurrency) {
+    var pool = new ThreadPoolExecutor(
+      maxConcurrency,
+      maxConcurrency,
+      KEEP_ALIVE_SECONDS,
+      TimeUnit.SECONDS,
+      new LinkedBlockingQueue<>(),
+      threadFactory(name)
+    );
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  private static ThreadFactory threadFactory(String name) {
+    var count = new AtomicInteger();
+    return runnable -> {
+      var thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,116 @@
+package org.opentripplanner.framework.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.opentripplanner.framework.application.OTPFeature;
+
+/**
+ * Cache the parsed and validated GraphQL documents, so the same query is not parsed and validated
+ * again for each request. The clients of an API send the same few queries over and over, with
+ * different variables, and parsing and validating a large query can take longer than executing
+ * it. The documents are cached by the SHA-256 hash of the query. Only valid documents are cached,
+ * so invalid queries can not push the valid ones out of the cache.
+ * <p>
+ * If the {@link OTPFeature#GraphQLPersistedQueries} feature is on, Automatic Persisted Queries
+ * are also supported: a client may send the SHA-256 hash of a query in the {@code persistedQuery}
+ * extension instead of the query. If the query is not in the cache, a {@code
+ * PersistedQueryNotFound} error is returned, and the client sends the query again together with
+ * its hash. See https://www.apollographql.com/docs/apollo-server/performance/apq/
+ * <p>
+ * A document is only valid for the schema it was validated against, so each schema needs its own
+ * cache.
+ */
+public class PreparsedDocumentCache implements PreparsedDocumentProvider {
+
+  private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private static final String PERSISTED_QUERY = "persistedQuery";
+  private static final String SHA256_HASH = "sha256Hash";
+  private static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+  private static final String PERSISTED_QUERY_HASH_MISMATCH = "provided sha does not match query";
+
+  private final Cache<String, PreparsedDocumentEntry> cache;
+
+  public PreparsedDocumentCache() {
+    this(DEFAULT_MAXIMUM_SIZE);
+  }
+
+  PreparsedDocumentCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Return {@code true} if the request extensions contain a persisted query hash. The query may
+   * then be left out of the request.
+   */
+  public static boolean hasPersistedQuery(Map<String, Object> extensions) {
+    return OTPFeature.GraphQLPersistedQueries.isOn() && persistedQueryHash(extensions) != null;
+  }
+
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+  }
+
+  private PreparsedDocumentEntry getDocument(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    String query = executionInput.getQuery();
+    String persistedQueryHash = OTPFeature.GraphQLPersistedQueries.isOn()
+      ? persistedQueryHash(executionInput.getExtensions())
+      : null;
+
+    if (persistedQueryHash != null && query.isBlank()) {
+      PreparsedDocumentEntry entry = cache.getIfPresent(persistedQueryHash);
+      return entry != null ? entry : error(PERSISTED_QUERY_NOT_FOUND, persistedQueryHash);
+    }
+
+    String hash = Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+    if (persistedQueryHash != null && !persistedQueryHash.equals(hash)) {
+      return error(PERSISTED_QUERY_HASH_MISMATCH, persistedQueryHash);
+    }
+
+    PreparsedDocumentEntry entry = cache.getIfPresent(hash);
+    if (entry == null) {
+      entry = parseAndValidateFunction.apply(executionInput);
+      if (!entry.hasErrors()) {
+        cache.put(hash, entry);
+      }
+    }
+    return entry;
+  }
+
+  private static String persistedQueryHash(Map<String, Object> extensions) {
+    if (
+      extensions != null &&
+      extensions.get(PERSISTED_QUERY) instanceof Map<?, ?> persistedQuery &&
+      persistedQuery.get(SHA256_HASH) instanceof String hash
+    ) {
+      return hash.toLowerCase();
+    }
+    return null;
+  }
+
+  private static PreparsedDocumentEntry error(String message, String persistedQueryHash) {
+    return new PreparsedDocumentEntry(
+      GraphqlErrorBuilder
+        .newError()
+        .message(message)
+        .extensions(Map.of("persistedQueryId", persistedQueryHash))
+        .build()
+    );
+  }
+}
@@ -9,6 +9,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
@@ -17,6 +18,7 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.graph_builder.module.configure.DaggerGraphBuilderFactory;
+import org.opentripplanner.graph_builder.module.incremental.PreviousTransitBuild;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
@@ -53,6 +55,9 @@ public class GraphBuilder implements Runnable {
   /**
    * Factory method to create and configure a GraphBuilder with all the appropriate modules to build
    * a graph from the given data source and configuration directory.
+   *
+   * @param previousTransitBuild The transit state of the previous graph in an incremental build,
+   *                             {@code null} if this is not an incremental build.
    */
   public static GraphBuilder create(
     BuildConfig config,
@@ -61,7 +66,8 @@ public class GraphBuilder implements Runnable {
     TransitModel transitModel,
     WorldEnvelopeRepository worldEnvelopeRepository,
     boolean loadStreetGraph,
-    boolean saveStreetGraph
+    boolean saveStreetGraph,
+    @Nullable PreviousTransitBuild previousTransitBuild
   ) {
     //DaggerGraphBuilderFactory appFactory = GraphBuilderFactoryDa
     boolean hasOsm = dataSources.has(OSM);
@@ -114,12 +120,14 @@ public class GraphBuilder implements Runnable {
 
     // This module is outside the hasGTFS conditional block because it also links things like bike rental
     // which need to be handled even when there's no transit.
-    graphBuilder.addModule(factory.streetLinkerModule());
+    var streetLinkerModule = factory.streetLinkerModule();
+    streetLinkerModule.reuseLinksFrom(previousTransitBuild);
+    graphBuilder.addModule(streetLinkerModule);
 
     // Prune graph connectivity islands after transit stop linking, so that pruning can take into account
     // existence of stops in islands. If an island has a stop, it actually may be a real island and should
-    // not be removed quite as easily
-    if ((hasOsm && !saveStreetGraph) || loadStreetGraph) {
+    // not be removed quite as easily. In an incremental build the islands are already pruned.
+    if (((hasOsm && !saveStreetGraph) || loadStreetGraph) && previousTransitBuild == null) {
       graphBuilder.addModule(factory.pruneIslands());
     }
 
@@ -136,7 +144,9 @@ public class GraphBuilder implements Runnable {
       }
 
       // This module will use streets or straight line distance depending on whether OSM data is found in the graph.
-      graphBuilder.addModule(factory.directTransferGenerator());
+      var directTransferGenerator = factory.directTransferGenerator();
+      directTransferGenerator.reuseTransfersFrom(previousTransitBuild);
+      graphBuilder.addModule(directTransferGenerator);
 
       // Analyze routing between stops to generate report
       if (OTPFeature.TransferAnalyzer.isOn()) {
@@ -255,7 +255,8 @@ public class GraphBuilderDataSources {
         );
       }
     } else if (cli.loadStreet) {
-      if (!store.getStreetGraph().exists()) {
+      boolean incremental = cli.doIncrementalBuild() && store.getGraph().exists();
+      if (!incremental && !store.getStreetGraph().exists()) {
         throw new OtpAppException(
           "Unable to load street graph, no street graph file found: %s",
           store.getStreetGraph().path()
@@ -20,8 +20,11 @@ public class DefaultDataImportIssueStore implements DataImportIssueStore {
 
   public DefaultDataImportIssueStore() {}
 
+  /**
+   * Issues may be added from parallel graph build tasks, so this is synchronized.
+   */
   @Override
-  public void add(DataImportIssue issue) {
+  public synchronized void add(DataImportIssue issue) {
     ISSUE_LOG.debug("{} - {}", issue.getType(), issue.getMessage());
     if (currentSource != null) {
       this.issues.add(new IssueWithSource(issue, currentSource));
@@ -1,17 +1,23 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
+import com.google.common.collect.Multimap;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.module.incremental.PreviousTransitBuild;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
@@ -20,6 +26,7 @@ import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -46,6 +53,9 @@ public class DirectTransferGenerator implements GraphBuilderModule {
   private final TransitModel transitModel;
   private final DataImportIssueStore issueStore;
 
+  @Nullable
+  private PreviousTransitBuild previousBuild;
+
   public DirectTransferGenerator(
     Graph graph,
     TransitModel transitModel,
@@ -60,6 +70,15 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     this.transferRequests = transferRequests;
   }
 
+  /**
+   * Reuse the transfers of the given previous build for all stops not affected by changes in the
+   * transit data. This is only done if the streets are used and the previous build used the same
+   * transfer duration and transfer requests.
+   */
+  public void reuseTransfersFrom(@Nullable PreviousTransitBuild previousBuild) {
+    this.previousBuild = previousBuild;
+  }
+
   @Override
   public void buildGraph() {
     /* Initialize transit model index which is needed by the nearby stop finder. */
@@ -90,72 +109,74 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       stops.size()
     );
 
-    AtomicInteger nTransfersTotal = new AtomicInteger();
     AtomicInteger nLinkedStops = new AtomicInteger();
+    AtomicInteger nReusedStops = new AtomicInteger();
 
-    // This is a synchronizedMultimap so that a parallel stream may be used to insert elements.
-    var transfersByStop = Multimaps.<StopLocation, PathTransfer>synchronizedMultimap(
-      HashMultimap.create()
-    );
+    PreviousTransitBuild reusableBuild = null;
+    Set<RegularStop> affectedStops = Set.of();
+    if (previousBuild != null) {
+      if (!nearbyStopFinder.useStreets) {
+        LOG.info("Transfers of the previous build are not reused, the graph has no streets.");
+      } else if (!previousBuild.maxTransferDuration().equals(radiusByDuration)) {
+        LOG.info("Transfers of the previous build are not reused, the transfer duration changed.");
+      } else if (!previousBuild.sameTransferRequests(transferRequests)) {
+        LOG.info("Transfers of the previous build are not reused, the transfer requests changed.");
+      } else {
+        reusableBuild = previousBuild;
+        affectedStops =
+          previousBuild.findStopsAffectedByChanges(
+            transitModel,
+            maxTransferDistanceMeters(),
+            OTPFeature.ConsiderPatternsForDirectTransfers.isOn()
+          );
+      }
+    }
+    final PreviousTransitBuild reuseFrom = reusableBuild;
+    final Set<RegularStop> stopsToRecompute = affectedStops;
+    final Map<FeedScopedId, TransitStopVertex> stopVertexById = reuseFrom == null
+      ? Map.of()
+      : stops.stream().collect(Collectors.toMap(v -> v.getStop().getId(), v -> v));
 
-    stops
+    // Profiles that only differ in walk speed share one street search.
+    List<TransferProfileGroup> profileGroups = nearbyStopFinder.useStreets
+      ? TransferProfileGroup.groupProfiles(transferRequests)
+      : TransferProfileGroup.eachProfile(transferRequests);
+    if (profileGroups.size() < transferRequests.size()) {
+      LOG.info(
+        "The {} transfer profiles are computed using {} street searches per stop.",
+        transferRequests.size(),
+        profileGroups.size()
+      );
+    }
+
+    // The transfers of each stop are returned from the parallel stream and collected into a list
+    // per worker thread, which are merged at the end. This avoids locking a shared collection.
+    List<PathTransfer> transfers = stops
       .stream()
       .parallel()
-      .forEach(ts0 -> {
+      .map(ts0 -> {
         /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
          * Use map based on the list of edges, so that only distinct transfers are stored. */
         Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
         RegularStop stop = ts0.getStop();
 
         if (stop.transfersNotAllowed()) {
-          return;
+          return distinctTransfers.values();
         }
 
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
+        Optional<List<PathTransfer>> reused = reuseFrom == null ||
+          stopsToRecompute.contains(stop)
+          ? Optional.empty()
+          : reuseFrom.reuseTransfers(stop, ts0, stopVertexById::get);
 
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : findNearbyStops(
-            nearbyStopFinder,
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : findNearbyStops(
-              nearbyStopFinder,
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
-              );
-            }
-          }
+        if (reused.isPresent()) {
+          reused
+            .get()
+            .forEach(t -> distinctTransfers.put(new TransferKey(t.from, t.to, t.getEdges()), t));
+          nReusedStops.incrementAndGet();
+        } else {
+          LOG.debug("Linking stop '{}' {}", stop, ts0);
+          findTransfers(nearbyStopFinder, profileGroups, ts0, distinctTransfers);
         }
 
         LOG.debug(
@@ -166,25 +187,30 @@ public class DirectTransferGenerator implements GraphBuilderModule {
         if (distinctTransfers.isEmpty()) {
           issueStore.add(new StopNotLinkedForTransfers(ts0));
         } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
           nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
         }
 
         //Keep lambda! A method-ref would causes incorrect class and line number to be logged
         //noinspection Convert2MethodRef
         progress.step(m -> LOG.info(m));
-      });
+        return distinctTransfers.values();
+      })
+      .flatMap(Collection::stream)
+      .toList();
 
+    Multimap<StopLocation, PathTransfer> transfersByStop = HashMultimap.create();
+    for (PathTransfer transfer : transfers) {
+      transfersByStop.put(transfer.from, transfer);
+    }
     transitModel.addAllTransfersByStops(transfersByStop);
 
     LOG.info(progress.completeMessage());
     LOG.info(
-      "Done connecting stops to one another. Created a total of {} transfers from {} stops.",
-      nTransfersTotal,
-      nLinkedStops
+      "Done connecting stops to one another. Created a total of {} transfers from {} stops. " +
+      "Reused the transfers of {} stops from the previous build.",
+      transfers.size(),
+      nLinkedStops,
+      nReusedStops
     );
   }
 
@@ -193,6 +219,92 @@ public class DirectTransferGenerator implements GraphBuilderModule {
     // No inputs
   }
 
+  /**
+   * Make transfers to each nearby stop that has lowest weight on some trip pattern.
+   */
+  private void findTransfers(
+    NearbyStopFinder nearbyStopFinder,
+    List<TransferProfileGroup> profileGroups,
+    TransitStopVertex ts0,
+    Map<TransferKey, PathTransfer> distinctTransfers
+  ) {
+    RegularStop stop = ts0.getStop();
+    for (TransferProfileGroup group : profileGroups) {
+      RouteRequest searchProfile = group.searchProfile();
+      List<NearbyStop> stopsFound = nearbyStopFinder.findNearbyStops(
+        ts0,
+        searchProfile,
+        searchProfile.journey().transfer(),
+        false
+      );
+      for (RouteRequest transferProfile : group.profiles()) {
+        Iterable<NearbyStop> nearbyStops = group.reachableStops(
+          transferProfile,
+          stopsFound,
+          radiusByDuration
+        );
+        if (OTPFeature.ConsiderPatternsForDirectTransfers.isOn()) {
+          nearbyStops = nearbyStopFinder.findClosestStopsOnPatterns(nearbyStops, false);
+        }
+        for (NearbyStop sd : nearbyStops) {
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop.transfersNotAllowed()) {
+            continue;
+          }
+          distinctTransfers.put(
+            new TransferKey(stop, sd.stop, sd.edges),
+            new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
+          );
+        }
+        if (OTPFeature.FlexRouting.isOn()) {
+          // This code is for finding transfers from AreaStops to Stops, transfers
+          // from Stops to AreaStops and between Stops are already covered above.
+          for (NearbyStop sd : findNearbyStops(
+            nearbyStopFinder,
+            ts0,
+            transferProfile,
+            transferProfile.journey().transfer(),
+            true
+          )) {
+            // Skip the origin stop, loop transfers are not needed.
+            if (sd.stop == stop) {
+              continue;
+            }
+            if (sd.stop instanceof RegularStop) {
+              continue;
+            }
+            distinctTransfers.put(
+              new TransferKey(sd.stop, stop, sd.edges),
+              new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
+            );
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * The maximum distance a transfer can have, used to find the stops affected by a changed stop.
+   */
+  private double maxTransferDistanceMeters() {
+    double maxSpeed = 0;
+    for (RouteRequest request : transferRequests) {
+      var mode = request.journey().transfer().mode();
+      var preferences = request.preferences();
+      maxSpeed = Math.max(maxSpeed, preferences.walk().speed());
+      if (mode.includesBiking()) {
+        maxSpeed = Math.max(maxSpeed, preferences.bike().speed());
+      }
+      if (mode.includesDriving()) {
+        maxSpeed = Math.max(maxSpeed, preferences.car().speed());
+      }
+    }
+    return maxSpeed * radiusByDuration.toSeconds();
+  }
+
   private static Iterable<NearbyStop> findNearbyStops(
     NearbyStopFinder nearbyStopFinder,
     Vertex vertex,
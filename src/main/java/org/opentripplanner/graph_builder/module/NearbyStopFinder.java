@@ -101,6 +101,20 @@ public class NearbyStopFinder {
     RouteRequest routingRequest,
     StreetRequest streetRequest,
     boolean reverseDirection
+  ) {
+    return findClosestStopsOnPatterns(
+      findNearbyStops(vertex, routingRequest, streetRequest, reverseDirection),
+      reverseDirection
+    );
+  }
+
+  /**
+   * Filter the given stops, keeping only the stops that are the closest stop on some trip pattern
+   * or flex trip.
+   */
+  public Set<NearbyStop> findClosestStopsOnPatterns(
+    Iterable<NearbyStop> nearbyStops,
+    boolean reverseDirection
   ) {
     /* Track the closest stop on each pattern passing nearby. */
     MinMap<TripPattern, NearbyStop> closestStopForPattern = new MinMap<>();
@@ -108,13 +122,7 @@ public class NearbyStopFinder {
     /* Track the closest stop on each flex trip nearby. */
     MinMap<FlexTrip<?, ?>, NearbyStop> closestStopForFlexTrip = new MinMap<>();
 
-    /* Iterate over nearby stops via the street network or using straight-line distance, depending on the graph. */
-    for (NearbyStop nearbyStop : findNearbyStops(
-      vertex,
-      routingRequest,
-      streetRequest,
-      reverseDirection
-    )) {
+    for (NearbyStop nearbyStop : nearbyStops) {
       StopLocation ts1 = nearbyStop.stop;
 
       if (ts1 instanceof RegularStop) {
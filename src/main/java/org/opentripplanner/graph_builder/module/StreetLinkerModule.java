@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.ParkAndRideEntranceRemoved;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.graph_builder.module.incremental.PreviousTransitBuild;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
@@ -43,6 +45,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
   private final TransitModel transitModel;
   private final DataImportIssueStore issueStore;
   private final Boolean addExtraEdgesToAreas;
+  private PreviousTransitBuild previousBuild;
 
   public StreetLinkerModule(
     Graph graph,
@@ -61,9 +64,25 @@ public class StreetLinkerModule implements GraphBuilderModule {
     new StreetLinkerModule(graph, model, DataImportIssueStore.NOOP, false).buildGraph();
   }
 
+  /**
+   * Link the stops that are not moved since the given previous build to the same streets as
+   * before, and remove the split vertices of the stops that are removed or moved. The other stops
+   * are linked as usual.
+   */
+  public void reuseLinksFrom(@Nullable PreviousTransitBuild previousBuild) {
+    this.previousBuild = previousBuild;
+  }
+
   @Override
   public void buildGraph() {
     transitModel.index();
+
+    // This changes the street edges, so it is done before they are indexed
+    if (graph.hasStreets && previousBuild != null) {
+      previousBuild.relinkUnchangedStops(graph);
+      previousBuild.removeUnusedSplitVertices(graph);
+    }
+
     graph.index(transitModel.getStopModel());
     graph.getLinker().setAddExtraEdgesToAreas(this.addExtraEdgesToAreas);
 
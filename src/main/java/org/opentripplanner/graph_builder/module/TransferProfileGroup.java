@@ -0,0 +1,157 @@
+package org.opentripplanner.graph_builder.module;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.state.StateEditor;
+
+/**
+ * A group of transfer profiles that can be computed with a single street search. Walking profiles
+ * that only differ in walk speed find the same shortest paths, since the weight of walking on a
+ * street is inversely proportional to the speed. The search is done with the fastest profile,
+ * which reaches the most stops. The paths found are then traversed again with each slower
+ * profile, to find the stops it can reach within the duration limit.
+ * <p>
+ * Scaling the durations by the speed ratio is not enough, since fixed durations, like the time
+ * it takes to board an elevator or to traverse an intersection, do not depend on the speed.
+ * Traversing the paths again gives each path the same duration as a search with the slower
+ * profile. The fixed costs may in rare cases make a slower profile prefer another path to a stop,
+ * in which case the path of the fastest profile is used.
+ */
+final class TransferProfileGroup {
+
+  private final RouteRequest searchProfile;
+  private final List<RouteRequest> profiles;
+
+  private TransferProfileGroup(RouteRequest searchProfile, List<RouteRequest> profiles) {
+    this.searchProfile = searchProfile;
+    this.profiles = profiles;
+  }
+
+  /**
+   * Group the profiles which only differ in walk speed. Profiles that can not be grouped are
+   * returned as a group of their own.
+   */
+  static List<TransferProfileGroup> groupProfiles(List<RouteRequest> profiles) {
+    List<List<RouteRequest>> groups = new ArrayList<>();
+    for (RouteRequest profile : profiles) {
+      List<RouteRequest> group = groups
+        .stream()
+        .filter(it -> differOnlyInWalkSpeed(it.get(0), profile))
+        .findFirst()
+        .orElse(null);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.add(group);
+      }
+      group.add(profile);
+    }
+    return groups.stream().map(TransferProfileGroup::of).toList();
+  }
+
+  /**
+   * Create one group for each profile, used when each profile needs a search of its own.
+   */
+  static List<TransferProfileGroup> eachProfile(List<RouteRequest> profiles) {
+    return profiles.stream().map(it -> of(List.of(it))).toList();
+  }
+
+  /** The profile to use for the street search. */
+  RouteRequest searchProfile() {
+    return searchProfile;
+  }
+
+  List<RouteRequest> profiles() {
+    return profiles;
+  }
+
+  /**
+   * Return the stops found by the search that can be reached within the duration limit using the
+   * given profile. The state of each stop is the state at the end of the path traversed with the
+   * given profile.
+   */
+  List<NearbyStop> reachableStops(
+    RouteRequest profile,
+    List<NearbyStop> stopsFound,
+    Duration durationLimit
+  ) {
+    if (profile == searchProfile) {
+      return stopsFound;
+    }
+    StreetSearchRequest request = StreetSearchRequestMapper.mapToTransferRequest(profile).build();
+    long limit = durationLimit.toSeconds();
+    List<NearbyStop> result = new ArrayList<>();
+    for (NearbyStop stop : stopsFound) {
+      if (stop.state == null) {
+        result.add(stop);
+        continue;
+      }
+      State state = traverse(stop, request);
+      if (state != null && state.getElapsedTimeSeconds() <= limit) {
+        result.add(NearbyStop.nearbyStopForState(state, stop.stop));
+      }
+    }
+    return result;
+  }
+
+  static boolean differOnlyInWalkSpeed(RouteRequest a, RouteRequest b) {
+    if (
+      a.journey().transfer().mode() != StreetMode.WALK ||
+      b.journey().transfer().mode() != StreetMode.WALK ||
+      a.wheelchair() != b.wheelchair() ||
+      a.arriveBy() != b.arriveBy()
+    ) {
+      return false;
+    }
+    var pa = a.preferences();
+    var pb = b.preferences();
+    var walkWithSameSpeed = pb.walk().copyOf().withSpeed(pa.walk().speed()).build();
+    return (
+      pa.walk().equals(walkWithSameSpeed) &&
+      pa.street().equals(pb.street()) &&
+      pa.wheelchair().equals(pb.wheelchair()) &&
+      pa.system().equals(pb.system())
+    );
+  }
+
+  private static TransferProfileGroup of(List<RouteRequest> profiles) {
+    var fastest = profiles
+      .stream()
+      .max(Comparator.comparingDouble(TransferProfileGroup::walkSpeed))
+      .orElseThrow();
+    return new TransferProfileGroup(fastest, List.copyOf(profiles));
+  }
+
+  /**
+   * Traverse the path to a stop found by the search, starting from the origin of the search.
+   * Returns null if the path can not be traversed with the given request.
+   */
+  @Nullable
+  private static State traverse(NearbyStop stop, StreetSearchRequest request) {
+    Vertex origin = stop.edges.isEmpty()
+      ? stop.state.getVertex()
+      : stop.edges.get(0).getFromVertex();
+    State state = new StateEditor(origin, request).makeState();
+    for (Edge edge : stop.edges) {
+      state = edge.traverse(state);
+      if (state == null) {
+        return null;
+      }
+    }
+    return state;
+  }
+
+  private static double walkSpeed(RouteRequest profile) {
+    return profile.preferences().walk().speed();
+  }
+}
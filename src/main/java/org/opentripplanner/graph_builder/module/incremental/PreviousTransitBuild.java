@@ -0,0 +1,418 @@
+package org.opentripplanner.graph_builder.module.incremental;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.SplitterVertex;
+import org.opentripplanner.street.model.vertex.StationElementVertex;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The transit related state of a previously built graph, used for an incremental build. In an
+ * incremental build the street graph of the previous graph is reused - including the island
+ * pruning and elevation data. Only the transit data is imported again.
+ * <p>
+ * Stops that are not moved are linked to the same street vertices as in the previous build. The
+ * split vertices of removed and moved stops are removed from the street graph, so that it is the
+ * same as the street graph of a full build.
+ * <p>
+ * The stops of the new transit data are compared with the stops of the previous build. Transfers
+ * are only generated again for stops that are within the transfer radius of a new, removed or
+ * changed stop. The transfers of all other stops are copied from the previous build. If the
+ * transfer requests or the max transfer duration changed, all transfers are generated again.
+ */
+public class PreviousTransitBuild {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PreviousTransitBuild.class);
+
+  private final Map<FeedScopedId, StopSnapshot> stops;
+  private final Map<FeedScopedId, List<StreetVertex>> linkedStreetVertices;
+  private final Map<FeedScopedId, List<ReusableTransfer>> transfersByStop;
+  private final Set<FeedScopedId> stopsWithNonReusableTransfers;
+  private final Duration maxTransferDuration;
+  private final List<TransferRequestFingerprint> transferRequests;
+
+  private PreviousTransitBuild(
+    Map<FeedScopedId, StopSnapshot> stops,
+    Map<FeedScopedId, List<StreetVertex>> linkedStreetVertices,
+    Map<FeedScopedId, List<ReusableTransfer>> transfersByStop,
+    Set<FeedScopedId> stopsWithNonReusableTransfers,
+    Duration maxTransferDuration,
+    List<TransferRequestFingerprint> transferRequests
+  ) {
+    this.stops = stops;
+    this.linkedStreetVertices = linkedStreetVertices;
+    this.transfersByStop = transfersByStop;
+    this.stopsWithNonReusableTransfers = stopsWithNonReusableTransfers;
+    this.maxTransferDuration = maxTransferDuration;
+    this.transferRequests = transferRequests;
+  }
+
+  /**
+   * Take a snapshot of the stops and transfers of a previously built graph, and remove all
+   * transit vertices (stops, entrances, pathway nodes and boarding areas) and the edges connected
+   * to them from the graph. The graph can then be used as a street graph for a new build.
+   *
+   * @param maxTransferDuration the max transfer duration of the previous build
+   * @param transferRequests    the transfer requests of the previous build
+   */
+  public static PreviousTransitBuild extractAndRemoveTransit(
+    Graph graph,
+    TransitModel transitModel,
+    Duration maxTransferDuration,
+    List<RouteRequest> transferRequests
+  ) {
+    var stops = snapshotStops(transitModel);
+    var linkedStreetVertices = findLinkedStreetVertices(graph);
+
+    Map<FeedScopedId, List<ReusableTransfer>> transfersByStop = new HashMap<>();
+    Set<FeedScopedId> nonReusable = new HashSet<>();
+    for (PathTransfer transfer : transitModel.getAllPathTransfers()) {
+      FeedScopedId fromId = transfer.from.getId();
+      if (nonReusable.contains(fromId)) {
+        continue;
+      }
+      var reusable = ReusableTransfer.of(transfer);
+      if (reusable == null) {
+        nonReusable.add(fromId);
+        transfersByStop.remove(fromId);
+      } else {
+        transfersByStop.computeIfAbsent(fromId, id -> new ArrayList<>()).add(reusable);
+      }
+    }
+
+    int nRemoved = removeTransitVertices(graph);
+    LOG.info(
+      "Previous graph has {} stops and transfers from {} stops. Removed {} transit vertices.",
+      stops.size(),
+      transfersByStop.size(),
+      nRemoved
+    );
+    return new PreviousTransitBuild(
+      stops,
+      linkedStreetVertices,
+      transfersByStop,
+      nonReusable,
+      maxTransferDuration,
+      TransferRequestFingerprint.of(transferRequests)
+    );
+  }
+
+  public Duration maxTransferDuration() {
+    return maxTransferDuration;
+  }
+
+  /**
+   * Whether the given transfer requests generate the same transfers as the transfer requests of
+   * the previous build. Only the parts of the requests used by the transfer street search are
+   * compared.
+   */
+  public boolean sameTransferRequests(List<RouteRequest> transferRequests) {
+    return this.transferRequests.equals(TransferRequestFingerprint.of(transferRequests));
+  }
+
+  /**
+   * Link the stops that are not moved since the previous build to the same street vertices as
+   * before, instead of searching for the nearest street edges again. Stops that are new or moved,
+   * and stops whose street vertices are no longer in the graph, are not linked here and must be
+   * linked as usual.
+   *
+   * @return the number of stops linked
+   */
+  public int relinkUnchangedStops(Graph graph) {
+    int nLinked = 0;
+    for (TransitStopVertex vertex : graph.getVerticesOfType(TransitStopVertex.class)) {
+      if (vertex.hasPathways() || vertex.getDegreeOut() + vertex.getDegreeIn() > 0) {
+        continue;
+      }
+      RegularStop stop = vertex.getStop();
+      StopSnapshot previous = stops.get(stop.getId());
+      List<StreetVertex> streetVertices = linkedStreetVertices.get(stop.getId());
+      if (
+        previous == null ||
+        streetVertices == null ||
+        !previous.coordinate().sameLocation(stop.getCoordinate()) ||
+        !streetVertices.stream().allMatch(graph::containsVertex)
+      ) {
+        continue;
+      }
+      for (StreetVertex streetVertex : streetVertices) {
+        new StreetTransitStopLink(vertex, streetVertex);
+        new StreetTransitStopLink(streetVertex, vertex);
+      }
+      nLinked++;
+    }
+    LOG.info("Linked {} unchanged stops to the streets they were linked to before.", nLinked);
+    return nLinked;
+  }
+
+  /**
+   * Remove the split vertices created when the stops of the previous build were linked, if they
+   * are no longer used by any stop. The street edges on both sides of a removed vertex are joined
+   * again. This must be called after {@link #relinkUnchangedStops(Graph)} and before the street
+   * graph is indexed for linking the other stops.
+   *
+   * @return the number of split vertices removed
+   */
+  public int removeUnusedSplitVertices(Graph graph) {
+    Set<SplitterVertex> splitVertices = new HashSet<>();
+    for (List<StreetVertex> vertices : linkedStreetVertices.values()) {
+      for (StreetVertex vertex : vertices) {
+        if (vertex instanceof SplitterVertex splitterVertex) {
+          splitVertices.add(splitterVertex);
+        }
+      }
+    }
+    int nRemoved = 0;
+    for (SplitterVertex vertex : splitVertices) {
+      if (graph.containsVertex(vertex) && joinSplitEdges(graph, vertex)) {
+        nRemoved++;
+      }
+    }
+    LOG.info(
+      "Removed {} of {} split vertices of stops in the previous build.",
+      nRemoved,
+      splitVertices.size()
+    );
+    return nRemoved;
+  }
+
+  /**
+   * Find all regular stops in the given transit model that are within the given radius of a stop
+   * that is new, removed or changed compared with the previous build. A stop is changed if it is
+   * moved, if it changes whether transfers are allowed or, if {@code comparePatterns} is set, if
+   * the set of patterns visiting the stop changes. A pattern is the same if it has the same id and
+   * the same sequence of stops, since the transfers are limited to one per pattern.
+   */
+  public Set<RegularStop> findStopsAffectedByChanges(
+    TransitModel transitModel,
+    double radiusMeters,
+    boolean comparePatterns
+  ) {
+    var current = snapshotStops(transitModel);
+    List<WgsCoordinate> changedLocations = new ArrayList<>();
+
+    for (var it : current.entrySet()) {
+      StopSnapshot previous = stops.get(it.getKey());
+      StopSnapshot stop = it.getValue();
+      if (previous == null) {
+        changedLocations.add(stop.coordinate());
+      } else if (!previous.sameAs(stop, comparePatterns)) {
+        changedLocations.add(previous.coordinate());
+        changedLocations.add(stop.coordinate());
+      }
+    }
+    for (var it : stops.entrySet()) {
+      if (!current.containsKey(it.getKey())) {
+        changedLocations.add(it.getValue().coordinate());
+      }
+    }
+
+    Set<RegularStop> affected = new HashSet<>();
+    for (WgsCoordinate c : changedLocations) {
+      var envelope = SphericalDistanceLibrary.bounds(
+        c.latitude(),
+        c.longitude(),
+        radiusMeters,
+        radiusMeters
+      );
+      affected.addAll(transitModel.getStopModel().findRegularStops(envelope));
+    }
+    LOG.info(
+      "{} stops are new, removed or changed since the previous build, affecting {} of {} stops.",
+      changedLocations.size(),
+      affected.size(),
+      current.size()
+    );
+    return affected;
+  }
+
+  /**
+   * Reuse the transfers of the given stop from the previous build. Returns an empty optional if
+   * the stop did not exist in the previous build or if any of its transfers can not be reused, in
+   * this case all transfers of the stop must be generated again.
+   */
+  public Optional<List<PathTransfer>> reuseTransfers(
+    RegularStop stop,
+    TransitStopVertex stopVertex,
+    Function<FeedScopedId, TransitStopVertex> stopVertexById
+  ) {
+    FeedScopedId id = stop.getId();
+    if (!stops.containsKey(id) || stopsWithNonReusableTransfers.contains(id)) {
+      return Optional.empty();
+    }
+    List<PathTransfer> result = new ArrayList<>();
+    for (ReusableTransfer it : transfersByStop.getOrDefault(id, List.of())) {
+      TransitStopVertex toVertex = stopVertexById.apply(it.toStopId());
+      if (toVertex == null) {
+        return Optional.empty();
+      }
+      PathTransfer transfer = it.remap(stop, stopVertex, toVertex.getStop(), toVertex);
+      if (transfer == null) {
+        return Optional.empty();
+      }
+      result.add(transfer);
+    }
+    return Optional.of(result);
+  }
+
+  private static Map<FeedScopedId, StopSnapshot> snapshotStops(TransitModel transitModel) {
+    Map<StopLocation, Set<PatternFingerprint>> patternsByStop = new HashMap<>();
+    for (TripPattern pattern : transitModel.getAllTripPatterns()) {
+      var fingerprint = PatternFingerprint.of(pattern);
+      for (StopLocation stop : pattern.getStops()) {
+        patternsByStop.computeIfAbsent(stop, s -> new HashSet<>()).add(fingerprint);
+      }
+    }
+    Map<FeedScopedId, StopSnapshot> stops = new HashMap<>();
+    for (RegularStop stop : transitModel.getStopModel().listRegularStops()) {
+      stops.put(
+        stop.getId(),
+        new StopSnapshot(
+          stop.getCoordinate(),
+          stop.transfersNotAllowed(),
+          patternsByStop.getOrDefault(stop, Set.of())
+        )
+      );
+    }
+    return stops;
+  }
+
+  private static Map<FeedScopedId, List<StreetVertex>> findLinkedStreetVertices(Graph graph) {
+    Map<FeedScopedId, List<StreetVertex>> result = new HashMap<>();
+    for (TransitStopVertex vertex : graph.getVerticesOfType(TransitStopVertex.class)) {
+      List<StreetVertex> streetVertices = vertex
+        .getOutgoing()
+        .stream()
+        .filter(StreetTransitStopLink.class::isInstance)
+        .map(edge -> (StreetVertex) edge.getToVertex())
+        .toList();
+      if (!streetVertices.isEmpty()) {
+        result.put(vertex.getStop().getId(), streetVertices);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Replace the street edges going through the given split vertex with the edges they were split
+   * from, and remove the vertex. This is only done if the vertex has no other edges, which are
+   * added when another stop is linked to it or when the street edges are split again.
+   */
+  private static boolean joinSplitEdges(Graph graph, SplitterVertex vertex) {
+    Collection<Edge> incoming = vertex.getIncoming();
+    Collection<Edge> outgoing = vertex.getOutgoing();
+    if (incoming.isEmpty() || incoming.size() > 2 || incoming.size() != outgoing.size()) {
+      return false;
+    }
+    List<StreetEdge> heads = new ArrayList<>();
+    List<StreetEdge> tails = new ArrayList<>();
+    for (Edge in : incoming) {
+      // The edge continuing in the same direction, not the one turning back
+      var continuing = outgoing
+        .stream()
+        .filter(out -> out.getToVertex() != in.getFromVertex())
+        .toList();
+      if (
+        continuing.size() != 1 ||
+        !(in instanceof StreetEdge head) ||
+        !(continuing.get(0) instanceof StreetEdge tail) ||
+        !head.canJoin(tail)
+      ) {
+        return false;
+      }
+      heads.add(head);
+      tails.add(tail);
+    }
+    for (int i = 0; i < heads.size(); i++) {
+      heads.get(i).join(tails.get(i));
+      graph.removeEdge(heads.get(i));
+      graph.removeEdge(tails.get(i));
+    }
+    graph.remove(vertex);
+    return true;
+  }
+
+  private static int removeTransitVertices(Graph graph) {
+    var vertices = graph.getVerticesOfType(StationElementVertex.class);
+    for (StationElementVertex vertex : vertices) {
+      for (Edge edge : List.copyOf(vertex.getOutgoing())) {
+        graph.removeEdge(edge);
+      }
+      for (Edge edge : List.copyOf(vertex.getIncoming())) {
+        graph.removeEdge(edge);
+      }
+      graph.remove(vertex);
+    }
+    return vertices.size();
+  }
+
+  private record StopSnapshot(
+    WgsCoordinate coordinate,
+    boolean transfersNotAllowed,
+    Set<PatternFingerprint> patterns
+  ) {
+    boolean sameAs(StopSnapshot other, boolean comparePatterns) {
+      return (
+        coordinate.sameLocation(other.coordinate) &&
+        transfersNotAllowed == other.transfersNotAllowed &&
+        (!comparePatterns || patterns.equals(other.patterns))
+      );
+    }
+  }
+
+  /** The id and the sequence of stops of a pattern. */
+  private record PatternFingerprint(FeedScopedId id, List<FeedScopedId> stopIds) {
+    static PatternFingerprint of(TripPattern pattern) {
+      return new PatternFingerprint(
+        pattern.getId(),
+        pattern.getStops().stream().map(StopLocation::getId).toList()
+      );
+    }
+  }
+
+  /** The parts of a transfer request used by the street search generating the transfers. */
+  private record TransferRequestFingerprint(
+    StreetMode mode,
+    boolean wheelchair,
+    RoutingPreferences preferences
+  ) {
+    static List<TransferRequestFingerprint> of(List<RouteRequest> transferRequests) {
+      return transferRequests
+        .stream()
+        .map(it ->
+          new TransferRequestFingerprint(
+            it.journey().transfer().mode(),
+            it.wheelchair(),
+            it.preferences()
+          )
+        )
+        .toList();
+    }
+  }
+}
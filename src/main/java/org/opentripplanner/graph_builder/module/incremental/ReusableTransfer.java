@@ -0,0 +1,120 @@
+package org.opentripplanner.graph_builder.module.incremental;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StationElementVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+/**
+ * A {@link PathTransfer} from a previous build, detached from the stop vertices. The street part
+ * of the path is kept as is, while the links from and to the stop vertices are looked up again
+ * when the transfer is reused, since the stop vertices are re-created by the new build.
+ */
+record ReusableTransfer(
+  FeedScopedId toStopId,
+  double distanceMeters,
+  Class<? extends Edge> firstEdgeType,
+  Vertex firstStreetVertex,
+  List<Edge> streetEdges,
+  Class<? extends Edge> lastEdgeType,
+  Vertex lastStreetVertex
+) {
+  /**
+   * Create a reusable transfer, or return {@code null} if the path is not a plain street path
+   * between two linked stops - for example if it goes through pathways or entrances.
+   */
+  @Nullable
+  static ReusableTransfer of(PathTransfer transfer) {
+    List<Edge> edges = transfer.getEdges();
+    if (edges == null || edges.size() < 2) {
+      return null;
+    }
+    Edge first = edges.get(0);
+    Edge last = edges.get(edges.size() - 1);
+    if (
+      !(first.getFromVertex() instanceof TransitStopVertex) ||
+      first.getToVertex() instanceof StationElementVertex ||
+      !(last.getToVertex() instanceof TransitStopVertex) ||
+      last.getFromVertex() instanceof StationElementVertex
+    ) {
+      return null;
+    }
+    List<Edge> streetEdges = edges.subList(1, edges.size() - 1);
+    for (Edge edge : streetEdges) {
+      if (
+        edge.getFromVertex() instanceof StationElementVertex ||
+        edge.getToVertex() instanceof StationElementVertex
+      ) {
+        return null;
+      }
+    }
+    return new ReusableTransfer(
+      transfer.to.getId(),
+      transfer.getDistanceMeters(),
+      first.getClass(),
+      first.getToVertex(),
+      List.copyOf(streetEdges),
+      last.getClass(),
+      last.getFromVertex()
+    );
+  }
+
+  /**
+   * Create a transfer between the new stops using the same street path. Returns {@code null} if
+   * the new stop vertices are not linked to the same street vertices as before, or if any of the
+   * street edges has been removed from the graph (e.g. because it was split when a new stop was
+   * linked).
+   */
+  @Nullable
+  PathTransfer remap(
+    RegularStop from,
+    TransitStopVertex fromVertex,
+    RegularStop to,
+    TransitStopVertex toVertex
+  ) {
+    Edge first = findEdge(
+      fromVertex.getOutgoing(),
+      firstEdgeType,
+      e -> e.getToVertex() == firstStreetVertex
+    );
+    Edge last = findEdge(
+      toVertex.getIncoming(),
+      lastEdgeType,
+      e -> e.getFromVertex() == lastStreetVertex
+    );
+    if (first == null || last == null) {
+      return null;
+    }
+    for (Edge edge : streetEdges) {
+      if (edge.getFromVertex() == null || !edge.getFromVertex().getOutgoing().contains(edge)) {
+        return null;
+      }
+    }
+    List<Edge> edges = new ArrayList<>(streetEdges.size() + 2);
+    edges.add(first);
+    edges.addAll(streetEdges);
+    edges.add(last);
+    return new PathTransfer(from, to, distanceMeters, edges);
+  }
+
+  @Nullable
+  private static Edge findEdge(
+    Iterable<Edge> edges,
+    Class<? extends Edge> type,
+    Predicate<Edge> predicate
+  ) {
+    for (Edge edge : edges) {
+      if (edge.getClass() == type && predicate.test(edge)) {
+        return edge;
+      }
+    }
+    return null;
+  }
+}
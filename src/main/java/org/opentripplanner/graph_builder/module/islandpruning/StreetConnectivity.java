@@ -0,0 +1,333 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.ElevatorEdge;
+import org.opentripplanner.street.model.edge.FreeEdge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetTransitEntityLink;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * The connectivity of the street network for one traverse mode. Vertices are identified by their
+ * position in a shared {@link VertexIndex}, and the neighbours of each vertex are stored in flat
+ * int arrays. Links are stored in both directions, the network is treated as undirected.
+ * <p>
+ * Plain connected components are found with union-find. The island expansion which is not allowed
+ * to enter another island is done with a breadth-first search.
+ */
+class StreetConnectivity {
+
+  private final VertexIndex index;
+
+  /** The links of vertex {@code i} are {@code links[firstLink[i]]..links[firstLink[i+1]-1]}. */
+  private final int[] firstLink;
+  private final int[] links;
+
+  /** Links along an edge with no through traffic for the traverse mode. */
+  private final BitSet noThruLinks;
+
+  private StreetConnectivity(VertexIndex index, int[] firstLink, int[] links, BitSet noThruLinks) {
+    this.index = index;
+    this.firstLink = firstLink;
+    this.links = links;
+    this.noThruLinks = noThruLinks;
+  }
+
+  /**
+   * Find the links between vertices which can be traversed with the given mode. This is only
+   * reading the graph and is safe to do for several modes in parallel.
+   */
+  static StreetConnectivity of(VertexIndex index, TraverseMode traverseMode) {
+    StreetMode streetMode =
+      switch (traverseMode) {
+        case WALK -> StreetMode.WALK;
+        case BICYCLE -> StreetMode.BIKE;
+        case CAR -> StreetMode.CAR;
+        default -> throw new IllegalArgumentException();
+      };
+
+    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
+
+    int n = index.size();
+    TIntArrayList from = new TIntArrayList();
+    TIntArrayList to = new TIntArrayList();
+    BitSet noThruPairs = new BitSet();
+    int[] degree = new int[n];
+
+    for (int i = 0; i < n; ++i) {
+      Vertex gv = index.vertex(i);
+      if (!(gv instanceof StreetVertex)) {
+        continue;
+      }
+      State s0 = new State(gv, request);
+      for (Edge e : gv.getOutgoing()) {
+        if (
+          !(
+            e instanceof StreetEdge ||
+            e instanceof ElevatorEdge ||
+            e instanceof FreeEdge ||
+            e instanceof StreetTransitEntityLink
+          )
+        ) {
+          continue;
+        }
+        State s1 = e.traverse(s0);
+        if (s1 == null) {
+          continue;
+        }
+        int j = index.indexOf(s1.getVertex());
+        if (j < 0) {
+          continue;
+        }
+        if (e instanceof StreetEdge se && se.isNoThruTraffic(traverseMode)) {
+          noThruPairs.set(from.size());
+        }
+        // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
+        from.add(i);
+        to.add(j);
+        degree[i]++;
+        degree[j]++;
+      }
+    }
+
+    int[] firstLink = new int[n + 1];
+    for (int i = 0; i < n; ++i) {
+      firstLink[i + 1] = firstLink[i] + degree[i];
+    }
+    int[] next = new int[n];
+    System.arraycopy(firstLink, 0, next, 0, n);
+    int[] links = new int[firstLink[n]];
+    BitSet noThruLinks = new BitSet();
+
+    for (int p = 0; p < from.size(); ++p) {
+      int i = from.get(p);
+      int j = to.get(p);
+      boolean noThru = noThruPairs.get(p);
+      if (noThru) {
+        noThruLinks.set(next[i]);
+        noThruLinks.set(next[j]);
+      }
+      links[next[i]++] = j;
+      links[next[j]++] = i;
+    }
+    return new StreetConnectivity(index, firstLink, links, noThruLinks);
+  }
+
+  /**
+   * Label each vertex with the connected component it belongs to. Vertices without any links are
+   * labeled {@code -1}.
+   *
+   * @param includeNoThru if false, links along no through traffic edges are ignored.
+   */
+  int[] components(boolean includeNoThru) {
+    int n = index.size();
+    int[] parent = new int[n];
+    int[] size = new int[n];
+    boolean[] linked = new boolean[n];
+    for (int i = 0; i < n; ++i) {
+      parent[i] = i;
+      size[i] = 1;
+    }
+    for (int i = 0; i < n; ++i) {
+      for (int k = firstLink[i]; k < firstLink[i + 1]; ++k) {
+        if (!includeNoThru && noThruLinks.get(k)) {
+          continue;
+        }
+        linked[i] = true;
+        int j = links[k];
+        if (j > i) {
+          union(parent, size, i, j);
+        }
+      }
+    }
+    int[] labels = new int[n];
+    for (int i = 0; i < n; ++i) {
+      labels[i] = linked[i] ? find(parent, i) : -1;
+    }
+    return labels;
+  }
+
+  /**
+   * The components when no through traffic links are ignored, used as anchors when expanding the
+   * islands. Only street vertices are labeled.
+   */
+  int[] anchors() {
+    int[] labels = components(false);
+    for (int i = 0; i < labels.length; ++i) {
+      if (!(index.vertex(i) instanceof StreetVertex)) {
+        labels[i] = -1;
+      }
+    }
+    return labels;
+  }
+
+  /**
+   * Create a subgraph for each component that has a street vertex. The subgraphs are ordered by
+   * the position of their first street vertex in the index.
+   */
+  List<Subgraph> subgraphs(int[] labels) {
+    int n = index.size();
+    Subgraph[] subgraphByLabel = new Subgraph[n];
+    List<Subgraph> result = new ArrayList<>();
+    for (int i = 0; i < n; ++i) {
+      int label = labels[i];
+      if (label < 0 || !(index.vertex(i) instanceof StreetVertex)) {
+        continue;
+      }
+      if (subgraphByLabel[label] == null) {
+        subgraphByLabel[label] = new Subgraph();
+        result.add(subgraphByLabel[label]);
+      }
+      subgraphByLabel[label].addVertex(index.vertex(i));
+    }
+    // Add the other vertices, like transit stops, to the subgraph they are connected to
+    for (int i = 0; i < n; ++i) {
+      int label = labels[i];
+      if (label < 0 || index.vertex(i) instanceof StreetVertex) {
+        continue;
+      }
+      if (subgraphByLabel[label] != null) {
+        subgraphByLabel[label].addVertex(index.vertex(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Expand subgraphs from all street vertices that are not yet mapped, following all links. The
+   * street vertices of each new subgraph are marked as mapped.
+   *
+   * @param anchors if not null, only start from vertices with an anchor label, and do not enter
+   *                vertices with a different anchor label than the start vertex.
+   * @param mapped  the subgraph number of each mapped vertex, or {@code -1}. Updated in place.
+   * @return the number of new subgraphs.
+   */
+  int expandSubgraphs(int[] anchors, int[] mapped, List<Subgraph> islands) {
+    int n = index.size();
+    int[] visited = new int[n];
+    // Each vertex is queued once, except the start vertex which is queued again when reached
+    int[] queue = new int[n + 1];
+    int stamp = 0;
+    int count = 0;
+
+    for (int start = 0; start < n; ++start) {
+      if (!(index.vertex(start) instanceof StreetVertex)) {
+        continue;
+      }
+      if (anchors != null && anchors[start] < 0) {
+        // do not start new graph generation from non-classified vertex
+        continue;
+      }
+      if (mapped[start] >= 0 || firstLink[start] == firstLink[start + 1]) {
+        continue;
+      }
+      int anchor = anchors == null ? -1 : anchors[start];
+      Subgraph subgraph = new Subgraph();
+      ++stamp;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail) {
+        int v = queue[head++];
+        for (int k = firstLink[v]; k < firstLink[v + 1]; ++k) {
+          int neighbor = links[k];
+          if (visited[neighbor] == stamp || mapped[neighbor] >= 0) {
+            continue;
+          }
+          // do not enter a new island
+          if (anchor >= 0 && anchors[neighbor] >= 0 && anchors[neighbor] != anchor) {
+            continue;
+          }
+          visited[neighbor] = stamp;
+          subgraph.addVertex(index.vertex(neighbor));
+          queue[tail++] = neighbor;
+        }
+      }
+      for (int q = 0; q < tail; ++q) {
+        int v = queue[q];
+        if (visited[v] == stamp && index.vertex(v) instanceof StreetVertex) {
+          mapped[v] = count;
+        }
+      }
+      islands.add(subgraph);
+      count++;
+    }
+    return count;
+  }
+
+  /** An estimate of the memory used by this instance, not including the shared index. */
+  long estimatedMemoryBytes() {
+    return 4L * firstLink.length + 4L * links.length + noThruLinks.size() / 8;
+  }
+
+  int numberOfLinks() {
+    return links.length;
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      // path halving
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int[] size, int a, int b) {
+    int ra = find(parent, a);
+    int rb = find(parent, b);
+    if (ra == rb) {
+      return;
+    }
+    if (size[ra] < size[rb]) {
+      int tmp = ra;
+      ra = rb;
+      rb = tmp;
+    }
+    parent[rb] = ra;
+    size[ra] += size[rb];
+  }
+
+  /**
+   * Assigns an integer index to each vertex of the graph. The index is shared by all traverse
+   * modes, the graph must not get new vertices while it is in use.
+   */
+  static class VertexIndex {
+
+    private final Vertex[] vertices;
+    private final Map<Vertex, Integer> indexOf;
+
+    VertexIndex(Collection<Vertex> vertices) {
+      this.vertices = vertices.toArray(new Vertex[0]);
+      this.indexOf = new IdentityHashMap<>(this.vertices.length);
+      for (int i = 0; i < this.vertices.length; ++i) {
+        indexOf.put(this.vertices[i], i);
+      }
+    }
+
+    int size() {
+      return vertices.length;
+    }
+
+    Vertex vertex(int i) {
+      return vertices[i];
+    }
+
+    int indexOf(Vertex v) {
+      Integer i = indexOf.get(v);
+      return i == null ? -1 : i;
+    }
+  }
+}
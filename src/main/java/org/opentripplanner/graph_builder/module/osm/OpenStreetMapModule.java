@@ -93,6 +93,11 @@ public class OpenStreetMapModule implements GraphBuilderModule {
    */
   public boolean banDiscouragedWalking = false;
   public boolean banDiscouragedBiking = false;
+  /**
+   * Whether the per-way preparation (tag evaluation, naming and node clean-up) should be done in
+   * parallel. The street vertices and edges are always created on a single thread.
+   */
+  public boolean multiThreaded = false;
 
   public OpenStreetMapModule(
     Collection<OpenStreetMapProvider> providers,
@@ -123,6 +128,7 @@ public class OpenStreetMapModule implements GraphBuilderModule {
     this.banDiscouragedWalking = config.banDiscouragedWalking;
     this.banDiscouragedBiking = config.banDiscouragedBiking;
     this.maxAreaNodes = config.maxAreaNodes;
+    this.multiThreaded = config.multiThreadStreetGraphBuild;
   }
 
   @Override
@@ -142,6 +148,10 @@ public class OpenStreetMapModule implements GraphBuilderModule {
     LOG.info("Building street graph from OSM");
     handler.buildGraph();
     graph.hasStreets = true;
+
+    for (OpenStreetMapProvider provider : providers) {
+      provider.getWayPropertySet().logCacheStatistics();
+    }
   }
 
   @Override
@@ -157,6 +167,19 @@ public class OpenStreetMapModule implements GraphBuilderModule {
 
   private record StreetEdgePair(StreetEdge main, StreetEdge back) {}
 
+  /**
+   * The result of the per-way work done before any vertices or edges are created. This does not
+   * depend on any other way, so it can be computed in parallel.
+   *
+   * @param nodes The node ids of the way with consecutive duplicate nodes removed.
+   */
+  private record PreparedWay(
+    OSMWay way,
+    WayProperties wayData,
+    StreetTraversalPermission permissions,
+    List<Long> nodes
+  ) {}
+
   protected class Handler {
 
     private static final String nodeLabelFormat = "osm:node:%d";
@@ -475,47 +498,25 @@ public class OpenStreetMapModule implements GraphBuilderModule {
       ProgressTracker progress = ProgressTracker.track("Build street graph", 5_000, wayCount);
       LOG.info(progress.startMessage());
 
-      WAY:for (OSMWay way : osmdb.getWays()) {
-        WayProperties wayData = way.getOsmProvider().getWayPropertySet().getDataForWay(way);
-        setWayName(way);
-        StreetTraversalPermission permissions = OSMFilter.getPermissionsForWay(
-          way,
-          wayData.getPermission(),
-          banDiscouragedWalking,
-          banDiscouragedBiking,
-          issueStore
-        );
-        if (!OSMFilter.isWayRoutable(way) || permissions.allowsNothing()) continue;
-
-        // handle duplicate nodes in OSM ways
-        // this is a workaround for crappy OSM data quality
-        ArrayList<Long> nodes = new ArrayList<>(way.getNodeRefs().size());
-        long last = -1;
-        double lastLat = -1, lastLon = -1;
-        String lastLevel = null;
-        for (TLongIterator iter = way.getNodeRefs().iterator(); iter.hasNext();) {
-          long nodeId = iter.next();
-          OSMNode node = osmdb.getNode(nodeId);
-          if (node == null) continue WAY;
-          boolean levelsDiffer = false;
-          String level = node.getTag("level");
-          if (lastLevel == null) {
-            if (level != null) {
-              levelsDiffer = true;
-            }
-          } else {
-            if (!lastLevel.equals(level)) {
-              levelsDiffer = true;
-            }
-          }
-          if (
-            nodeId != last && (node.lat != lastLat || node.lon != lastLon || levelsDiffer)
-          ) nodes.add(nodeId);
-          last = nodeId;
-          lastLon = node.lon;
-          lastLat = node.lat;
-          lastLevel = level;
+      // The preparation of each way is independent of the other ways, and the encounter order
+      // is kept so the graph is built in the same order with or without multi-threading.
+      var ways = osmdb.getWays().stream();
+      if (multiThreaded) {
+        ways = ways.parallel();
+      }
+      List<PreparedWay> preparedWays = ways.map(this::prepareWay).toList();
+
+      for (PreparedWay preparedWay : preparedWays) {
+        if (preparedWay == null) {
+          //Keep lambda! A method-ref would log incorrect class and line number
+          //noinspection Convert2MethodRef
+          progress.step(m -> LOG.info(m));
+          continue;
         }
+        OSMWay way = preparedWay.way();
+        WayProperties wayData = preparedWay.wayData();
+        StreetTraversalPermission permissions = preparedWay.permissions();
+        List<Long> nodes = preparedWay.nodes();
 
         IntersectionVertex startEndpoint = null;
         IntersectionVertex endEndpoint = null;
@@ -628,6 +629,60 @@ public class OpenStreetMapModule implements GraphBuilderModule {
       LOG.info(progress.completeMessage());
     }
 
+    /**
+     * Evaluate the tags of the way and remove duplicate nodes. This must not modify any state
+     * shared with other ways, since it may run in parallel.
+     *
+     * @return {@code null} if no street edges should be created for the way.
+     */
+    private PreparedWay prepareWay(OSMWay way) {
+      WayProperties wayData = way.getOsmProvider().getWayPropertySet().getDataForWay(way);
+      setWayName(way);
+      StreetTraversalPermission permissions = OSMFilter.getPermissionsForWay(
+        way,
+        wayData.getPermission(),
+        banDiscouragedWalking,
+        banDiscouragedBiking,
+        issueStore
+      );
+      if (!OSMFilter.isWayRoutable(way) || permissions.allowsNothing()) {
+        return null;
+      }
+
+      // handle duplicate nodes in OSM ways
+      // this is a workaround for crappy OSM data quality
+      ArrayList<Long> nodes = new ArrayList<>(way.getNodeRefs().size());
+      long last = -1;
+      double lastLat = -1, lastLon = -1;
+      String lastLevel = null;
+      for (TLongIterator iter = way.getNodeRefs().iterator(); iter.hasNext();) {
+        long nodeId = iter.next();
+        OSMNode node = osmdb.getNode(nodeId);
+        if (node == null) {
+          return null;
+        }
+        boolean levelsDiffer = false;
+        String level = node.getTag("level");
+        if (lastLevel == null) {
+          if (level != null) {
+            levelsDiffer = true;
+          }
+        } else {
+          if (!lastLevel.equals(level)) {
+            levelsDiffer = true;
+          }
+        }
+        if (
+          nodeId != last && (node.lat != lastLat || node.lon != lastLon || levelsDiffer)
+        ) nodes.add(nodeId);
+        last = nodeId;
+        lastLon = node.lon;
+        lastLat = node.lat;
+        lastLevel = level;
+      }
+      return new PreparedWay(way, wayData, permissions, nodes);
+    }
+
     private void setWayName(OSMWithTags way) {
       if (!way.hasTag("name")) {
         I18NString creativeName = way
@@ -0,0 +1,150 @@
+package org.opentripplanner.model;
+
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * The trips of a {@link Timetable} sorted by their arrival and departure times at each stop of
+ * the pattern. This is used to find the next departures from a stop, for departure boards, with a
+ * binary search instead of going through all trips of the timetable and sorting them.
+ * <p>
+ * For each stop position the order of the trips is kept in an array of trip indexes, sorted by
+ * time and then by trip index. The times are read from the trip times. Trips rarely overtake each
+ * other, so the arrays are shared between the arrivals and departures of a stop, and between
+ * consecutive stops, when the order is the same. Most patterns then need a single array. The
+ * index keeps its own list of the trip times it is built from, so it stays consistent even if the
+ * timetable is changed later. The {@link Timetable} builds it the first time it is used, and drops
+ * it when its trip times change.
+ */
+public final class StopTimeIndex {
+
+  private final List<TripTimes> tripTimes;
+  private final int[][] arrivalOrder;
+  private final int[][] departureOrder;
+
+  StopTimeIndex(List<TripTimes> tripTimes, int numberOfStops) {
+    this.tripTimes = List.copyOf(tripTimes);
+    this.arrivalOrder = new int[numberOfStops][];
+    this.departureOrder = new int[numberOfStops][];
+
+    // The time is put in the upper and the trip index in the lower half of a long, so sorting the
+    // longs sorts by time and then by trip index
+    long[] buffer = new long[tripTimes.size()];
+    int[] previous = null;
+    for (int stopPos = 0; stopPos < numberOfStops; stopPos++) {
+      for (int i = 0; i < buffer.length; i++) {
+        buffer[i] = pack(tripTimes.get(i).getArrivalTime(stopPos), i);
+      }
+      arrivalOrder[stopPos] = previous = shared(sortedTripIndexes(buffer), previous);
+
+      for (int i = 0; i < buffer.length; i++) {
+        buffer[i] = pack(tripTimes.get(i).getDepartureTime(stopPos), i);
+      }
+      departureOrder[stopPos] = previous = shared(sortedTripIndexes(buffer), previous);
+    }
+  }
+
+  /** The number of trips in the index, the same at each stop. */
+  public int size(int stopPos) {
+    return departureOrder[stopPos].length;
+  }
+
+  /**
+   * The position of the first arrival at or after the given time at the stop, or {@link #size}
+   * if there is none.
+   */
+  public int firstArrival(int stopPos, int time) {
+    int[] order = arrivalOrder[stopPos];
+    int low = 0;
+    int high = order.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (tripTimes.get(order[mid]).getArrivalTime(stopPos) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  public int arrivalTime(int stopPos, int i) {
+    return arrivalTripTimes(stopPos, i).getArrivalTime(stopPos);
+  }
+
+  /** The index of the trip in the {@link Timetable#getTripTimes()} list. */
+  public int arrivalTripIndex(int stopPos, int i) {
+    return arrivalOrder[stopPos][i];
+  }
+
+  public TripTimes arrivalTripTimes(int stopPos, int i) {
+    return tripTimes.get(arrivalOrder[stopPos][i]);
+  }
+
+  /**
+   * The position of the first departure at or after the given time at the stop, or {@link #size}
+   * if there is none.
+   */
+  public int firstDeparture(int stopPos, int time) {
+    int[] order = departureOrder[stopPos];
+    int low = 0;
+    int high = order.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (tripTimes.get(order[mid]).getDepartureTime(stopPos) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  public int departureTime(int stopPos, int i) {
+    return departureTripTimes(stopPos, i).getDepartureTime(stopPos);
+  }
+
+  /** The index of the trip in the {@link Timetable#getTripTimes()} list. */
+  public int departureTripIndex(int stopPos, int i) {
+    return departureOrder[stopPos][i];
+  }
+
+  public TripTimes departureTripTimes(int stopPos, int i) {
+    return tripTimes.get(departureOrder[stopPos][i]);
+  }
+
+  /** The number of distinct arrays held by the index, used to test the sharing. */
+  int numberOfDistinctOrders() {
+    int n = 0;
+    int[] previous = null;
+    for (int stopPos = 0; stopPos < departureOrder.length; stopPos++) {
+      if (arrivalOrder[stopPos] != previous) {
+        n++;
+      }
+      if (departureOrder[stopPos] != arrivalOrder[stopPos]) {
+        n++;
+      }
+      previous = departureOrder[stopPos];
+    }
+    return n;
+  }
+
+  private static long pack(int time, int tripIndex) {
+    return ((long) time << 32) | tripIndex;
+  }
+
+  private static int[] sortedTripIndexes(long[] buffer) {
+    Arrays.sort(buffer);
+    int[] tripIndexes = new int[buffer.length];
+    for (int i = 0; i < buffer.length; i++) {
+      tripIndexes[i] = (int) buffer[i];
+    }
+    return tripIndexes;
+  }
+
+  /** Return the previous array instead of the new one, if they are equal. */
+  private static int[] shared(int[] order, int[] previous) {
+    return Arrays.equals(order, previous) ? previous : order;
+  }
+}
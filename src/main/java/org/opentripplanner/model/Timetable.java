@@ -55,6 +55,9 @@ public class Timetable implements Serializable {
 
   private final LocalDate serviceDate;
 
+  /** Built the first time it is used, and dropped when the trip times change. */
+  private transient volatile StopTimeIndex stopTimeIndex;
+
   /** Construct an empty Timetable. */
   public Timetable(TripPattern pattern) {
     this.pattern = pattern;
@@ -130,6 +133,7 @@ public class Timetable implements Serializable {
    * @return old trip times of trip
    */
   public TripTimes setTripTimes(int tripIndex, TripTimes tt) {
+    stopTimeIndex = null;
     return tripTimes.set(tripIndex, tt);
   }
 
@@ -362,9 +366,20 @@ public class Timetable implements Serializable {
    * scheduled trip or a realtime-added trip.
    */
   public void addTripTimes(TripTimes tt) {
+    stopTimeIndex = null;
     tripTimes.add(tt);
   }
 
+  /**
+   * Remove the trip times from this Timetable.
+   *
+   * @return true if the trip times were in the timetable
+   */
+  public boolean removeTripTimes(TripTimes tt) {
+    stopTimeIndex = null;
+    return tripTimes.remove(tt);
+  }
+
   /**
    * Add a frequency entry to this Timetable. See addTripTimes method. Maybe Frequency Entries
    * should just be TripTimes for simplicity.
@@ -405,6 +420,21 @@ public class Timetable implements Serializable {
     return tripTimes;
   }
 
+  /**
+   * The trip times sorted by time at each stop of the pattern, see {@link StopTimeIndex}. The
+   * index is built the first time this method is called after the trip times are changed. The
+   * trip times of the index should be read from the index, not from this timetable, since the
+   * timetable may change while the index is in use.
+   */
+  public StopTimeIndex getStopTimeIndex() {
+    StopTimeIndex index = stopTimeIndex;
+    if (index == null) {
+      index = new StopTimeIndex(tripTimes, pattern.numberOfStops());
+      stopTimeIndex = index;
+    }
+    return index;
+  }
+
   /**
    * Contains one FrequencyEntry object for each block of frequency-based trips.
    */
@@ -1,19 +1,19 @@
 package org.opentripplanner.model;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map.Entry;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import org.opentripplanner.framework.collection.PersistentMap;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.framework.Result;
@@ -56,36 +56,44 @@ public class TimetableSnapshot {
    * Route) for which we have an updated Timetable. The keys include both TripPatterns from the
    * scheduled GTFS, and TripPatterns added by realtime messages and tracked by the
    * TripPatternCache. Note that the keys will not include all scheduled TripPatterns, only those
-   * for which we've got an update. We use a HashMap rather than a Map so we can clone it. If this
-   * turns out to be slow/spacious we can use an array with integer pattern indexes. The SortedSet
-   * members are copy-on-write.
-   * FIXME: this could be made into a flat hashtable with compound keys.
+   * for which we've got an update. The map is persistent, so a commit can share it with the
+   * committed snapshot instead of copying it. The SortedSet members are copy-on-write.
    */
-  private HashMap<TripPattern, SortedSet<Timetable>> timetables = new HashMap();
+  private PersistentMap<TripPattern, SortedSet<Timetable>> timetables = PersistentMap.empty();
 
   /**
    * <p>
    * Map containing the current trip pattern given a trip id and a service date, if it has been
    * changed from the scheduled pattern with an update, for which the stopPattern is different.
    * </p>
-   * <p>
-   * This is a HashMap and not a Map so the clone function is available.
    */
-  private HashMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern = new HashMap<>();
+  private PersistentMap<TripIdAndServiceDate, TripPattern> realtimeAddedTripPattern = PersistentMap.empty();
 
-  private HashMap<FeedScopedId, TripOnServiceDate> realtimeAddedTripOnServiceDate = new HashMap<>();
-  private HashMap<TripIdAndServiceDate, TripOnServiceDate> realtimeAddedTripOnServiceDateByTripIdAndServiceDate = new HashMap<>();
+  private PersistentMap<FeedScopedId, TripOnServiceDate> realtimeAddedTripOnServiceDate = PersistentMap.empty();
+  private PersistentMap<TripIdAndServiceDate, TripOnServiceDate> realtimeAddedTripOnServiceDateByTripIdAndServiceDate = PersistentMap.empty();
 
   /**
    * This maps contains all of the new or updated TripPatterns added by realtime data indexed on
    * stop. This has to be kept in order for them to be included in the stop times api call on a
    * specific stop.
    * <p>
-   * This is a SetMultimap, so that each pattern can only be added once.
+   * The pattern sets are copy-on-write, so that each pattern can only be added once and the map
+   * can be shared with the committed snapshot.
    * <p>
    * TODO Find a generic way to keep all realtime indexes.
    */
-  private SetMultimap<StopLocation, TripPattern> patternsForStop = HashMultimap.create();
+  private PersistentMap<StopLocation, Set<TripPattern>> patternsForStop = PersistentMap.empty();
+
+  /**
+   * The patterns with an updated timetable, by the service date of the timetable. Together with
+   * {@link #realtimeAddedTripPatternsByServiceDate} this is used to find the expired data without
+   * scanning all timetables. Entries are not removed when the data is cleared, so the index may
+   * point to data that no longer exists. The index is only used by the buffer, and is not part of
+   * committed snapshots.
+   */
+  private final TreeMap<LocalDate, Set<TripPattern>> patternsByServiceDate = new TreeMap<>();
+
+  private final TreeMap<LocalDate, Set<TripIdAndServiceDate>> realtimeAddedTripPatternsByServiceDate = new TreeMap<>();
 
   /**
    * Boolean value indicating that timetable snapshot is read only if true. Once it is true, it
@@ -139,10 +147,12 @@ public class TimetableSnapshot {
       }
 
       if (tripTimesToRemove != null) {
-        for (Timetable sortedTimetable : sortedTimetables) {
-          boolean isDirty = sortedTimetable.getTripTimes().remove(tripTimesToRemove);
-          if (isDirty) {
-            dirtyTimetables.add(sortedTimetable);
+        // The timetables may be shared with the committed snapshot, so they are copied before the
+        // trip is removed, like in update()
+        for (Timetable sortedTimetable : List.copyOf(sortedTimetables)) {
+          if (sortedTimetable.getTripTimes().contains(tripTimesToRemove)) {
+            LocalDate date = sortedTimetable.getServiceDate();
+            copyTimetable(tripPattern, date, sortedTimetable).removeTripTimes(tripTimesToRemove);
           }
         }
       }
@@ -191,26 +201,7 @@ public class TimetableSnapshot {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
     }
 
-    Timetable tt = resolve(pattern, serviceDate);
-    // we need to perform the copy of Timetable here rather than in Timetable.update()
-    // to avoid repeatedly copying in case several updates are applied to the same timetable
-    if (!dirtyTimetables.contains(tt)) {
-      Timetable old = tt;
-      tt = new Timetable(tt, serviceDate);
-      SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
-      if (sortedTimetables == null) {
-        sortedTimetables = new TreeSet<>(new SortedTimetableComparator());
-      } else {
-        SortedSet<Timetable> temp = new TreeSet<>(new SortedTimetableComparator());
-        temp.addAll(sortedTimetables);
-        sortedTimetables = temp;
-      }
-      if (old.getServiceDate() != null) sortedTimetables.remove(old);
-      sortedTimetables.add(tt);
-      timetables.put(pattern, sortedTimetables);
-      dirtyTimetables.add(tt);
-      dirty = true;
-    }
+    Timetable tt = copyTimetable(pattern, serviceDate, resolve(pattern, serviceDate));
 
     // Assume all trips in a pattern are from the same feed, which should be the case.
     // Find trip index
@@ -227,7 +218,10 @@ public class TimetableSnapshot {
       // Remember this pattern for the added trip id and service date
       FeedScopedId tripId = updatedTripTimes.getTrip().getId();
       TripIdAndServiceDate tripIdAndServiceDate = new TripIdAndServiceDate(tripId, serviceDate);
-      realtimeAddedTripPattern.put(tripIdAndServiceDate, pattern);
+      realtimeAddedTripPattern = realtimeAddedTripPattern.with(tripIdAndServiceDate, pattern);
+      realtimeAddedTripPatternsByServiceDate
+        .computeIfAbsent(serviceDate, d -> new HashSet<>())
+        .add(tripIdAndServiceDate);
     }
 
     // To make these trip patterns visible for departureRow searches.
@@ -239,12 +233,42 @@ public class TimetableSnapshot {
   }
 
   /**
-   * This produces a small delay of typically around 50ms, which is almost entirely due to the
-   * indexing step. Cloning the map is much faster (2ms). It is perhaps better to index timetables
-   * as they are changed to avoid experiencing all this lag at once, but we want to avoid
-   * re-indexing when receiving multiple updates for the same timetable in rapid succession. This
-   * compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater. The indexing
-   * could be made much more efficient as well.
+   * Return a copy of the timetable that can be changed, and replace the timetable with it in this
+   * buffer. The committed snapshots share the timetables with this buffer, so they must never be
+   * changed. A timetable that was already copied since the last commit is returned as it is.
+   */
+  private Timetable copyTimetable(TripPattern pattern, LocalDate serviceDate, Timetable tt) {
+    // we need to perform the copy of Timetable here rather than in Timetable.update()
+    // to avoid repeatedly copying in case several updates are applied to the same timetable
+    if (dirtyTimetables.contains(tt)) {
+      return tt;
+    }
+    Timetable old = tt;
+    tt = new Timetable(tt, serviceDate);
+    SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
+    if (sortedTimetables == null) {
+      sortedTimetables = new TreeSet<>(new SortedTimetableComparator());
+    } else {
+      SortedSet<Timetable> temp = new TreeSet<>(new SortedTimetableComparator());
+      temp.addAll(sortedTimetables);
+      sortedTimetables = temp;
+    }
+    if (old.getServiceDate() != null) sortedTimetables.remove(old);
+    sortedTimetables.add(tt);
+    timetables = timetables.with(pattern, sortedTimetables);
+    patternsByServiceDate.computeIfAbsent(serviceDate, d -> new HashSet<>()).add(pattern);
+    dirtyTimetables.add(tt);
+    dirty = true;
+    return tt;
+  }
+
+  /**
+   * The maps of the snapshot are persistent, so the committed snapshot shares them with this
+   * buffer, and the cost of a commit does not depend on the size of the snapshot. The remaining
+   * delay is due to updating the transit layer with the dirty timetables. It is perhaps better to
+   * index timetables as they are changed to avoid experiencing all this lag at once, but we want to
+   * avoid re-indexing when receiving multiple updates for the same timetable in rapid succession.
+   * This compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater.
    *
    * @return an immutable copy of this TimetableSnapshot with all updates applied
    */
@@ -252,34 +276,35 @@ public class TimetableSnapshot {
     return commit(null, false);
   }
 
-  @SuppressWarnings("unchecked")
   public TimetableSnapshot commit(TransitLayerUpdater transitLayerUpdater, boolean force) {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
     }
 
-    TimetableSnapshot ret = new TimetableSnapshot();
     if (!force && !this.isDirty()) {
       return null;
     }
-    ret.timetables = (HashMap<TripPattern, SortedSet<Timetable>>) this.timetables.clone();
-    ret.realtimeAddedTripPattern =
-      (HashMap<TripIdAndServiceDate, TripPattern>) this.realtimeAddedTripPattern.clone();
+    var measurement = TimetableSnapshotCommitMetrics.start();
+    int numberOfDirtyTimetables = dirtyTimetables.size();
+
+    TimetableSnapshot ret = new TimetableSnapshot();
+    ret.timetables = this.timetables;
+    ret.realtimeAddedTripPattern = this.realtimeAddedTripPattern;
 
     if (transitLayerUpdater != null) {
       transitLayerUpdater.update(dirtyTimetables, timetables);
     }
 
-    ret.realtimeAddedTripOnServiceDate =
-      (HashMap<FeedScopedId, TripOnServiceDate>) this.realtimeAddedTripOnServiceDate.clone();
+    ret.realtimeAddedTripOnServiceDate = this.realtimeAddedTripOnServiceDate;
     ret.realtimeAddedTripOnServiceDateByTripIdAndServiceDate =
-      (HashMap<TripIdAndServiceDate, TripOnServiceDate>) this.realtimeAddedTripOnServiceDateByTripIdAndServiceDate.clone();
+      this.realtimeAddedTripOnServiceDateByTripIdAndServiceDate;
     this.dirtyTimetables.clear();
     this.dirty = false;
 
-    ret.setPatternsForStop(HashMultimap.create(this.patternsForStop));
+    ret.patternsForStop = this.patternsForStop;
 
     ret.readOnly = true; // mark the snapshot as henceforth immutable
+    measurement.stop(numberOfDirtyTimetables);
     return ret;
   }
 
@@ -307,52 +332,64 @@ public class TimetableSnapshot {
    * trip times from the timetable the trip has been added to.
    */
   public void removeLastAddedTripPattern(FeedScopedId feedScopedTripId, LocalDate serviceDate) {
-    realtimeAddedTripPattern.remove(new TripIdAndServiceDate(feedScopedTripId, serviceDate));
+    realtimeAddedTripPattern =
+      realtimeAddedTripPattern.without(new TripIdAndServiceDate(feedScopedTripId, serviceDate));
   }
 
   /**
-   * Removes all Timetables which are valid for a ServiceDate on-or-before the one supplied.
+   * Removes all Timetables which are valid for a ServiceDate on-or-before the one supplied. Only
+   * the data indexed on the expired service dates is visited.
    */
   public boolean purgeExpiredData(LocalDate serviceDate) {
     if (readOnly) {
       throw new ConcurrentModificationException("This TimetableSnapshot is read-only.");
     }
+    long startTime = System.nanoTime();
+    int purged = 0;
+
+    var expiredPatternsByDate = patternsByServiceDate.headMap(serviceDate, true);
+    Set<TripPattern> expiredPatterns = new HashSet<>();
+    expiredPatternsByDate.values().forEach(expiredPatterns::addAll);
+    expiredPatternsByDate.clear();
 
-    boolean modified = false;
-    for (Iterator<TripPattern> it = timetables.keySet().iterator(); it.hasNext();) {
-      TripPattern pattern = it.next();
+    for (TripPattern pattern : expiredPatterns) {
       SortedSet<Timetable> sortedTimetables = timetables.get(pattern);
+      if (sortedTimetables == null) {
+        continue;
+      }
       SortedSet<Timetable> toKeepTimetables = new TreeSet<>(new SortedTimetableComparator());
       for (Timetable timetable : sortedTimetables) {
         if (serviceDate.compareTo(timetable.getServiceDate()) < 0) {
           toKeepTimetables.add(timetable);
-        } else {
-          modified = true;
         }
       }
 
+      if (toKeepTimetables.size() == sortedTimetables.size()) {
+        continue;
+      }
+      purged += sortedTimetables.size() - toKeepTimetables.size();
       if (toKeepTimetables.isEmpty()) {
-        it.remove();
+        timetables = timetables.without(pattern);
       } else {
-        timetables.put(pattern, toKeepTimetables);
+        timetables = timetables.with(pattern, toKeepTimetables);
       }
     }
 
     // Also remove last added trip pattern for days that are purged
-    for (
-      Iterator<Entry<TripIdAndServiceDate, TripPattern>> iterator = realtimeAddedTripPattern
-        .entrySet()
-        .iterator();
-      iterator.hasNext();
-    ) {
-      TripIdAndServiceDate tripIdAndServiceDate = iterator.next().getKey();
-      if (serviceDate.compareTo(tripIdAndServiceDate.serviceDate()) >= 0) {
-        iterator.remove();
-        modified = true;
+    var expiredTripsByDate = realtimeAddedTripPatternsByServiceDate.headMap(serviceDate, true);
+    for (Set<TripIdAndServiceDate> expiredTrips : expiredTripsByDate.values()) {
+      for (TripIdAndServiceDate tripIdAndServiceDate : expiredTrips) {
+        var remaining = realtimeAddedTripPattern.without(tripIdAndServiceDate);
+        if (remaining != realtimeAddedTripPattern) {
+          realtimeAddedTripPattern = remaining;
+          ++purged;
+        }
       }
     }
+    expiredTripsByDate.clear();
 
-    return modified;
+    TimetableSnapshotPurgeMetrics.record(purged, System.nanoTime() - startTime);
+    return purged > 0;
   }
 
   public boolean isDirty() {
@@ -368,26 +405,24 @@ public class TimetableSnapshot {
   }
 
   public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
-    return patternsForStop.get(stop);
-  }
-
-  public void setPatternsForStop(SetMultimap<StopLocation, TripPattern> patternsForStop) {
-    this.patternsForStop = patternsForStop;
+    return patternsForStop.getOrDefault(stop, Set.of());
   }
 
   public void addLastAddedTripOnServiceDate(TripOnServiceDate tripOnServiceDate) {
-    realtimeAddedTripOnServiceDate.put(tripOnServiceDate.getId(), tripOnServiceDate);
-    realtimeAddedTripOnServiceDateByTripIdAndServiceDate.put(
-      tripOnServiceDate.getTripIdAndServiceDate(),
-      tripOnServiceDate
-    );
+    realtimeAddedTripOnServiceDate =
+      realtimeAddedTripOnServiceDate.with(tripOnServiceDate.getId(), tripOnServiceDate);
+    realtimeAddedTripOnServiceDateByTripIdAndServiceDate =
+      realtimeAddedTripOnServiceDateByTripIdAndServiceDate.with(
+        tripOnServiceDate.getTripIdAndServiceDate(),
+        tripOnServiceDate
+      );
   }
 
-  public HashMap<FeedScopedId, TripOnServiceDate> getRealtimeAddedTripOnServiceDate() {
+  public Map<FeedScopedId, TripOnServiceDate> getRealtimeAddedTripOnServiceDate() {
     return realtimeAddedTripOnServiceDate;
   }
 
-  public HashMap<TripIdAndServiceDate, TripOnServiceDate> getRealtimeAddedTripOnServiceDateByTripIdAndServiceDate() {
+  public Map<TripIdAndServiceDate, TripOnServiceDate> getRealtimeAddedTripOnServiceDateByTripIdAndServiceDate() {
     return realtimeAddedTripOnServiceDateByTripIdAndServiceDate;
   }
 
@@ -398,7 +433,12 @@ public class TimetableSnapshot {
    * @return true if the timetable changed as a result of the call
    */
   protected boolean clearTimetable(String feedId) {
-    return timetables.keySet().removeIf(tripPattern -> feedId.equals(tripPattern.getFeedId()));
+    var remaining = timetables.withoutIf((tripPattern, sortedTimetables) ->
+      feedId.equals(tripPattern.getFeedId())
+    );
+    boolean modified = remaining != timetables;
+    timetables = remaining;
+    return modified;
   }
 
   /**
@@ -408,11 +448,12 @@ public class TimetableSnapshot {
    * @return true if the realtimeAddedTripPattern changed as a result of the call
    */
   protected boolean clearRealtimeAddedTripPattern(String feedId) {
-    return realtimeAddedTripPattern
-      .keySet()
-      .removeIf(realtimeAddedTripPattern ->
-        feedId.equals(realtimeAddedTripPattern.tripId().getFeedId())
-      );
+    var remaining = realtimeAddedTripPattern.withoutIf((tripIdAndServiceDate, pattern) ->
+      feedId.equals(tripIdAndServiceDate.tripId().getFeedId())
+    );
+    boolean modified = remaining != realtimeAddedTripPattern;
+    realtimeAddedTripPattern = remaining;
+    return modified;
   }
 
   /**
@@ -423,7 +464,12 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        Set<TripPattern> patterns = patternsForStop.getOrDefault(stop, Set.of());
+        if (!patterns.contains(tripPattern)) {
+          Set<TripPattern> copy = new HashSet<>(patterns);
+          copy.add(tripPattern);
+          patternsForStop = patternsForStop.with(stop, Collections.unmodifiableSet(copy));
+        }
       }
     }
   }
@@ -0,0 +1,77 @@
+package org.opentripplanner.model;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the duration and the number of bytes allocated by each commit of a
+ * {@link TimetableSnapshot}. The allocated bytes are only available on JVMs that support
+ * measuring allocations per thread, which includes HotSpot.
+ */
+class TimetableSnapshotCommitMetrics {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotCommitMetrics.class);
+
+  private static final String METRICS_PREFIX = "timetable_snapshot_commit";
+
+  private static final Timer DURATION = Timer
+    .builder(METRICS_PREFIX + "_duration")
+    .description("Time it takes to commit a timetable snapshot")
+    .register(Metrics.globalRegistry);
+
+  private static final DistributionSummary ALLOCATED = DistributionSummary
+    .builder(METRICS_PREFIX + "_allocated")
+    .description("Bytes allocated when committing a timetable snapshot")
+    .baseUnit("bytes")
+    .register(Metrics.globalRegistry);
+
+  private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+  private final long startNanos;
+  private final long startBytes;
+
+  private TimetableSnapshotCommitMetrics() {
+    this.startBytes = allocatedBytes();
+    this.startNanos = System.nanoTime();
+  }
+
+  static TimetableSnapshotCommitMetrics start() {
+    return new TimetableSnapshotCommitMetrics();
+  }
+
+  void stop(int numberOfDirtyTimetables) {
+    long nanos = System.nanoTime() - startNanos;
+    DURATION.record(nanos, TimeUnit.NANOSECONDS);
+
+    long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+    if (bytes >= 0) {
+      ALLOCATED.record(bytes);
+    }
+    LOG.debug(
+      "Committed timetable snapshot with {} dirty timetables in {} ms, allocated {} bytes",
+      numberOfDirtyTimetables,
+      TimeUnit.NANOSECONDS.toMillis(nanos),
+      bytes
+    );
+  }
+
+  private static long allocatedBytes() {
+    return THREAD_BEAN == null ? -1 : THREAD_BEAN.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    if (
+      ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean &&
+      bean.isThreadAllocatedMemorySupported() &&
+      bean.isThreadAllocatedMemoryEnabled()
+    ) {
+      return bean;
+    }
+    return null;
+  }
+}
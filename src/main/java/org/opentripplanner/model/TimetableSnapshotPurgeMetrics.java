@@ -0,0 +1,41 @@
+package org.opentripplanner.model;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the duration of purging expired data from a {@link TimetableSnapshot}, and the number of
+ * timetables and realtime added trip patterns that were purged.
+ */
+class TimetableSnapshotPurgeMetrics {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TimetableSnapshotPurgeMetrics.class);
+
+  private static final String METRICS_PREFIX = "timetable_snapshot_purge";
+
+  private static final Timer DURATION = Timer
+    .builder(METRICS_PREFIX + "_duration")
+    .description("Time it takes to purge expired data from the timetable snapshot buffer")
+    .register(Metrics.globalRegistry);
+
+  private static final Counter PURGED = Counter
+    .builder(METRICS_PREFIX + "_purged")
+    .description("Expired timetables and realtime added trip patterns purged from the buffer")
+    .register(Metrics.globalRegistry);
+
+  private TimetableSnapshotPurgeMetrics() {}
+
+  static void record(int purged, long nanos) {
+    DURATION.record(nanos, TimeUnit.NANOSECONDS);
+    PURGED.increment(purged);
+    LOG.debug(
+      "Purged {} expired entries from the timetable snapshot in {} ms",
+      purged,
+      TimeUnit.NANOSECONDS.toMillis(nanos)
+    );
+  }
+}
@@ -1,10 +1,12 @@
 package org.opentripplanner.model.plan;
 
+import com.google.common.base.Suppliers;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.framework.lang.DoubleUtils;
@@ -16,6 +18,12 @@ import org.opentripplanner.transit.model.framework.FeedScopedId;
 /**
  * One leg of a trip -- that is, a temporally continuous piece of the journey that takes place using
  * mainly a single model on the street network.
+ * <p>
+ * The geometry and the walk steps are computed the first time they are used. Most itineraries
+ * are removed by the itinerary filter chain, which does not need them, so they are only computed
+ * for the itineraries returned to the client. The suppliers reference the states of the street
+ * search, so {@link #computeGeometryAndWalkSteps()} must be called before the itinerary is kept
+ * beyond the request.
  */
 public class StreetLeg implements Leg {
 
@@ -26,8 +34,8 @@ public class StreetLeg implements Leg {
   private final Place from;
   private final Place to;
   private final int generalizedCost;
-  private final LineString legGeometry;
-  private final List<WalkStep> walkSteps;
+  private final Supplier<LineString> legGeometry;
+  private final Supplier<List<WalkStep>> walkSteps;
   private final Set<StreetNote> streetNotes;
   private final ElevationProfile elevationProfile;
 
@@ -47,8 +55,8 @@ public class StreetLeg implements Leg {
     this.to = builder.getTo();
     this.generalizedCost = builder.getGeneralizedCost();
     this.elevationProfile = builder.getElevationProfile();
-    this.legGeometry = builder.getGeometry();
-    this.walkSteps = builder.getWalkSteps();
+    this.legGeometry = Suppliers.memoize(builder.geometrySupplier());
+    this.walkSteps = Suppliers.memoize(builder.walkStepsSupplier());
     this.streetNotes = Set.copyOf(builder.getStreetNotes());
     this.pathwayId = builder.getPathwayId();
     this.walkingBike = builder.getWalkingBike();
@@ -112,7 +120,7 @@ public class StreetLeg implements Leg {
 
   @Override
   public LineString getLegGeometry() {
-    return legGeometry;
+    return legGeometry.get();
   }
 
   /**
@@ -125,7 +133,7 @@ public class StreetLeg implements Leg {
 
   @Override
   public List<WalkStep> getWalkSteps() {
-    return walkSteps;
+    return walkSteps.get();
   }
 
   @Override
@@ -159,6 +167,23 @@ public class StreetLeg implements Leg {
     return generalizedCost;
   }
 
+  /**
+   * Compute the geometry and walk steps, if they are not computed yet. The suppliers drop the
+   * states of the street search after they are used, so they can be garbage collected.
+   */
+  public void computeGeometryAndWalkSteps() {
+    legGeometry.get();
+    walkSteps.get();
+  }
+
+  Supplier<LineString> legGeometrySupplier() {
+    return legGeometry;
+  }
+
+  Supplier<List<WalkStep>> walkStepsSupplier() {
+    return walkSteps;
+  }
+
   @Override
   public boolean hasSameMode(Leg other) {
     return other instanceof StreetLeg oSL && mode.equals(oSL.mode);
@@ -192,9 +217,9 @@ public class StreetLeg implements Leg {
       .addNum("distance", distanceMeters, "m")
       .addNum("cost", generalizedCost)
       .addObj("gtfsPathwayId", pathwayId)
-      .addObj("legGeometry", legGeometry)
+      .addObj("legGeometry", getLegGeometry())
       .addObj("legElevation", elevationProfile)
-      .addCol("walkSteps", walkSteps)
+      .addCol("walkSteps", getWalkSteps())
       .addCol("streetNotes", streetNotes)
       .addBool("walkingBike", walkingBike)
       .addBool("rentedVehicle", rentedVehicle)
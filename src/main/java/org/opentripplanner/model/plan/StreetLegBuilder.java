@@ -4,6 +4,7 @@ import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.locationtech.jts.geom.LineString;
 import org.opentripplanner.street.model.note.StreetNote;
 import org.opentripplanner.street.search.TraverseMode;
@@ -18,9 +19,9 @@ public class StreetLegBuilder {
   private Place to;
   private double distanceMeters;
   private int generalizedCost;
-  private LineString geometry;
+  private Supplier<LineString> geometry = () -> null;
   private ElevationProfile elevationProfile;
-  private List<WalkStep> walkSteps;
+  private Supplier<List<WalkStep>> walkSteps = () -> null;
   private FeedScopedId pathwayId;
   private Boolean walkingBike;
   private Boolean rentedVehicle;
@@ -39,9 +40,9 @@ public class StreetLegBuilder {
       .withTo(leg.getTo())
       .withDistanceMeters(leg.getDistanceMeters())
       .withGeneralizedCost(leg.getGeneralizedCost())
-      .withGeometry(leg.getLegGeometry())
+      .withLazyGeometry(leg.legGeometrySupplier())
       .withElevationProfile(leg.getElevationProfile())
-      .withWalkSteps(leg.getWalkSteps())
+      .withLazyWalkSteps(leg.walkStepsSupplier())
       .withPathwayId(leg.getPathwayId())
       .withWalkingBike(leg.getWalkingBike())
       .withRentedVehicle(leg.getRentedVehicle())
@@ -83,7 +84,7 @@ public class StreetLegBuilder {
   }
 
   public LineString getGeometry() {
-    return geometry;
+    return geometry.get();
   }
 
   public ElevationProfile getElevationProfile() {
@@ -91,7 +92,7 @@ public class StreetLegBuilder {
   }
 
   public List<WalkStep> getWalkSteps() {
-    return walkSteps;
+    return walkSteps.get();
   }
 
   public FeedScopedId getPathwayId() {
@@ -118,6 +119,14 @@ public class StreetLegBuilder {
     return streetNotes;
   }
 
+  Supplier<LineString> geometrySupplier() {
+    return geometry;
+  }
+
+  Supplier<List<WalkStep>> walkStepsSupplier() {
+    return walkSteps;
+  }
+
   public StreetLegBuilder withMode(TraverseMode mode) {
     this.mode = mode;
     return this;
@@ -154,6 +163,14 @@ public class StreetLegBuilder {
   }
 
   public StreetLegBuilder withGeometry(LineString geometry) {
+    this.geometry = () -> geometry;
+    return this;
+  }
+
+  /**
+   * Set a geometry that is computed the first time it is used, and only once.
+   */
+  public StreetLegBuilder withLazyGeometry(Supplier<LineString> geometry) {
     this.geometry = geometry;
     return this;
   }
@@ -164,6 +181,14 @@ public class StreetLegBuilder {
   }
 
   public StreetLegBuilder withWalkSteps(List<WalkStep> walkSteps) {
+    this.walkSteps = () -> walkSteps;
+    return this;
+  }
+
+  /**
+   * Set walk steps that are computed the first time they are used, and only once.
+   */
+  public StreetLegBuilder withLazyWalkSteps(Supplier<List<WalkStep>> walkSteps) {
     this.walkSteps = walkSteps;
     return this;
   }
@@ -546,7 +546,7 @@ class DefaultMapper implements OsmTagMapper {
     props.setCarSpeed("highway=road", 11.2f); // ~= 25 mph
 
     // default ~= 25 mph
-    props.defaultSpeed = 11.2f;
+    props.setDefaultSpeed(11.2f);
 
     /* special situations */
 
@@ -619,7 +619,7 @@ class NorwayMapper implements OsmTagMapper {
     props.setCarSpeed("highway=living_street", 1.94f); // 7 km/t
     props.setCarSpeed("highway=pedestrian", 1.94f); // 7 km/t
 
-    props.defaultSpeed = 22.22f; // 80 km/t
+    props.setDefaultSpeed(22.22f); // 80 km/t
 
     new DefaultMapper().populateNotesAndNames(props);
 
@@ -0,0 +1,62 @@
+package org.opentripplanner.openstreetmap.wayproperty;
+
+import java.util.Arrays;
+import java.util.Map;
+import org.opentripplanner.openstreetmap.model.OSMWithTags;
+
+/**
+ * A canonical, immutable representation of the tags of an OSM entity. Two entities with the same
+ * tags, regardless of the order the tags were added in, get equal keys. This is used to cache the
+ * result of the tag evaluation in {@link WayPropertySet}, since millions of ways share a few
+ * thousand distinct tag combinations.
+ */
+final class TagSetKey {
+
+  private static final TagSetKey EMPTY = new TagSetKey(new String[0]);
+
+  /** Keys and values, sorted by key: {@code [k0, v0, k1, v1, ...]}. */
+  private final String[] keyValues;
+  private final int hashCode;
+
+  private TagSetKey(String[] keyValues) {
+    this.keyValues = keyValues;
+    this.hashCode = Arrays.hashCode(keyValues);
+  }
+
+  static TagSetKey of(OSMWithTags entity) {
+    Map<String, String> tags = entity.getTags();
+    if (tags == null || tags.isEmpty()) {
+      return EMPTY;
+    }
+    String[] keys = tags.keySet().toArray(new String[0]);
+    Arrays.sort(keys);
+    String[] keyValues = new String[keys.length * 2];
+    for (int i = 0; i < keys.length; ++i) {
+      keyValues[2 * i] = keys[i];
+      keyValues[2 * i + 1] = tags.get(keys[i]);
+    }
+    return new TagSetKey(keyValues);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TagSetKey other = (TagSetKey) o;
+    return hashCode == other.hashCode && Arrays.equals(keyValues, other.keyValues);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(keyValues);
+  }
+}
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opentripplanner.framework.functional.FunctionUtils.TriFunction;
@@ -31,6 +33,10 @@ import org.slf4j.LoggerFactory;
  * WayPropertyPickers, CreativeNamePickers, SlopeOverridePickers, and SpeedPickers are applied to ways based on how well
  * their OSMSpecifiers match a given OSM way. Generally one OSMSpecifier will win out over all the others based on the
  * number of exact, partial, and wildcard tag matches. See OSMSpecifier for more details on the matching process.
+ * <p>
+ * The result of the tag evaluation only depends on the tags of the way, so the way properties and
+ * car speeds are cached by the canonical tag set of the way. The cache is cleared whenever the
+ * set is modified. THIS CLASS IS THREAD-SAFE for lookups, but not while it is being populated.
  */
 public class WayPropertySet {
 
@@ -52,7 +58,7 @@ public class WayPropertySet {
   private final List<NotePicker> notes;
   private final Pattern maxSpeedPattern;
   /** The automobile speed for street segments that do not match any SpeedPicker. */
-  public Float defaultSpeed;
+  private float defaultSpeed;
   /** Resolves walk safety value for each {@link StreetTraversalPermission}. */
   private TriFunction<StreetTraversalPermission, Float, OSMWithTags, Double> defaultWalkSafetyForPermission;
   /** Resolves bicycle safety value for each {@link StreetTraversalPermission}. */
@@ -66,6 +72,14 @@ public class WayPropertySet {
 
   private final List<MixinProperties> mixins = new ArrayList<>();
 
+  private final Map<TagSetKey, WayProperties> dataForWayCache = new ConcurrentHashMap<>();
+  private final Map<TagSetKey, Float> forwardCarSpeedCache = new ConcurrentHashMap<>();
+  private final Map<TagSetKey, Float> backwardCarSpeedCache = new ConcurrentHashMap<>();
+  private final LongAdder dataForWayCacheHits = new LongAdder();
+  private final LongAdder dataForWayCacheMisses = new LongAdder();
+  private final LongAdder carSpeedCacheHits = new LongAdder();
+  private final LongAdder carSpeedCacheMisses = new LongAdder();
+
   public WayPropertySet() {
     /* sensible defaults */
     defaultSpeed = 11.2f; // 11.2 m/s ~= 25 mph ~= 40 kph, standard speed limit in the US
@@ -87,6 +101,19 @@ public class WayPropertySet {
    * that are mixins will have their safety values applied if they match at all.
    */
   public WayProperties getDataForWay(OSMWithTags way) {
+    var key = TagSetKey.of(way);
+    WayProperties result = dataForWayCache.get(key);
+    if (result != null) {
+      dataForWayCacheHits.increment();
+      return result;
+    }
+    dataForWayCacheMisses.increment();
+    result = computeDataForWay(way);
+    var existing = dataForWayCache.putIfAbsent(key, result);
+    return existing == null ? result : existing;
+  }
+
+  private WayProperties computeDataForWay(OSMWithTags way) {
     WayProperties backwardResult = defaultProperties;
     WayProperties forwardResult = defaultProperties;
     int bestBackwardScore = 0;
@@ -181,6 +208,20 @@ public class WayPropertySet {
    * Calculate the automobile speed, in meters per second, for this way.
    */
   public float getCarSpeedForWay(OSMWithTags way, boolean backward) {
+    var cache = backward ? backwardCarSpeedCache : forwardCarSpeedCache;
+    var key = TagSetKey.of(way);
+    Float speed = cache.get(key);
+    if (speed != null) {
+      carSpeedCacheHits.increment();
+      return speed;
+    }
+    carSpeedCacheMisses.increment();
+    speed = computeCarSpeedForWay(way, backward);
+    cache.putIfAbsent(key, speed);
+    return speed;
+  }
+
+  private float computeCarSpeedForWay(OSMWithTags way, boolean backward) {
     // first, check for maxspeed tags
     Float speed = null;
     Float currentSpeed;
@@ -272,10 +313,12 @@ public class WayPropertySet {
 
   public void addMixin(MixinProperties mixin) {
     mixins.add(mixin);
+    clearCache();
   }
 
   public void addProperties(OsmSpecifier spec, WayProperties properties) {
     wayProperties.add(new WayPropertyPicker(spec, properties));
+    clearCache();
   }
 
   public void addCreativeNamer(OsmSpecifier spec, CreativeNamer namer) {
@@ -314,6 +357,32 @@ public class WayPropertySet {
 
   public void addSpeedPicker(SpeedPicker picker) {
     this.speedPickers.add(picker);
+    clearCache();
+  }
+
+  public void setDefaultSpeed(float defaultSpeed) {
+    this.defaultSpeed = defaultSpeed;
+    clearCache();
+  }
+
+  /**
+   * Log the number of distinct tag sets evaluated and the hit rate of the way property and the car
+   * speed caches. The car speeds are also looked up while computing the way properties, so the two
+   * caches are reported separately.
+   */
+  public void logCacheStatistics() {
+    logCacheStatistics(
+      "Way property",
+      dataForWayCache.size(),
+      dataForWayCacheHits,
+      dataForWayCacheMisses
+    );
+    logCacheStatistics(
+      "Car speed",
+      forwardCarSpeedCache.size() + backwardCarSpeedCache.size(),
+      carSpeedCacheHits,
+      carSpeedCacheMisses
+    );
   }
 
   public Float getMetersSecondFromSpeed(String speed) {
@@ -380,6 +449,7 @@ public class WayPropertySet {
       throw new IllegalStateException("A custom default walk safety resolver was already set");
     }
     this.defaultWalkSafetyForPermission = defaultWalkSafetyForPermission;
+    clearCache();
   }
 
   /**
@@ -393,6 +463,7 @@ public class WayPropertySet {
       throw new IllegalStateException("A custom default cycling safety resolver was already set");
     }
     this.defaultBicycleSafetyForPermission = defaultBicycleSafetyForPermission;
+    clearCache();
   }
 
   public void setMixinProperties(OsmSpecifier spec, MixinPropertiesBuilder builder) {
@@ -437,6 +508,32 @@ public class WayPropertySet {
     return Collections.unmodifiableList(wayProperties);
   }
 
+  private static void logCacheStatistics(
+    String name,
+    int size,
+    LongAdder cacheHits,
+    LongAdder cacheMisses
+  ) {
+    long hits = cacheHits.sum();
+    long lookups = hits + cacheMisses.sum();
+    if (lookups == 0) {
+      return;
+    }
+    LOG.info(
+      "{} cache: {} distinct tag sets, {} lookups, hit rate {}%.",
+      name,
+      size,
+      lookups,
+      String.format("%.1f", 100.0 * hits / lookups)
+    );
+  }
+
+  private void clearCache() {
+    dataForWayCache.clear();
+    forwardCarSpeedCache.clear();
+    backwardCarSpeedCache.clear();
+  }
+
   private String dumpTags(OSMWithTags way) {
     /* generate warning message */
     String all_tags = null;
@@ -25,6 +25,16 @@ public interface RaptorTimers {
       body.run();
     }
 
+    @Override
+    public void optimizeTransfers(Runnable body) {
+      body.run();
+    }
+
+    @Override
+    public void optimizeTransfersForPath(Runnable body) {
+      body.run();
+    }
+
     @Override
     public RaptorTimers withNamePrefix(String namePrefix) {
       return this;
@@ -50,6 +60,18 @@ public interface RaptorTimers {
    */
   void findTransfersForRound(Runnable body);
 
+  /**
+   * This wrap the optimization of the transfers of all paths found by a Raptor search. This is
+   * done outside Raptor, after the search.
+   */
+  void optimizeTransfers(Runnable body);
+
+  /**
+   * This wrap the optimization of the transfers of one path. The paths may be optimized in
+   * parallel, so the sum of these can be more than the time spent optimizing all paths.
+   */
+  void optimizeTransfersForPath(Runnable body);
+
   /**
    * Create a new instance with a new name prefix. Useful when creating a new request for heuristic.
    */
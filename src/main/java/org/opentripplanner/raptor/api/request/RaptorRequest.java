@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
@@ -28,6 +29,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
   private final MultiCriteriaRequest<T> multiCriteria;
   private final DebugRequest debug;
   private final RaptorTimers performanceTimers;
+  private final CancellationToken cancellationToken;
 
   private RaptorRequest() {
     searchParams = SearchParams.defaults();
@@ -36,6 +38,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     optimizations = Collections.emptySet();
     multiCriteria = MultiCriteriaRequest.<T>of().build();
     performanceTimers = RaptorTimers.NOOP;
+    cancellationToken = CancellationToken.NONE;
     debug = DebugRequest.defaults();
     alias = RaptorRequestBuilder.generateRequestAlias(profile, searchDirection, optimizations);
   }
@@ -48,6 +51,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     this.optimizations = Set.copyOf(builder.optimizations());
     this.multiCriteria = builder.multiCriteria();
     this.performanceTimers = builder.performanceTimers();
+    this.cancellationToken = builder.cancellationToken();
     this.debug = builder.debug().build();
     verify();
   }
@@ -145,6 +149,14 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     return performanceTimers;
   }
 
+  /**
+   * The search is stopped between two iterations, if this token is cancelled. The default is a
+   * token which is never cancelled.
+   */
+  public CancellationToken cancellationToken() {
+    return cancellationToken;
+  }
+
   /**
    * Specify what to debug in the debug request.
    * <p/>
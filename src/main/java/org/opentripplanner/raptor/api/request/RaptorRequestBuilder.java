@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Set;
 import java.util.function.Consumer;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
@@ -34,6 +35,8 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
   // Performance monitoring
   private RaptorTimers performanceTimers;
 
+  private CancellationToken cancellationToken;
+
   // Algorithm
   private RaptorProfile profile;
 
@@ -58,6 +61,8 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
     // Timer
     this.performanceTimers = defaults.performanceTimers();
 
+    this.cancellationToken = defaults.cancellationToken();
+
     // Debug
     this.debug = new DebugRequestBuilder(defaults.debug());
   }
@@ -126,6 +131,15 @@ public class RaptorRequestBuilder<T extends RaptorTripSchedule> {
     return this;
   }
 
+  public CancellationToken cancellationToken() {
+    return cancellationToken;
+  }
+
+  public RaptorRequestBuilder<T> cancellationToken(CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+    return this;
+  }
+
   public DebugRequestBuilder debug() {
     return this.debug;
   }
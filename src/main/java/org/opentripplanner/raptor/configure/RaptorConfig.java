@@ -119,6 +119,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       ctx.calculator(),
       ctx.createLifeCyclePublisher(),
       ctx.performanceTimers(),
+      ctx.cancellationToken(),
       ctx.useConstrainedTransfers()
     );
   }
@@ -1,6 +1,7 @@
 package org.opentripplanner.raptor.rangeraptor;
 
 import java.util.Collection;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.raptor.api.RaptorConstants;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
@@ -78,6 +79,8 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
 
   private final RaptorTimers timers;
 
+  private final CancellationToken cancellationToken;
+
   private final AccessPaths accessPaths;
 
   private final LifeCycleEventPublisher lifeCycle;
@@ -98,6 +101,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
     RaptorTransitCalculator<T> calculator,
     LifeCycleEventPublisher lifeCyclePublisher,
     RaptorTimers timers,
+    CancellationToken cancellationToken,
     boolean enableTransferConstraints
   ) {
     this.transitWorker = transitWorker;
@@ -106,6 +110,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
     this.slackProvider = slackProvider;
     this.calculator = calculator;
     this.timers = timers;
+    this.cancellationToken = cancellationToken;
     this.accessPaths = accessPaths;
     this.minNumberOfRounds = accessPaths.calculateMaxNumberOfRides();
     this.enableTransferConstraints = enableTransferConstraints;
@@ -134,6 +139,9 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
       // the arrival time given departure at minute t + 1.
       final IntIterator it = calculator.rangeRaptorMinutes();
       while (it.hasNext()) {
+        // Stop if the client is gone, or the deadline of the request has passed
+        cancellationToken.throwIfCancelled();
+
         // Run the raptor search for this particular iteration departure time
         iterationDepartureTime = it.next();
         lifeCycle.setupIteration(iterationDepartureTime);
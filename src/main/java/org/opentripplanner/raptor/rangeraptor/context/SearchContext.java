@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -162,6 +163,10 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return request.performanceTimers();
   }
 
+  public CancellationToken cancellationToken() {
+    return request.cancellationToken();
+  }
+
   /** Number of stops in transit graph. */
   public int nStops() {
     return transit.numberOfStops();
@@ -7,6 +7,7 @@ import static org.opentripplanner.raptor.service.HeuristicToRunResolver.resolveH
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
@@ -180,6 +181,9 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       if (e.getCause() instanceof DestinationNotReachedException) {
         throw new DestinationNotReachedException();
       }
+      if (e.getCause() instanceof CancellationException cancelled) {
+        throw cancelled;
+      }
       LOG.error(e.getMessage() + ". Request: " + originalRequest, e);
       throw new IllegalStateException(
         "Failed to run FORWARD/REVERSE heuristic search in parallel. Details: " + e.getMessage()
@@ -14,7 +14,9 @@ import java.util.concurrent.CompletionException;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.Leg;
 import org.opentripplanner.model.plan.PagingSearchWindowAdjuster;
+import org.opentripplanner.model.plan.StreetLeg;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilterChain;
@@ -123,6 +125,9 @@ public class RoutingWorker {
 
     debugTimingAggregator.finishedRouting();
 
+    // The street searches return what they found so far if the request is cancelled, stop here
+    request.cancellationToken().throwIfCancelled();
+
     // Filter itineraries
     boolean removeWalkAllTheWayResultsFromDirectFlex =
       request.journey().direct().mode() == StreetMode.FLEXIBLE;
@@ -138,7 +143,7 @@ public class RoutingWorker {
       it -> firstRemovedItinerary = it,
       request.wheelchair(),
       request.preferences().wheelchair().maxSlope(),
-      serverContext.graph().getFareService(),
+      debugTimingAggregator.timeFares(serverContext.graph().getFareService()),
       minBikeParkingDistance(request),
       serverContext.transitService().getTransitAlertService(),
       serverContext.transitService()::getMultiModalStationForStation
@@ -146,6 +151,16 @@ public class RoutingWorker {
 
     List<Itinerary> filteredItineraries = filterChain.filter(itineraries);
 
+    // The street legs are mapped lazily, compute them here so that the response does not keep the
+    // states of the street search, and the time is included in the filtering
+    for (Itinerary itinerary : filteredItineraries) {
+      for (Leg leg : itinerary.getLegs()) {
+        if (leg instanceof StreetLeg streetLeg) {
+          streetLeg.computeGeometryAndWalkSteps();
+        }
+      }
+    }
+
     routingErrors.addAll(filterChain.getRoutingErrors());
 
     if (LOG.isDebugEnabled()) {
@@ -300,10 +300,6 @@ public class ItineraryListFilterChainBuilder {
       filters.add(new AccessibilityScoreFilter(wheelchairMaxSlope));
     }
 
-    if (faresService != null) {
-      filters.add(new FaresFilter(faresService));
-    }
-
     if (transitAlertService != null) {
       filters.add(new TransitAlertFilter(transitAlertService, getMultiModalStation));
     }
@@ -382,6 +378,12 @@ public class ItineraryListFilterChainBuilder {
       );
     }
 
+    // Calculating the fares is expensive, so it is done after all itineraries that are not
+    // returned are flagged for deletion
+    if (faresService != null) {
+      filters.add(new FaresFilter(faresService));
+    }
+
     // Do the final itineraries sort
     filters.add(new SortingFilter(SortOrderComparator.comparator(sortOrder)));
 
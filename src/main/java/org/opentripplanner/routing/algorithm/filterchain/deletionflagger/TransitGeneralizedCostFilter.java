@@ -1,9 +1,10 @@
 package org.opentripplanner.routing.algorithm.filterchain.deletionflagger;
 
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.algorithm.filterchain.api.TransitGeneralizedCostFilterParams;
 import org.opentripplanner.routing.api.request.framework.DoubleAlgorithmFunction;
@@ -33,34 +34,89 @@ public class TransitGeneralizedCostFilter implements ItineraryDeletionFlagger {
     return "transit-cost-filter";
   }
 
+  /**
+   * An itinerary is flagged if its cost is higher than the limit of any transit itinerary plus the
+   * wait time cost between them.
+   */
   @Override
   public List<Itinerary> flagForRemoval(List<Itinerary> itineraries) {
-    List<Itinerary> transitItineraries = itineraries
-      .stream()
-      .filter(Itinerary::hasTransit)
-      .sorted(Comparator.comparingDouble(Itinerary::getGeneralizedCost))
-      .toList();
+    List<Itinerary> transitItineraries = new ArrayList<>();
+    for (Itinerary it : itineraries) {
+      if (it.hasTransit()) {
+        transitItineraries.add(it);
+      }
+    }
 
-    return transitItineraries
-      .stream()
-      .filter(it ->
-        transitItineraries
-          .stream()
-          .anyMatch(t ->
-            it.getGeneralizedCost() >
-            (costLimitFunction.calculate(t.getGeneralizedCost()) + getWaitTimeCost(t, it))
-          )
-      )
-      .collect(Collectors.toList());
+    int n = transitItineraries.size();
+    int[] costs = new int[n];
+    long[] startTimes = new long[n];
+    long[] endTimes = new long[n];
+    for (int i = 0; i < n; i++) {
+      Itinerary it = transitItineraries.get(i);
+      costs[i] = it.getGeneralizedCost();
+      startTimes[i] = it.startTime().toEpochSecond();
+      endTimes[i] = it.endTime().toEpochSecond();
+    }
+
+    BitSet flagged = flagForRemoval(costs, startTimes, endTimes);
+
+    List<Itinerary> result = new ArrayList<>();
+    for (int i = flagged.nextSetBit(0); i >= 0; i = flagged.nextSetBit(i + 1)) {
+      result.add(transitItineraries.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Flag the transit results with the given generalized-costs, start and end times for removal.
+   * The times are in seconds, and may be relative to any point in time. This is also used to
+   * filter the Raptor paths before they are mapped to itineraries.
+   * <p>
+   * This compares all pairs of results, so the limits are computed once for each result. The
+   * results are compared with the results with the lowest limit first, and the search stops when
+   * the limit is higher than the cost, as the wait time cost is never negative.
+   *
+   * @return the indexes of the results to remove
+   */
+  public BitSet flagForRemoval(int[] costs, long[] startTimes, long[] endTimes) {
+    int n = costs.length;
+    double[] limits = new double[n];
+    for (int i = 0; i < n; i++) {
+      limits[i] = costLimitFunction.calculate(costs[i]);
+    }
+
+    int[] byLimit = IntStream
+      .range(0, n)
+      .boxed()
+      .sorted(Comparator.comparingDouble(i -> limits[i]))
+      .mapToInt(Integer::intValue)
+      .toArray();
+
+    BitSet result = new BitSet(n);
+    for (int i = 0; i < n; i++) {
+      for (int t : byLimit) {
+        if (costs[i] <= limits[t]) {
+          break;
+        }
+        double waitTimeCost = getWaitTimeCost(
+          startTimes[t],
+          endTimes[t],
+          startTimes[i],
+          endTimes[i]
+        );
+        if (costs[i] > limits[t] + waitTimeCost) {
+          result.set(i);
+          break;
+        }
+      }
+    }
+    return result;
   }
 
-  private double getWaitTimeCost(Itinerary a, Itinerary b) {
-    return (
-      intervalRelaxFactor *
-      Math.min(
-        Math.abs(ChronoUnit.SECONDS.between(a.startTime(), b.startTime())),
-        Math.abs(ChronoUnit.SECONDS.between(a.endTime(), b.endTime()))
-      )
-    );
+  /**
+   * The wait time cost between two itineraries, the start and end times are in seconds.
+   */
+  private double getWaitTimeCost(long startA, long endA, long startB, long endB) {
+    return intervalRelaxFactor * Math.min(Math.abs(startA - startB), Math.abs(endA - endB));
   }
 }
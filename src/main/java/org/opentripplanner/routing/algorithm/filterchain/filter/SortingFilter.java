@@ -1,8 +1,8 @@
 package org.opentripplanner.routing.algorithm.filterchain.filter;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilter;
 
@@ -27,7 +27,9 @@ public final class SortingFilter implements ItineraryListFilter {
     if (itineraries.size() < 2) {
       return itineraries;
     }
-    // Sort acceding by qualifier and map to list of itineraries
-    return itineraries.stream().sorted(comparator()).collect(Collectors.toList());
+    // Sort acceding by qualifier, the list passed in might be immutable
+    List<Itinerary> result = new ArrayList<>(itineraries);
+    result.sort(comparator);
+    return result;
   }
 }
@@ -9,8 +9,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.ext.flex.FlexibleTransitLeg;
@@ -116,22 +116,22 @@ public class GraphPathToItineraryMapper {
    */
   public Itinerary generateItinerary(GraphPath<State, Edge, Vertex> path) {
     List<Leg> legs = new ArrayList<>();
-    WalkStep previousStep = null;
+    Supplier<WalkStep> previousStep = () -> null;
     for (List<State> legStates : sliceStates(path.states)) {
       if (OTPFeature.FlexRouting.isOn() && legStates.get(1).backEdge instanceof FlexTripEdge) {
         legs.add(generateFlexLeg(legStates));
-        previousStep = null;
+        previousStep = () -> null;
         continue;
       }
       StreetLeg leg = generateLeg(legStates, previousStep);
       legs.add(leg);
 
-      List<WalkStep> walkSteps = leg.getWalkSteps();
-      if (walkSteps.size() > 0) {
-        previousStep = walkSteps.get(walkSteps.size() - 1);
-      } else {
-        previousStep = null;
-      }
+      // The walk steps of this leg are only computed if the walk steps of the next leg are
+      previousStep =
+        () -> {
+          List<WalkStep> walkSteps = leg.getWalkSteps();
+          return walkSteps.isEmpty() ? null : walkSteps.get(walkSteps.size() - 1);
+        };
     }
 
     Itinerary itinerary = new Itinerary(legs);
@@ -355,10 +355,10 @@ public class GraphPathToItineraryMapper {
    *
    * @param states       The list of states to base the leg on
    * @param previousStep the previous walk step, so that the first relative turn direction is
-   *                     calculated correctly
-   * @return The generated leg
+   *                     calculated correctly. It is only used if the walk steps of this leg are.
+   * @return The generated leg, with a geometry and walk steps computed the first time they are used
    */
-  private StreetLeg generateLeg(List<State> states, WalkStep previousStep) {
+  private StreetLeg generateLeg(List<State> states, Supplier<WalkStep> previousStep) {
     List<Edge> edges = states
       .stream()
       // The first back edge is part of the previous leg, skip it
@@ -375,16 +375,6 @@ public class GraphPathToItineraryMapper {
 
     double distanceMeters = edges.stream().mapToDouble(Edge::getDistanceMeters).sum();
 
-    LineString geometry = GeometryUtils.concatenateLineStrings(edges, Edge::getGeometry);
-
-    var statesToWalkStepsMapper = new StatesToWalkStepsMapper(
-      states,
-      previousStep,
-      streetNotesService,
-      ellipsoidToGeoidDifference
-    );
-    List<WalkStep> walkSteps = statesToWalkStepsMapper.generateWalkSteps();
-
     /* For the from/to vertices to be in the correct place for vehicle parking
      * the state for actually parking (traversing the VehicleParkEdge) is excluded
      * from the list of states.
@@ -404,11 +394,19 @@ public class GraphPathToItineraryMapper {
       .withTo(makePlace(lastState))
       .withDistanceMeters(distanceMeters)
       .withGeneralizedCost((int) (lastState.getWeight() - firstState.getWeight()))
-      .withGeometry(geometry)
+      .withLazyGeometry(() -> GeometryUtils.concatenateLineStrings(edges, Edge::getGeometry))
       .withElevationProfile(
         makeElevation(edges, firstState.getPreferences().system().geoidElevation())
       )
-      .withWalkSteps(walkSteps)
+      .withLazyWalkSteps(() ->
+        new StatesToWalkStepsMapper(
+          states,
+          previousStep.get(),
+          streetNotesService,
+          ellipsoidToGeoidDifference
+        )
+          .generateWalkSteps()
+      )
       .withRentedVehicle(firstState.isRentingVehicle())
       .withWalkingBike(false);
 
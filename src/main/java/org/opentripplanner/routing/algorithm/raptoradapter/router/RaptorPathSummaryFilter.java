@@ -0,0 +1,100 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.routing.algorithm.filterchain.api.TransitGeneralizedCostFilterParams;
+import org.opentripplanner.routing.algorithm.filterchain.deletionflagger.LatestDepartureTimeFilter;
+import org.opentripplanner.routing.algorithm.filterchain.deletionflagger.TransitGeneralizedCostFilter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.RaptorCostConverter;
+
+/**
+ * Remove Raptor paths before they are mapped to itineraries, using only a summary of each path:
+ * the generalized-cost and the start and end time. Mapping a path is expensive, and with a long
+ * search window most of the paths are removed by the itinerary filter chain anyway.
+ * <p>
+ * Only the filters which do not need the legs are applied here, the
+ * {@link TransitGeneralizedCostFilter} and the {@link LatestDepartureTimeFilter}. The
+ * itineraries are still passed through the whole filter chain. In the chain the group-by filters
+ * run first, and they may remove an itinerary which is used here to remove another. Hence, the
+ * result may differ slightly from the result of the filter chain alone, and this is only done if
+ * {@link OTPFeature#FilterPathsBeforeMapping} is on.
+ * <p>
+ * The max-limit filter is not applied, it must see the street-only itineraries, and the first
+ * itinerary it removes is used to create the page cursor. The non-transit generalized-cost filter
+ * only removes street-only itineraries, which are not Raptor paths.
+ */
+class RaptorPathSummaryFilter<T extends RaptorTripSchedule> {
+
+  @Nullable
+  private final TransitGeneralizedCostFilter transitGeneralizedCostFilter;
+
+  private final int latestDepartureTime;
+
+  /**
+   * @param latestDepartureTime the latest departure time in seconds since the transit search time
+   *                            zero, or {@link TransitRouter#NOT_SET}
+   */
+  RaptorPathSummaryFilter(
+    @Nullable TransitGeneralizedCostFilterParams transitGeneralizedCostFilterParams,
+    int latestDepartureTime
+  ) {
+    this.transitGeneralizedCostFilter =
+      transitGeneralizedCostFilterParams == null
+        ? null
+        : new TransitGeneralizedCostFilter(transitGeneralizedCostFilterParams);
+    this.latestDepartureTime = latestDepartureTime;
+  }
+
+  List<RaptorPath<T>> filter(Collection<RaptorPath<T>> paths) {
+    List<RaptorPath<T>> result = new ArrayList<>(paths);
+
+    // The cost filter runs before the latest-departure-time filter in the filter chain, so it
+    // compares paths departing after the latest departure time as well
+    if (transitGeneralizedCostFilter != null) {
+      result = filterOnGeneralizedCost(result);
+    }
+
+    if (latestDepartureTime != TransitRouter.NOT_SET) {
+      List<RaptorPath<T>> inSearchWindow = new ArrayList<>();
+      for (RaptorPath<T> path : result) {
+        // The itinerary never starts before the path, so no path is removed which the filter
+        // chain would keep
+        if (path.startTime() <= latestDepartureTime) {
+          inSearchWindow.add(path);
+        }
+      }
+      // If all paths depart too late, they are kept for the filter chain to report it
+      if (!inSearchWindow.isEmpty()) {
+        result = inSearchWindow;
+      }
+    }
+    return result;
+  }
+
+  private List<RaptorPath<T>> filterOnGeneralizedCost(List<RaptorPath<T>> paths) {
+    int n = paths.size();
+    int[] costs = new int[n];
+    long[] startTimes = new long[n];
+    long[] endTimes = new long[n];
+    for (int i = 0; i < n; i++) {
+      RaptorPath<T> path = paths.get(i);
+      costs[i] = RaptorCostConverter.toOtpDomainCost(path.c1());
+      startTimes[i] = path.startTime();
+      endTimes[i] = path.endTime();
+    }
+
+    BitSet flagged = transitGeneralizedCostFilter.flagForRemoval(costs, startTimes, endTimes);
+
+    List<RaptorPath<T>> result = new ArrayList<>(n - flagged.cardinality());
+    for (int i = flagged.nextClearBit(0); i < n; i = flagged.nextClearBit(i + 1)) {
+      result.add(paths.get(i));
+    }
+    return result;
+  }
+}
@@ -10,6 +10,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.SearchParams;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
@@ -137,11 +138,27 @@ public class TransitRouter {
             serverContext.transitService().getTransferService(),
             requestTransitDataProvider,
             transitLayer.getStopBoardAlightCosts(),
-            request.preferences().transfer().optimization()
+            request.preferences().transfer().optimization(),
+            serverContext.raptorConfig().threadPool(),
+            raptorRequest.performanceTimers()
           )
           .optimize(transitResponse.paths());
     }
 
+    debugTimingAggregator.finishedTransferOptimization();
+
+    if (
+      OTPFeature.FilterPathsBeforeMapping.isOn() &&
+      !request.preferences().itineraryFilter().debug() &&
+      !transitResponse.containsUnknownPaths()
+    ) {
+      var pathFilter = new RaptorPathSummaryFilter<TripSchedule>(
+        request.preferences().itineraryFilter().transitGeneralizedCostLimit(),
+        latestDepartureTime(transitResponse.requestUsed().searchParams())
+      );
+      paths = pathFilter.filter(paths);
+    }
+
     // Create itineraries
 
     RaptorPathToItineraryMapper<TripSchedule> itineraryMapper = new RaptorPathToItineraryMapper<>(
@@ -159,6 +176,21 @@ public class TransitRouter {
     return new TransitRouterResult(itineraries, transitResponse.requestUsed().searchParams());
   }
 
+  /**
+   * The same limit as the latest-departure-time filter in the itinerary filter chain, in seconds
+   * since the transit search time zero.
+   */
+  private int latestDepartureTime(SearchParams searchParams) {
+    if (
+      !request.arriveBy() &&
+      searchParams.isSearchWindowSet() &&
+      searchParams.isEarliestDepartureTimeSet()
+    ) {
+      return searchParams.earliestDepartureTime() + searchParams.searchWindowInSeconds();
+    }
+    return NOT_SET;
+  }
+
   private AccessEgresses getAccessEgresses(TemporaryVerticesContainer temporaryVertices) {
     var accessEgressMapper = new AccessEgressMapper();
     var accessList = new ArrayList<DefaultAccessEgress>();
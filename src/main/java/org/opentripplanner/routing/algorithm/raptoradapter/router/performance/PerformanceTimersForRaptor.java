@@ -13,6 +13,8 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
   private final Timer timerRoute;
   private final Timer findTransitPerRound;
   private final Timer findTransfersPerRound;
+  private final Timer optimizeTransfers;
+  private final Timer optimizeTransfersPerPath;
   private final MeterRegistry registry;
   private final Collection<RoutingTag> routingTags;
 
@@ -29,6 +31,13 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
       Timer.builder("raptor." + namePrefix + ".minute.transit").tags(tags).register(registry);
     findTransfersPerRound =
       Timer.builder("raptor." + namePrefix + ".minute.transfers").tags(tags).register(registry);
+    optimizeTransfers =
+      Timer.builder("raptor." + namePrefix + ".optimizeTransfers").tags(tags).register(registry);
+    optimizeTransfersPerPath =
+      Timer
+        .builder("raptor." + namePrefix + ".optimizeTransfers.path")
+        .tags(tags)
+        .register(registry);
   }
 
   public Timer timerRoute() {
@@ -58,6 +67,16 @@ public class PerformanceTimersForRaptor implements RaptorTimers {
     findTransfersPerRound.record(body);
   }
 
+  @Override
+  public void optimizeTransfers(Runnable body) {
+    optimizeTransfers.record(body);
+  }
+
+  @Override
+  public void optimizeTransfersForPath(Runnable body) {
+    optimizeTransfersPerPath.record(body);
+  }
+
   @Override
   public RaptorTimers withNamePrefix(String namePrefix) {
     return new PerformanceTimersForRaptor(namePrefix, routingTags, registry);
@@ -5,7 +5,6 @@ import com.google.common.collect.SetMultimap;
 import gnu.trove.set.TIntSet;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -81,8 +80,10 @@ public class TransitLayerUpdater {
     );
 
     Set<LocalDate> datesToBeUpdated = new HashSet<>();
-    SetMultimap<TripPattern, TripPatternForDate> newTripPatternsForDate = HashMultimap.create();
-    SetMultimap<TripPattern, TripPatternForDate> oldTripPatternsForDate = HashMultimap.create();
+    // Old and new TripPatternsForDate indexed on the dates they are running on
+    SetMultimap<LocalDate, TripPatternForDate> newTripPatternsForDate = HashMultimap.create();
+    SetMultimap<LocalDate, TripPatternForDate> oldTripPatternsForDate = HashMultimap.create();
+    int unchangedTimetables = 0;
 
     TransferIndexGenerator transferIndexGenerator = null;
     if (OTPFeature.TransferConstraints.isOn()) {
@@ -106,25 +107,37 @@ public class TransitLayerUpdater {
         .get(date)
         .get(tripPattern);
 
-      if (oldTripPatternForDate != null) {
-        tripPatternsStartingOnDateMapCache.get(date).remove(tripPattern, oldTripPatternForDate);
-        oldTripPatternsForDate.put(tripPattern, oldTripPatternForDate);
-        datesToBeUpdated.addAll(oldTripPatternForDate.getRunningPeriodDates());
-      }
-
       TripPatternForDate newTripPatternForDate;
 
       try {
-        newTripPatternForDate = tripPatternForDateMapper.map(timetable, timetable.getServiceDate());
+        // Only the trips that changed since the old TripPatternForDate are mapped again
+        newTripPatternForDate =
+          tripPatternForDateMapper.map(timetable, date, oldTripPatternForDate);
       } catch (IllegalArgumentException exception) {
         // There is some issue with finding the correct running period, using old pattern instead
         newTripPatternForDate = oldTripPatternForDate;
       }
 
+      if (newTripPatternForDate != null && newTripPatternForDate == oldTripPatternForDate) {
+        // None of the trips running on this date changed, nothing to update
+        unchangedTimetables++;
+        continue;
+      }
+
+      if (oldTripPatternForDate != null) {
+        tripPatternsStartingOnDateMapCache.get(date).remove(tripPattern, oldTripPatternForDate);
+        for (LocalDate runningDate : oldTripPatternForDate.getRunningPeriodDates()) {
+          oldTripPatternsForDate.put(runningDate, oldTripPatternForDate);
+          datesToBeUpdated.add(runningDate);
+        }
+      }
+
       if (newTripPatternForDate != null) {
         tripPatternsStartingOnDateMapCache.get(date).put(tripPattern, newTripPatternForDate);
-        newTripPatternsForDate.put(tripPattern, newTripPatternForDate);
-        datesToBeUpdated.addAll(newTripPatternForDate.getRunningPeriodDates());
+        for (LocalDate runningDate : newTripPatternForDate.getRunningPeriodDates()) {
+          newTripPatternsForDate.put(runningDate, newTripPatternForDate);
+          datesToBeUpdated.add(runningDate);
+        }
         if (transferIndexGenerator != null && tripPattern.isCreatedByRealtimeUpdater()) {
           transferIndexGenerator.addRealtimeTrip(
             tripPattern,
@@ -165,18 +178,8 @@ public class TransitLayerUpdater {
       // Remove old cached tripPatterns where tripTimes are no longer running
       Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate oldTripPatternForDate : entry.getValue()) {
-          // Remove old TripPatternForDate for this date if it was valid on this date
-          if (oldTripPatternForDate != null) {
-            if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
-            }
-          }
-        }
-      }
+      // Remove old TripPatternsForDate that were valid on this date
+      patternsForDate.removeAll(oldTripPatternsForDate.get(date));
 
       for (TripPatternForDate tripPatternForDate : previouslyUsedPatterns) {
         if (tripPatternForDate.getLocalDate().equals(date)) {
@@ -202,18 +205,8 @@ public class TransitLayerUpdater {
         }
       }
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : newTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate newTripPatternForDate : entry.getValue()) {
-          // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-          if (newTripPatternForDate != null) {
-            if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
-            }
-          }
-        }
-      }
+      // Add new TripPatternsForDate that mapped correctly and are valid on this date
+      patternsForDate.addAll(newTripPatternsForDate.get(date));
 
       realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
     }
@@ -227,8 +220,9 @@ public class TransitLayerUpdater {
     transitModel.setRealtimeTransitLayer(realtimeTransitLayer);
 
     LOG.debug(
-      "UPDATING {} tripPatterns took {} ms",
+      "UPDATING {} tripPatterns ({} unchanged) took {} ms",
       updatedTimetables.size(),
+      unchangedTimetables,
       System.currentTimeMillis() - startTime
     );
   }
@@ -5,11 +5,14 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.transit.model.timetable.FrequencyEntry;
@@ -68,14 +71,9 @@ public class TripPatternForDateMapper {
     );
 
     for (TripTimes tripTimes : sortedTripTimes) {
-      if (!serviceCodesRunning.contains(tripTimes.getServiceCode())) {
-        continue;
+      if (isRunning(tripTimes, serviceCodesRunning)) {
+        times.add(tripTimes);
       }
-      if (tripTimes.isDeleted()) {
-        continue;
-      }
-
-      times.add(tripTimes);
     }
 
     List<FrequencyEntry> frequencies = timetable
@@ -86,13 +84,7 @@ public class TripPatternForDateMapper {
       .collect(Collectors.toList());
 
     if (times.isEmpty() && frequencies.isEmpty()) {
-      if (timetable.getServiceDate() != null && timetable.getServiceDate().equals(serviceDate)) {
-        LOG.debug(
-          "Tried to update TripPattern {}, but no service codes are valid for date {}",
-          timetable.getPattern().getId(),
-          serviceDate
-        );
-      }
+      logNoServiceOnDate(timetable, serviceDate);
       return null;
     }
 
@@ -103,4 +95,110 @@ public class TripPatternForDateMapper {
       serviceDate
     );
   }
+
+  /**
+   * Map a realtime update of a timetable, starting from the TripPatternForDate of the previous
+   * version of the same timetable. Realtime updates replace the TripTimes of the updated trips
+   * only, the other TripTimes are shared with the previous version. The TripTimes that are still
+   * in the timetable are kept in their already sorted order, and only the new TripTimes are
+   * filtered, sorted and merged in. The previous TripPatternForDate is returned as is if none of
+   * the trips running on the date changed.
+   * <p>
+   * Falls back to {@link #map(Timetable, LocalDate)} if there is no previous TripPatternForDate,
+   * or if frequencies are used.
+   * <p>
+   * This method is THREAD SAFE.
+   *
+   * @param previous The TripPatternForDate mapped from the previous version of the timetable for
+   *                 the same date - READ ONLY
+   */
+  @Nullable
+  public TripPatternForDate map(
+    Timetable timetable,
+    LocalDate serviceDate,
+    @Nullable TripPatternForDate previous
+  ) {
+    if (
+      previous == null ||
+      previous.hasFrequencies() ||
+      !timetable.getFrequencyEntries().isEmpty() ||
+      !previous.getLocalDate().equals(serviceDate) ||
+      previous.getTripPattern() != timetable.getPattern().getRoutingTripPattern()
+    ) {
+      return map(timetable, serviceDate);
+    }
+    TIntSet serviceCodesRunning = serviceCodesRunningForDate.get(serviceDate);
+
+    Set<TripTimes> current = identitySet(timetable.getTripTimes());
+    Set<TripTimes> before = identitySet(previous.tripTimes());
+
+    List<TripTimes> retained = new ArrayList<>(previous.numberOfTripSchedules());
+    for (TripTimes tripTimes : previous.tripTimes()) {
+      if (current.contains(tripTimes)) {
+        retained.add(tripTimes);
+      }
+    }
+
+    // Unchanged TripTimes that were filtered out before are filtered out again here
+    List<TripTimes> added = new ArrayList<>();
+    for (TripTimes tripTimes : timetable.getTripTimes()) {
+      if (!before.contains(tripTimes) && isRunning(tripTimes, serviceCodesRunning)) {
+        added.add(tripTimes);
+      }
+    }
+
+    if (added.isEmpty() && retained.size() == previous.numberOfTripSchedules()) {
+      return previous;
+    }
+    if (added.isEmpty() && retained.isEmpty()) {
+      logNoServiceOnDate(timetable, serviceDate);
+      return null;
+    }
+
+    added.sort(Comparator.comparing(TripTimes::sortIndex));
+
+    return new TripPatternForDate(
+      previous.getTripPattern(),
+      mergeSorted(retained, added),
+      List.of(),
+      serviceDate
+    );
+  }
+
+  private static boolean isRunning(TripTimes tripTimes, TIntSet serviceCodesRunning) {
+    return serviceCodesRunning.contains(tripTimes.getServiceCode()) && !tripTimes.isDeleted();
+  }
+
+  private static Set<TripTimes> identitySet(List<TripTimes> tripTimes) {
+    Set<TripTimes> set = Collections.newSetFromMap(new IdentityHashMap<>(tripTimes.size()));
+    set.addAll(tripTimes);
+    return set;
+  }
+
+  /** Merge two lists that are both sorted on {@link TripTimes#sortIndex()}. */
+  private static List<TripTimes> mergeSorted(List<TripTimes> a, List<TripTimes> b) {
+    List<TripTimes> result = new ArrayList<>(a.size() + b.size());
+    int i = 0;
+    int j = 0;
+    while (i < a.size() && j < b.size()) {
+      if (b.get(j).sortIndex() < a.get(i).sortIndex()) {
+        result.add(b.get(j++));
+      } else {
+        result.add(a.get(i++));
+      }
+    }
+    result.addAll(a.subList(i, a.size()));
+    result.addAll(b.subList(j, b.size()));
+    return result;
+  }
+
+  private static void logNoServiceOnDate(Timetable timetable, LocalDate serviceDate) {
+    if (timetable.getServiceDate() != null && timetable.getServiceDate().equals(serviceDate)) {
+      LOG.debug(
+        "Tried to update TripPattern {}, but no service codes are valid for date {}",
+        timetable.getPattern().getId(),
+        serviceDate
+      );
+    }
+  }
 }
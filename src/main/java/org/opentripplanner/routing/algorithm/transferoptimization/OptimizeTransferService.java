@@ -3,7 +3,12 @@ package org.opentripplanner.routing.algorithm.transferoptimization;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.logging.ThrottleLogger;
+import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.routing.algorithm.raptoradapter.path.PathDiff;
@@ -15,6 +20,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Optimize the transfers of the paths found by Raptor. If a thread pool is given, the paths are
+ * optimized in parallel, the order of the paths is kept.
+ *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
 public class OptimizeTransferService<T extends RaptorTripSchedule> {
@@ -26,20 +34,31 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
   private final MinSafeTransferTimeCalculator<T> minSafeTransferTimeCalculator;
   private final TransferWaitTimeCostCalculator transferWaitTimeCostCalculator;
 
+  @Nullable
+  private final ExecutorService threadPool;
+
+  private final RaptorTimers timers;
+
   public OptimizeTransferService(
     OptimizePathDomainService<T> optimizePathDomainService,
     MinSafeTransferTimeCalculator<T> minSafeTransferTimeCalculator,
-    TransferWaitTimeCostCalculator transferWaitTimeCostCalculator
+    TransferWaitTimeCostCalculator transferWaitTimeCostCalculator,
+    @Nullable ExecutorService threadPool,
+    RaptorTimers timers
   ) {
     this.optimizePathDomainService = optimizePathDomainService;
     this.minSafeTransferTimeCalculator = minSafeTransferTimeCalculator;
     this.transferWaitTimeCostCalculator = transferWaitTimeCostCalculator;
+    this.threadPool = threadPool;
+    this.timers = timers;
   }
 
-  public OptimizeTransferService(OptimizePathDomainService<T> optimizePathDomainService) {
-    this.optimizePathDomainService = optimizePathDomainService;
-    this.minSafeTransferTimeCalculator = null;
-    this.transferWaitTimeCostCalculator = null;
+  public OptimizeTransferService(
+    OptimizePathDomainService<T> optimizePathDomainService,
+    @Nullable ExecutorService threadPool,
+    RaptorTimers timers
+  ) {
+    this(optimizePathDomainService, null, null, threadPool, timers);
   }
 
   public List<RaptorPath<T>> optimize(Collection<RaptorPath<T>> paths) {
@@ -49,9 +68,15 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
 
     List<RaptorPath<T>> results = new ArrayList<>();
 
-    for (var path : paths) {
-      results.addAll(optimize(path));
-    }
+    timers.optimizeTransfers(() -> {
+      if (threadPool == null || paths.size() < 2) {
+        for (var path : paths) {
+          results.addAll(timedOptimize(path));
+        }
+      } else {
+        results.addAll(optimizeInParallel(List.copyOf(paths)));
+      }
+    });
 
     if (LOG.isDebugEnabled()) {
       LOG.debug("Optimized transfers done in {} ms.", System.currentTimeMillis() - start);
@@ -72,6 +97,40 @@ public class OptimizeTransferService<T extends RaptorTripSchedule> {
     }
   }
 
+  /**
+   * The first path is optimized by the calling thread, while the others are optimized by the
+   * thread pool.
+   */
+  private List<RaptorPath<T>> optimizeInParallel(List<RaptorPath<T>> paths) {
+    List<Future<Collection<OptimizedPath<T>>>> futures = new ArrayList<>();
+    for (var path : paths.subList(1, paths.size())) {
+      futures.add(threadPool.submit(() -> timedOptimize(path)));
+    }
+
+    List<RaptorPath<T>> results = new ArrayList<>(timedOptimize(paths.get(0)));
+    try {
+      for (var future : futures) {
+        results.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      futures.forEach(it -> it.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while optimizing transfers in parallel.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(
+        "Failed to optimize transfers in parallel. Details: " + e.getMessage(),
+        e
+      );
+    }
+    return results;
+  }
+
+  private Collection<OptimizedPath<T>> timedOptimize(RaptorPath<T> path) {
+    List<OptimizedPath<T>> result = new ArrayList<>();
+    timers.optimizeTransfersForPath(() -> result.addAll(optimize(path)));
+    return result;
+  }
+
   /**
    * Optimize a single transfer, finding all possible permutations of transfers for the path and
    * filtering the list down one path, or a few equally good paths.
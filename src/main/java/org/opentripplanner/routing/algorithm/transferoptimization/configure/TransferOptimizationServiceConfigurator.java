@@ -1,7 +1,10 @@
 package org.opentripplanner.routing.algorithm.transferoptimization.configure;
 
+import java.util.concurrent.ExecutorService;
 import java.util.function.IntFunction;
+import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
+import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.path.RaptorStopNameResolver;
 import org.opentripplanner.raptor.spi.RaptorCostCalculator;
@@ -29,6 +32,8 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
   private final RaptorTransitDataProvider<T> transitDataProvider;
   private final int[] stopBoardAlightCosts;
   private final TransferOptimizationParameters config;
+  private final ExecutorService threadPool;
+  private final RaptorTimers timers;
 
   private TransferOptimizationServiceConfigurator(
     IntFunction<StopLocation> stopLookup,
@@ -36,7 +41,9 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
     TransferService transferService,
     RaptorTransitDataProvider<T> transitDataProvider,
     int[] stopBoardAlightCosts,
-    TransferOptimizationParameters config
+    TransferOptimizationParameters config,
+    ExecutorService threadPool,
+    RaptorTimers timers
   ) {
     this.stopLookup = stopLookup;
     this.stopNameResolver = stopNameResolver;
@@ -44,10 +51,14 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
     this.transitDataProvider = transitDataProvider;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
     this.config = config;
+    this.threadPool = threadPool;
+    this.timers = timers;
   }
 
   /**
    * Scope: Request
+   *
+   * @param threadPool the paths are optimized in parallel on this thread pool, if it is set
    */
   public static <
     T extends RaptorTripSchedule
@@ -57,7 +68,9 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
     TransferService transferService,
     RaptorTransitDataProvider<T> transitDataProvider,
     int[] stopBoardAlightCosts,
-    TransferOptimizationParameters config
+    TransferOptimizationParameters config,
+    @Nullable ExecutorService threadPool,
+    RaptorTimers timers
   ) {
     return new TransferOptimizationServiceConfigurator<T>(
       stopLookup,
@@ -65,7 +78,9 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
       transferService,
       transitDataProvider,
       stopBoardAlightCosts,
-      config
+      config,
+      threadPool,
+      timers
     )
       .createOptimizeTransferService();
   }
@@ -90,7 +105,9 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
       return new OptimizeTransferService<>(
         transfersPermutationService,
         createMinSafeTxTimeService(),
-        transferWaitTimeCalculator
+        transferWaitTimeCalculator,
+        threadPool,
+        timers
       );
     } else {
       var transfersPermutationService = createOptimizePathService(
@@ -99,7 +116,7 @@ public class TransferOptimizationServiceConfigurator<T extends RaptorTripSchedul
         null,
         transitDataProvider.multiCriteriaCostCalculator()
       );
-      return new OptimizeTransferService<>(transfersPermutationService);
+      return new OptimizeTransferService<>(transfersPermutationService, threadPool, timers);
     }
   }
 
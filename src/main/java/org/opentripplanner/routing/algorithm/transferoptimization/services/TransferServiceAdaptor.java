@@ -1,5 +1,6 @@
 package org.opentripplanner.routing.algorithm.transferoptimization.services;
 
+import java.time.LocalDate;
 import java.util.function.IntFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.ConstrainedTransfer;
@@ -9,6 +10,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.transferoptimization.model.TripStopTime;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
 
 /**
  * This a just an adaptor to look up transfers constraints. The adaptor hides the {@link
@@ -75,6 +77,21 @@ public class TransferServiceAdaptor<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * Return a key that identifies the trip on its service date. Raptor may create a new trip
+   * schedule instance each time a trip is boarded, so the instance can not be used as a key. The
+   * trip times and the service date identify a scheduled trip. The sort index is added to tell the
+   * departures of a frequency based trip apart.
+   */
+  protected Object tripKey(T trip) {
+    var schedule = (TripSchedule) trip;
+    return new TripKey(
+      schedule.getOriginalTripTimes(),
+      schedule.getServiceDate(),
+      trip.tripSortIndex()
+    );
+  }
+
   private StopLocation stop(int index) {
     return stopLookup.apply(index);
   }
@@ -82,4 +99,6 @@ public class TransferServiceAdaptor<T extends RaptorTripSchedule> {
   private Trip trip(T raptorTripSchedule) {
     return ((TripSchedule) raptorTripSchedule).getOriginalTripTimes().getTrip();
   }
+
+  private record TripKey(TripTimes tripTimes, LocalDate serviceDate, int tripSortIndex) {}
 }
@@ -9,6 +9,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Locale;
 import java.util.function.Consumer;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.time.DateUtils;
 import org.opentripplanner.model.GenericLocation;
 import org.opentripplanner.model.plan.SortOrder;
@@ -67,6 +68,8 @@ public class RouteRequest implements Cloneable, Serializable {
 
   private boolean wheelchair = false;
 
+  private transient CancellationToken cancellationToken = CancellationToken.NONE;
+
   /* CONSTRUCTORS */
 
   /** Constructor for options; modes defaults to walk and transit */
@@ -297,6 +300,20 @@ public class RouteRequest implements Cloneable, Serializable {
     this.locale = locale;
   }
 
+  /**
+   * The token used to stop the routing when the client disconnects, or the deadline of the request
+   * has passed. This is not a search parameter, it is set by the API for each request. The default
+   * is a token which is never cancelled.
+   */
+  public CancellationToken cancellationToken() {
+    // The token is not serialized with the router config, so it is null after deserialization
+    return cancellationToken == null ? CancellationToken.NONE : cancellationToken;
+  }
+
+  public void setCancellationToken(CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+  }
+
   /**
    * Use the cursor to go to the next or previous "page" of trips. You should pass in the original
    * request as is.
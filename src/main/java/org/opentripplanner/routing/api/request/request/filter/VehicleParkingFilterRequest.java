@@ -35,6 +35,13 @@ public class VehicleParkingFilterRequest {
     return new VehicleParkingFilterRequest(List.of(), List.of());
   }
 
+  /**
+   * Return {@code true} if the request has no conditions, see {@link #empty()}.
+   */
+  public boolean isEmpty() {
+    return not.length == 0 && select.length == 0;
+  }
+
   /**
    * Checks if a parking facility matches the conditions defined in this filter.
    */
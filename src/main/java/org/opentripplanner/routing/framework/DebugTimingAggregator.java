@@ -8,15 +8,22 @@ import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.TimingOutput;
 import org.opentripplanner.api.resource.TransitTimingOutput;
 import org.opentripplanner.routing.api.request.RoutingTag;
+import org.opentripplanner.routing.fares.FareService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Keeps account of timing information within the different parts of the routing process, and is
  * responsible for logging that information.
+ * <p>
+ * An instance is created for each request, and each part is recorded with a Micrometer timer
+ * tagged with the tags of the request. The timings of the request are also returned as a tree in
+ * the {@link DebugOutput}.
  */
 public class DebugTimingAggregator {
 
@@ -40,9 +47,11 @@ public class DebugTimingAggregator {
   private final Timer tripPatternFilterTimer;
   private final Timer accessEgressTimer;
   private final Timer raptorSearchTimer;
+  private final Timer transferOptimizationTimer;
   private final Timer itineraryCreationTimer;
   private final Timer transitRouterTimer;
   private final Timer filteringTimer;
+  private final Timer faresTimer;
   private final Timer renderingTimer;
   private final Timer routingTotalTimer;
   private final Timer requestTotalTimer;
@@ -56,6 +65,7 @@ public class DebugTimingAggregator {
   private Timer.Sample finishedPatternFiltering;
   private Timer.Sample finishedAccessEgress;
   private Timer.Sample finishedRaptorSearch;
+  private Timer.Sample finishedTransferOptimization;
   private Timer.Sample finishedRouters;
   private Timer.Sample finishedFiltering;
   private Timer.Sample startedAccessCalculating;
@@ -69,9 +79,12 @@ public class DebugTimingAggregator {
   private long tripPatternFilterTime;
   private long accessEgressTime;
   private long raptorSearchTime;
+  private long transferOptimizationTime;
   private long itineraryCreationTime;
   private long transitRouterTime;
+  private long routingTotalTime;
   private long filteringTime;
+  private long faresTime;
   private long renderingTime;
   private long requestTotalTime;
 
@@ -88,10 +101,13 @@ public class DebugTimingAggregator {
     routingTotalTimer = Timer.builder("routing.router").tags(tags).register(registry);
     renderingTimer = Timer.builder("routing.rendering").tags(tags).register(registry);
     filteringTimer = Timer.builder("routing.filtering").tags(tags).register(registry);
+    faresTimer = Timer.builder("routing.fares").tags(tags).register(registry);
     transitRouterTimer = Timer.builder("routing.transit").tags(tags).register(registry);
     itineraryCreationTimer =
       Timer.builder("routing.itineraryCreation").tags(tags).register(registry);
     raptorSearchTimer = Timer.builder(ROUTING_RAPTOR).tags(tags).register(registry);
+    transferOptimizationTimer =
+      Timer.builder("routing.optimizeTransfers").tags(tags).register(registry);
     accessEgressTimer = Timer.builder("routing.accessEgress").tags(tags).register(registry);
     tripPatternFilterTimer =
       Timer.builder("routing.tripPatternFiltering").tags(tags).register(registry);
@@ -213,14 +229,29 @@ public class DebugTimingAggregator {
     raptorSearchTime = finishedAccessEgress.stop(raptorSearchTimer);
   }
 
+  /**
+   * Record the time when we are finished with the optimization of the transfers of the raptor
+   * paths. This is called also if the transfers are not optimized.
+   */
+  public void finishedTransferOptimization() {
+    finishedTransferOptimization = Timer.start(clock);
+    if (finishedRaptorSearch == null) {
+      return;
+    }
+    transferOptimizationTime = finishedRaptorSearch.stop(transferOptimizationTimer);
+  }
+
   /**
    * Record the time when we have created internal itinerary objects from the raptor responses.
    */
   public void finishedItineraryCreation() {
-    if (finishedRaptorSearch == null) {
+    var started = finishedTransferOptimization != null
+      ? finishedTransferOptimization
+      : finishedRaptorSearch;
+    if (started == null) {
       return;
     }
-    itineraryCreationTime = finishedRaptorSearch.stop(itineraryCreationTimer);
+    itineraryCreationTime = started.stop(itineraryCreationTimer);
   }
 
   /** Record the time when we finished the transit router search */
@@ -235,7 +266,7 @@ public class DebugTimingAggregator {
     if (startedCalculating == null) {
       return;
     }
-    long routingTotalTime = startedCalculating.stop(routingTotalTimer);
+    routingTotalTime = startedCalculating.stop(routingTotalTimer);
 
     finishedRouters = Timer.start(clock);
     if (directStreetRouterTime > 0) {
@@ -251,6 +282,7 @@ public class DebugTimingAggregator {
       log("│├ Egress routing (" + numEgresses + " egresses)", egressTime);
       log("││ Access/Egress routing", accessEgressTime);
       log("│├ Main routing", raptorSearchTime);
+      log("│├ Optimizing transfers", transferOptimizationTime);
       log("│├ Creating itineraries", itineraryCreationTime);
       log("├┴ Transit routing total", transitRouterTime);
     }
@@ -258,6 +290,25 @@ public class DebugTimingAggregator {
     log("│  Routing total: ", routingTotalTime);
   }
 
+  /**
+   * Wrap the fare service, so the time spent calculating the fares of the itineraries during the
+   * filtering is recorded. The fares are calculated one itinerary at a time, by the filter chain,
+   * so the time is summed up and recorded when the filtering is finished.
+   */
+  public FareService timeFares(FareService fareService) {
+    if (fareService == null) {
+      return null;
+    }
+    return itinerary -> {
+      long start = clock.monotonicTime();
+      try {
+        return fareService.getCost(itinerary);
+      } finally {
+        faresTime += clock.monotonicTime() - start;
+      }
+    };
+  }
+
   /** Record the time when we finished filtering the paths for this request. */
   public void finishedFiltering() {
     finishedFiltering = Timer.start(clock);
@@ -265,6 +316,10 @@ public class DebugTimingAggregator {
       return;
     }
     filteringTime = finishedRouters.stop(filteringTimer);
+    if (faresTime > 0) {
+      faresTimer.record(faresTime, TimeUnit.NANOSECONDS);
+      log("│┌ Calculating fares", faresTime);
+    }
     log("├  Filtering itineraries", filteringTime);
   }
 
@@ -295,7 +350,56 @@ public class DebugTimingAggregator {
         tripPatternFilterTime,
         accessEgressTime,
         raptorSearchTime,
+        transferOptimizationTime,
         itineraryCreationTime
+      ),
+      timingTree()
+    );
+  }
+
+  /**
+   * The timings as a tree, the node names are the names of the Micrometer timers without the
+   * {@code routing.} prefix.
+   */
+  private TimingOutput timingTree() {
+    var routers = new ArrayList<TimingOutput>();
+    routers.add(new TimingOutput("preCalculation", precalculationTime));
+    if (directStreetRouterTime > 0) {
+      routers.add(new TimingOutput("directStreet", directStreetRouterTime));
+    }
+    if (directFlexRouterTime > 0) {
+      routers.add(new TimingOutput("directFlex", directFlexRouterTime));
+    }
+    if (transitRouterTime > 0) {
+      var accessEgress = List.of(
+        new TimingOutput("access", accessTime),
+        new TimingOutput("egress", egressTime)
+      );
+      routers.add(
+        new TimingOutput(
+          "transit",
+          transitRouterTime,
+          List.of(
+            new TimingOutput("tripPatternFiltering", tripPatternFilterTime),
+            new TimingOutput("accessEgress", accessEgressTime, accessEgress),
+            new TimingOutput("raptor", raptorSearchTime),
+            new TimingOutput("optimizeTransfers", transferOptimizationTime),
+            new TimingOutput("itineraryCreation", itineraryCreationTime)
+          )
+        )
+      );
+    }
+    var filtering = faresTime > 0
+      ? List.of(new TimingOutput("fares", faresTime))
+      : List.<TimingOutput>of();
+
+    return new TimingOutput(
+      "total",
+      requestTotalTime,
+      List.of(
+        new TimingOutput("router", routingTotalTime, routers),
+        new TimingOutput("filtering", filteringTime, filtering),
+        new TimingOutput("rendering", renderingTime)
       )
     );
   }
@@ -1,6 +1,7 @@
 package org.opentripplanner.routing.service;
 
 import java.time.ZoneId;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.RoutingWorker;
 import org.opentripplanner.routing.algorithm.via.ViaRoutingWorker;
 import org.opentripplanner.routing.api.RoutingService;
@@ -18,17 +19,35 @@ public class DefaultRoutingService implements RoutingService {
 
   private final OtpServerRequestContext serverContext;
 
+  /**
+   * The cache is shared by all requests, while a routing service is created for each request.
+   * It is {@code null} if the plan responses are not cached.
+   */
+  @Nullable
+  private final RoutingResponseCache responseCache;
+
   private final ZoneId timeZone;
 
-  public DefaultRoutingService(OtpServerRequestContext serverContext) {
+  public DefaultRoutingService(
+    OtpServerRequestContext serverContext,
+    @Nullable RoutingResponseCache responseCache
+  ) {
     this.serverContext = serverContext;
+    this.responseCache = responseCache;
     this.timeZone = serverContext.transitService().getTimeZone();
   }
 
   @Override
   public RoutingResponse route(RouteRequest request) {
-    RoutingWorker worker = new RoutingWorker(serverContext, request, timeZone);
-    return worker.route();
+    if (responseCache != null) {
+      return responseCache.route(
+        request,
+        serverContext.transitService().getRealtimeTransitLayer(),
+        this::routeRequest,
+        serverContext.meterRegistry()
+      );
+    }
+    return routeRequest(request);
   }
 
   @Override
@@ -40,4 +59,9 @@ public class DefaultRoutingService implements RoutingService {
     );
     return viaRoutingWorker.route();
   }
+
+  private RoutingResponse routeRequest(RouteRequest request) {
+    RoutingWorker worker = new RoutingWorker(serverContext, request, timeZone);
+    return worker.route();
+  }
 }
@@ -0,0 +1,216 @@
+package org.opentripplanner.routing.service;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.modes.ExcludeAllTransitFilter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RequestModes;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.routing.api.request.request.JourneyRequest;
+import org.opentripplanner.routing.api.request.request.TransitRequest;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Cache the responses of plan requests, used if the {@link OTPFeature#PlanResponseCache} feature
+ * is on. Many requests are identical: kiosks, widgets and links on web pages send the same
+ * request, with the same time, over and over.
+ * <p>
+ * Only requests with the default journey filters and no page cursor are cached, see
+ * {@link #key(RouteRequest, TransitLayer)}. The realtime transit layer the request is routed on
+ * is part of the key, and the cache is cleared when a new realtime transit layer is published.
+ * The responses are also removed a minute after they are cached, and the number of responses is
+ * limited. Responses with routing errors are not cached.
+ * <p>
+ * If several threads route the same request at the same time, only one of them routes it, the
+ * others wait for its response. If the request of that thread is cancelled, the others route
+ * their own request.
+ */
+public class RoutingResponseCache {
+
+  private static final int MAXIMUM_SIZE = 1000;
+  private static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+  private final Cache<Key, RoutingResponse> cache;
+
+  private volatile TransitLayer transitLayer;
+
+  public RoutingResponseCache() {
+    this(MAXIMUM_SIZE, TIME_TO_LIVE);
+  }
+
+  RoutingResponseCache(int maximumSize, Duration timeToLive) {
+    this.cache =
+      CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).build();
+  }
+
+  /**
+   * Return the cached response for the request, or route it with the given router. Each caller
+   * gets its own {@link DebugTimingAggregator}, only the caller who routed the request gets the
+   * one with the timings.
+   */
+  RoutingResponse route(
+    RouteRequest request,
+    TransitLayer realtimeTransitLayer,
+    Function<RouteRequest, RoutingResponse> router,
+    MeterRegistry meterRegistry
+  ) {
+    Key key = key(request, realtimeTransitLayer);
+    if (key == null) {
+      return router.apply(request);
+    }
+    clearIfTransitLayerIsUpdated(realtimeTransitLayer);
+
+    var routed = new AtomicBoolean(false);
+    RoutingResponse response;
+    try {
+      response =
+        cache.get(
+          key,
+          () -> {
+            routed.set(true);
+            return router.apply(request);
+          }
+        );
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      // The request routed by another thread is cancelled, its client is gone, route this one
+      if (!routed.get() && e.getCause() instanceof CancellationException) {
+        return router.apply(request);
+      }
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+
+    if (routed.get()) {
+      if (!response.getRoutingErrors().isEmpty()) {
+        cache.asMap().remove(key, response);
+      }
+      return response;
+    }
+    return new RoutingResponse(
+      response.getTripPlan(),
+      response.getPreviousPageCursor(),
+      response.getNextPageCursor(),
+      response.getMetadata(),
+      response.getRoutingErrors(),
+      new DebugTimingAggregator(meterRegistry, request.preferences().system().tags())
+    );
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Return the cache key of the request, or {@code null} if the request should not be cached.
+   * Requests with a page cursor, or with journey filters other than the default ones, are not
+   * cached; these are rarely identical.
+   */
+  @Nullable
+  static Key key(RouteRequest request, TransitLayer realtimeTransitLayer) {
+    if (request.pageCursor() != null || !hasDefaultFilters(request.journey())) {
+      return null;
+    }
+    var journey = request.journey();
+    return new Key(
+      realtimeTransitLayer,
+      LocationKey.of(request.from()),
+      LocationKey.of(request.to()),
+      request.dateTime(),
+      request.searchWindow(),
+      request.timetableView(),
+      request.arriveBy(),
+      request.numItineraries(),
+      request.locale(),
+      request.wheelchair(),
+      request.preferences(),
+      journey.modes(),
+      journey.transit().enabled(),
+      journey.rental().allowArrivingInRentedVehicleAtDestination(),
+      journey.parking().unpreferredCost(),
+      journey.parking().useAvailabilityInformation()
+    );
+  }
+
+  private static boolean hasDefaultFilters(JourneyRequest journey) {
+    TransitRequest transit = journey.transit();
+    return (
+      transit.filters().size() == 1 &&
+      (
+        transit.filters().get(0) instanceof AllowAllTransitFilter ||
+        transit.filters().get(0) instanceof ExcludeAllTransitFilter
+      ) &&
+      transit.bannedTrips().isEmpty() &&
+      transit.preferredAgencies().isEmpty() &&
+      transit.unpreferredAgencies().isEmpty() &&
+      transit.preferredRoutes().isEmpty() &&
+      transit.unpreferredRoutes().isEmpty() &&
+      !transit.raptorDebugging().isEnabled() &&
+      journey.rental().allowedNetworks().isEmpty() &&
+      journey.rental().bannedNetworks().isEmpty() &&
+      journey.parking().filter().isEmpty() &&
+      journey.parking().preferred().isEmpty()
+    );
+  }
+
+  private void clearIfTransitLayerIsUpdated(TransitLayer realtimeTransitLayer) {
+    if (transitLayer != realtimeTransitLayer) {
+      synchronized (this) {
+        if (transitLayer != realtimeTransitLayer) {
+          cache.invalidateAll();
+          transitLayer = realtimeTransitLayer;
+        }
+      }
+    }
+  }
+
+  /**
+   * The transit layer is compared by identity, a new realtime transit layer is published each
+   * time the realtime data is updated.
+   */
+  record Key(
+    TransitLayer realtimeTransitLayer,
+    LocationKey from,
+    LocationKey to,
+    Instant dateTime,
+    Duration searchWindow,
+    boolean timetableView,
+    boolean arriveBy,
+    int numItineraries,
+    Locale locale,
+    boolean wheelchair,
+    RoutingPreferences preferences,
+    RequestModes modes,
+    boolean transitEnabled,
+    boolean allowArrivingInRentedVehicleAtDestination,
+    int parkingUnpreferredCost,
+    boolean parkingUseAvailabilityInformation
+  ) {}
+
+  /** The label is part of the key, it is used as the name of the place in the response. */
+  record LocationKey(String label, FeedScopedId stopId, Double lat, Double lng) {
+    @Nullable
+    static LocationKey of(@Nullable GenericLocation location) {
+      return location == null
+        ? null
+        : new LocationKey(location.label, location.stopId, location.lat, location.lng);
+    }
+  }
+}
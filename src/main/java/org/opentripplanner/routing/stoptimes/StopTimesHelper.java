@@ -1,9 +1,11 @@
 package org.opentripplanner.routing.stoptimes;
 
 import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.ARRIVALS;
+import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.BOTH;
 import static org.opentripplanner.routing.stoptimes.ArrivalDeparture.DEPARTURES;
 
 import com.google.common.collect.MinMaxPriorityQueue;
+import gnu.trove.set.TIntSet;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -12,10 +14,14 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import org.opentripplanner.framework.time.ServiceDateUtils;
 import org.opentripplanner.model.PickDrop;
+import org.opentripplanner.model.StopTimeIndex;
 import org.opentripplanner.model.StopTimesInPattern;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TripTimeOnDate;
@@ -51,15 +57,73 @@ public class StopTimesHelper {
     int numberOfDepartures,
     ArrivalDeparture arrivalDeparture,
     boolean includeCancelledTrips
+  ) {
+    return stopTimesForStop(
+      new TimetableLookup(transitService),
+      stop,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      arrivalDeparture,
+      includeCancelledTrips
+    );
+  }
+
+  /**
+   * Fetch upcoming vehicle departures from several stops at once, see
+   * {@link #stopTimesForStop(TransitService, StopLocation, Instant, Duration, int, ArrivalDeparture, boolean)}.
+   * The timetables and running services are looked up once per pattern and service date and
+   * shared between the stops, so this is cheaper than calling the single stop method for each
+   * stop when the stops share patterns, like the quays of a station do.
+   *
+   * @return the stop times in pattern for each of the given stops, in the order of the stops
+   */
+  public static Map<StopLocation, List<StopTimesInPattern>> stopTimesForStops(
+    TransitService transitService,
+    Collection<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    var lookup = new TimetableLookup(transitService);
+    Map<StopLocation, List<StopTimesInPattern>> result = new LinkedHashMap<>();
+    for (StopLocation stop : stops) {
+      result.computeIfAbsent(
+        stop,
+        it ->
+          stopTimesForStop(
+            lookup,
+            it,
+            startTime,
+            timeRange,
+            numberOfDepartures,
+            arrivalDeparture,
+            includeCancelledTrips
+          )
+      );
+    }
+    return result;
+  }
+
+  private static List<StopTimesInPattern> stopTimesForStop(
+    TimetableLookup lookup,
+    StopLocation stop,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
   ) {
     List<StopTimesInPattern> result = new ArrayList<>();
 
     // Fetch all patterns, including those from realtime sources
-    Collection<TripPattern> patterns = transitService.getPatternsForStop(stop, true);
+    Collection<TripPattern> patterns = lookup.transitService.getPatternsForStop(stop, true);
 
     for (TripPattern pattern : patterns) {
       Queue<TripTimeOnDate> pq = listTripTimeShortsForPatternAtStop(
-        transitService,
+        lookup,
         stop,
         pattern,
         startTime,
@@ -151,7 +215,7 @@ public class StopTimesHelper {
     boolean includeCancellations
   ) {
     Queue<TripTimeOnDate> pq = listTripTimeShortsForPatternAtStop(
-      transitService,
+      new TimetableLookup(transitService),
       stop,
       pattern,
       startTime,
@@ -181,7 +245,7 @@ public class StopTimesHelper {
   }
 
   private static Queue<TripTimeOnDate> listTripTimeShortsForPatternAtStop(
-    TransitService transitService,
+    TimetableLookup lookup,
     StopLocation stop,
     TripPattern pattern,
     Instant startTime,
@@ -191,6 +255,7 @@ public class StopTimesHelper {
     boolean includeCancellations,
     boolean includeReplaced
   ) {
+    TransitService transitService = lookup.transitService;
     ZoneId zoneId = transitService.getTimeZone();
     LocalDate startDate = startTime.atZone(zoneId).toLocalDate().minusDays(1);
     LocalDate endDate = startTime.plus(timeRange).atZone(zoneId).toLocalDate();
@@ -198,14 +263,13 @@ public class StopTimesHelper {
     // datesUntil is exclusive in the end, so need to add one day
     List<LocalDate> serviceDates = startDate.datesUntil(endDate.plusDays(1)).toList();
 
-    // The bounded priority Q is used to keep a sorted short list of trip times. We can not
-    // rely on the trip times to be in order because of real-time updates. This code can
-    // probably be optimized, and the trip search in the Raptor search does almost the same
-    // thing. This is no part of a routing request, but is a used frequently in some
-    // operation like Entur for "departure boards" (apps, widgets, screens on platforms, and
-    // hotel lobbies). Setting the numberOfDepartures and timeRange to a big number for a
-    // transit hub could result in a DOS attack, but there are probably other more effective
-    // ways to do it.
+    // The bounded priority Q is used to keep a sorted short list of trip times. The trip times
+    // of each service date are found in the stop time index of the timetable, sorted by their
+    // realtime times, but the service dates overlap, so they are merged in the queue. This is
+    // no part of a routing request, but is a used frequently in some operation like Entur for
+    // "departure boards" (apps, widgets, screens on platforms, and hotel lobbies). Setting the
+    // numberOfDepartures and timeRange to a big number for a transit hub could result in a DOS
+    // attack, but there are probably other more effective ways to do it.
     //
     // The {@link MinMaxPriorityQueue} is marked beta, but we do not have a god alternative.
     MinMaxPriorityQueue<TripTimeOnDate> pq = MinMaxPriorityQueue
@@ -221,13 +285,14 @@ public class StopTimesHelper {
 
     // Loop through all possible days
     for (LocalDate serviceDate : serviceDates) {
-      Timetable timetable = transitService.getTimetableForTripPattern(pattern, serviceDate);
+      Timetable timetable = lookup.timetable(pattern, serviceDate);
       ZonedDateTime midnight = ServiceDateUtils.asStartOfService(serviceDate, zoneId);
       int secondsSinceMidnight = ServiceDateUtils.secondsSinceStartOfService(
         midnight,
         ZonedDateTime.ofInstant(startTime, zoneId)
       );
-      var servicesRunning = transitService.getServiceCodesRunningForDate(serviceDate);
+      var servicesRunning = lookup.servicesRunning(serviceDate);
+      StopTimeIndex index = timetable.getStopTimeIndex();
 
       List<StopLocation> stops = pattern.getStops();
       for (int stopIndex = 0; stopIndex < stops.size(); stopIndex++) {
@@ -240,37 +305,75 @@ public class StopTimesHelper {
             continue;
           }
 
-          for (TripTimes tripTimes : timetable.getTripTimes()) {
-            if (!servicesRunning.contains(tripTimes.getServiceCode())) {
-              continue;
-            }
-            if (skipByTripCancellation(tripTimes, includeCancellations)) {
-              continue;
-            }
-            if (
-              !includeReplaced &&
-              isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+          int endTime = secondsSinceMidnight + timeRangeSeconds;
+
+          // DEPARTURES and BOTH: Departure time has to be within range. The trips are sorted by
+          // departure time, which is also the order of the queue, so we stop when the queue is
+          // full and the departure is later than the last departure in the queue.
+          if (arrivalDeparture != ARRIVALS) {
+            for (
+              int i = index.firstDeparture(stopIndex, secondsSinceMidnight);
+              i < index.size(stopIndex);
+              i++
             ) {
-              continue;
+              int departureTime = index.departureTime(stopIndex, i);
+              if (
+                departureTime > endTime ||
+                isAfterLastInFullQueue(pq, numberOfDepartures, midnight, departureTime)
+              ) {
+                break;
+              }
+              addTripTimeOnDate(
+                pq,
+                index.departureTripTimes(stopIndex, i),
+                stopIndex,
+                pattern,
+                serviceDate,
+                midnight,
+                servicesRunning,
+                includeCancellations,
+                includeReplaced,
+                transitService
+              );
             }
+          }
 
-            boolean departureTimeInRange =
-              tripTimes.getDepartureTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getDepartureTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            boolean arrivalTimeInRange =
-              tripTimes.getArrivalTime(stopIndex) >= secondsSinceMidnight &&
-              tripTimes.getArrivalTime(stopIndex) <= secondsSinceMidnight + timeRangeSeconds;
-
-            // ARRIVAL: Arrival time has to be within range
-            // DEPARTURES: Departure time has to be within range
-            // BOTH: Either arrival time or departure time has to be within range
-            if (
-              (arrivalDeparture != ARRIVALS && departureTimeInRange) ||
-              (arrivalDeparture != DEPARTURES && arrivalTimeInRange)
+          // ARRIVALS and BOTH: Arrival time has to be within range. A trip can not depart before
+          // it arrives, so we stop when the queue is full and the arrival is later than the last
+          // departure in the queue.
+          if (arrivalDeparture != DEPARTURES) {
+            for (
+              int i = index.firstArrival(stopIndex, secondsSinceMidnight);
+              i < index.size(stopIndex);
+              i++
             ) {
-              pq.add(
-                new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant())
+              int arrivalTime = index.arrivalTime(stopIndex, i);
+              if (
+                arrivalTime > endTime ||
+                isAfterLastInFullQueue(pq, numberOfDepartures, midnight, arrivalTime)
+              ) {
+                break;
+              }
+              TripTimes tripTimes = index.arrivalTripTimes(stopIndex, i);
+              // For BOTH, the trips departing within range are already added above
+              if (
+                arrivalDeparture == BOTH &&
+                tripTimes.getDepartureTime(stopIndex) >= secondsSinceMidnight &&
+                tripTimes.getDepartureTime(stopIndex) <= endTime
+              ) {
+                continue;
+              }
+              addTripTimeOnDate(
+                pq,
+                tripTimes,
+                stopIndex,
+                pattern,
+                serviceDate,
+                midnight,
+                servicesRunning,
+                includeCancellations,
+                includeReplaced,
+                transitService
               );
             }
           }
@@ -281,6 +384,52 @@ public class StopTimesHelper {
     return pq;
   }
 
+  private static void addTripTimeOnDate(
+    Queue<TripTimeOnDate> pq,
+    TripTimes tripTimes,
+    int stopIndex,
+    TripPattern pattern,
+    LocalDate serviceDate,
+    ZonedDateTime midnight,
+    TIntSet servicesRunning,
+    boolean includeCancellations,
+    boolean includeReplaced,
+    TransitService transitService
+  ) {
+    if (!servicesRunning.contains(tripTimes.getServiceCode())) {
+      return;
+    }
+    if (skipByTripCancellation(tripTimes, includeCancellations)) {
+      return;
+    }
+    if (
+      !includeReplaced &&
+      isReplacedByAnotherPattern(tripTimes.getTrip(), serviceDate, pattern, transitService)
+    ) {
+      return;
+    }
+    pq.add(new TripTimeOnDate(tripTimes, stopIndex, pattern, serviceDate, midnight.toInstant()));
+  }
+
+  /**
+   * Return true if the queue is full, and the given time is after the departure of the last trip
+   * time in the queue. The trip times in the queue are ordered by their realtime departure.
+   */
+  private static boolean isAfterLastInFullQueue(
+    MinMaxPriorityQueue<TripTimeOnDate> pq,
+    int maximumSize,
+    ZonedDateTime midnight,
+    int time
+  ) {
+    if (pq.size() < maximumSize) {
+      return false;
+    }
+    TripTimeOnDate last = pq.peekLast();
+    return (
+      midnight.toEpochSecond() + time > last.getServiceDayMidnight() + last.getRealtimeDeparture()
+    );
+  }
+
   private static boolean isReplacedByAnotherPattern(
     Trip trip,
     LocalDate serviceDate,
@@ -335,4 +484,32 @@ public class StopTimesHelper {
 
     return (pickupCancelled || dropOffCancelled) && !includeCancelledTrips;
   }
+
+  /**
+   * The timetables and running services used by a stop times search, looked up at most once per
+   * pattern and service date so they can be shared between the stops of a batch.
+   */
+  private static class TimetableLookup {
+
+    private final TransitService transitService;
+    private final Map<LocalDate, TIntSet> servicesRunning = new HashMap<>();
+    private final Map<TripPattern, Map<LocalDate, Timetable>> timetables = new HashMap<>();
+
+    private TimetableLookup(TransitService transitService) {
+      this.transitService = transitService;
+    }
+
+    private TIntSet servicesRunning(LocalDate serviceDate) {
+      return servicesRunning.computeIfAbsent(
+        serviceDate,
+        transitService::getServiceCodesRunningForDate
+      );
+    }
+
+    private Timetable timetable(TripPattern pattern, LocalDate serviceDate) {
+      return timetables
+        .computeIfAbsent(pattern, it -> new HashMap<>())
+        .computeIfAbsent(serviceDate, it -> transitService.getTimetableForTripPattern(pattern, it));
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package org.opentripplanner.service.vehiclepositions;
 
 import java.util.List;
+import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.service.vehiclepositions.model.RealtimeVehiclePosition;
 import org.opentripplanner.transit.model.network.TripPattern;
 
@@ -9,4 +10,10 @@ public interface VehiclePositionService {
    * Get the vehicle positions for a certain trip.
    */
   List<RealtimeVehiclePosition> getVehiclePositions(TripPattern pattern);
+
+  /**
+   * Get the vehicle positions inside the given envelope. Positions without coordinates are never
+   * returned.
+   */
+  List<RealtimeVehiclePosition> getVehiclePositions(Envelope envelope);
 }
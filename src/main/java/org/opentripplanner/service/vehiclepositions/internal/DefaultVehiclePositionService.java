@@ -2,31 +2,63 @@ package org.opentripplanner.service.vehiclepositions.internal;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionRepository;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclepositions.model.RealtimeVehiclePosition;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.TripPattern;
 
 @Singleton
 public class DefaultVehiclePositionService
   implements VehiclePositionService, VehiclePositionRepository {
 
+  /**
+   * Vehicle positions are points and map clients query large areas, so the bins are larger than
+   * the default ones (~5km).
+   */
+  private static final double SPATIAL_INDEX_BIN_SIZE = 0.05;
+
   private final Map<TripPattern, List<RealtimeVehiclePosition>> positions = new ConcurrentHashMap<>();
 
+  /**
+   * The index entry of each vehicle with coordinates. An entry is kept across the updates of its
+   * pattern and is only moved in the index when the coordinates of its vehicle change. The index
+   * is not thread safe, access to it and to the entries is guarded by {@link #spatialIndexLock}.
+   */
+  private final HashGridSpatialIndex<IndexedVehicle> spatialIndex = new HashGridSpatialIndex<>(
+    SPATIAL_INDEX_BIN_SIZE,
+    SPATIAL_INDEX_BIN_SIZE
+  );
+
+  /** The index entries of each pattern, guarded by {@link #spatialIndexLock}. */
+  private final Map<TripPattern, PatternVehicles> indexedVehicles = new HashMap<>();
+
+  private final ReadWriteLock spatialIndexLock = new ReentrantReadWriteLock();
+
   @Inject
   public DefaultVehiclePositionService() {}
 
   @Override
   public void setVehiclePositions(TripPattern pattern, List<RealtimeVehiclePosition> updates) {
-    positions.put(pattern, List.copyOf(updates));
+    var newPositions = List.copyOf(updates);
+    positions.put(pattern, newPositions);
+    updateSpatialIndex(pattern, newPositions);
   }
 
   @Override
   public void clearVehiclePositions(TripPattern pattern) {
-    positions.remove(pattern);
+    if (positions.remove(pattern) != null) {
+      updateSpatialIndex(pattern, List.of());
+    }
   }
 
   @Override
@@ -34,4 +66,103 @@ public class DefaultVehiclePositionService
     // the list is made immutable during insertion, so we can safely return them
     return positions.getOrDefault(pattern, List.of());
   }
+
+  @Override
+  public List<RealtimeVehiclePosition> getVehiclePositions(Envelope envelope) {
+    List<RealtimeVehiclePosition> candidates;
+    spatialIndexLock.readLock().lock();
+    try {
+      candidates = spatialIndex.query(envelope).stream().map(it -> it.position).toList();
+    } finally {
+      spatialIndexLock.readLock().unlock();
+    }
+    // the index returns all positions in the bins touching the envelope
+    return candidates
+      .stream()
+      .filter(it -> envelope.contains(it.coordinates().asJtsCoordinate()))
+      .toList();
+  }
+
+  /**
+   * Match the new positions of the pattern with its index entries by vehicle id. An entry is only
+   * removed from and inserted into the index if the vehicle moved, appeared or disappeared. The
+   * other entries just get the new position. Positions without a vehicle id can not be matched,
+   * so they are inserted anew on each update.
+   */
+  private void updateSpatialIndex(TripPattern pattern, List<RealtimeVehiclePosition> newPositions) {
+    spatialIndexLock.writeLock().lock();
+    try {
+      var previous = indexedVehicles.remove(pattern);
+      var next = new PatternVehicles();
+
+      for (RealtimeVehiclePosition position : newPositions) {
+        if (position.coordinates() == null) {
+          continue;
+        }
+        var vehicleId = position.vehicleId();
+        if (vehicleId == null || next.byVehicleId.containsKey(vehicleId)) {
+          next.withoutVehicleId.add(insert(position));
+          continue;
+        }
+        var entry = previous == null ? null : previous.byVehicleId.remove(vehicleId);
+        if (entry == null) {
+          entry = insert(position);
+        } else if (!entry.position.coordinates().sameLocation(position.coordinates())) {
+          spatialIndex.remove(envelope(entry.position), entry);
+          entry.position = position;
+          spatialIndex.insert(envelope(position), entry);
+        } else {
+          entry.position = position;
+        }
+        next.byVehicleId.put(vehicleId, entry);
+      }
+
+      if (previous != null) {
+        previous.byVehicleId.values().forEach(this::remove);
+        previous.withoutVehicleId.forEach(this::remove);
+      }
+      if (!next.isEmpty()) {
+        indexedVehicles.put(pattern, next);
+      }
+    } finally {
+      spatialIndexLock.writeLock().unlock();
+    }
+  }
+
+  private IndexedVehicle insert(RealtimeVehiclePosition position) {
+    var entry = new IndexedVehicle(position);
+    spatialIndex.insert(envelope(position), entry);
+    return entry;
+  }
+
+  private void remove(IndexedVehicle entry) {
+    spatialIndex.remove(envelope(entry.position), entry);
+  }
+
+  private static Envelope envelope(RealtimeVehiclePosition position) {
+    return new Envelope(position.coordinates().asJtsCoordinate());
+  }
+
+  /**
+   * The entry of a vehicle in the spatial index. It is compared by identity, so it can be removed
+   * from the index after its position is replaced.
+   */
+  private static final class IndexedVehicle {
+
+    private RealtimeVehiclePosition position;
+
+    private IndexedVehicle(RealtimeVehiclePosition position) {
+      this.position = position;
+    }
+  }
+
+  private static final class PatternVehicles {
+
+    private final Map<FeedScopedId, IndexedVehicle> byVehicleId = new HashMap<>();
+    private final List<IndexedVehicle> withoutVehicleId = new ArrayList<>();
+
+    private boolean isEmpty() {
+      return byVehicleId.isEmpty() && withoutVehicleId.isEmpty();
+    }
+  }
 }
@@ -120,7 +120,10 @@ public class OTPMain {
     /* Load graph from disk if one is not present from build. */
     if (cli.doLoadGraph() || cli.doLoadStreetGraph()) {
       SerializedGraphObject obj = SerializedGraphObject.load(loadApp.getInputGraphDataStore());
-      app = loadApp.appConstruction(obj);
+      app =
+        loadApp.doIncrementalBuild()
+          ? loadApp.appConstructionForIncrementalBuild(obj)
+          : loadApp.appConstruction(obj);
       config.updateConfigFromSerializedGraph(obj.buildConfig, obj.routerConfig);
       graphAvailable = true;
     } else {
@@ -5,6 +5,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -179,6 +180,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public boolean multiThreadElevationCalculations;
 
+  public boolean multiThreadStreetGraphBuild;
+
   public LocalDate transitServiceStart;
 
   public LocalDate transitServiceEnd;
@@ -344,6 +347,20 @@ all of the elevation values in the street edges.
         """
         )
         .asBoolean(false);
+    multiThreadStreetGraphBuild =
+      root
+        .of("multiThreadStreetGraphBuild")
+        .since(V2_3)
+        .summary("Configuring multi-threading when building the street graph from OSM.")
+        .description(
+          """
+          If multi-threading is activated, the tag evaluation, naming and node clean-up of each
+          OSM way is done in parallel before the street edges are created. The vertices and edges
+          are still created on a single thread in the original way order, so the resulting graph is
+          the same as without multi-threading.
+          """
+        )
+        .asBoolean(false);
     osmCacheDataInMem =
       root
         .of("osmCacheDataInMem")
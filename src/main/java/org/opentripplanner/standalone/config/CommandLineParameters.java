@@ -76,6 +76,14 @@ public class CommandLineParameters {
   )
   public boolean loadStreet = false;
 
+  @Parameter(
+    names = { "--incremental" },
+    description = "Used with '--loadStreet'. If a 'graph.obj' exist, reuse its street graph, " +
+    "stop linking and the transfers of all stops not affected by changes in the transit data. " +
+    "Otherwise, the 'streetGraph.obj' is used."
+  )
+  public boolean incremental = false;
+
   @Parameter(
     names = { "--save" },
     description = "Save the 'graph.obj' to local disk or data source " +
@@ -117,7 +125,8 @@ public class CommandLineParameters {
 
   @Parameter(
     names = { "--maxThreads" },
-    description = "The maximum number of HTTP handler threads."
+    description = "The maximum number of HTTP handler threads, and of routing requests handled " +
+    "at the same time."
   )
   public Integer maxThreads;
 
@@ -191,6 +200,10 @@ public class CommandLineParameters {
     return loadStreet;
   }
 
+  public boolean doIncrementalBuild() {
+    return loadStreet && incremental;
+  }
+
   public boolean doSaveGraph() {
     return save && doBuildTransit();
   }
@@ -268,6 +281,9 @@ public class CommandLineParameters {
     if (buildStreet) {
       validateParamNotSet("--buildStreet", serve, "--serve");
     }
+    if (incremental && !loadStreet) {
+      throw new ParameterException("--incremental can only be used with --loadStreet." + TIP);
+    }
   }
 
   private void validateParamNotSet(String mainParam, boolean noneCompliantParam, String name) {
@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1_5;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.BIKE_RENTAL;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.MQTT_GTFS_RT_UPDATER;
 import static org.opentripplanner.standalone.config.routerconfig.UpdatersConfig.Type.REAL_TIME_ALERTS;
@@ -130,7 +131,17 @@ public class UpdatersConfig implements UpdatersParameters {
         .summary(
           "Should expired realtime data be purged from the graph. Apply to GTFS-RT and Siri updates."
         )
-        .asBoolean(dflt.purgeExpiredData())
+        .asBoolean(dflt.purgeExpiredData()),
+      c
+        .of("parallelTripUpdates")
+        .since(V2_3)
+        .summary("Compute the new trip times of GTFS-RT trip updates in parallel.")
+        .description(
+          "The trip updates of a batch are matched to trips and applied to the scheduled trip times " +
+          "in parallel, before the lock on the timetable snapshot is taken. Only the changes to the " +
+          "snapshot are applied in sequence. Applies to GTFS-RT updates."
+        )
+        .asBoolean(dflt.parallelTripUpdates())
     );
   }
 
@@ -46,6 +46,52 @@ public class PollingTripUpdaterConfig {
         .since(V1_5)
         .summary("If the trips should be matched fuzzily.")
         .asBoolean(false),
+      c
+        .of("skipUnchangedUpdates")
+        .since(V2_3)
+        .summary("Skip trip updates that are unchanged since the last poll.")
+        .description(
+          """
+          Keep a fingerprint of each trip update, and only apply the trip updates that changed
+          since the previous poll. If the feed contains the full dataset and a trip was removed
+          from it, all trip updates are applied as usual. Trip updates without a trip id or start
+          date are always applied.
+          """
+        )
+        .asBoolean(false),
+      c
+        .of("streamingBatchSize")
+        .since(V2_3)
+        .summary("Apply the feed in batches of this size while reading it.")
+        .description(
+          """
+          If set to a positive number, the GTFS-RT feed is decoded one entity at a time while it
+          is downloaded, and the trip updates are applied in batches of at most this size. This
+          keeps the memory used by very large feeds proportional to the batch size. If the
+          download fails half-way, the batches read so far are applied. Only used with `url`, and
+          not together with `skipUnchangedUpdates`. 0 means that the complete feed is read before
+          it is applied.
+
+          Unless `streamingPublishBatches` is set, the timetable snapshot is not published before
+          the last batch is applied. All feeds share the snapshot, so while the feed is read no
+          new snapshot is published for any feed, and the updates of the other updaters are not
+          visible to routing requests until the download of this feed is done.
+          """
+        )
+        .asInt(0),
+      c
+        .of("streamingPublishBatches")
+        .since(V2_3)
+        .summary("Publish the snapshot after each batch of a streamed feed.")
+        .description(
+          """
+          Publish the timetable snapshot after each batch read with `streamingBatchSize`, so that
+          a large feed does not hold back the updates of the other feeds while it is downloaded.
+          Routing requests may then see a partially applied feed: for a full dataset the trip
+          updates of the batches not yet read are missing until they are applied.
+          """
+        )
+        .asBoolean(false),
       c
         .of("backwardsDelayPropagationType")
         .since(V2_2)
@@ -10,6 +10,7 @@ import org.opentripplanner.framework.logging.ProgressTracker;
 import org.opentripplanner.graph_builder.GraphBuilder;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.graph_builder.module.incremental.PreviousTransitBuild;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
@@ -59,6 +60,9 @@ public class ConstructApplication {
   private final GraphBuilderDataSources graphBuilderDataSources;
   private final ConstructApplicationFactory factory;
 
+  @Nullable
+  private final PreviousTransitBuild previousTransitBuild;
+
   /**
    * Create a new OTP configuration instance for a given directory.
    */
@@ -69,10 +73,12 @@ public class ConstructApplication {
     WorldEnvelopeRepository worldEnvelopeRepository,
     ConfigModel config,
     GraphBuilderDataSources graphBuilderDataSources,
-    DataImportIssueSummary issueSummary
+    DataImportIssueSummary issueSummary,
+    @Nullable PreviousTransitBuild previousTransitBuild
   ) {
     this.cli = cli;
     this.graphBuilderDataSources = graphBuilderDataSources;
+    this.previousTransitBuild = previousTransitBuild;
 
     // We create the optional GraphVisualizer here, because it would be significant more complex to
     // use Dagger DI to do it - passing in a parameter to enable it or not.
@@ -114,7 +120,8 @@ public class ConstructApplication {
       transitModel(),
       factory.worldEnvelopeRepository(),
       cli.doLoadStreetGraph(),
-      cli.doSaveStreetGraph()
+      cli.doSaveStreetGraph(),
+      previousTransitBuild
     );
   }
 
@@ -3,11 +3,14 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.service.RoutingResponseCache;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -29,6 +32,7 @@ public class ConstructApplicationModule {
     WorldEnvelopeService worldEnvelopeService,
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
+    @Nullable RoutingResponseCache routingResponseCache,
     @Nullable TraverseVisitor<?, ?> traverseVisitor
   ) {
     return DefaultServerRequestContext.create(
@@ -42,12 +46,24 @@ public class ConstructApplicationModule {
       worldEnvelopeService,
       vehiclePositionService,
       vehicleRentalService,
+      routingResponseCache,
       routerConfig.flexConfig(),
       traverseVisitor,
       routerConfig.requestLogFile()
     );
   }
 
+  /**
+   * The plan responses are cached for the lifetime of the application, if the
+   * {@link OTPFeature#PlanResponseCache} feature is on.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  RoutingResponseCache routingResponseCache() {
+    return OTPFeature.PlanResponseCache.isOn() ? new RoutingResponseCache() : null;
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
@@ -1,8 +1,13 @@
 package org.opentripplanner.standalone.configure;
 
+import java.time.Duration;
+import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.graph_builder.GraphBuilderDataSources;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
+import org.opentripplanner.graph_builder.module.incremental.PreviousTransitBuild;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.SerializedGraphObject;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
@@ -41,18 +46,50 @@ public class LoadApplication {
   }
 
   public DataSource getInputGraphDataStore() {
-    return cli.doLoadGraph()
+    return cli.doLoadGraph() || doIncrementalBuild()
       ? factory.datastore().getGraph()
       : factory.datastore().getStreetGraph();
   }
 
+  /**
+   * An incremental build is done if requested on the command line and a previously built
+   * 'graph.obj' exist. Otherwise, the transit data is built on top of the 'streetGraph.obj'.
+   */
+  public boolean doIncrementalBuild() {
+    return cli.doIncrementalBuild() && factory.datastore().getGraph().exists();
+  }
+
   /** Construct application from serialized graph */
   public ConstructApplication appConstruction(SerializedGraphObject obj) {
     return createAppConstruction(
       obj.graph,
       obj.transitModel,
       obj.worldEnvelopeRepository,
-      obj.issueSummary
+      obj.issueSummary,
+      null
+    );
+  }
+
+  /**
+   * Construct application from a previously built graph. The transit data is removed from the
+   * graph, and the street graph is reused to build the new transit data on top of it.
+   */
+  public ConstructApplication appConstructionForIncrementalBuild(SerializedGraphObject obj) {
+    if (OTPFeature.FlexRouting.isOn()) {
+      throw new OtpAppException("An incremental build is not supported with flex routing.");
+    }
+    var previousTransitBuild = PreviousTransitBuild.extractAndRemoveTransit(
+      obj.graph,
+      obj.transitModel,
+      Duration.ofSeconds((long) obj.buildConfig.maxTransferDurationSeconds),
+      obj.buildConfig.transferRequests
+    );
+    return createAppConstruction(
+      obj.graph,
+      factory.emptyTransitModel(),
+      factory.emptyWorldEnvelopeRepository(),
+      DataImportIssueSummary.empty(),
+      previousTransitBuild
     );
   }
 
@@ -62,7 +99,8 @@ public class LoadApplication {
       factory.emptyGraph(),
       factory.emptyTransitModel(),
       factory.emptyWorldEnvelopeRepository(),
-      DataImportIssueSummary.empty()
+      DataImportIssueSummary.empty(),
+      null
     );
   }
 
@@ -81,7 +119,8 @@ public class LoadApplication {
     Graph graph,
     TransitModel transitModel,
     WorldEnvelopeRepository worldEnvelopeRepository,
-    DataImportIssueSummary issueSummary
+    DataImportIssueSummary issueSummary,
+    @Nullable PreviousTransitBuild previousTransitBuild
   ) {
     return new ConstructApplication(
       cli,
@@ -90,7 +129,8 @@ public class LoadApplication {
       worldEnvelopeRepository,
       config(),
       graphBuilderDataSources(),
-      issueSummary
+      issueSummary,
+      previousTransitBuild
     );
   }
 }
@@ -14,6 +14,7 @@ import org.opentripplanner.routing.api.RoutingService;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.service.DefaultRoutingService;
+import org.opentripplanner.routing.service.RoutingResponseCache;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
 import org.opentripplanner.service.vehiclerental.VehicleRentalService;
 import org.opentripplanner.service.worldenvelope.WorldEnvelopeService;
@@ -44,6 +45,9 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final VehiclePositionService vehiclePositionService;
   private final VehicleRentalService vehicleRentalService;
 
+  @Nullable
+  private final RoutingResponseCache routingResponseCache;
+
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
    */
@@ -60,6 +64,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     WorldEnvelopeService worldEnvelopeService,
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
+    @Nullable RoutingResponseCache routingResponseCache,
     TraverseVisitor traverseVisitor,
     FlexConfig flexConfig
   ) {
@@ -72,6 +77,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.tileRendererManager = tileRendererManager;
     this.vectorTileLayers = vectorTileLayers;
     this.vehicleRentalService = vehicleRentalService;
+    this.routingResponseCache = routingResponseCache;
     this.flexConfig = flexConfig;
     this.traverseVisitor = traverseVisitor;
     this.routeRequestDefaults = routeRequestDefaults;
@@ -81,6 +87,9 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
 
   /**
    * Create a server context valid for one http request only!
+   *
+   * @param routingResponseCache the cache of the plan responses, shared by all requests. It is
+   *                             {@code null} if the responses are not cached.
    */
   public static DefaultServerRequestContext create(
     TransitRoutingConfig transitRoutingConfig,
@@ -93,6 +102,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     WorldEnvelopeService worldEnvelopeService,
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
+    @Nullable RoutingResponseCache routingResponseCache,
     FlexConfig flexConfig,
     @Nullable TraverseVisitor traverseVisitor,
     @Nullable String requestLogFile
@@ -110,6 +120,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       worldEnvelopeService,
       vehiclePositionService,
       vehicleRentalService,
+      routingResponseCache,
       traverseVisitor,
       flexConfig
     );
@@ -149,7 +160,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
 
   @Override
   public RoutingService routingService() {
-    return new DefaultRoutingService(this);
+    return new DefaultRoutingService(this, routingResponseCache);
   }
 
   @Override
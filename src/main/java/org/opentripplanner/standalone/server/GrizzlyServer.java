@@ -4,6 +4,7 @@ import jakarta.ws.rs.core.Application;
 import java.io.File;
 import java.io.IOException;
 import java.net.BindException;
+import java.util.concurrent.ExecutorService;
 import org.glassfish.grizzly.http.CompressionConfig;
 import org.glassfish.grizzly.http.server.CLStaticHttpHandler;
 import org.glassfish.grizzly.http.server.HttpHandler;
@@ -15,6 +16,7 @@ import org.glassfish.grizzly.ssl.SSLEngineConfigurator;
 import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 import org.glassfish.jersey.server.ContainerFactory;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.RequestExecutors;
 import org.opentripplanner.standalone.config.CommandLineParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,14 +67,22 @@ public class GrizzlyServer {
     // Set up a pool of threads to handle incoming HTTP requests.
     // According to the Grizzly docs, setting the core and max pool size equal with no queue limit
     // will use a more efficient fixed-size thread pool implementation.
-    // TODO we should probably use Grizzly async processing rather than tying up the HTTP handler threads.
     int nHandlerThreads = getMaxThreads();
+    // The routing requests are handled asynchronously, limit them to the same number
+    RequestExecutors.setMaxRequestConcurrency(nHandlerThreads);
     ThreadPoolConfig threadPoolConfig = ThreadPoolConfig
       .defaultConfig()
       .setCorePoolSize(nHandlerThreads)
       .setMaxPoolSize(nHandlerThreads)
       .setQueueLimit(-1);
 
+    // With virtual threads each request runs in its own thread, and the number of requests handled
+    // at the same time is limited to the number of handler threads. This executor is shared by the
+    // HTTP and HTTPS listeners.
+    ExecutorService handlerExecutor = OTPFeature.VirtualThreads.isOn()
+      ? RequestExecutors.create("httpHandlers", nHandlerThreads)
+      : null;
+
     /* HTTP (non-encrypted) listener */
     NetworkListener httpListener = new NetworkListener(
       "otp_insecure",
@@ -99,7 +109,11 @@ public class GrizzlyServer {
       cc.setCompressionMode(CompressionConfig.CompressionMode.ON);
       cc.setCompressionMinSize(50000); // the min number of bytes to compress
       cc.setCompressableMimeTypes("application/json", "text/json"); // the mime types to compress
-      listener.getTransport().setWorkerThreadPoolConfig(threadPoolConfig);
+      if (handlerExecutor != null) {
+        listener.getTransport().setWorkerThreadPool(handlerExecutor);
+      } else {
+        listener.getTransport().setWorkerThreadPoolConfig(threadPoolConfig);
+      }
       httpServer.addListener(listener);
     }
 
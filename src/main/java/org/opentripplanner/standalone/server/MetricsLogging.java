@@ -1,5 +1,6 @@
 package org.opentripplanner.standalone.server;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
@@ -19,6 +20,8 @@ import jakarta.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import org.opentripplanner.framework.concurrent.LimitedExecutorService;
+import org.opentripplanner.framework.concurrent.RequestExecutors;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -88,6 +91,25 @@ public class MetricsLogging {
         .bindTo(Metrics.globalRegistry);
     }
 
+    RequestExecutors.forEach(executor -> {
+      var tags = List.of(
+        Tag.of("pool", executor.name()),
+        Tag.of("virtualThreads", Boolean.toString(executor.virtualThreads()))
+      );
+      Gauge
+        .builder("request.executor.running", executor, LimitedExecutorService::running)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      Gauge
+        .builder("request.executor.waiting", executor, LimitedExecutorService::waiting)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+      Gauge
+        .builder("request.executor.limit", executor, LimitedExecutorService::maxConcurrency)
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    });
+
     final Map<String, Long> issueCount = issueSummary.asMap();
 
     var totalIssues = issueCount.values().stream().mapToLong(i -> i).sum();
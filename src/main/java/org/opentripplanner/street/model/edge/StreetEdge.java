@@ -6,8 +6,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import org.locationtech.jts.algorithm.Distance;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
@@ -64,6 +66,10 @@ public class StreetEdge
   private static final int BICYCLE_NOTHRUTRAFFIC = 7;
   private static final int WALK_NOTHRUTRAFFIC = 8;
   private static final int CLASS_LINK = 9;
+
+  /** The max distance in degrees from a split point to the line between its neighbours. */
+  private static final double SPLIT_POINT_TOLERANCE = 1e-9;
+
   private StreetEdgeCostExtension costExtension;
   /** back, roundabout, stairs, ... */
   private short flags;
@@ -835,6 +841,101 @@ public class StreetEdge
     return splitEdges;
   }
 
+  /**
+   * Can this street edge be joined with the street edge following it? This is only possible if
+   * both edges have the same properties, as they have after a split.
+   * <p>
+   * Edges with an elevation profile are not joined. The profiles of the split edges are
+   * interpolated at the split point and stored with less precision, so the profile of the
+   * original edge can not be restored.
+   */
+  public boolean canJoin(StreetEdge tail) {
+    return (
+      tail.fromv == tov &&
+      tail.tov != fromv &&
+      getClass() == StreetEdge.class &&
+      tail.getClass() == StreetEdge.class &&
+      flags == tail.flags &&
+      permission == tail.permission &&
+      bicycleSafetyFactor == tail.bicycleSafetyFactor &&
+      walkSafetyFactor == tail.walkSafetyFactor &&
+      carSpeed == tail.carSpeed &&
+      !hasElevationExtension() &&
+      !tail.hasElevationExtension() &&
+      Objects.equals(name, tail.name)
+    );
+  }
+
+  /**
+   * Join this street edge with the street edge following it, the reverse of
+   * {@link #splitDestructively(SplitterVertex)}. The edges are not removed from the graph.
+   * <p>
+   * The split point is removed from the geometry if it is on the line between its neighbours, so
+   * joining the edges of a split gives an edge equal to the original edge.
+   *
+   * @throws IllegalArgumentException if the edges can not be joined, see {@link #canJoin}
+   */
+  public StreetEdge join(StreetEdge tail) {
+    if (!canJoin(tail)) {
+      throw new IllegalArgumentException("Street edges can not be joined: " + this + ", " + tail);
+    }
+
+    StreetEdge joined = new StreetEdge(
+      (StreetVertex) fromv,
+      (StreetVertex) tail.tov,
+      joinGeometries(getGeometry(), tail.getGeometry()),
+      name,
+      (length_mm + tail.length_mm) / 1000.0,
+      permission,
+      isBack()
+    );
+    // The lengths of the split edges add up to the length of the original edge
+    joined.length_mm = length_mm + tail.length_mm;
+    joined.flags = flags;
+    joined.setBicycleSafetyFactor(bicycleSafetyFactor);
+    joined.setWalkSafetyFactor(walkSafetyFactor);
+    joined.setCarSpeed(carSpeed);
+    // The rental restrictions are stored on the from vertex, which is shared with this edge
+
+    // Copy the turn restrictions to this edge and from the tail, like the split does the reverse
+    getFromVertex()
+      .getIncoming()
+      .stream()
+      .filter(StreetEdge.class::isInstance)
+      .map(StreetEdge.class::cast)
+      .flatMap(originatingEdge -> originatingEdge.getTurnRestrictions().stream())
+      .filter(restriction -> restriction.to == this)
+      .forEach(restriction -> applyRestrictionsToNewEdge(restriction.from, joined, restriction));
+    tail
+      .getTurnRestrictions()
+      .forEach(restriction -> applyRestrictionsToNewEdge(joined, restriction.to, restriction));
+
+    return joined;
+  }
+
+  /**
+   * Concatenate the geometries of two consecutive edges, and remove the point joining them if it
+   * is on the line between its neighbours, as it is when it was added by a split.
+   */
+  private static LineString joinGeometries(LineString head, LineString tail) {
+    Coordinate[] coordinates = GeometryUtils
+      .concatenateLineStrings(List.of(head, tail))
+      .getCoordinates();
+    int i = head.getNumPoints() - 1;
+    if (
+      i <= 0 ||
+      i >= coordinates.length - 1 ||
+      Distance.pointToSegment(coordinates[i], coordinates[i - 1], coordinates[i + 1]) >
+      SPLIT_POINT_TOLERANCE
+    ) {
+      return GeometryUtils.getGeometryFactory().createLineString(coordinates);
+    }
+    Coordinate[] result = new Coordinate[coordinates.length - 1];
+    System.arraycopy(coordinates, 0, result, 0, i);
+    System.arraycopy(coordinates, i + 1, result, i, coordinates.length - i - 1);
+    return GeometryUtils.getGeometryFactory().createLineString(result);
+  }
+
   /** Split this street edge and return the resulting street edges. The original edge is kept. */
   public SplitStreetEdge splitNonDestructively(
     SplitterVertex v,
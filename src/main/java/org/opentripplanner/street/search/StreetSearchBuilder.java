@@ -8,6 +8,7 @@ import org.opentripplanner.astar.AStarBuilder;
 import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.api.request.request.StreetRequest;
@@ -71,6 +72,12 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
     return routeRequest.preferences().street().routingTimeout();
   }
 
+  @Nonnull
+  @Override
+  protected CancellationToken cancellationToken() {
+    return routeRequest.cancellationToken();
+  }
+
   @Override
   protected Collection<State> createInitialStates(Set<Vertex> originVertices) {
     StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
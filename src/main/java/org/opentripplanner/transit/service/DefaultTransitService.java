@@ -10,6 +10,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.locationtech.jts.geom.Envelope;
@@ -260,6 +261,11 @@ public class DefaultTransitService implements TransitEditorService {
     return this.transitModelIndex.getPatternsForRoute().get(route);
   }
 
+  @Override
+  public TripStartTimeIndex getTripStartTimeIndex() {
+    return this.transitModelIndex.getTripStartTimeIndex();
+  }
+
   @Override
   public MultiModalStation getMultiModalStationForStation(Station station) {
     return this.transitModel.getStopModel().getMultiModalStationForStation(station);
@@ -301,6 +307,26 @@ public class DefaultTransitService implements TransitEditorService {
     );
   }
 
+  @Override
+  public Map<StopLocation, List<StopTimesInPattern>> stopTimesForStops(
+    Collection<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  ) {
+    return StopTimesHelper.stopTimesForStops(
+      this,
+      stops,
+      startTime,
+      timeRange,
+      numberOfDepartures,
+      arrivalDeparture,
+      includeCancelledTrips
+    );
+  }
+
   /**
    * Get a list of all trips that pass through a stop during a single ServiceDate. Useful when
    * creating complete stop timetables for a single day.
@@ -57,6 +57,7 @@ public class TransitModelIndex {
   private final Multimap<GroupOfRoutes, Route> routesForGroupOfRoutes = ArrayListMultimap.create();
 
   private final Map<FeedScopedId, GroupOfRoutes> groupOfRoutesForId = new HashMap<>();
+  private final TripStartTimeIndex tripStartTimeIndex;
   private FlexIndex flexIndex = null;
 
   TransitModelIndex(TransitModel transitModel) {
@@ -91,6 +92,8 @@ public class TransitModelIndex {
     for (GroupOfRoutes groupOfRoutes : routesForGroupOfRoutes.keySet()) {
       groupOfRoutesForId.put(groupOfRoutes.getId(), groupOfRoutes);
     }
+    // Built before any realtime updates are applied, so trips added in realtime are not included
+    tripStartTimeIndex = TripStartTimeIndex.of(patternsForRoute.values());
 
     for (TripOnServiceDate tripOnServiceDate : transitModel.getAllTripOnServiceDates()) {
       tripOnServiceDateById.put(tripOnServiceDate.getId(), tripOnServiceDate);
@@ -211,6 +214,10 @@ public class TransitModelIndex {
     return serviceCodesRunningForDate;
   }
 
+  public TripStartTimeIndex getTripStartTimeIndex() {
+    return tripStartTimeIndex;
+  }
+
   public FlexIndex getFlexIndex() {
     return flexIndex;
   }
@@ -8,6 +8,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.locationtech.jts.geom.Envelope;
@@ -115,6 +116,12 @@ public interface TransitService {
 
   Collection<TripPattern> getPatternsForRoute(Route route);
 
+  /**
+   * Index of the scheduled trips by route and departure time from the first stop, used to match
+   * realtime updates without a trip id.
+   */
+  TripStartTimeIndex getTripStartTimeIndex();
+
   MultiModalStation getMultiModalStationForStation(Station station);
 
   List<StopTimesInPattern> stopTimesForStop(
@@ -126,6 +133,19 @@ public interface TransitService {
     boolean includeCancelledTrips
   );
 
+  /**
+   * Fetch the upcoming stop times of several stops in one go, sharing the timetable lookups
+   * between the stops. Each stop is mapped to the same result as {@link #stopTimesForStop}.
+   */
+  Map<StopLocation, List<StopTimesInPattern>> stopTimesForStops(
+    Collection<? extends StopLocation> stops,
+    Instant startTime,
+    Duration timeRange,
+    int numberOfDepartures,
+    ArrivalDeparture arrivalDeparture,
+    boolean includeCancelledTrips
+  );
+
   List<StopTimesInPattern> getStopTimesForStop(
     StopLocation stop,
     LocalDate serviceDate,
@@ -0,0 +1,80 @@
+package org.opentripplanner.transit.service;
+
+import com.google.common.collect.ImmutableListMultimap;
+import gnu.trove.set.TIntSet;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Direction;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+/**
+ * Index of the scheduled trips by route and scheduled departure time from the first stop. It is
+ * used to match realtime messages without a trip id to a trip. The index is immutable and built
+ * once for each transit model index, so it can be used by any number of threads without locking.
+ * <p>
+ * Only the scheduled timetables are indexed, trips added in realtime are not included.
+ */
+public class TripStartTimeIndex {
+
+  private final ImmutableListMultimap<Key, TripStart> tripsByStartTime;
+
+  private TripStartTimeIndex(ImmutableListMultimap<Key, TripStart> tripsByStartTime) {
+    this.tripsByStartTime = tripsByStartTime;
+  }
+
+  static TripStartTimeIndex of(Collection<TripPattern> patterns) {
+    var builder = ImmutableListMultimap.<Key, TripStart>builder();
+    for (TripPattern pattern : patterns) {
+      Direction direction = pattern.getDirection();
+      for (TripTimes times : pattern.getScheduledTimetable().getTripTimes()) {
+        builder.put(
+          new Key(pattern.getRoute(), times.getScheduledDepartureTime(0)),
+          new TripStart(direction, times)
+        );
+      }
+    }
+    return new TripStartTimeIndex(builder.build());
+  }
+
+  /**
+   * Find the first trip on the given route and direction, departing from the first stop at the
+   * given time, with one of the given service codes. Trips are returned in the same order as the
+   * patterns of the route, and the trip times of the pattern.
+   *
+   * @param startTime the scheduled departure time from the first stop, in seconds since the start
+   *                  of the service day.
+   */
+  @Nullable
+  public Trip getTrip(Route route, Direction direction, int startTime, TIntSet serviceCodes) {
+    for (TripStart it : tripsByStartTime.get(new Key(route, startTime))) {
+      if (it.direction == direction && serviceCodes.contains(it.tripTimes.getServiceCode())) {
+        return it.tripTimes.getTrip();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * All scheduled trips on the given route in any direction, departing from the first stop at the
+   * given time.
+   */
+  public List<Trip> getTrips(Route route, int startTime) {
+    return tripsByStartTime
+      .get(new Key(route, startTime))
+      .stream()
+      .map(it -> it.tripTimes.getTrip())
+      .toList();
+  }
+
+  public int size() {
+    return tripsByStartTime.size();
+  }
+
+  private record Key(Route route, int startTime) {}
+
+  private record TripStart(Direction direction, TripTimes tripTimes) {}
+}
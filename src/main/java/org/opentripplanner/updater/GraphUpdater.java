@@ -48,6 +48,14 @@ public interface GraphUpdater {
     return true;
   }
 
+  /**
+   * The priority of the graph writer runnables of this updater, relative to the runnables of the
+   * other updaters.
+   */
+  default GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.NORMAL;
+  }
+
   /**
    * This is the updater "type" used in the configuration file. It should ONLY be used to provide
    * human friendly messages while logging and debugging.
@@ -4,6 +4,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -26,7 +27,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Each updater will run in its own thread. When changes to the graph have to be made by these
  * updaters, this should be done via the execute method of this manager to prevent race conditions
- * between graph write operations.
+ * between graph write operations. The updaters are given their own callback, so that the runnables
+ * of each updater are run according to {@link GraphUpdater#graphWriterPriority()}, and can replace
+ * the runnables of the same updater that are still waiting, see {@link GraphWriterQueue}.
  */
 public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterStatus {
 
@@ -43,6 +46,15 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final ScheduledExecutorService scheduler;
 
+  /**
+   * The graph writer runnables waiting for the scheduler, ordered by the priority of the updater
+   * that submitted them.
+   */
+  private final GraphWriterQueue writerQueue;
+
+  /** The source of runnables which are not submitted by one of the updaters. */
+  private final GraphWriterQueue.Source defaultSource;
+
   /**
    * A pool of threads on which the updaters will run. This creates a pool that will auto-scale up
    * to any size (maximum pool size is MAX_INT).
@@ -55,28 +67,27 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
    */
   private final List<GraphUpdater> updaterList = new ArrayList<>();
 
-  /**
-   * The Graph that will be updated.
-   */
-  private final Graph graph;
-  private final TransitModel transitModel;
-
   /**
    * Constructor.
    *
    * @param transitModel is the Graph that will be updated.
    */
   public GraphUpdaterManager(Graph graph, TransitModel transitModel, List<GraphUpdater> updaters) {
-    this.graph = graph;
-    this.transitModel = transitModel;
     // Thread factory used to create new threads, giving them more human-readable names.
     var threadFactory = new ThreadFactoryBuilder().setNameFormat("GraphUpdater-%d").build();
     this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
     this.updaterPool = Executors.newCachedThreadPool(threadFactory);
+    this.writerQueue = new GraphWriterQueue(graph, transitModel, scheduler);
+    this.defaultSource = writerQueue.createSource("default", GraphWriterPriority.NORMAL);
 
     for (GraphUpdater updater : updaters) {
       updaterList.add(updater);
-      updater.setGraphUpdaterManager(this);
+      var name = Objects.requireNonNullElse(
+        updater.getConfigRef(),
+        updater.getClass().getSimpleName()
+      );
+      var source = writerQueue.createSource(name, updater.graphWriterPriority());
+      updater.setGraphUpdaterManager(runnable -> execute(new UpdaterRunnable(source, runnable)));
     }
   }
 
@@ -134,13 +145,10 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
 
   @Override
   public Future<?> execute(GraphWriterRunnable runnable) {
-    return scheduler.submit(() -> {
-      try {
-        runnable.run(graph, transitModel);
-      } catch (Exception e) {
-        LOG.error("Error while running graph writer {}:", runnable.getClass().getName(), e);
-      }
-    });
+    if (runnable instanceof UpdaterRunnable r) {
+      return writerQueue.submit(r.source(), r.delegate());
+    }
+    return writerQueue.submit(defaultSource, runnable);
   }
 
   @Override
@@ -230,4 +238,21 @@ public class GraphUpdaterManager implements WriteToGraphCallback, GraphUpdaterSt
         }
       });
   }
+
+  /**
+   * A runnable submitted by one of the updaters, tagged with the source of the updater. All writes
+   * still pass through {@link #execute(GraphWriterRunnable)}.
+   */
+  private record UpdaterRunnable(GraphWriterQueue.Source source, GraphWriterRunnable delegate)
+    implements GraphWriterRunnable {
+    @Override
+    public void run(Graph graph, TransitModel transitModel) {
+      delegate.run(graph, transitModel);
+    }
+
+    @Override
+    public boolean replacesQueuedUpdates() {
+      return delegate.replacesQueuedUpdates();
+    }
+  }
 }
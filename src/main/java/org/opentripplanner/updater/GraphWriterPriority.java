@@ -0,0 +1,14 @@
+package org.opentripplanner.updater;
+
+/**
+ * The priority of the graph writer runnables of an updater. When several runnables are waiting for
+ * the graph writer thread, the one with the highest priority runs first. Runnables with the same
+ * priority run in the order they were submitted.
+ */
+public enum GraphWriterPriority {
+  /** Updates that affect the itineraries returned to the user, like trip updates. */
+  HIGH,
+  NORMAL,
+  /** Large, slowly changing datasets, like vehicle rental and parking. */
+  LOW,
+}
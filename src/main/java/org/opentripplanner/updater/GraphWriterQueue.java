@@ -0,0 +1,170 @@
+package org.opentripplanner.updater;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TransitModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The queue of graph writer runnables waiting for the single graph writer thread. Runnables are
+ * run by priority, and in the order they were submitted within the same priority. A runnable that
+ * {@link GraphWriterRunnable#replacesQueuedUpdates() replaces queued updates} removes the
+ * runnables of the same updater that are still waiting, the futures of the removed runnables
+ * complete when the replacing runnable is done.
+ * <p>
+ * The queue depth, the time each runnable waited and the number of removed runnables are
+ * recorded per updater, tagged with the updater config ref.
+ */
+class GraphWriterQueue {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GraphWriterQueue.class);
+
+  private static final String METRICS_PREFIX = "graph_writer";
+
+  private static final Comparator<Task> TASK_ORDER = Comparator
+    .comparing((Task t) -> t.source.priority)
+    .thenComparingLong(t -> t.sequence);
+
+  private final Graph graph;
+  private final TransitModel transitModel;
+
+  /** The single writer thread. Each submitted runnable schedules one call to {@link #runNext()}. */
+  private final Executor writer;
+
+  private final PriorityQueue<Task> queue = new PriorityQueue<>(TASK_ORDER);
+
+  private final Map<String, SourceMetrics> metrics = new ConcurrentHashMap<>();
+
+  private long sequence = 0;
+
+  GraphWriterQueue(Graph graph, TransitModel transitModel, Executor writer) {
+    this.graph = graph;
+    this.transitModel = transitModel;
+    this.writer = writer;
+  }
+
+  /**
+   * Create a source for the runnables of one updater. Runnables are only coalesced with other
+   * runnables from the same source instance.
+   */
+  Source createSource(String name, GraphWriterPriority priority) {
+    return new Source(name, priority, metrics.computeIfAbsent(name, SourceMetrics::new));
+  }
+
+  Future<?> submit(Source source, GraphWriterRunnable runnable) {
+    var task = new Task(source, runnable);
+    synchronized (this) {
+      task.sequence = sequence++;
+      if (runnable.replacesQueuedUpdates()) {
+        removeQueuedTasks(task);
+      }
+      queue.add(task);
+      source.metrics.queueDepth.incrementAndGet();
+    }
+    writer.execute(this::runNext);
+    return task.future;
+  }
+
+  private void removeQueuedTasks(Task replacement) {
+    Iterator<Task> it = queue.iterator();
+    while (it.hasNext()) {
+      Task queued = it.next();
+      if (queued.source == replacement.source) {
+        it.remove();
+        replacement.future.whenComplete((r, e) -> queued.future.complete(null));
+        queued.source.metrics.queueDepth.decrementAndGet();
+        queued.source.metrics.coalesced.increment();
+      }
+    }
+  }
+
+  private void runNext() {
+    Task task;
+    synchronized (this) {
+      task = queue.poll();
+      if (task == null) {
+        // The task was replaced by a later runnable, which has already run
+        return;
+      }
+      task.source.metrics.queueDepth.decrementAndGet();
+    }
+    task.source.metrics.waitTime.record(System.nanoTime() - task.submitted, TimeUnit.NANOSECONDS);
+    try {
+      task.runnable.run(graph, transitModel);
+    } catch (Exception e) {
+      LOG.error("Error while running graph writer {}:", task.runnable.getClass().getName(), e);
+    } finally {
+      task.future.complete(null);
+    }
+  }
+
+  static final class Source {
+
+    private final String name;
+    private final GraphWriterPriority priority;
+    private final SourceMetrics metrics;
+
+    private Source(String name, GraphWriterPriority priority, SourceMetrics metrics) {
+      this.name = name;
+      this.priority = priority;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+      return name + " (" + priority + ")";
+    }
+  }
+
+  private static final class Task {
+
+    private final Source source;
+    private final GraphWriterRunnable runnable;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final long submitted = System.nanoTime();
+    private long sequence;
+
+    private Task(Source source, GraphWriterRunnable runnable) {
+      this.source = source;
+      this.runnable = runnable;
+    }
+  }
+
+  private static final class SourceMetrics {
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Timer waitTime;
+    private final Counter coalesced;
+
+    private SourceMetrics(String name) {
+      var tags = Tags.of("updater", name);
+      Metrics.globalRegistry.gauge(METRICS_PREFIX + ".queue_depth", tags, queueDepth);
+      this.waitTime =
+        Timer
+          .builder(METRICS_PREFIX + ".wait_time")
+          .description("Time graph writer runnables wait for the graph writer thread")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+      this.coalesced =
+        Counter
+          .builder(METRICS_PREFIX + ".coalesced")
+          .description("Queued graph writer runnables replaced by a later runnable")
+          .tags(tags)
+          .register(Metrics.globalRegistry);
+    }
+  }
+}
@@ -17,4 +17,13 @@ public interface GraphWriterRunnable {
    * This function is executed to modify the graph.
    */
   void run(Graph graph, TransitModel transitModel);
+
+  /**
+   * Return {@code true} if this runnable makes all runnables from the same updater that are still
+   * waiting in the queue obsolete, for example because it contains the full dataset of the
+   * updater. The waiting runnables are then dropped, and only this one is run.
+   */
+  default boolean replacesQueuedUpdates() {
+    return false;
+  }
 }
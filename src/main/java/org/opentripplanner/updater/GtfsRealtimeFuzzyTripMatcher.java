@@ -1,7 +1,6 @@
 package org.opentripplanner.updater;
 
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
-import gnu.trove.set.TIntSet;
 import java.text.ParseException;
 import java.time.LocalDate;
 import org.opentripplanner.framework.time.ServiceDateUtils;
@@ -10,11 +9,10 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.gtfs.mapping.DirectionMapper;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.Route;
-import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.model.timetable.Trip;
-import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.transit.service.TransitService;
+import org.opentripplanner.transit.service.TripStartTimeIndex;
 
 /**
  * This class is used for matching TripDescriptors without trip_ids to scheduled GTFS data and to
@@ -78,24 +76,14 @@ public class GtfsRealtimeFuzzyTripMatcher {
     return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
   }
 
-  public synchronized Trip getTrip(
-    Route route,
-    Direction direction,
-    int startTime,
-    LocalDate date
-  ) {
-    TIntSet servicesRunningForDate = transitService.getServiceCodesRunningForDate(date);
-    for (TripPattern pattern : transitService.getPatternsForRoute(route)) {
-      if (pattern.getDirection() != direction) continue;
-      for (TripTimes times : pattern.getScheduledTimetable().getTripTimes()) {
-        if (
-          times.getScheduledDepartureTime(0) == startTime &&
-          servicesRunningForDate.contains(times.getServiceCode())
-        ) {
-          return times.getTrip();
-        }
-      }
-    }
-    return null;
+  /**
+   * Find the scheduled trip on the given route and direction departing from the first stop at the
+   * given time on the given service date. The lookup uses the {@link TripStartTimeIndex} and does
+   * not need any locking.
+   */
+  public Trip getTrip(Route route, Direction direction, int startTime, LocalDate date) {
+    return transitService
+      .getTripStartTimeIndex()
+      .getTrip(route, direction, startTime, transitService.getServiceCodesRunningForDate(date));
   }
 }
@@ -5,20 +5,38 @@ package org.opentripplanner.updater;
  */
 public record TimetableSnapshotSourceParameters(
   int maxSnapshotFrequencyMs,
-  boolean purgeExpiredData
+  boolean purgeExpiredData,
+  boolean parallelTripUpdates
 ) {
   public static final TimetableSnapshotSourceParameters DEFAULT = new TimetableSnapshotSourceParameters(
     1000,
-    true
+    true,
+    false
   );
 
   /* Factory functions, used instead of a builder - useful in tests. */
 
   public TimetableSnapshotSourceParameters withMaxSnapshotFrequencyMs(int maxSnapshotFrequencyMs) {
-    return new TimetableSnapshotSourceParameters(maxSnapshotFrequencyMs, this.purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      maxSnapshotFrequencyMs,
+      this.purgeExpiredData,
+      this.parallelTripUpdates
+    );
   }
 
   public TimetableSnapshotSourceParameters withPurgeExpiredData(boolean purgeExpiredData) {
-    return new TimetableSnapshotSourceParameters(this.maxSnapshotFrequencyMs, purgeExpiredData);
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequencyMs,
+      purgeExpiredData,
+      this.parallelTripUpdates
+    );
+  }
+
+  public TimetableSnapshotSourceParameters withParallelTripUpdates(boolean parallelTripUpdates) {
+    return new TimetableSnapshotSourceParameters(
+      this.maxSnapshotFrequencyMs,
+      this.purgeExpiredData,
+      parallelTripUpdates
+    );
   }
 }
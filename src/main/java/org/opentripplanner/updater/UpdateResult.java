@@ -3,6 +3,7 @@ package org.opentripplanner.updater;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import java.time.Duration;
 import java.util.List;
 import org.opentripplanner.model.UpdateError;
 import org.opentripplanner.model.UpdateSuccess;
@@ -12,18 +13,37 @@ import org.opentripplanner.transit.model.framework.Result;
  * An aggregation of results of the application of realtime updates which makes it easy to get
  * an overview of what the success rate of the update was and which specific problems were
  * encountered.
+ * <p>
+ * The {@code unchanged} updates were skipped, because they were identical to updates that were
+ * already applied. The {@code duration} is the total time it took to apply the updates,
+ * {@code lockDuration} the part of it where the timetable snapshot buffer was locked, and
+ * {@code commitDuration} the part of that where a new snapshot was committed. They are zero if not
+ * measured.
  */
 public record UpdateResult(
   int successful,
   int failed,
   Multimap<UpdateError.UpdateErrorType, UpdateError> failures,
-  List<UpdateSuccess.WarningType> warnings
+  List<UpdateSuccess.WarningType> warnings,
+  int unchanged,
+  Duration duration,
+  Duration lockDuration,
+  Duration commitDuration
 ) {
   /**
    * Create an empty result.
    */
   public static UpdateResult empty() {
-    return new UpdateResult(0, 0, ArrayListMultimap.create(), List.of());
+    return new UpdateResult(
+      0,
+      0,
+      ArrayListMultimap.create(),
+      List.of(),
+      0,
+      Duration.ZERO,
+      Duration.ZERO,
+      Duration.ZERO
+    );
   }
 
   /**
@@ -34,6 +54,45 @@ public record UpdateResult(
     var successes = results.stream().filter(Result::isSuccess).map(Result::successValue).toList();
     var warnings = successes.stream().flatMap(s -> s.warnings().stream()).toList();
     var errorIndex = Multimaps.index(errors, UpdateError::errorType);
-    return new UpdateResult(successes.size(), errors.size(), errorIndex, warnings);
+    return new UpdateResult(
+      successes.size(),
+      errors.size(),
+      errorIndex,
+      warnings,
+      0,
+      Duration.ZERO,
+      Duration.ZERO,
+      Duration.ZERO
+    );
+  }
+
+  public UpdateResult withDurations(
+    Duration duration,
+    Duration lockDuration,
+    Duration commitDuration
+  ) {
+    return new UpdateResult(
+      successful,
+      failed,
+      failures,
+      warnings,
+      unchanged,
+      duration,
+      lockDuration,
+      commitDuration
+    );
+  }
+
+  public UpdateResult withUnchanged(int unchanged) {
+    return new UpdateResult(
+      successful,
+      failed,
+      failures,
+      warnings,
+      unchanged,
+      duration,
+      lockDuration,
+      commitDuration
+    );
   }
 }
@@ -1,8 +1,11 @@
 package org.opentripplanner.updater.trip;
 
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.WireFormat;
 import com.google.transit.realtime.GtfsRealtime;
 import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
 import com.google.transit.realtime.GtfsRealtime.FeedMessage;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import de.mfdz.MfdzRealtimeExtensions;
@@ -83,6 +86,63 @@ public class GtfsRealtimeHttpTripUpdateSource implements TripUpdateSource {
     return updates;
   }
 
+  /**
+   * Read the feed one {@link FeedEntity} at a time from the HTTP stream, instead of parsing the
+   * complete {@link FeedMessage} into memory, and pass the trip updates to the consumer in batches
+   * of at most {@code batchSize} updates. The feed header is expected before the entities, as
+   * written by protobuf serializers.
+   * <p>
+   * If at least one batch is passed to the consumer, the last call always has {@code lastBatch}
+   * set, also if reading the feed fails half-way. The batch may be empty.
+   */
+  public void readUpdates(int batchSize, TripUpdateBatchConsumer consumer) {
+    fullDataset = true;
+    List<TripUpdate> batch = new ArrayList<>(batchSize);
+    boolean batchesSent = false;
+    try (InputStream is = HttpUtils.openInputStream(URI.create(url), this.headers)) {
+      if (is == null) {
+        LOG.error("GTFS-RT feed at {} did not return usable data", url);
+        return;
+      }
+      CodedInputStream in = CodedInputStream.newInstance(is);
+      int tag;
+      while ((tag = in.readTag()) != 0) {
+        // The size limit applies to the bytes read since the last reset, not to each message
+        in.resetSizeCounter();
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case FeedMessage.HEADER_FIELD_NUMBER -> {
+            FeedHeader header = in.readMessage(FeedHeader.parser(), registry);
+            if (
+              header.hasIncrementality() &&
+              header.getIncrementality() == FeedHeader.Incrementality.DIFFERENTIAL
+            ) {
+              fullDataset = false;
+            }
+          }
+          case FeedMessage.ENTITY_FIELD_NUMBER -> {
+            FeedEntity entity = in.readMessage(FeedEntity.parser(), registry);
+            if (entity.hasTripUpdate()) {
+              batch.add(entity.getTripUpdate());
+            }
+          }
+          default -> in.skipField(tag);
+        }
+        if (batch.size() >= batchSize) {
+          consumer.accept(batch, fullDataset, false);
+          batchesSent = true;
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      consumer.accept(batch, fullDataset, true);
+    } catch (Exception e) {
+      LOG.error("Failed to parse GTFS-RT feed from {}", url, e);
+      if (batchesSent) {
+        // Let the consumer finish the batches that are already applied
+        consumer.accept(batch, fullDataset, true);
+      }
+    }
+  }
+
   @Override
   public boolean getFullDatasetValueOfLastUpdates() {
     return fullDataset;
@@ -101,6 +161,16 @@ public class GtfsRealtimeHttpTripUpdateSource implements TripUpdateSource {
       .toString();
   }
 
+  @FunctionalInterface
+  interface TripUpdateBatchConsumer {
+    /**
+     * @param fullDataset true if the feed contains all updates that are active right now. This is
+     *                    the same for all batches of a feed.
+     * @param lastBatch   true for the last batch of the feed.
+     */
+    void accept(List<TripUpdate> updates, boolean fullDataset, boolean lastBatch);
+  }
+
   interface Parameters {
     String getFeedId();
 
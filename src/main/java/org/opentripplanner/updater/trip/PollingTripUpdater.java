@@ -1,11 +1,14 @@
 package org.opentripplanner.updater.trip;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import java.util.List;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.GtfsRealtimeFuzzyTripMatcher;
 import org.opentripplanner.updater.PollingGraphUpdater;
 import org.opentripplanner.updater.UpdateResult;
@@ -45,6 +48,21 @@ public class PollingTripUpdater extends PollingGraphUpdater {
   private final BackwardsDelayPropagationType backwardsDelayPropagationType;
   private final Consumer<UpdateResult> recordMetrics;
 
+  /**
+   * Set only if trip updates that are unchanged since the previous poll should be skipped
+   */
+  private final TripUpdateFingerprintCache fingerprintCache;
+
+  /**
+   * If positive, the feed is read one entity at a time and applied in batches of this size
+   */
+  private final int streamingBatchSize;
+
+  /**
+   * If the snapshot is published after each batch, instead of after the last batch of the feed
+   */
+  private final boolean streamingPublishBatches;
+
   /**
    * Parent update manager. Is used to execute graph writer runnables.
    */
@@ -70,6 +88,20 @@ public class PollingTripUpdater extends PollingGraphUpdater {
         new GtfsRealtimeFuzzyTripMatcher(new DefaultTransitService(transitModel));
     }
 
+    this.fingerprintCache =
+      parameters.skipUnchangedUpdates() ? new TripUpdateFingerprintCache() : null;
+
+    if (parameters.streamingBatchSize() > 0 && fingerprintCache != null) {
+      LOG.warn(
+        "streamingBatchSize is ignored for {}, skipUnchangedUpdates needs the complete feed",
+        parameters.configRef()
+      );
+      this.streamingBatchSize = 0;
+    } else {
+      this.streamingBatchSize = parameters.streamingBatchSize();
+    }
+    this.streamingPublishBatches = parameters.streamingPublishBatches();
+
     this.recordMetrics = BatchTripUpdateMetrics.batch(parameters);
 
     LOG.info(
@@ -84,12 +116,28 @@ public class PollingTripUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   /**
    * Repeatedly makes blocking calls to an UpdateStreamer to retrieve new stop time updates, and
    * applies those updates to the graph.
    */
   @Override
   public void runPolling() {
+    if (streamingBatchSize > 0 && updateSource instanceof GtfsRealtimeHttpTripUpdateSource http) {
+      try {
+        http.readUpdates(streamingBatchSize, new BatchWriter());
+      } finally {
+        // Make sure the feed does not block the commits of the other feeds if the poll failed
+        // before the last batch. This runs after the batches, and does nothing if they are done.
+        saveResultOnGraph.execute((graph, transitModel) -> snapshotSource.finishBatches(feedId));
+      }
+      return;
+    }
+
     // Get update lists from update source
     List<TripUpdate> updates = updateSource.getUpdates();
     boolean fullDataset = updateSource.getFullDatasetValueOfLastUpdates();
@@ -101,9 +149,11 @@ public class PollingTripUpdater extends PollingGraphUpdater {
         fuzzyTripMatcher,
         backwardsDelayPropagationType,
         fullDataset,
+        true,
         updates,
         feedId,
-        recordMetrics
+        recordMetrics,
+        fingerprintCache
       );
       saveResultOnGraph.execute(runnable);
     }
@@ -116,6 +166,9 @@ public class PollingTripUpdater extends PollingGraphUpdater {
       .addObj("updateSource", updateSource)
       .addStr("feedId", feedId)
       .addBoolIfTrue("fuzzyTripMatching", fuzzyTripMatcher != null)
+      .addBoolIfTrue("skipUnchangedUpdates", fingerprintCache != null)
+      .addNum("streamingBatchSize", streamingBatchSize, 0)
+      .addBoolIfTrue("streamingPublishBatches", streamingPublishBatches)
       .toString();
   }
 
@@ -131,4 +184,37 @@ public class PollingTripUpdater extends PollingGraphUpdater {
       );
     }
   }
+
+  /**
+   * Submits the batches of one poll to the graph writer. Only the first batch of a full dataset
+   * clears the previous updates. The next batch is not read before the previous batch is applied,
+   * so at most two batches are held in memory. If the batches are published, each batch is
+   * applied as if it was the last, so the snapshot source does not hold back the commits.
+   */
+  private class BatchWriter implements GtfsRealtimeHttpTripUpdateSource.TripUpdateBatchConsumer {
+
+    private boolean firstBatch = true;
+    private Future<?> previousBatch = null;
+
+    @Override
+    public void accept(List<TripUpdate> updates, boolean fullDataset, boolean lastBatch) {
+      var runnable = new TripUpdateGraphWriterRunnable(
+        snapshotSource,
+        fuzzyTripMatcher,
+        backwardsDelayPropagationType,
+        fullDataset && firstBatch,
+        lastBatch || streamingPublishBatches,
+        updates,
+        feedId,
+        recordMetrics,
+        null
+      );
+      firstBatch = false;
+      var future = saveResultOnGraph.execute(runnable);
+      if (previousBatch != null) {
+        Futures.getUnchecked(previousBatch);
+      }
+      previousBatch = future;
+    }
+  }
 }
@@ -7,6 +7,9 @@ public record PollingTripUpdaterParameters(
   String configRef,
   int frequencySec,
   boolean fuzzyTripMatching,
+  boolean skipUnchangedUpdates,
+  int streamingBatchSize,
+  boolean streamingPublishBatches,
   BackwardsDelayPropagationType backwardsDelayPropagationType,
 
   String feedId,
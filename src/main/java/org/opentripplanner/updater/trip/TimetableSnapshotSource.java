@@ -21,10 +21,12 @@ import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import com.google.transit.realtime.GtfsRealtime.TripUpdate.StopTimeUpdate;
 import de.mfdz.MfdzRealtimeExtensions;
 import java.text.ParseException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,6 +34,7 @@ import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -41,6 +44,7 @@ import org.opentripplanner.model.StopTime;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.TimetableSnapshot;
 import org.opentripplanner.model.TimetableSnapshotProvider;
+import org.opentripplanner.model.TripTimesPatch;
 import org.opentripplanner.model.UpdateError;
 import org.opentripplanner.model.UpdateSuccess;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.TransitLayerUpdater;
@@ -120,11 +124,30 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
   /** Should expired realtime data be purged from the graph. */
   private final boolean purgeExpiredData;
 
+  /** Should trip updates be matched and computed in parallel before they are applied. */
+  private final boolean parallelTripUpdates;
+
   protected LocalDate lastPurgeDate = null;
 
   /** Epoch time in milliseconds at which the last snapshot was generated. */
   protected long lastSnapshotTime = -1;
 
+  /**
+   * The feeds with a dataset that is applied in several batches, where the last batch has not been
+   * applied yet. The buffer is shared by all feeds, so it is not committed while any feed is in
+   * the middle of a dataset, and routing requests never see a partially applied dataset. The
+   * updates of the other feeds are committed together with the last batch, so they are held back
+   * while the dataset is read. The polling trip updater can instead apply each batch as the last
+   * one, see its {@code streamingPublishBatches} parameter. Guarded by the buffer lock.
+   */
+  private final Set<String> feedsWithDatasetInProgress = new HashSet<>();
+
+  /**
+   * Time spent committing the buffer since it was reset, in nanoseconds. Guarded by the buffer
+   * lock.
+   */
+  private long commitNanos = 0;
+
   private final Deduplicator deduplicator;
 
   private final Map<FeedScopedId, Integer> serviceCodes;
@@ -158,6 +181,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     this.serviceCodes = transitModel.getServiceCodes();
     this.maxSnapshotFrequencyMs = parameters.maxSnapshotFrequencyMs();
     this.purgeExpiredData = parameters.purgeExpiredData();
+    this.parallelTripUpdates = parameters.parallelTripUpdates();
     this.localDateNow = localDateNow;
 
     // Inject this into the transit model
@@ -209,84 +233,89 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     boolean fullDataset,
     List<TripUpdate> updates,
     String feedId
+  ) {
+    return applyTripUpdates(
+      fuzzyTripMatcher,
+      backwardsDelayPropagationType,
+      fullDataset,
+      updates,
+      feedId,
+      true
+    );
+  }
+
+  /**
+   * Apply one batch of a trip update list that is read and applied in several batches. Only the
+   * first batch of a full dataset should set {@code fullDataset}. The buffer is not committed
+   * until the last batch, with {@code lastBatch} set, is applied, or until
+   * {@link #finishBatches(String)} is called for the feed.
+   *
+   * @see #applyTripUpdates(GtfsRealtimeFuzzyTripMatcher, BackwardsDelayPropagationType, boolean,
+   * List, String)
+   */
+  public UpdateResult applyTripUpdates(
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    boolean fullDataset,
+    List<TripUpdate> updates,
+    String feedId,
+    boolean lastBatch
   ) {
     if (updates == null) {
       LOG.warn("updates is null");
       return UpdateResult.empty();
     }
 
+    long startTime = System.nanoTime();
+    LOG.debug("message contains {} trip updates", updates.size());
+
+    // Match trips and compute the new trip times of scheduled trips without holding the lock,
+    // this only reads the scheduled data. The order of the updates is kept.
+    var stream = parallelTripUpdates ? updates.parallelStream() : updates.stream();
+    List<PreparedTripUpdate> preparedUpdates = stream
+      .map(it -> prepareTripUpdate(fuzzyTripMatcher, backwardsDelayPropagationType, it, feedId))
+      .filter(Objects::nonNull)
+      .toList();
+
     // Acquire lock on buffer
     bufferLock.lock();
+    long lockTime = System.nanoTime();
 
     Map<TripDescriptor.ScheduleRelationship, Integer> failuresByRelationship = new HashMap<>();
     List<Result<UpdateSuccess, UpdateError>> results = new ArrayList<>();
 
+    long commitTime;
+
     try {
+      commitNanos = 0;
+      if (lastBatch) {
+        feedsWithDatasetInProgress.remove(feedId);
+      } else {
+        feedsWithDatasetInProgress.add(feedId);
+      }
       if (fullDataset) {
         // Remove all updates from the buffer
         buffer.clear(feedId);
       }
 
-      LOG.debug("message contains {} trip updates", updates.size());
       int uIndex = 0;
-      for (TripUpdate tripUpdate : updates) {
-        if (!tripUpdate.hasTrip()) {
-          debug(feedId, "", "Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
-          continue;
-        }
-
-        if (fuzzyTripMatcher != null) {
-          final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
-          tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
-        }
-
-        final TripDescriptor tripDescriptor = tripUpdate.getTrip();
-
-        if (!tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()) {
-          debug(feedId, "", "No trip id found for gtfs-rt trip update: \n{}", tripUpdate);
-          continue;
-        }
-
-        FeedScopedId tripId = new FeedScopedId(feedId, tripUpdate.getTrip().getTripId());
-
-        LocalDate serviceDate;
-        if (tripDescriptor.hasStartDate()) {
-          try {
-            serviceDate = ServiceDateUtils.parseString(tripDescriptor.getStartDate());
-          } catch (final ParseException e) {
-            debug(
-              tripId,
-              "Failed to parse start date in gtfs-rt trip update: {}",
-              tripDescriptor.getStartDate()
-            );
-            continue;
-          }
-        } else {
-          // TODO: figure out the correct service date. For the special case that a trip
-          // starts for example at 40:00, yesterday would probably be a better guess.
-          serviceDate = localDateNow.get();
-        }
+      for (PreparedTripUpdate prepared : preparedUpdates) {
+        TripUpdate tripUpdate = prepared.tripUpdate();
+        FeedScopedId tripId = prepared.tripId();
+        LocalDate serviceDate = prepared.serviceDate();
 
         uIndex += 1;
         LOG.debug("trip update #{} ({} updates) :", uIndex, tripUpdate.getStopTimeUpdateCount());
         LOG.trace("{}", tripUpdate);
 
-        // Determine what kind of trip update this is
-        final TripDescriptor.ScheduleRelationship tripScheduleRelationship = determineTripScheduleRelationship(
-          tripDescriptor
-        );
+        final TripDescriptor.ScheduleRelationship tripScheduleRelationship = prepared.scheduleRelationship();
 
         Result<UpdateSuccess, UpdateError> result =
           switch (tripScheduleRelationship) {
-            case SCHEDULED -> handleScheduledTrip(
-              tripUpdate,
-              tripId,
-              serviceDate,
-              backwardsDelayPropagationType
-            );
+            case SCHEDULED -> applyScheduledTrip(prepared.scheduledTrip(), tripId, serviceDate);
             case ADDED -> validateAndHandleAddedTrip(
               tripUpdate,
-              tripDescriptor,
+              tripUpdate.getTrip(),
               tripId,
               serviceDate
             );
@@ -294,7 +323,7 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
             case DELETED -> handleCanceledTrip(tripId, serviceDate, CancelationType.DELETE);
             case REPLACEMENT -> validateAndHandleModifiedTrip(
               tripUpdate,
-              tripDescriptor,
+              tripUpdate.getTrip(),
               tripId,
               serviceDate
             );
@@ -324,12 +353,20 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       } else {
         getTimetableSnapshot(false);
       }
+      commitTime = commitNanos;
     } finally {
       // Always release lock
       bufferLock.unlock();
     }
 
-    var updateResult = UpdateResult.ofResults(results);
+    long endTime = System.nanoTime();
+    var updateResult = UpdateResult
+      .ofResults(results)
+      .withDurations(
+        Duration.ofNanos(endTime - startTime),
+        Duration.ofNanos(endTime - lockTime),
+        Duration.ofNanos(commitTime)
+      );
 
     if (fullDataset) {
       logUpdateResult(feedId, updates.size(), failuresByRelationship, updateResult);
@@ -337,6 +374,76 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return updateResult;
   }
 
+  /**
+   * Find the trip id, service date and schedule relationship of a trip update, and compute the
+   * new trip times if it is for a scheduled trip. This does not read or modify the buffer, and
+   * can be done for several trip updates in parallel.
+   *
+   * @return {@code null} if the trip update should be skipped.
+   */
+  @Nullable
+  private PreparedTripUpdate prepareTripUpdate(
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    TripUpdate tripUpdate,
+    String feedId
+  ) {
+    if (!tripUpdate.hasTrip()) {
+      debug(feedId, "", "Missing TripDescriptor in gtfs-rt trip update: \n{}", tripUpdate);
+      return null;
+    }
+
+    if (fuzzyTripMatcher != null) {
+      final TripDescriptor trip = fuzzyTripMatcher.match(feedId, tripUpdate.getTrip());
+      tripUpdate = tripUpdate.toBuilder().setTrip(trip).build();
+    }
+
+    final TripDescriptor tripDescriptor = tripUpdate.getTrip();
+
+    if (!tripDescriptor.hasTripId() || tripDescriptor.getTripId().isBlank()) {
+      debug(feedId, "", "No trip id found for gtfs-rt trip update: \n{}", tripUpdate);
+      return null;
+    }
+
+    FeedScopedId tripId = new FeedScopedId(feedId, tripUpdate.getTrip().getTripId());
+
+    LocalDate serviceDate;
+    if (tripDescriptor.hasStartDate()) {
+      try {
+        serviceDate = ServiceDateUtils.parseString(tripDescriptor.getStartDate());
+      } catch (final ParseException e) {
+        debug(
+          tripId,
+          "Failed to parse start date in gtfs-rt trip update: {}",
+          tripDescriptor.getStartDate()
+        );
+        return null;
+      }
+    } else {
+      // TODO: figure out the correct service date. For the special case that a trip
+      // starts for example at 40:00, yesterday would probably be a better guess.
+      serviceDate = localDateNow.get();
+    }
+
+    // Determine what kind of trip update this is
+    final TripDescriptor.ScheduleRelationship tripScheduleRelationship = determineTripScheduleRelationship(
+      tripDescriptor
+    );
+
+    Result<ScheduledTripUpdate, UpdateError> scheduledTrip = null;
+    if (tripScheduleRelationship == TripDescriptor.ScheduleRelationship.SCHEDULED) {
+      scheduledTrip =
+        prepareScheduledTrip(tripUpdate, tripId, serviceDate, backwardsDelayPropagationType);
+    }
+    return new PreparedTripUpdate(
+      tripUpdate,
+      tripId,
+      serviceDate,
+      tripScheduleRelationship,
+      scheduledTrip
+    );
+  }
+
   private static void logUpdateResult(
     String feedId,
     int updates,
@@ -359,11 +466,21 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
   }
 
   private TimetableSnapshot getTimetableSnapshot(final boolean force) {
+    if (!feedsWithDatasetInProgress.isEmpty()) {
+      LOG.debug(
+        "Datasets of {} are partially applied. Reusing snapshot {}",
+        feedsWithDatasetInProgress,
+        snapshot
+      );
+      return snapshot;
+    }
     final long now = System.currentTimeMillis();
     if (force || now - lastSnapshotTime > maxSnapshotFrequencyMs) {
       if (force || buffer.isDirty()) {
         LOG.debug("Committing {}", buffer);
+        long commitStart = System.nanoTime();
         snapshot = buffer.commit(transitLayerUpdater, force);
+        commitNanos += System.nanoTime() - commitStart;
       } else {
         LOG.debug("Buffer was unchanged, keeping old snapshot.");
       }
@@ -374,6 +491,24 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return snapshot;
   }
 
+  /**
+   * End the dataset of the feed that is applied in batches, if its last batch has not been applied.
+   * The batches applied so far are committed. This must be called if reading or applying the
+   * batches fails, so that the feed does not hold back the commits of the other feeds. It does
+   * nothing if the last batch was applied.
+   */
+  public void finishBatches(String feedId) {
+    bufferLock.lock();
+    try {
+      if (feedsWithDatasetInProgress.remove(feedId)) {
+        LOG.warn("[feedId: {}] The last batch of the dataset was not applied", feedId);
+        getTimetableSnapshot(false);
+      }
+    } finally {
+      bufferLock.unlock();
+    }
+  }
+
   /**
    * Determine how the trip update should be handled.
    *
@@ -395,7 +530,15 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     return tripScheduleRelationship;
   }
 
-  private Result<UpdateSuccess, UpdateError> handleScheduledTrip(
+  /**
+   * Validate a trip update for a scheduled trip and compute its new trip times. This only reads
+   * the scheduled data, and does not need the lock on the buffer.
+   *
+   * @return the pattern and the new trip times, or an error if the update is not valid for the
+   * trip. If the trip times could not be created, the error is part of the returned
+   * {@link ScheduledTripUpdate}.
+   */
+  private Result<ScheduledTripUpdate, UpdateError> prepareScheduledTrip(
     TripUpdate tripUpdate,
     FeedScopedId tripId,
     LocalDate serviceDate,
@@ -426,15 +569,33 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
       return UpdateError.result(tripId, NO_SERVICE_ON_DATE);
     }
 
+    // Get new TripTimes based on scheduled timetable
+    var result = pattern
+      .getScheduledTimetable()
+      .createUpdatedTripTimes(tripUpdate, timeZone, serviceDate, backwardsDelayPropagationType);
+
+    return Result.success(new ScheduledTripUpdate(pattern, result));
+  }
+
+  /**
+   * Apply the new trip times of a scheduled trip to the buffer.
+   */
+  private Result<UpdateSuccess, UpdateError> applyScheduledTrip(
+    Result<ScheduledTripUpdate, UpdateError> scheduledTrip,
+    FeedScopedId tripId,
+    LocalDate serviceDate
+  ) {
+    if (scheduledTrip.isFailure()) {
+      return scheduledTrip.toFailureResult();
+    }
+    final TripPattern pattern = scheduledTrip.successValue().pattern();
+
     // If this trip_id has been used for previously ADDED/MODIFIED trip message (e.g. when the
     // sequence of stops has changed, and is now changing back to the originally scheduled one),
     // mark that previously created trip as DELETED.
     cancelPreviouslyAddedTrip(tripId, serviceDate, CancelationType.DELETE);
 
-    // Get new TripTimes based on scheduled timetable
-    var result = pattern
-      .getScheduledTimetable()
-      .createUpdatedTripTimes(tripUpdate, timeZone, serviceDate, backwardsDelayPropagationType);
+    var result = scheduledTrip.successValue().tripTimes();
 
     if (result.isFailure()) {
       // necessary so the success type is correct
@@ -1158,6 +1319,24 @@ public class TimetableSnapshotSource implements TimetableSnapshotProvider {
     LOG.debug(m, params);
   }
 
+  /**
+   * A trip update with the information needed to apply it, found before the buffer is locked.
+   *
+   * @param scheduledTrip the pattern and new trip times, only set for scheduled trips.
+   */
+  private record PreparedTripUpdate(
+    TripUpdate tripUpdate,
+    FeedScopedId tripId,
+    LocalDate serviceDate,
+    TripDescriptor.ScheduleRelationship scheduleRelationship,
+    @Nullable Result<ScheduledTripUpdate, UpdateError> scheduledTrip
+  ) {}
+
+  private record ScheduledTripUpdate(
+    TripPattern pattern,
+    Result<TripTimesPatch, UpdateError> tripTimes
+  ) {}
+
   private enum CancelationType {
     CANCEL,
     DELETE,
@@ -0,0 +1,126 @@
+package org.opentripplanner.updater.trip;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps a fingerprint of the trip updates of each trip and service date that was sent to the
+ * {@link TimetableSnapshotSource}, so that trip updates which have not changed since the previous
+ * poll can be skipped. Most feeds send the full dataset on every poll, but only a small part of it
+ * changes between two polls.
+ * <p>
+ * A full dataset normally clears the buffer before it is applied. When only the changed trip
+ * updates are applied, the buffer must not be cleared, so the filtered batch is applied as an
+ * incremental update. This is only correct if no trip was removed from the feed since the previous
+ * poll. If a trip was removed, the complete dataset is applied as before.
+ * <p>
+ * Trip updates without a trip id or start date can not be identified across polls, they are
+ * always applied. The cache is used by a single updater, and is only accessed from the graph
+ * writer thread.
+ */
+final class TripUpdateFingerprintCache {
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private Map<TripKey, Long> fingerprints = new HashMap<>();
+
+  /** If the previous batch contained trip updates that are not in the fingerprints. */
+  private boolean previousBatchHadUnknownTrips = false;
+
+  /** The next batch must be applied in full, because the cache is out of sync with the buffer. */
+  private boolean applyNextBatchInFull = true;
+
+  /**
+   * Remove the trip updates which are unchanged since they were last seen, and update the
+   * fingerprints.
+   */
+  FilteredTripUpdates filter(List<TripUpdate> updates, boolean fullDataset) {
+    // Several trip updates for the same trip are combined into one fingerprint, so that they are
+    // either all skipped or all applied in order.
+    Map<TripKey, Long> current = new HashMap<>();
+    boolean hasUnknownTrips = false;
+    for (TripUpdate update : updates) {
+      TripKey key = TripKey.of(update);
+      if (key == null) {
+        hasUnknownTrips = true;
+      } else {
+        current.merge(key, fingerprint(update), (a, b) -> 31 * a + b);
+      }
+    }
+
+    boolean applyInFull =
+      applyNextBatchInFull ||
+      (
+        fullDataset &&
+        (previousBatchHadUnknownTrips || !current.keySet().containsAll(fingerprints.keySet()))
+      );
+
+    List<TripUpdate> changed = new ArrayList<>();
+    if (!applyInFull) {
+      for (TripUpdate update : updates) {
+        TripKey key = TripKey.of(update);
+        if (key == null || !current.get(key).equals(fingerprints.get(key))) {
+          changed.add(update);
+        }
+      }
+    }
+
+    if (fullDataset) {
+      fingerprints = current;
+      previousBatchHadUnknownTrips = hasUnknownTrips;
+    } else {
+      fingerprints.putAll(current);
+      previousBatchHadUnknownTrips |= hasUnknownTrips;
+    }
+    applyNextBatchInFull = false;
+
+    if (applyInFull) {
+      return new FilteredTripUpdates(updates, fullDataset, 0);
+    }
+    return new FilteredTripUpdates(changed, false, updates.size() - changed.size());
+  }
+
+  /**
+   * Forget what has been applied, the next batch is applied in full. Call this if applying a
+   * batch failed.
+   */
+  void invalidate() {
+    fingerprints = new HashMap<>();
+    applyNextBatchInFull = true;
+  }
+
+  private static long fingerprint(TripUpdate update) {
+    // The timestamp is not used when applying the update, and would make every poll differ
+    if (update.hasTimestamp()) {
+      update = update.toBuilder().clearTimestamp().build();
+    }
+    return HASH_FUNCTION.hashBytes(update.toByteArray()).asLong();
+  }
+
+  /**
+   * @param updates      the trip updates to apply.
+   * @param fullDataset  if the buffer should be cleared before the updates are applied.
+   * @param unchanged    the number of trip updates that were skipped.
+   */
+  record FilteredTripUpdates(List<TripUpdate> updates, boolean fullDataset, int unchanged) {}
+
+  private record TripKey(String tripId, String startDate) {
+    @Nullable
+    static TripKey of(TripUpdate update) {
+      if (!update.hasTrip()) {
+        return null;
+      }
+      var trip = update.getTrip();
+      if (!trip.hasTripId() || trip.getTripId().isBlank() || !trip.hasStartDate()) {
+        return null;
+      }
+      return new TripKey(trip.getTripId(), trip.getStartDate());
+    }
+  }
+}
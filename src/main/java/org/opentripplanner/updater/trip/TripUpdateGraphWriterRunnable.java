@@ -4,20 +4,30 @@ import com.google.transit.realtime.GtfsRealtime.TripUpdate;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.GtfsRealtimeFuzzyTripMatcher;
 import org.opentripplanner.updater.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
 
+  private static final Logger LOG = LoggerFactory.getLogger(TripUpdateGraphWriterRunnable.class);
+
   /**
    * True iff the list with updates represent all updates that are active right now, i.e. all
    * previous updates should be disregarded
    */
   private final boolean fullDataset;
 
+  /**
+   * False if the updates are one batch of a feed, and more batches of the same feed follow.
+   */
+  private final boolean lastBatch;
+
   /**
    * The list with updates to apply to the graph
    */
@@ -31,6 +41,10 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
   private final Consumer<UpdateResult> sendMetrics;
   private final TimetableSnapshotSource snapshotSource;
 
+  /** Used to skip trip updates that are unchanged since the previous batch, if set. */
+  @Nullable
+  private final TripUpdateFingerprintCache fingerprintCache;
+
   TripUpdateGraphWriterRunnable(
     TimetableSnapshotSource snapshotSource,
     GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
@@ -39,25 +53,94 @@ class TripUpdateGraphWriterRunnable implements GraphWriterRunnable {
     List<TripUpdate> updates,
     String feedId,
     Consumer<UpdateResult> sendMetrics
+  ) {
+    this(
+      snapshotSource,
+      fuzzyTripMatcher,
+      backwardsDelayPropagationType,
+      fullDataset,
+      true,
+      updates,
+      feedId,
+      sendMetrics,
+      null
+    );
+  }
+
+  TripUpdateGraphWriterRunnable(
+    TimetableSnapshotSource snapshotSource,
+    GtfsRealtimeFuzzyTripMatcher fuzzyTripMatcher,
+    BackwardsDelayPropagationType backwardsDelayPropagationType,
+    boolean fullDataset,
+    boolean lastBatch,
+    List<TripUpdate> updates,
+    String feedId,
+    Consumer<UpdateResult> sendMetrics,
+    @Nullable TripUpdateFingerprintCache fingerprintCache
   ) {
     this.snapshotSource = snapshotSource;
     this.fuzzyTripMatcher = fuzzyTripMatcher;
     this.backwardsDelayPropagationType = backwardsDelayPropagationType;
     this.fullDataset = fullDataset;
+    this.lastBatch = lastBatch;
     this.updates = Objects.requireNonNull(updates);
     this.feedId = Objects.requireNonNull(feedId);
     this.sendMetrics = sendMetrics;
+    this.fingerprintCache = fingerprintCache;
   }
 
   @Override
   public void run(Graph graph, TransitModel transitModel) {
-    var result = snapshotSource.applyTripUpdates(
-      fuzzyTripMatcher,
-      backwardsDelayPropagationType,
-      fullDataset,
-      updates,
-      feedId
-    );
+    if (fingerprintCache == null) {
+      var result = snapshotSource.applyTripUpdates(
+        fuzzyTripMatcher,
+        backwardsDelayPropagationType,
+        fullDataset,
+        updates,
+        feedId,
+        lastBatch
+      );
+      sendMetrics.accept(result);
+      return;
+    }
+
+    var filtered = fingerprintCache.filter(updates, fullDataset);
+    UpdateResult result;
+    try {
+      result =
+        snapshotSource
+          .applyTripUpdates(
+            fuzzyTripMatcher,
+            backwardsDelayPropagationType,
+            filtered.fullDataset(),
+            filtered.updates(),
+            feedId,
+            lastBatch
+          )
+          .withUnchanged(filtered.unchanged());
+    } catch (RuntimeException e) {
+      // The buffer may be partly updated, apply the next batch in full
+      fingerprintCache.invalidate();
+      throw e;
+    }
+    if (filtered.unchanged() > 0) {
+      LOG.info(
+        "[feedId: {}] {} of {} trip updates were unchanged and skipped, {} applied successfully",
+        feedId,
+        filtered.unchanged(),
+        updates.size(),
+        result.successful()
+      );
+    }
     sendMetrics.accept(result);
   }
+
+  /**
+   * A full dataset replaces all trip updates of the feed, so earlier batches that have not been
+   * applied yet can be dropped.
+   */
+  @Override
+  public boolean replacesQueuedUpdates() {
+    return fullDataset;
+  }
 }
@@ -19,6 +19,7 @@ import org.asynchttpclient.ws.WebSocketUpgradeHandler;
 import org.opentripplanner.transit.service.DefaultTransitService;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.GraphUpdater;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.GtfsRealtimeFuzzyTripMatcher;
 import org.opentripplanner.updater.UpdateResult;
 import org.opentripplanner.updater.WriteToGraphCallback;
@@ -97,6 +98,11 @@ public class WebsocketGtfsRealtimeUpdater implements GraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.HIGH;
+  }
+
   @Override
   public void run() throws InterruptedException, IOException {
     while (true) {
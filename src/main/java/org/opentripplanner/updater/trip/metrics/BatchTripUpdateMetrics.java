@@ -1,9 +1,11 @@
 package org.opentripplanner.updater.trip.metrics;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -20,7 +22,9 @@ import org.opentripplanner.updater.trip.UrlUpdaterParameters;
  * Records micrometer metrics for trip updaters that send batches of updates, for example GTFS-RT
  * via HTTP.
  * <p>
- * It records the most recent trip update as gauges.
+ * It records the most recent trip update as gauges. The time it takes to apply each batch, and
+ * how long the timetable snapshot is locked while doing so, are recorded as timers. The rate of
+ * the processed counter is the throughput of the feed.
  */
 public class BatchTripUpdateMetrics extends TripUpdateMetrics {
 
@@ -28,6 +32,11 @@ public class BatchTripUpdateMetrics extends TripUpdateMetrics {
   private final AtomicInteger successfulGauge;
   private final AtomicInteger failureGauge;
   private final AtomicInteger warningsGauge;
+  private final AtomicInteger unchangedGauge;
+  private final Counter processedCounter;
+  private final Timer durationTimer;
+  private final Timer lockDurationTimer;
+  private final Timer commitDurationTimer;
   private final Map<UpdateError.UpdateErrorType, AtomicInteger> failuresByType = new HashMap<>();
   private final Map<UpdateSuccess.WarningType, AtomicInteger> warningsByType = new HashMap<>();
 
@@ -43,12 +52,49 @@ public class BatchTripUpdateMetrics extends TripUpdateMetrics {
 
     this.warningsGauge =
       getGauge("warnings", "Number of warnings when successfully applying trip updates");
+    this.unchangedGauge =
+      getGauge(
+        "unchanged",
+        "Trip updates that were skipped at the most recent update, because they were unchanged"
+      );
+
+    var tags = Tags.of(baseTags);
+    this.processedCounter =
+      Counter
+        .builder(METRICS_PREFIX + ".processed")
+        .description("Total number of trip updates that were applied or failed")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.durationTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".duration")
+        .description("Time it takes to apply a batch of trip updates")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.lockDurationTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".lock_duration")
+        .description("Time the timetable snapshot is locked while applying a batch of trip updates")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
+    this.commitDurationTimer =
+      Timer
+        .builder(METRICS_PREFIX + ".commit_duration")
+        .description("Time it takes to commit the timetable snapshot after a batch of trip updates")
+        .tags(tags)
+        .register(Metrics.globalRegistry);
   }
 
   public void setGauges(UpdateResult result) {
     this.successfulGauge.set(result.successful());
     this.failureGauge.set(result.failed());
     this.warningsGauge.set(result.warnings().size());
+    this.unchangedGauge.set(result.unchanged());
+
+    this.processedCounter.increment(result.successful() + result.failed());
+    this.durationTimer.record(result.duration());
+    this.lockDurationTimer.record(result.lockDuration());
+    this.commitDurationTimer.record(result.commitDuration());
 
     setFailureTypes(result);
 
@@ -0,0 +1,115 @@
+package org.opentripplanner.updater.trip.replay;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import java.io.File;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.io.HttpUtils;
+import org.opentripplanner.framework.time.DurationUtils;
+
+/**
+ * Poll a realtime feed and store each raw payload in a {@link FeedRecording}, for replaying it
+ * later with the RealtimeReplay in the test sources. Any feed that can be fetched with a GET
+ * request can be recorded, both GTFS-RT and SIRI-ET (Lite).
+ * <p>
+ * The recorder is part of the OTP jar, so a feed can be recorded where OTP is deployed:
+ * <pre>
+ * java -cp otp-shaded.jar org.opentripplanner.updater.trip.replay.FeedRecorder \
+ *   --url https://example.com/trip-updates --dir recording --interval 10s --duration 24h
+ * </pre>
+ */
+public class FeedRecorder {
+
+  @Parameter(
+    names = { "-h", "--help" },
+    description = "Print this help message and exit",
+    help = true
+  )
+  private boolean help;
+
+  @Parameter(names = { "-u", "--url" }, description = "The feed url.", required = true)
+  private String url;
+
+  @Parameter(
+    names = { "-d", "--dir" },
+    description = "Directory to store the recording in.",
+    required = true
+  )
+  private String dir;
+
+  @Parameter(names = { "-i", "--interval" }, description = "Polling interval, default: 10s")
+  private String interval = "10s";
+
+  @Parameter(
+    names = { "-t", "--duration" },
+    description = "Stop recording after this time, default: 1h"
+  )
+  private String duration = "1h";
+
+  @Parameter(
+    names = { "-H", "--header" },
+    description = "HTTP header 'name:value', may be repeated."
+  )
+  private List<String> headers = new ArrayList<>();
+
+  public static void main(String[] args) throws InterruptedException {
+    FeedRecorder recorder = new FeedRecorder();
+    JCommander jc = new JCommander(recorder);
+    jc.setProgramName(FeedRecorder.class.getSimpleName());
+
+    try {
+      jc.parse(args);
+    } catch (Exception e) {
+      System.out.println(e.getMessage());
+      jc.usage();
+      System.exit(1);
+    }
+
+    if (recorder.help) {
+      jc.usage();
+      System.exit(0);
+    }
+    recorder.run();
+  }
+
+  private void run() throws InterruptedException {
+    var recording = new FeedRecording(new File(dir));
+    var pollingInterval = DurationUtils.duration(interval);
+    var headers = headers(this.headers);
+
+    Instant end = Instant.now().plus(DurationUtils.duration(duration));
+    int count = 0;
+    while (Instant.now().isBefore(end)) {
+      Instant start = Instant.now();
+      try (InputStream is = HttpUtils.openInputStream(url, headers)) {
+        byte[] payload = is.readAllBytes();
+        recording.write(start, payload);
+        System.err.printf("Recorded payload %d, %d bytes%n", ++count, payload.length);
+      } catch (Exception e) {
+        System.err.println("Failed to fetch " + url + ": " + e.getMessage());
+      }
+      long sleep = Duration.between(Instant.now(), start.plus(pollingInterval)).toMillis();
+      if (sleep > 0) {
+        Thread.sleep(sleep);
+      }
+    }
+  }
+
+  private static Map<String, String> headers(List<String> values) {
+    var headers = new HashMap<String, String>();
+    for (String value : values) {
+      int i = value.indexOf(':');
+      if (i < 0) {
+        throw new IllegalArgumentException("The header is not 'name:value': " + value);
+      }
+      headers.put(value.substring(0, i).trim(), value.substring(i + 1).trim());
+    }
+    return headers;
+  }
+}
@@ -0,0 +1,66 @@
+package org.opentripplanner.updater.trip.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A directory of raw realtime feed payloads. Each payload is stored in its own file, named by the
+ * epoch millisecond it was received at, so a recording can be inspected, trimmed and merged with
+ * ordinary file tools.
+ */
+class FeedRecording {
+
+  private static final String SUFFIX = ".payload";
+
+  private final File dir;
+
+  FeedRecording(File dir) {
+    this.dir = dir;
+  }
+
+  void write(Instant receivedAt, byte[] payload) {
+    try {
+      Files.createDirectories(dir.toPath());
+      Files.write(new File(dir, receivedAt.toEpochMilli() + SUFFIX).toPath(), payload);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** All payloads in the recording, in the order they were received. */
+  List<Payload> payloads() {
+    File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+    if (files == null) {
+      throw new IllegalArgumentException("Not a directory: " + dir.getAbsolutePath());
+    }
+    return Arrays
+      .stream(files)
+      .map(Payload::new)
+      .sorted(Comparator.comparing(Payload::receivedAt))
+      .toList();
+  }
+
+  record Payload(Instant receivedAt, File file) {
+    private Payload(File file) {
+      this(Instant.ofEpochMilli(Long.parseLong(stripSuffix(file.getName()))), file);
+    }
+
+    byte[] read() {
+      try {
+        return Files.readAllBytes(file.toPath());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private static String stripSuffix(String name) {
+      return name.substring(0, name.length() - SUFFIX.length());
+    }
+  }
+}
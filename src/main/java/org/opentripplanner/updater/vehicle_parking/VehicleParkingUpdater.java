@@ -24,6 +24,7 @@ import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TransitModel;
 import org.opentripplanner.updater.DataSource;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.PollingGraphUpdater;
 import org.opentripplanner.updater.WriteToGraphCallback;
@@ -71,6 +72,11 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.LOW;
+  }
+
   @Override
   protected void runPolling() throws Exception {
     LOG.debug("Updating vehicle parkings from {}", source);
@@ -229,5 +235,11 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
         .forEach(graph::removeEdge);
       graph.remove(entranceVertex);
     }
+
+    /** Each update contains all vehicle parkings of the source. */
+    @Override
+    public boolean replacesQueuedUpdates() {
+      return true;
+    }
   }
 }
@@ -16,13 +16,13 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.opentripplanner.framework.geometry.WgsCoordinate;
 import org.opentripplanner.framework.lang.StringUtils;
@@ -92,25 +92,15 @@ public class VehiclePositionPatternMatcher {
     // that map makes it very easy to update the positions in the service
     // it also enables the bookkeeping about which pattern previously had positions but no longer do
     // these need to be removed from the service as we assume that the vehicle has stopped
-    var positions = matchResults
-      .stream()
-      .filter(Result::isSuccess)
-      .map(Result::successValue)
-      .collect(Collectors.groupingBy(PatternAndVehiclePosition::pattern))
-      .entrySet()
-      .stream()
-      .collect(
-        Collectors.toMap(
-          Entry::getKey,
-          e ->
-            e
-              .getValue()
-              .stream()
-              .map(PatternAndVehiclePosition::position)
-              .collect(Collectors.toList())
-        )
-      );
+    Map<TripPattern, List<RealtimeVehiclePosition>> positions = new HashMap<>();
+    for (var result : matchResults) {
+      if (result.isSuccess()) {
+        var value = result.successValue();
+        positions.computeIfAbsent(value.pattern(), p -> new ArrayList<>()).add(value.position());
+      }
+    }
 
+    // the repository only updates the vehicles that changed since the previous update
     positions.forEach(repository::setVehiclePositions);
     Set<TripPattern> patternsInCurrentUpdate = positions.keySet();
 
@@ -22,4 +22,10 @@ public record VehiclePositionUpdaterRunnable(
     // Apply new vehicle positions
     matcher.applyVehiclePositionUpdates(updates);
   }
+
+  /** The positions of the vehicles of the feed are replaced by each update. */
+  @Override
+  public boolean replacesQueuedUpdates() {
+    return true;
+  }
 }
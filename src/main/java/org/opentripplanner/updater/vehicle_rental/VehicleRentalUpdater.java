@@ -29,6 +29,7 @@ import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.GraphWriterPriority;
 import org.opentripplanner.updater.GraphWriterRunnable;
 import org.opentripplanner.updater.PollingGraphUpdater;
 import org.opentripplanner.updater.UpdaterConstructionException;
@@ -96,6 +97,11 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
     this.saveResultOnGraph = saveResultOnGraph;
   }
 
+  @Override
+  public GraphWriterPriority graphWriterPriority() {
+    return GraphWriterPriority.LOW;
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder.of(VehicleRentalUpdater.class).addObj("source", source).toString();
@@ -214,5 +220,11 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         );
       }
     }
+
+    /** Each update contains all stations of the source. */
+    @Override
+    public boolean replacesQueuedUpdates() {
+      return true;
+    }
   }
 }
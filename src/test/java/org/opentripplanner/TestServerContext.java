@@ -40,6 +40,7 @@ public class TestServerContext {
       createWorldEnvelopeService(),
       createVehiclePositionService(),
       createVehicleRentalService(),
+      null,
       routerConfig.flexConfig(),
       null,
       routerConfig.requestLogFile()
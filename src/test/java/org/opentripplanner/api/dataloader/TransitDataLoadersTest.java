@@ -0,0 +1,190 @@
+package org.opentripplanner.api.dataloader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.id;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.route;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopPattern;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.tripPattern;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingEnvironmentImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopEntityAlert;
+import org.opentripplanner.api.dataloader.TransitDataLoaders.StopTimesQuery;
+import org.opentripplanner.model.StopTimesInPattern;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.services.TransitAlertService;
+import org.opentripplanner.routing.stoptimes.ArrivalDeparture;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.TransitService;
+
+class TransitDataLoadersTest {
+
+  private static final RegularStop STOP_A = TransitModelForTest.stopForTest("A", 60.0, 10.0);
+  private static final RegularStop STOP_B = TransitModelForTest.stopForTest("B", 60.1, 10.0);
+  private static final RegularStop STOP_C = TransitModelForTest.stopForTest("C", 60.2, 10.0);
+  private static final RegularStop STOP_D = TransitModelForTest.stopForTest("D", 60.3, 10.0);
+
+  private static final TripPattern PATTERN = tripPattern("P1", route("R1").build())
+    .withStopPattern(stopPattern(STOP_A, STOP_B))
+    .build();
+
+  private static final List<StopTimesInPattern> STOP_TIMES = List.of(
+    new StopTimesInPattern(PATTERN)
+  );
+
+  private static final StopTimesQuery NEXT_DEPARTURE = new StopTimesQuery(
+    null,
+    Duration.ofHours(2),
+    1,
+    ArrivalDeparture.DEPARTURES,
+    false
+  );
+  private static final StopTimesQuery NEXT_5_DEPARTURES = new StopTimesQuery(
+    null,
+    Duration.ofHours(2),
+    5,
+    ArrivalDeparture.DEPARTURES,
+    false
+  );
+
+  private final TransitService transitService = Mockito.mock(TransitService.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final DataLoaderRegistry registry = TransitDataLoaders.createRegistry(
+    transitService,
+    meterRegistry
+  );
+  private final DataFetchingEnvironment environment = DataFetchingEnvironmentImpl
+    .newDataFetchingEnvironment()
+    .dataLoaderRegistry(registry)
+    .build();
+
+  @Test
+  void stopTimesAreLoadedOnceForEachQueryInABatch() {
+    List<StopTimesSearch> searches = new ArrayList<>();
+    Mockito
+      .when(transitService.stopTimesForStops(any(), any(), any(), anyInt(), any(), anyBoolean()))
+      .thenAnswer(invocation -> {
+        Collection<StopLocation> stops = invocation.getArgument(0);
+        Instant startTime = invocation.getArgument(1);
+        int numberOfDepartures = invocation.getArgument(3);
+        searches.add(new StopTimesSearch(Set.copyOf(stops), startTime, numberOfDepartures));
+        return stops
+          .stream()
+          .collect(Collectors.toMap(Function.identity(), it -> STOP_TIMES));
+      });
+
+    var a = TransitDataLoaders.stopTimes(environment, STOP_A, NEXT_DEPARTURE);
+    var b = TransitDataLoaders.stopTimes(environment, STOP_B, NEXT_DEPARTURE);
+    var cd = TransitDataLoaders.stopTimes(environment, List.of(STOP_C, STOP_D), NEXT_5_DEPARTURES);
+    // The same key is only loaded once
+    var aAgain = TransitDataLoaders.stopTimes(environment, STOP_A, NEXT_DEPARTURE);
+    registry.dispatchAll();
+
+    assertEquals(STOP_TIMES, a.join());
+    assertEquals(STOP_TIMES, b.join());
+    assertEquals(List.of(STOP_TIMES, STOP_TIMES), cd.join());
+    assertEquals(STOP_TIMES, aAgain.join());
+
+    // One search for each query, with all the stops of the query
+    assertEquals(2, searches.size());
+    var searchesByNumberOfDepartures = searches
+      .stream()
+      .collect(Collectors.toMap(StopTimesSearch::numberOfDepartures, Function.identity()));
+    assertEquals(Set.of(STOP_A, STOP_B), searchesByNumberOfDepartures.get(1).stops());
+    assertEquals(Set.of(STOP_C, STOP_D), searchesByNumberOfDepartures.get(5).stops());
+
+    // The missing start time is resolved once for the batch, so all searches use the same time
+    assertEquals(searches.get(0).startTime(), searches.get(1).startTime());
+
+    var batchSize = meterRegistry
+      .get("graphql.dataloader.batch.size")
+      .tag("loader", "stopTimes")
+      .summary();
+    assertEquals(1, batchSize.count());
+    assertEquals(4.0, batchSize.totalAmount());
+  }
+
+  @Test
+  void stopEntityAlertsAreFoundInOnePassOverTheAlerts() {
+    var stopAndRouteAndTrip = TransitAlert
+      .of(id("alert1"))
+      .addEntity(new EntitySelector.StopAndRoute(STOP_A.getId(), id("R1")))
+      .addEntity(new EntitySelector.StopAndTrip(STOP_A.getId(), id("T1")))
+      .build();
+    var stopAndTrip = TransitAlert
+      .of(id("alert2"))
+      .addEntity(new EntitySelector.StopAndTrip(STOP_B.getId(), id("T1")))
+      .build();
+    var stopOnly = TransitAlert
+      .of(id("alert3"))
+      .addEntity(new EntitySelector.Stop(STOP_A.getId()))
+      .build();
+    var otherStop = TransitAlert
+      .of(id("alert4"))
+      .addEntity(new EntitySelector.StopAndRoute(STOP_D.getId(), id("R1")))
+      .build();
+
+    var alertService = Mockito.mock(TransitAlertService.class);
+    Mockito
+      .when(alertService.getAllAlerts())
+      .thenReturn(List.of(stopAndRouteAndTrip, stopAndTrip, stopOnly, otherStop));
+    Mockito.when(transitService.getTransitAlertService()).thenReturn(alertService);
+
+    var a = TransitDataLoaders.stopEntityAlerts(environment, STOP_A.getId());
+    var b = TransitDataLoaders.stopEntityAlerts(environment, STOP_B.getId());
+    var c = TransitDataLoaders.stopEntityAlerts(environment, STOP_C.getId());
+    registry.dispatchAll();
+
+    assertEquals(List.of(new StopEntityAlert(stopAndRouteAndTrip, true, true)), a.join());
+    assertEquals(List.of(new StopEntityAlert(stopAndTrip, false, true)), b.join());
+    assertEquals(List.of(), c.join());
+
+    Mockito.verify(alertService, Mockito.times(1)).getAllAlerts();
+  }
+
+  @Test
+  void patternsForStopIncludeRealtimeAddedPatterns() {
+    var realtimePattern = tripPattern("P2", route("R1").build())
+      .withStopPattern(stopPattern(STOP_A, STOP_C))
+      .withCreatedByRealtimeUpdater(true)
+      .build();
+    Mockito
+      .when(transitService.getPatternsForStop(STOP_A, true))
+      .thenReturn(List.of(PATTERN, realtimePattern));
+    Mockito.when(transitService.getPatternsForStop(STOP_B, true)).thenReturn(List.of(PATTERN));
+
+    var a = TransitDataLoaders.patternsForStop(environment, STOP_A);
+    var b = TransitDataLoaders.patternsForStop(environment, STOP_B);
+    registry.dispatchAll();
+
+    assertEquals(List.of(PATTERN, realtimePattern), a.join());
+    assertEquals(List.of(PATTERN), b.join());
+
+    Mockito.verify(transitService, Mockito.never()).getPatternsForStop(any(), Mockito.eq(false));
+  }
+
+  private record StopTimesSearch(
+    Set<StopLocation> stops,
+    Instant startTime,
+    int numberOfDepartures
+  ) {}
+}
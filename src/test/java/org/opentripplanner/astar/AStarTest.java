@@ -2,6 +2,7 @@ package org.opentripplanner.astar;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
@@ -13,6 +14,7 @@ import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
+import org.opentripplanner.framework.application.CancellationToken;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.routing.algorithm.MultiTargetTerminationStrategy;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -286,6 +288,27 @@ public class AStarTest {
    * Private Methods
    ****/
 
+  @Test
+  public void testCancelledSearchIsAborted() {
+    var cancellationToken = CancellationToken.create();
+    cancellationToken.cancel();
+
+    var request = new RouteRequest();
+    request.setCancellationToken(cancellationToken);
+    Vertex from = graph.getVertex("56th_24th");
+    Vertex to = graph.getVertex("leary_20th");
+    ShortestPathTree tree = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setRequest(request)
+      .setFrom(from)
+      .setTo(to)
+      .getShortestPathTree();
+
+    assertTrue(tree.isAborted());
+    assertNull(tree.getPath(to));
+  }
+
   private SimpleConcreteVertex vertex(String label, double lat, double lon) {
     return new SimpleConcreteVertex(graph, label, lat, lon);
   }
@@ -23,6 +23,7 @@ public class FrameworkArchitectureTest {
   );
   private static final Package APPLICATION = FRAMEWORK.subPackage("application");
   private static final Package COLLECTION = FRAMEWORK.subPackage("collection");
+  private static final Package CONCURRENT = FRAMEWORK.subPackage("concurrent");
   private static final Package GEOMETRY = FRAMEWORK.subPackage("geometry");
   private static final Package I18N = FRAMEWORK.subPackage("i18n");
   private static final Package IO = FRAMEWORK.subPackage("io");
@@ -44,6 +45,11 @@ public class FrameworkArchitectureTest {
     COLLECTION.dependsOn(GNU_TROVE).verify();
   }
 
+  @Test
+  void enforceConcurrentPackageDependencies() {
+    CONCURRENT.dependsOn(APPLICATION).verify();
+  }
+
   @Test
   void enforceGeometryPackageDependencies() {
     GEOMETRY
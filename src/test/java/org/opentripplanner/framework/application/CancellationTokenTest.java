@@ -0,0 +1,73 @@
+package org.opentripplanner.framework.application;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.Test;
+
+class CancellationTokenTest {
+
+  @Test
+  void noneIsNeverCancelled() {
+    CancellationToken.NONE.cancel();
+
+    assertFalse(CancellationToken.NONE.isCancelled());
+    assertDoesNotThrow(CancellationToken.NONE::throwIfCancelled);
+  }
+
+  @Test
+  void cancel() {
+    var subject = CancellationToken.create();
+    assertFalse(subject.isCancelled());
+
+    subject.cancel();
+
+    assertTrue(subject.isCancelled());
+    assertFalse(subject.isDeadlinePassed());
+    assertThrows(CancellationException.class, subject::throwIfCancelled);
+  }
+
+  @Test
+  void cancelParent() {
+    var parent = CancellationToken.create();
+    var subject = CancellationToken.withTimeout(Duration.ofMinutes(1), parent);
+    assertFalse(subject.isCancelled());
+
+    parent.cancel();
+
+    assertTrue(subject.isCancelled());
+    assertThrows(CancellationException.class, subject::throwIfCancelled);
+  }
+
+  @Test
+  void cancellingTheChildDoesNotCancelTheParent() {
+    var parent = CancellationToken.create();
+    var subject = CancellationToken.withTimeout(Duration.ZERO, parent);
+
+    subject.cancel();
+
+    assertTrue(subject.isCancelled());
+    assertFalse(parent.isCancelled());
+  }
+
+  @Test
+  void zeroTimeoutHasNoDeadline() {
+    var subject = CancellationToken.withTimeout(Duration.ZERO);
+
+    assertFalse(subject.isDeadlinePassed());
+    assertFalse(subject.isCancelled());
+  }
+
+  @Test
+  void deadlinePassed() throws InterruptedException {
+    var subject = CancellationToken.withTimeout(Duration.ofMillis(1));
+    Thread.sleep(10);
+
+    assertTrue(subject.isDeadlinePassed());
+    assertThrows(CancellationException.class, subject::throwIfCancelled);
+  }
+}
@@ -0,0 +1,91 @@
+package org.opentripplanner.framework.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+
+  @Test
+  void withAndWithout() {
+    PersistentMap<String, Integer> empty = PersistentMap.empty();
+    var one = empty.with("a", 1);
+    var two = one.with("b", 2);
+
+    assertTrue(empty.isEmpty());
+    assertEquals(Map.of("a", 1), one);
+    assertEquals(Map.of("a", 1, "b", 2), two);
+
+    var replaced = two.with("a", 3);
+    assertEquals(Map.of("a", 3, "b", 2), replaced);
+    assertEquals(2, replaced.size());
+    assertEquals(Map.of("a", 1, "b", 2), two, "The old version is not changed");
+
+    assertEquals(Map.of("b", 2), two.without("a"));
+    assertSame(two, two.without("c"));
+    assertTrue(one.without("a").isEmpty());
+  }
+
+  @Test
+  void unchangedMapIsReturnedForSameValue() {
+    Integer value = 1000;
+    var map = PersistentMap.<String, Integer>empty().with("a", value);
+    assertSame(map, map.with("a", value));
+  }
+
+  @Test
+  void hashCollisions() {
+    // "Aa" and "BB" have the same hash code
+    var map = PersistentMap.<String, Integer>empty().with("Aa", 1).with("BB", 2).with("C", 3);
+
+    assertEquals(Map.of("Aa", 1, "BB", 2, "C", 3), map);
+    assertEquals(Map.of("BB", 2, "C", 3), map.without("Aa"));
+    assertEquals(Map.of("C", 3), map.without("Aa").without("BB"));
+    assertNull(map.get("AaBB"));
+  }
+
+  @Test
+  void withoutIf() {
+    var map = PersistentMap.copyOf(Map.of("a", 1, "b", 2, "c", 3));
+    assertEquals(Map.of("b", 2), map.withoutIf((k, v) -> v != 2));
+    assertSame(map, map.withoutIf((k, v) -> false));
+  }
+
+  @Test
+  void nullIsNotAllowed() {
+    PersistentMap<String, Integer> empty = PersistentMap.empty();
+    assertThrows(NullPointerException.class, () -> empty.with(null, 1));
+    assertThrows(NullPointerException.class, () -> empty.with("a", null));
+    assertFalse(empty.containsKey(null));
+  }
+
+  @Test
+  void sameContentAsHashMap() {
+    var random = new Random(17);
+    var expected = new HashMap<Integer, Integer>();
+    PersistentMap<Integer, Integer> map = PersistentMap.empty();
+
+    for (int i = 0; i < 20_000; ++i) {
+      int key = random.nextInt(5_000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.without(key);
+      } else {
+        expected.put(key, i);
+        map = map.with(key, i);
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    assertEquals(expected, map);
+    assertEquals(expected.size(), map.entrySet().stream().count());
+  }
+}
@@ -0,0 +1,105 @@
+package org.opentripplanner.framework.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+
+class LimitedExecutorServiceTest {
+
+  private static final int MAX_CONCURRENCY = 2;
+  private static final int N_TASKS = 6;
+
+  private final AtomicInteger concurrent = new AtomicInteger();
+  private final AtomicInteger maxConcurrent = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private LimitedExecutorService subject;
+
+  @AfterEach
+  void shutdown() {
+    subject.shutdownNow();
+  }
+
+  @Test
+  void limitTasksRunningInUnboundedDelegate() throws Exception {
+    // The delegate starts a thread per task, like a virtual thread per task executor
+    subject =
+      new LimitedExecutorService("test", Executors.newCachedThreadPool(), true, MAX_CONCURRENCY);
+
+    var futures = submitTasks();
+    awaitRunning(MAX_CONCURRENCY);
+
+    assertEquals(MAX_CONCURRENCY, subject.running());
+    assertEquals(N_TASKS - MAX_CONCURRENCY, subject.waiting());
+
+    release.countDown();
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(MAX_CONCURRENCY, maxConcurrent.get());
+    assertEquals(0, subject.running());
+    assertEquals(0, subject.waiting());
+  }
+
+  @Test
+  void createPlatformThreadPool() throws Exception {
+    OTPFeature.VirtualThreads.testOff(() ->
+      subject = RequestExecutors.create("test", MAX_CONCURRENCY)
+    );
+    assertFalse(subject.virtualThreads());
+
+    var futures = submitTasks();
+    awaitRunning(MAX_CONCURRENCY);
+    assertEquals(N_TASKS - MAX_CONCURRENCY, subject.waiting());
+
+    release.countDown();
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    assertEquals(MAX_CONCURRENCY, maxConcurrent.get());
+  }
+
+  @Test
+  void reportCreatedExecutors() {
+    List<String> names = new ArrayList<>();
+    RequestExecutors.forEach(it -> names.add(it.name()));
+    subject = RequestExecutors.create("reported", 1);
+    assertTrue(names.contains("reported"));
+  }
+
+  private List<Future<?>> submitTasks() {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < N_TASKS; i++) {
+      futures.add(
+        subject.submit(() -> {
+          maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          concurrent.decrementAndGet();
+        })
+      );
+    }
+    return futures;
+  }
+
+  private void awaitRunning(int expected) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10_000;
+    while (subject.running() < expected && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+  }
+}
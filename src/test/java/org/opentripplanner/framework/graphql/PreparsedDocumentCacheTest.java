@@ -0,0 +1,108 @@
+package org.opentripplanner.framework.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+
+class PreparsedDocumentCacheTest {
+
+  private static final String QUERY = "{ stops { name } }";
+  private static final String HASH = Hashing
+    .sha256()
+    .hashString(QUERY, StandardCharsets.UTF_8)
+    .toString();
+
+  private final PreparsedDocumentCache subject = new PreparsedDocumentCache(10);
+  private int parsed = 0;
+
+  @Test
+  void parseSameQueryOnce() {
+    var first = getDocument(input(QUERY, null));
+    var second = getDocument(input(QUERY, null));
+
+    assertSame(first, second);
+    assertEquals(1, parsed);
+  }
+
+  @Test
+  void doNotCacheInvalidDocuments() {
+    for (int i = 0; i < 2; i++) {
+      subject.getDocumentAsync(
+        input(QUERY, null),
+        it -> {
+          parsed++;
+          return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("x").build());
+        }
+      );
+    }
+    assertEquals(2, parsed);
+  }
+
+  @Test
+  void automaticPersistedQuery() {
+    OTPFeature.GraphQLPersistedQueries.testOn(() -> {
+      var notFound = getDocument(input("", HASH));
+      assertTrue(notFound.hasErrors());
+      assertEquals("PersistedQueryNotFound", notFound.getErrors().get(0).getMessage());
+
+      var registered = getDocument(input(QUERY, HASH));
+      assertFalse(registered.hasErrors());
+
+      assertSame(registered, getDocument(input("", HASH)));
+      assertEquals(1, parsed);
+    });
+  }
+
+  @Test
+  void rejectPersistedQueryWithWrongHash() {
+    OTPFeature.GraphQLPersistedQueries.testOn(() -> {
+      var result = getDocument(input("{ routes { name } }", HASH));
+      assertTrue(result.hasErrors());
+      assertEquals(0, parsed);
+    });
+  }
+
+  @Test
+  void ignorePersistedQueryIfFeatureIsOff() {
+    OTPFeature.GraphQLPersistedQueries.testOff(() -> {
+      assertFalse(PreparsedDocumentCache.hasPersistedQuery(extensions(HASH)));
+      getDocument(input(QUERY, "not-the-hash-of-the-query"));
+      assertEquals(1, parsed);
+    });
+  }
+
+  private PreparsedDocumentEntry getDocument(ExecutionInput input) {
+    return subject
+      .getDocumentAsync(
+        input,
+        it -> {
+          parsed++;
+          return new PreparsedDocumentEntry(Parser.parse(it.getQuery()));
+        }
+      )
+      .join();
+  }
+
+  private static ExecutionInput input(String query, String hash) {
+    return ExecutionInput
+      .newExecutionInput()
+      .query(query)
+      .extensions(hash == null ? Map.of() : extensions(hash))
+      .build();
+  }
+
+  private static Map<String, Object> extensions(String hash) {
+    return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+  }
+}
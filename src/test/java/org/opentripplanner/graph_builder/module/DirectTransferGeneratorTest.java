@@ -10,8 +10,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
@@ -22,6 +24,7 @@ import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.algorithm.GraphRoutingTest;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -31,6 +34,7 @@ import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.network.StopPattern;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.DefaultTransitService;
 
 /**
  * This creates a graph with trip patterns
@@ -250,6 +254,68 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     );
   }
 
+  /**
+   * A slower walking profile grouped with a faster one reaches the same stops, by the same paths,
+   * as a search of its own.
+   */
+  @Test
+  public void testGroupedWalkProfilesReachTheSameStopsAsSeparateSearches() {
+    var walk = walkRequest(1.33);
+    var slowWalk = walkRequest(0.8);
+    var group = TransferProfileGroup.groupProfiles(List.of(slowWalk, walk)).get(0);
+    assertEquals(List.of(slowWalk, walk), group.profiles());
+
+    // Walking 110 meters takes 83 seconds for the fast and 138 for the slow profile, so S11 to S22
+    // is only reachable with the fast profile.
+    var maxTransferDuration = Duration.ofSeconds(130);
+    var otpModel = model(false);
+    var graph = otpModel.graph();
+    var nearbyStopFinder = new NearbyStopFinder(
+      new DefaultTransitService(otpModel.transitModel()),
+      maxTransferDuration,
+      null,
+      true
+    );
+
+    for (TransitStopVertex stop : graph.getVerticesOfType(TransitStopVertex.class)) {
+      var stopsFound = nearbyStopFinder.findNearbyStops(
+        stop,
+        walk,
+        walk.journey().transfer(),
+        false
+      );
+      var slowStopsFound = nearbyStopFinder.findNearbyStops(
+        stop,
+        slowWalk,
+        slowWalk.journey().transfer(),
+        false
+      );
+
+      var slowStopsReached = group.reachableStops(slowWalk, stopsFound, maxTransferDuration);
+      var stopsReached = group.reachableStops(walk, stopsFound, maxTransferDuration);
+
+      assertEquals(paths(slowStopsFound), paths(slowStopsReached), stop.getLabel());
+      assertEquals(durations(slowStopsFound), durations(slowStopsReached), stop.getLabel());
+      assertEquals(paths(stopsFound), paths(stopsReached), stop.getLabel());
+      assertEquals(durations(stopsFound), durations(stopsReached), stop.getLabel());
+    }
+
+    var slowStopsFromS11 = nearbyStopFinder.findNearbyStops(
+      S11,
+      slowWalk,
+      slowWalk.journey().transfer(),
+      false
+    );
+    var stopsFromS11 = nearbyStopFinder.findNearbyStops(
+      S11,
+      walk,
+      walk.journey().transfer(),
+      false
+    );
+    assertTrue(slowStopsFromS11.stream().noneMatch(it -> it.stop == S22.getStop()));
+    assertTrue(stopsFromS11.stream().anyMatch(it -> it.stop == S22.getStop()));
+  }
+
   @Test
   public void testTransferOnIsolatedStations() {
     var otpModel = model(true, false, true);
@@ -273,6 +339,34 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     assertTrue(transitModel.getAllPathTransfers().isEmpty());
   }
 
+  private static RouteRequest walkRequest(double walkSpeed) {
+    var request = new RouteRequest();
+    request.journey().transfer().setMode(StreetMode.WALK);
+    request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(walkSpeed)));
+    return request;
+  }
+
+  /** The stop and the vertices of the path to each of the nearby stops. */
+  private static Set<String> paths(List<NearbyStop> nearbyStops) {
+    return nearbyStops
+      .stream()
+      .map(it ->
+        it.stop.getId().getId() +
+        " " +
+        it.edges.stream().map(e -> e.getToVertex().getLabel()).toList()
+      )
+      .collect(Collectors.toSet());
+  }
+
+  /** The duration in seconds of the path to each of the nearby stops. */
+  private static Map<String, Long> durations(List<NearbyStop> nearbyStops) {
+    return nearbyStops
+      .stream()
+      .collect(
+        Collectors.toMap(it -> it.stop.getId().getId(), it -> it.state.getElapsedTimeSeconds())
+      );
+  }
+
   private TestOtpModel model(boolean addPatterns) {
     return model(addPatterns, false);
   }
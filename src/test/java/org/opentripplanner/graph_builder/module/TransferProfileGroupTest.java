@@ -0,0 +1,67 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+
+class TransferProfileGroupTest {
+
+  private static final RouteRequest WALK = walk(1.33, 2.0);
+  private static final RouteRequest SLOW_WALK = walk(0.8, 2.0);
+  private static final RouteRequest RELUCTANT_WALK = walk(1.33, 4.0);
+  private static final RouteRequest BIKE = bike();
+
+  @Test
+  void differOnlyInWalkSpeed() {
+    assertTrue(TransferProfileGroup.differOnlyInWalkSpeed(WALK, SLOW_WALK));
+    assertTrue(TransferProfileGroup.differOnlyInWalkSpeed(WALK, WALK));
+    assertFalse(TransferProfileGroup.differOnlyInWalkSpeed(WALK, RELUCTANT_WALK));
+    assertFalse(TransferProfileGroup.differOnlyInWalkSpeed(WALK, BIKE));
+    assertFalse(TransferProfileGroup.differOnlyInWalkSpeed(BIKE, BIKE));
+  }
+
+  @Test
+  void groupProfiles() {
+    var groups = TransferProfileGroup.groupProfiles(
+      List.of(SLOW_WALK, BIKE, WALK, RELUCTANT_WALK)
+    );
+
+    assertEquals(3, groups.size());
+
+    var walkGroup = groups.get(0);
+    assertEquals(List.of(SLOW_WALK, WALK), walkGroup.profiles());
+    assertSame(WALK, walkGroup.searchProfile(), "The fastest profile is used for the search");
+
+    assertEquals(List.of(BIKE), groups.get(1).profiles());
+    assertEquals(List.of(RELUCTANT_WALK), groups.get(2).profiles());
+  }
+
+  @Test
+  void eachProfile() {
+    var groups = TransferProfileGroup.eachProfile(List.of(SLOW_WALK, WALK));
+    assertEquals(2, groups.size());
+    assertSame(SLOW_WALK, groups.get(0).searchProfile());
+    assertSame(WALK, groups.get(1).searchProfile());
+  }
+
+  private static RouteRequest walk(double speed, double reluctance) {
+    var request = new RouteRequest();
+    request.journey().transfer().setMode(StreetMode.WALK);
+    request.withPreferences(pref ->
+      pref.withWalk(w -> w.withSpeed(speed).withReluctance(reluctance))
+    );
+    return request;
+  }
+
+  private static RouteRequest bike() {
+    var request = new RouteRequest();
+    request.journey().transfer().setMode(StreetMode.BIKE);
+    return request;
+  }
+}
@@ -0,0 +1,360 @@
+package org.opentripplanner.graph_builder.module.incremental;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.i18n.NonLocalizedString;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
+import org.opentripplanner.graph_builder.module.StreetLinkerModule;
+import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.StreetTransitStopLink;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertexBuilder;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+/**
+ * Compare an incremental build with a full build of the same stops on the same streets.
+ * <pre>
+ *               V3
+ *               |
+ *               D'
+ *               |
+ *               D
+ *               |
+ *   V1 - A - B ----- V0 - C - E - V2
+ * </pre>
+ * The first build has the stops A, B, C and D. The second build removes C, moves D to D' and adds
+ * E. A and B are more than the maximum transfer distance away from the changes.
+ */
+class PreviousTransitBuildTest {
+
+  private static final Duration MAX_TRANSFER_DURATION = Duration.ofMinutes(5);
+  private static final List<RouteRequest> TRANSFER_REQUESTS = List.of(new RouteRequest());
+
+  private static final TestStop A = new TestStop("A", 47.5001, 18.9950);
+  private static final TestStop B = new TestStop("B", 47.5001, 18.9960);
+  private static final TestStop C = new TestStop("C", 47.5001, 19.0050);
+  private static final TestStop D = new TestStop("D", 47.5051, 19.0001);
+  private static final TestStop D_MOVED = new TestStop("D", 47.5101, 19.0001);
+  private static final TestStop E = new TestStop("E", 47.5001, 19.0070);
+
+  private static final List<TestStop> FIRST_BUILD = List.of(A, B, C, D);
+  private static final List<TestStop> SECOND_BUILD = List.of(A, B, D_MOVED, E);
+
+  @Test
+  void incrementalBuildIsTheSameAsAFullBuild() {
+    OTPFeature.ConsiderPatternsForDirectTransfers.testOff(() -> {
+      var fullGraph = streetGraph();
+      var fullTransitModel = addStops(fullGraph, SECOND_BUILD);
+      build(fullGraph, fullTransitModel, null);
+
+      var graph = streetGraph();
+      var previousTransitModel = addStops(graph, FIRST_BUILD);
+      build(graph, previousTransitModel, null);
+      var previous = PreviousTransitBuild.extractAndRemoveTransit(
+        graph,
+        previousTransitModel,
+        MAX_TRANSFER_DURATION,
+        TRANSFER_REQUESTS
+      );
+      var transitModel = addStops(graph, SECOND_BUILD);
+      build(graph, transitModel, previous);
+
+      assertEquals(linkedLocations(fullGraph), linkedLocations(graph));
+      assertEquals(transfers(fullTransitModel), transfers(transitModel));
+      assertEquals(streetVertices(fullGraph), streetVertices(graph));
+      assertEquals(streetEdges(fullGraph), streetEdges(graph));
+    });
+  }
+
+  @Test
+  void relinkUnchangedStopsAndReuseTheirTransfers() {
+    OTPFeature.ConsiderPatternsForDirectTransfers.testOff(() -> {
+      var graph = streetGraph();
+      var previousTransitModel = addStops(graph, FIRST_BUILD);
+      build(graph, previousTransitModel, null);
+
+      var linkedVerticesOfA = linkedStreetVertices(graph, A);
+      var splitVerticesOfC = linkedStreetVertices(graph, C);
+      var previousTransferFromA = transferFrom(previousTransitModel.getAllPathTransfers(), A);
+
+      var previous = PreviousTransitBuild.extractAndRemoveTransit(
+        graph,
+        previousTransitModel,
+        MAX_TRANSFER_DURATION,
+        TRANSFER_REQUESTS
+      );
+      var transitModel = addStops(graph, SECOND_BUILD);
+      build(graph, transitModel, previous);
+
+      assertEquals(linkedVerticesOfA, linkedStreetVertices(graph, A));
+      assertFalse(splitVerticesOfC.isEmpty());
+      splitVerticesOfC.forEach(v -> assertFalse(graph.containsVertex(v), v.getLabel()));
+
+      var previousEdges = previousTransferFromA.getEdges();
+      var edges = transferFrom(transitModel.getAllPathTransfers(), A).getEdges();
+      assertEquals(previousEdges.size(), edges.size());
+      for (int i = 1; i < edges.size() - 1; i++) {
+        assertSame(previousEdges.get(i), edges.get(i));
+      }
+    });
+  }
+
+  @Test
+  void stopsAreChangedIfTheStopSequenceOfAPatternChanges() {
+    var graph = streetGraph();
+    var previousTransitModel = addStops(graph, FIRST_BUILD);
+    addPattern(previousTransitModel, "P1", A, B);
+    var previous = PreviousTransitBuild.extractAndRemoveTransit(
+      graph,
+      previousTransitModel,
+      MAX_TRANSFER_DURATION,
+      TRANSFER_REQUESTS
+    );
+
+    var unchanged = addStops(graph, FIRST_BUILD);
+    addPattern(unchanged, "P1", A, B);
+    assertEquals(Set.of(), affectedStops(previous, unchanged, true));
+
+    // The same pattern of the same route, visiting the stops in the opposite order
+    var reversed = addStops(graph, FIRST_BUILD);
+    addPattern(reversed, "P1", B, A);
+    assertEquals(Set.of("A", "B"), affectedStops(previous, reversed, true));
+    assertEquals(Set.of(), affectedStops(previous, reversed, false));
+  }
+
+  @Test
+  void transfersAreReusedOnlyForTheSameTransferRequests() {
+    var graph = streetGraph();
+    var transitModel = addStops(graph, FIRST_BUILD);
+    var previous = PreviousTransitBuild.extractAndRemoveTransit(
+      graph,
+      transitModel,
+      MAX_TRANSFER_DURATION,
+      TRANSFER_REQUESTS
+    );
+
+    var fastWalk = new RouteRequest();
+    fastWalk.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+
+    assertTrue(previous.sameTransferRequests(List.of(new RouteRequest())));
+    assertFalse(previous.sameTransferRequests(List.of(fastWalk)));
+    assertFalse(previous.sameTransferRequests(List.of(new RouteRequest(), fastWalk)));
+  }
+
+  private static void build(
+    Graph graph,
+    TransitModel transitModel,
+    @Nullable PreviousTransitBuild previous
+  ) {
+    var streetLinker = new StreetLinkerModule(
+      graph,
+      transitModel,
+      DataImportIssueStore.NOOP,
+      false
+    );
+    streetLinker.reuseLinksFrom(previous);
+    streetLinker.buildGraph();
+
+    var transferGenerator = new DirectTransferGenerator(
+      graph,
+      transitModel,
+      DataImportIssueStore.NOOP,
+      MAX_TRANSFER_DURATION,
+      TRANSFER_REQUESTS
+    );
+    transferGenerator.reuseTransfersFrom(previous);
+    transferGenerator.buildGraph();
+  }
+
+  private static Graph streetGraph() {
+    var graph = new Graph(new Deduplicator());
+    var v0 = new IntersectionVertex(graph, "V0", 19.000, 47.500);
+    var v1 = new IntersectionVertex(graph, "V1", 18.990, 47.500);
+    var v2 = new IntersectionVertex(graph, "V2", 19.010, 47.500);
+    var v3 = new IntersectionVertex(graph, "V3", 19.000, 47.520);
+    street(v1, v0);
+    street(v0, v2);
+    street(v0, v3);
+    graph.hasStreets = true;
+    return graph;
+  }
+
+  private static void street(StreetVertex from, StreetVertex to) {
+    var name = new NonLocalizedString(from.getLabel() + to.getLabel() + " street");
+    var permission = StreetTraversalPermission.PEDESTRIAN;
+    new StreetEdge(
+      from,
+      to,
+      GeometryUtils.makeLineString(from.getLon(), from.getLat(), to.getLon(), to.getLat()),
+      name,
+      permission,
+      false
+    );
+    new StreetEdge(
+      to,
+      from,
+      GeometryUtils.makeLineString(to.getLon(), to.getLat(), from.getLon(), from.getLat()),
+      name,
+      permission,
+      true
+    );
+  }
+
+  private static TransitModel addStops(Graph graph, List<TestStop> stops) {
+    var transitModel = new TransitModel(new StopModel(), new Deduplicator());
+    for (TestStop it : stops) {
+      var stop = TransitModelForTest.stop(it.id()).withCoordinate(it.lat(), it.lon()).build();
+      transitModel.mergeStopModels(StopModel.of().withRegularStop(stop).build());
+      new TransitStopVertexBuilder().withGraph(graph).withStop(stop).build();
+    }
+    return transitModel;
+  }
+
+  private static void addPattern(TransitModel transitModel, String id, TestStop... stops) {
+    var stopModel = transitModel.getStopModel();
+    var pattern = TransitModelForTest
+      .tripPattern(id, TransitModelForTest.route("R1").build())
+      .withStopPattern(
+        TransitModelForTest.stopPattern(
+          Arrays
+            .stream(stops)
+            .map(it -> stopModel.getRegularStop(TransitModelForTest.id(it.id())))
+            .toArray(RegularStop[]::new)
+        )
+      )
+      .build();
+    transitModel.addTripPattern(pattern.getId(), pattern);
+  }
+
+  private static Set<String> affectedStops(
+    PreviousTransitBuild previous,
+    TransitModel transitModel,
+    boolean comparePatterns
+  ) {
+    return previous
+      .findStopsAffectedByChanges(transitModel, 1.0, comparePatterns)
+      .stream()
+      .map(it -> it.getId().getId())
+      .collect(Collectors.toSet());
+  }
+
+  private static Set<Vertex> linkedStreetVertices(Graph graph, TestStop stop) {
+    return stopVertex(graph, stop)
+      .getOutgoing()
+      .stream()
+      .filter(StreetTransitStopLink.class::isInstance)
+      .map(e -> e.getToVertex())
+      .collect(Collectors.toSet());
+  }
+
+  private static TransitStopVertex stopVertex(Graph graph, TestStop stop) {
+    return graph
+      .getVerticesOfType(TransitStopVertex.class)
+      .stream()
+      .filter(v -> v.getStop().getId().getId().equals(stop.id()))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private static PathTransfer transferFrom(Collection<PathTransfer> transfers, TestStop stop) {
+    var transfersFromStop = transfers
+      .stream()
+      .filter(t -> t.from.getId().getId().equals(stop.id()))
+      .toList();
+    assertTrue(transfersFromStop.size() >= 1, "Stop has transfers: " + stop.id());
+    return transfersFromStop.get(0);
+  }
+
+  /** The locations of the street vertices that each stop is linked to. */
+  private static Map<String, Set<String>> linkedLocations(Graph graph) {
+    return graph
+      .getVerticesOfType(TransitStopVertex.class)
+      .stream()
+      .collect(
+        Collectors.toMap(
+          v -> v.getStop().getId().getId(),
+          v ->
+            v
+              .getOutgoing()
+              .stream()
+              .map(e -> location(e.getToVertex()))
+              .collect(Collectors.toSet())
+        )
+      );
+  }
+
+  private static Set<String> transfers(TransitModel transitModel) {
+    return transitModel
+      .getAllPathTransfers()
+      .stream()
+      .map(t ->
+        String.format(
+          Locale.ROOT,
+          "%s %s %.0fm",
+          t.from.getId().getId(),
+          t.to.getId().getId(),
+          t.getDistanceMeters()
+        )
+      )
+      .collect(Collectors.toSet());
+  }
+
+  private static List<String> streetVertices(Graph graph) {
+    return graph
+      .getVerticesOfType(StreetVertex.class)
+      .stream()
+      .map(PreviousTransitBuildTest::location)
+      .sorted()
+      .toList();
+  }
+
+  private static List<String> streetEdges(Graph graph) {
+    return graph
+      .getStreetEdges()
+      .stream()
+      .map(e ->
+        String.format(
+          Locale.ROOT,
+          "%s -> %s %.0fm",
+          location(e.getFromVertex()),
+          location(e.getToVertex()),
+          e.getDistanceMeters()
+        )
+      )
+      .sorted()
+      .toList();
+  }
+
+  private static String location(Vertex v) {
+    return String.format(Locale.ROOT, "(%.6f, %.6f)", v.getLat(), v.getLon());
+  }
+
+  private record TestStop(String id, double lat, double lon) {}
+}
@@ -0,0 +1,170 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.module.osm.OpenStreetMapModule;
+import org.opentripplanner.graph_builder.services.osm.CustomNamer;
+import org.opentripplanner.openstreetmap.OpenStreetMapProvider;
+import org.opentripplanner.openstreetmap.model.OSMWithTags;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+/**
+ * Check the islands found by {@link StreetConnectivity} on the island pruning test graphs, see
+ * {@link PruneNoThruIslandsTest} and {@link AdaptivePruningTest} for the result of pruning them.
+ * The street edges are named by the id of their OSM way.
+ */
+class PruneIslandsTest {
+
+  @Test
+  void adaptivePruningGraphHasTwoDisconnectedIslands() {
+    var graph = buildOsmGraph(ConstantsForTests.ADAPTIVE_PRUNE_OSM);
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var connectivity = StreetConnectivity.of(index, TraverseMode.WALK);
+    var islands = connectivity.subgraphs(connectivity.components(true));
+
+    var mainGraph = islandWithWay(islands, "73347312");
+    var distantIsland = islandWithWay(islands, "73386383");
+    var nearIsland = islandWithWay(islands, "37751757");
+
+    assertEquals(largest(islands), mainGraph);
+    assertNotEquals(mainGraph, distantIsland);
+    assertNotEquals(mainGraph, nearIsland);
+    assertNotEquals(distantIsland, nearIsland);
+  }
+
+  @Test
+  void floatingBikeAndWalkIslandIsNotPartOfTheMainGraph() {
+    var graph = buildOsmGraph(ConstantsForTests.ISLAND_PRUNE_OSM);
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+
+    for (TraverseMode mode : List.of(TraverseMode.WALK, TraverseMode.BICYCLE)) {
+      var connectivity = StreetConnectivity.of(index, mode);
+      var islands = connectivity.subgraphs(connectivity.components(true));
+
+      assertFalse(ways(largest(islands)).contains("159830257"), mode.name());
+    }
+  }
+
+  @Test
+  void noThruIslandsAreExpandedSeparatelyFromTheMainGraph() {
+    var graph = buildOsmGraph(ConstantsForTests.ISLAND_PRUNE_OSM);
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+
+    assertInSmallExpandedIsland(index, TraverseMode.CAR, "159830262", "55735911");
+    assertInSmallExpandedIsland(
+      index,
+      TraverseMode.BICYCLE,
+      "159830262",
+      "55735898",
+      "159830266",
+      "159830254"
+    );
+  }
+
+  private static void assertInSmallExpandedIsland(
+    StreetConnectivity.VertexIndex index,
+    TraverseMode mode,
+    String... wayIds
+  ) {
+    var connectivity = StreetConnectivity.of(index, mode);
+    var islands = expandedIslands(connectivity, index);
+    var mainGraph = largest(islands);
+
+    for (String wayId : wayIds) {
+      assertTrue(
+        islands.stream().anyMatch(it -> it != mainGraph && ways(it).contains(wayId)),
+        mode + " " + wayId
+      );
+    }
+  }
+
+  /** The islands expanded along no-through-traffic edges, in the same way as PruneIslands. */
+  private static List<Subgraph> expandedIslands(
+    StreetConnectivity connectivity,
+    StreetConnectivity.VertexIndex index
+  ) {
+    List<Subgraph> islands = new ArrayList<>();
+    int[] mapped = new int[index.size()];
+    Arrays.fill(mapped, -1);
+    connectivity.expandSubgraphs(connectivity.anchors(), mapped, islands);
+    connectivity.expandSubgraphs(null, mapped, islands);
+    return islands;
+  }
+
+  private static Subgraph largest(List<Subgraph> islands) {
+    return islands.stream().max(Comparator.comparingInt(Subgraph::streetSize)).orElseThrow();
+  }
+
+  private static Subgraph islandWithWay(List<Subgraph> islands, String wayId) {
+    return islands.stream().filter(it -> ways(it).contains(wayId)).findFirst().orElseThrow();
+  }
+
+  /** The OSM way ids of the street edges leaving the street vertices of an island. */
+  private static Set<String> ways(Subgraph island) {
+    Set<String> ways = new HashSet<>();
+    island
+      .streetIterator()
+      .forEachRemaining(v -> {
+        for (Edge e : v.getOutgoing()) {
+          if (e instanceof StreetEdge se) {
+            ways.add(se.getName().toString());
+          }
+        }
+      });
+    return ways;
+  }
+
+  private static Graph buildOsmGraph(String osmPath) {
+    var deduplicator = new Deduplicator();
+    var graph = new Graph(deduplicator);
+    var transitModel = new TransitModel(new StopModel(), deduplicator);
+    var osmProvider = new OpenStreetMapProvider(new File(osmPath), true);
+    var osmModule = new OpenStreetMapModule(
+      List.of(osmProvider),
+      Set.of(),
+      graph,
+      DataImportIssueStore.NOOP,
+      false
+    );
+    osmModule.customNamer =
+      new CustomNamer() {
+        @Override
+        public String name(OSMWithTags way, String defaultName) {
+          return String.valueOf(way.getId());
+        }
+
+        @Override
+        public void nameWithEdge(OSMWithTags way, StreetEdge edge) {}
+
+        @Override
+        public void postprocess(Graph graph) {}
+
+        @Override
+        public void configure() {}
+      };
+    osmModule.buildGraph();
+
+    transitModel.index();
+    graph.index(transitModel.getStopModel());
+    return graph;
+  }
+}
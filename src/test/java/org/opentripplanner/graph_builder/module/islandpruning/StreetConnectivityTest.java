@@ -0,0 +1,200 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class StreetConnectivityTest extends GraphRoutingTest {
+
+  private static final StreetTraversalPermission ALL = StreetTraversalPermission.ALL;
+
+  private Graph graph;
+  private StreetVertex A, B, C, D, E, F, G, X, Y;
+  private TransitStopVertex S;
+
+  /**
+   * <pre>
+   *   G - A - B = C - D     E - F
+   * </pre>
+   * B = C has no through traffic for cars and G - A is only for pedestrians. The stop S is linked
+   * to B.
+   */
+  private void buildNoThruGraph() {
+    graph =
+      modelOf(
+        new Builder() {
+          @Override
+          public void build() {
+            A = intersection("A", 47.500, 19.000);
+            B = intersection("B", 47.500, 19.001);
+            C = intersection("C", 47.500, 19.002);
+            D = intersection("D", 47.500, 19.003);
+            E = intersection("E", 47.500, 19.010);
+            F = intersection("F", 47.500, 19.011);
+            G = intersection("G", 47.500, 18.999);
+            S = stop("S", 47.501, 19.001);
+
+            street(A, B, 100, ALL, ALL);
+            street(B, C, 100, ALL, ALL).forEach(e -> e.setMotorVehicleNoThruTraffic(true));
+            street(C, D, 100, ALL, ALL);
+            street(E, F, 100, ALL, ALL);
+            street(G, A, 100, StreetTraversalPermission.PEDESTRIAN);
+            biLink(B, S);
+          }
+        }
+      )
+        .graph();
+  }
+
+  /**
+   * <pre>
+   *   A - B   C - D     E = F
+   *       |\ /
+   *       X Y
+   * </pre>
+   * B = X, B = Y, Y = C and E = F have no through traffic for cars, and X is a dead end.
+   */
+  private void buildExpansionGraph() {
+    graph =
+      modelOf(
+        new Builder() {
+          @Override
+          public void build() {
+            A = intersection("A", 47.500, 19.000);
+            B = intersection("B", 47.500, 19.001);
+            C = intersection("C", 47.500, 19.003);
+            D = intersection("D", 47.500, 19.004);
+            E = intersection("E", 47.500, 19.010);
+            F = intersection("F", 47.500, 19.011);
+            X = intersection("X", 47.499, 19.001);
+            Y = intersection("Y", 47.499, 19.002);
+
+            street(A, B, 100, ALL, ALL);
+            street(C, D, 100, ALL, ALL);
+            noThru(street(B, X, 100, ALL, ALL));
+            noThru(street(B, Y, 100, ALL, ALL));
+            noThru(street(Y, C, 100, ALL, ALL));
+            noThru(street(E, F, 100, ALL, ALL));
+          }
+
+          private void noThru(List<StreetEdge> edges) {
+            edges.forEach(e -> e.setMotorVehicleNoThruTraffic(true));
+          }
+        }
+      )
+        .graph();
+  }
+
+  @Test
+  void componentsWithNoThruTraffic() {
+    buildNoThruGraph();
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var car = StreetConnectivity.of(index, TraverseMode.CAR);
+
+    int[] labels = car.components(true);
+    assertEquals(label(index, labels, A), label(index, labels, B));
+    assertEquals(label(index, labels, A), label(index, labels, D));
+    assertEquals(label(index, labels, E), label(index, labels, F));
+    assertNotEquals(label(index, labels, A), label(index, labels, E));
+
+    // G can not be reached by car
+    assertEquals(-1, label(index, labels, G));
+
+    int[] anchors = car.components(false);
+    assertEquals(label(index, anchors, A), label(index, anchors, B));
+    assertEquals(label(index, anchors, C), label(index, anchors, D));
+    assertNotEquals(label(index, anchors, B), label(index, anchors, C));
+  }
+
+  @Test
+  void noThruTrafficOnlyAppliesToItsMode() {
+    buildNoThruGraph();
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var walk = StreetConnectivity.of(index, TraverseMode.WALK);
+
+    int[] anchors = walk.components(false);
+    assertEquals(label(index, anchors, G), label(index, anchors, D));
+    assertEquals(label(index, anchors, G), label(index, anchors, S));
+  }
+
+  @Test
+  void anchorsOnlyLabelStreetVertices() {
+    buildNoThruGraph();
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var walk = StreetConnectivity.of(index, TraverseMode.WALK);
+
+    int[] anchors = walk.anchors();
+    assertEquals(-1, label(index, anchors, S));
+    assertTrue(label(index, anchors, B) >= 0);
+  }
+
+  @Test
+  void subgraphsContainTheStopsOfTheirStreets() {
+    buildNoThruGraph();
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var walk = StreetConnectivity.of(index, TraverseMode.WALK);
+
+    List<Subgraph> subgraphs = walk.subgraphs(walk.components(true));
+    assertEquals(2, subgraphs.size());
+
+    Subgraph main = subgraphs.stream().filter(it -> it.contains(A)).findFirst().orElseThrow();
+    assertEquals(5, main.streetSize());
+    assertEquals(1, main.stopSize());
+    assertTrue(main.contains(S));
+  }
+
+  @Test
+  void expandIslandsWithoutEnteringAnotherIsland() {
+    buildExpansionGraph();
+    var index = new StreetConnectivity.VertexIndex(graph.getVertices());
+    var car = StreetConnectivity.of(index, TraverseMode.CAR);
+
+    int[] anchors = car.anchors();
+    assertEquals(-1, label(index, anchors, X));
+    assertEquals(-1, label(index, anchors, Y));
+    assertEquals(-1, label(index, anchors, E));
+
+    List<Subgraph> islands = new ArrayList<>();
+    int[] mapped = new int[index.size()];
+    Arrays.fill(mapped, -1);
+
+    assertEquals(2, car.expandSubgraphs(anchors, mapped, islands));
+    Subgraph ab = islands.stream().filter(it -> it.contains(A)).findFirst().orElseThrow();
+    Subgraph cd = islands.stream().filter(it -> it.contains(C)).findFirst().orElseThrow();
+    assertNotEquals(ab, cd);
+
+    // The dead end is only reachable from one island
+    assertTrue(ab.contains(X));
+    // Y is reachable from both, but belongs to the island that is expanded first
+    assertTrue(ab.contains(Y) != cd.contains(Y));
+    assertFalse(ab.contains(C));
+    assertFalse(cd.contains(B));
+
+    // Then the islands which only have no through traffic edges
+    assertEquals(1, car.expandSubgraphs(null, mapped, islands));
+    assertEquals(3, islands.size());
+    Subgraph ef = islands.get(2);
+    assertTrue(ef.contains(E));
+    assertTrue(ef.contains(F));
+
+    assertEquals(8, islands.stream().mapToInt(Subgraph::streetSize).sum());
+  }
+
+  private static int label(StreetConnectivity.VertexIndex index, int[] labels, Vertex v) {
+    return labels[index.indexOf(v)];
+  }
+}
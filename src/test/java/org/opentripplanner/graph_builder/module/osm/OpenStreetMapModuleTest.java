@@ -165,6 +165,25 @@ public class OpenStreetMapModuleTest {
     }
   }
 
+  @Test
+  public void testMultiThreadedBuildGivesSameGraph() {
+    Graph singleThreaded = buildNycSmall(false);
+    Graph multiThreaded = buildNycSmall(true);
+
+    assertEquals(singleThreaded.countVertices(), multiThreaded.countVertices());
+    assertEquals(singleThreaded.countEdges(), multiThreaded.countEdges());
+
+    Set<String> edgeLabels = new HashSet<>();
+    for (StreetEdge se : singleThreaded.getStreetEdges()) {
+      edgeLabels.add(se.getFromVertex().getLabel() + "->" + se.getToVertex().getLabel());
+    }
+    for (StreetEdge se : multiThreaded.getStreetEdges()) {
+      assertTrue(
+        edgeLabels.contains(se.getFromVertex().getLabel() + "->" + se.getToVertex().getLabel())
+      );
+    }
+  }
+
   @Test
   public void testBuildAreaWithoutVisibility() {
     testBuildingAreas(true);
@@ -390,5 +409,25 @@ public class OpenStreetMapModuleTest {
     }
   }
 
+  private Graph buildNycSmall(boolean multiThreaded) {
+    var graph = new Graph(new Deduplicator());
+    File file = new File(
+      URLDecoder.decode(
+        getClass().getResource("NYC_small.osm.pbf").getFile(),
+        StandardCharsets.UTF_8
+      )
+    );
+    OpenStreetMapModule osmModule = new OpenStreetMapModule(
+      List.of(new OpenStreetMapProvider(file, true)),
+      Set.of(),
+      graph,
+      DataImportIssueStore.NOOP,
+      true
+    );
+    osmModule.multiThreaded = multiThreaded;
+    osmModule.buildGraph();
+    return graph;
+  }
+
   private record VertexPair(Vertex v0, Vertex v1) {}
 }
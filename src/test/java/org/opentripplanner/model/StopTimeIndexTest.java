@@ -0,0 +1,108 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class StopTimeIndexTest {
+
+  private static final int NUMBER_OF_STOPS = 2;
+
+  // The trips are not in the order of their times, as after a realtime update
+  private final List<TripTimes> tripTimes = List.of(
+    tripTimes("A", 300, 400),
+    tripTimes("B", 100, 500),
+    tripTimes("C", 200, 250)
+  );
+
+  private final StopTimeIndex subject = new StopTimeIndex(tripTimes, NUMBER_OF_STOPS);
+
+  @Test
+  void sortTripsByTimeAtEachStop() {
+    assertEquals(3, subject.size(0));
+    assertEquals(List.of(1, 2, 0), departureTripIndexes(0));
+    assertEquals(List.of(2, 0, 1), departureTripIndexes(1));
+    assertEquals(List.of(2, 0, 1), arrivalTripIndexes(1));
+    assertEquals(250, subject.arrivalTime(1, 0));
+  }
+
+  @Test
+  void findFirstDepartureAtOrAfterTime() {
+    assertEquals(0, subject.firstDeparture(0, 0));
+    assertEquals(1, subject.firstDeparture(0, 200));
+    assertEquals(2, subject.firstDeparture(0, 201));
+    assertEquals(3, subject.firstDeparture(0, 301));
+    assertEquals(1, subject.firstArrival(1, 251));
+  }
+
+  @Test
+  void shareTheOrderOfStopsWhereNoTripOvertakes() {
+    var index = new StopTimeIndex(
+      List.of(tripTimes("A", 100, 200, 300), tripTimes("B", 150, 250, 350)),
+      3
+    );
+    assertEquals(1, index.numberOfDistinctOrders());
+    assertEquals(350, index.departureTime(2, 1));
+    assertEquals("B", index.departureTripTimes(2, 1).getTrip().getId().getId());
+
+    // The order of the trips changes between the first and the second stop
+    assertEquals(2, subject.numberOfDistinctOrders());
+  }
+
+  @Test
+  void dropIndexWhenTimetableChanges() {
+    var pattern = TripPattern
+      .of(TransitModelForTest.id("P"))
+      .withRoute(TransitModelForTest.route("R").build())
+      .withStopPattern(TransitModelForTest.stopPattern(NUMBER_OF_STOPS))
+      .build();
+    var timetable = new Timetable(pattern);
+    timetable.addTripTimes(tripTimes("A", 300, 400));
+    var index = timetable.getStopTimeIndex();
+
+    timetable.addTripTimes(tripTimes("B", 100, 500));
+
+    assertEquals(1, index.size(0));
+    assertEquals(2, timetable.getStopTimeIndex().size(0));
+    assertEquals(1, timetable.getStopTimeIndex().departureTripIndex(0, 0));
+  }
+
+  private List<Integer> departureTripIndexes(int stopPos) {
+    List<Integer> result = new ArrayList<>();
+    for (int i = 0; i < subject.size(stopPos); i++) {
+      result.add(subject.departureTripIndex(stopPos, i));
+    }
+    return result;
+  }
+
+  private List<Integer> arrivalTripIndexes(int stopPos) {
+    List<Integer> result = new ArrayList<>();
+    for (int i = 0; i < subject.size(stopPos); i++) {
+      result.add(subject.arrivalTripIndex(stopPos, i));
+    }
+    return result;
+  }
+
+  private static TripTimes tripTimes(String tripId, int... times) {
+    List<StopTime> stopTimes = new ArrayList<>();
+    for (int i = 0; i < times.length; i++) {
+      var stopTime = new StopTime();
+      stopTime.setStop(TransitModelForTest.stopForTest("S" + i, 0.0, 0.0));
+      stopTime.setArrivalTime(times[i]);
+      stopTime.setDepartureTime(times[i]);
+      stopTime.setStopSequence(i);
+      stopTimes.add(stopTime);
+    }
+    return new TripTimes(
+      TransitModelForTest.trip(tripId).build(),
+      stopTimes,
+      new Deduplicator()
+    );
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
@@ -260,6 +261,88 @@ public class TimetableSnapshotTest {
     assertFalse(resolver.isDirty());
   }
 
+  @Test
+  public void testPurgeOnlyExpiredServiceDates() {
+    LocalDate today = LocalDate.now(timeZone);
+    LocalDate yesterday = today.minusDays(1);
+    LocalDate tomorrow = today.plusDays(1);
+    TripPattern pattern = patternIndex.get(new FeedScopedId(feedId, "1.1"));
+
+    TripUpdate tripUpdate = TripUpdate
+      .newBuilder()
+      .setTrip(
+        TripDescriptor
+          .newBuilder()
+          .setTripId("1.1")
+          .setScheduleRelationship(ScheduleRelationship.SCHEDULED)
+      )
+      .addStopTimeUpdate(
+        TripUpdate.StopTimeUpdate
+          .newBuilder()
+          .setStopSequence(2)
+          .setScheduleRelationship(TripUpdate.StopTimeUpdate.ScheduleRelationship.SCHEDULED)
+          .setDeparture(TripUpdate.StopTimeEvent.newBuilder().setDelay(15))
+      )
+      .build();
+
+    TimetableSnapshot resolver = new TimetableSnapshot();
+    updateResolver(resolver, pattern, tripUpdate, yesterday);
+    updateResolver(resolver, pattern, tripUpdate, today);
+    updateResolver(resolver, pattern, tripUpdate, tomorrow);
+    resolver.commit();
+
+    assertFalse(resolver.purgeExpiredData(yesterday.minusDays(1)));
+    assertTrue(resolver.purgeExpiredData(today));
+
+    assertSame(pattern.getScheduledTimetable(), resolver.resolve(pattern, yesterday));
+    assertSame(pattern.getScheduledTimetable(), resolver.resolve(pattern, today));
+    assertNotSame(pattern.getScheduledTimetable(), resolver.resolve(pattern, tomorrow));
+
+    // The index still points to the pattern after the data is cleared
+    resolver.clear(feedId);
+    assertFalse(resolver.purgeExpiredData(tomorrow));
+  }
+
+  @Test
+  public void removeTripTimesWithoutChangingTheCommittedSnapshot() {
+    LocalDate today = LocalDate.now(timeZone);
+    FeedScopedId tripId = new FeedScopedId(feedId, "1.1");
+    TripPattern pattern = patternIndex.get(tripId);
+
+    TripUpdate tripUpdate = TripUpdate
+      .newBuilder()
+      .setTrip(
+        TripDescriptor
+          .newBuilder()
+          .setTripId("1.1")
+          .setScheduleRelationship(ScheduleRelationship.SCHEDULED)
+      )
+      .addStopTimeUpdate(
+        TripUpdate.StopTimeUpdate
+          .newBuilder()
+          .setStopSequence(2)
+          .setScheduleRelationship(TripUpdate.StopTimeUpdate.ScheduleRelationship.SCHEDULED)
+          .setDeparture(TripUpdate.StopTimeEvent.newBuilder().setDelay(15))
+      )
+      .build();
+
+    TimetableSnapshot resolver = new TimetableSnapshot();
+    updateResolver(resolver, pattern, tripUpdate, today);
+    TimetableSnapshot snapshot = resolver.commit();
+    Timetable committed = snapshot.resolve(pattern, today);
+    int numberOfTrips = committed.getTripTimes().size();
+    StopTimeIndex index = committed.getStopTimeIndex();
+
+    resolver.removeRealtimeUpdatedTripTimes(pattern, tripId, today);
+
+    assertTrue(resolver.isDirty());
+    assertEquals(numberOfTrips - 1, resolver.resolve(pattern, today).getTripTimes().size());
+    assertSame(committed, snapshot.resolve(pattern, today));
+    assertEquals(numberOfTrips, committed.getTripTimes().size());
+    assertSame(index, committed.getStopTimeIndex());
+    assertEquals(numberOfTrips, index.size(0));
+  }
+
   private Result<?, UpdateError> updateResolver(
     TimetableSnapshot resolver,
     TripPattern pattern,
@@ -0,0 +1,64 @@
+package org.opentripplanner.model.plan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.search.TraverseMode;
+
+class StreetLegTest {
+
+  private static final ZonedDateTime START_TIME = ZonedDateTime.parse("2022-11-01T10:00:00Z");
+
+  private final AtomicInteger geometryCalls = new AtomicInteger();
+  private final AtomicInteger walkStepsCalls = new AtomicInteger();
+
+  private final StreetLeg subject = new StreetLegBuilder()
+    .withMode(TraverseMode.WALK)
+    .withStartTime(START_TIME)
+    .withEndTime(START_TIME.plusMinutes(5))
+    .withLazyGeometry(() -> {
+      geometryCalls.incrementAndGet();
+      return null;
+    })
+    .withLazyWalkSteps(() -> {
+      walkStepsCalls.incrementAndGet();
+      return List.of();
+    })
+    .build();
+
+  @Test
+  void geometryAndWalkStepsAreComputedWhenUsed() {
+    assertEquals(0, geometryCalls.get());
+    assertEquals(0, walkStepsCalls.get());
+
+    subject.getWalkSteps();
+    subject.getWalkSteps();
+
+    assertEquals(0, geometryCalls.get());
+    assertEquals(1, walkStepsCalls.get());
+
+    subject.getLegGeometry();
+
+    assertEquals(1, geometryCalls.get());
+  }
+
+  @Test
+  void computeGeometryAndWalkSteps() {
+    subject.computeGeometryAndWalkSteps();
+
+    assertEquals(1, geometryCalls.get());
+    assertEquals(1, walkStepsCalls.get());
+
+    // Neither using nor copying the leg computes them again
+    subject.computeGeometryAndWalkSteps();
+    var copy = StreetLegBuilder.of(subject).withRentedVehicle(true).build();
+    copy.getLegGeometry();
+    copy.getWalkSteps();
+
+    assertEquals(1, geometryCalls.get());
+    assertEquals(1, walkStepsCalls.get());
+  }
+}
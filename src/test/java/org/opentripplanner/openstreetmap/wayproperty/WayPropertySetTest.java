@@ -1,6 +1,8 @@
 package org.opentripplanner.openstreetmap.wayproperty;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.openstreetmap.wayproperty.MixinPropertiesBuilder.ofBicycleSafety;
 import static org.opentripplanner.openstreetmap.wayproperty.WayPropertiesBuilder.withModes;
 import static org.opentripplanner.street.model.StreetTraversalPermission.CAR;
@@ -37,6 +39,37 @@ class WayPropertySetTest {
     assertEquals(expected, wps.getDataForWay(cycleway).getBicycleSafetyFeatures());
   }
 
+  @Test
+  void cachedByCanonicalTagSet() {
+    WayPropertySet wps = wps();
+
+    var way1 = new OSMWithTags();
+    way1.addTag("highway", "primary");
+    way1.addTag("cycleway", "lane");
+    var way2 = new OSMWithTags();
+    way2.addTag("cycleway", "lane");
+    way2.addTag("highway", "primary");
+
+    var props = wps.getDataForWay(way1);
+    assertSame(props, wps.getDataForWay(way2));
+    assertEquals(wps.getCarSpeedForWay(way1, false), wps.getCarSpeedForWay(way2, false));
+
+    way2.addTag("tunnel", "yes");
+    assertNotSame(props, wps.getDataForWay(way2));
+  }
+
+  @Test
+  void cacheIsClearedWhenModified() {
+    WayPropertySet wps = wps();
+    var way = new OSMWithTags();
+    way.addTag("highway", "primary");
+
+    assertEquals(CAR, wps.getDataForWay(way).getPermission());
+
+    wps.setProperties(new ExactMatchSpecifier("highway=primary"), withModes(NONE));
+    assertEquals(NONE, wps.getDataForWay(way).getPermission());
+  }
+
   @Nonnull
   private static WayPropertySet wps() {
     var wps = new WayPropertySet();
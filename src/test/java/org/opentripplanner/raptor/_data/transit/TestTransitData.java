@@ -340,6 +340,12 @@ public class TestTransitData
           toStopPosition
         );
       }
+
+      @Override
+      protected Object tripKey(TestTripSchedule trip) {
+        // The test schedules are not copied when boarded
+        return trip;
+      }
     };
   }
 
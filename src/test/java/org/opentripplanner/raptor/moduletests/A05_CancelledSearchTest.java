@@ -0,0 +1,75 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.opentripplanner.framework.application.CancellationToken;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.RaptorModuleTestConfig;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should stop the search with a {@link CancellationException} if the cancellation token of
+ * the request is cancelled, for example because the client is gone.
+ */
+public class A05_CancelledSearchTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  /**
+   * The same data as in {@link A01_SingleRouteTest}.
+   */
+  @BeforeEach
+  void setup() {
+    data.withRoute(
+      route(pattern("R1", STOP_B, STOP_C, STOP_D)).withTimetable(schedule("00:01, 00:03, 00:05"))
+    );
+    requestBuilder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_B, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D20s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_10)
+      .timetable(true);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @ParameterizedTest
+  @EnumSource(RaptorModuleTestConfig.class)
+  void searchIsNotCancelled(RaptorModuleTestConfig config) {
+    requestBuilder.cancellationToken(CancellationToken.create());
+    var request = config.apply(requestBuilder).build();
+
+    assertFalse(raptorService.route(request, data).paths().isEmpty());
+  }
+
+  @ParameterizedTest
+  @EnumSource(RaptorModuleTestConfig.class)
+  void cancelledSearch(RaptorModuleTestConfig config) {
+    var cancellationToken = CancellationToken.create();
+    cancellationToken.cancel();
+    requestBuilder.cancellationToken(cancellationToken);
+    var request = config.apply(requestBuilder).build();
+
+    assertThrows(CancellationException.class, () -> raptorService.route(request, data));
+  }
+}
@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.opentripplanner.model.plan.Itinerary.toStr;
 import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.PlanTestConstants;
@@ -101,4 +103,52 @@ public class TransitGeneralizedCostFilterTest implements PlanTestConstants {
       toStr(DeletionFlaggerTestHelper.process(all, subject))
     );
   }
+
+  @Test
+  public void filterWithWaitCostWhenTheCheapestItineraryIsFarAway() {
+    // Create a filter with f(x) = 0 + 2x and a penalty of 0.5 at the beginning and end.
+    final TransitGeneralizedCostFilter subject = new TransitGeneralizedCostFilter(
+      new TransitGeneralizedCostFilterParams(RequestFunctions.createLinearFunction(0, 2.0), 0.5)
+    );
+
+    // Optimal bus ride. Cost: 120 + 3 * 60 = 300  => Limit: 600 + half of waiting time
+    Itinerary i1 = newItinerary(A).bus(21, T11_00, T11_03, E).build();
+
+    // Within cost limit. Cost: 120 + 4 * 60 = 360, limit 600 + 0 -> Ok
+    Itinerary i2 = newItinerary(A).bus(31, T11_28, T11_32, E).build();
+
+    // Cost: 120 + 20 * 60 = 1320
+    // Limit of i1: 600 + 0.5 * 30 * 60 = 1500 -> Ok
+    // Limit of i2: 720 + 0.5 * 2 * 60 = 780 -> Filtered
+    Itinerary i3 = newItinerary(A).bus(41, T11_30, T11_50, E).build();
+
+    var all = List.of(i3, i2, i1);
+
+    // Expect - i3 to be dropped
+    assertEquals(toStr(List.of(i2, i1)), toStr(DeletionFlaggerTestHelper.process(all, subject)));
+  }
+
+  @Test
+  public void computeTheCostLimitOfEachItineraryOnce() {
+    // Comparing all pairs computed the limit once per pair, 200 * 200 = 40 000 times for this case
+    var nCalculations = new AtomicInteger();
+    final TransitGeneralizedCostFilter subject = new TransitGeneralizedCostFilter(
+      new TransitGeneralizedCostFilterParams(
+        x -> {
+          nCalculations.incrementAndGet();
+          return 600 + 2.0 * x;
+        },
+        0.5
+      )
+    );
+
+    // 200 bus rides of 3 minutes, one every minute. None of them is filtered.
+    var all = new ArrayList<Itinerary>();
+    for (int i = 0; i < 200; i++) {
+      all.add(newItinerary(A).bus(i, T11_00 + i * 60, T11_03 + i * 60, E).build());
+    }
+
+    assertEquals(List.of(), subject.flagForRemoval(all));
+    assertEquals(200, nCalculations.get());
+  }
 }
@@ -0,0 +1,128 @@
+package org.opentripplanner.routing.algorithm.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.RelativeDirection;
+import org.opentripplanner.model.plan.StreetLeg;
+import org.opentripplanner.model.plan.WalkStep;
+import org.opentripplanner.routing.algorithm.GraphRoutingTest;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.services.notes.StreetNotesService;
+import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+
+class GraphPathToItineraryMapperTest extends GraphRoutingTest {
+
+  private StreetVertex A, B, C, D;
+  private VehicleRentalPlaceVertex B1, B2;
+
+  @BeforeEach
+  public void setUp() {
+    //   A <-> B <-> C <-> D
+    //         |     |
+    //         B1    B2
+    //
+    // The street turns at B and at C, where the legs change
+
+    modelOf(
+      new Builder() {
+        @Override
+        public void build() {
+          A = intersection("A", 47.500, 19.000);
+          B = intersection("B", 47.510, 19.000);
+          C = intersection("C", 47.510, 19.010);
+          D = intersection("D", 47.500, 19.010);
+
+          B1 = vehicleRentalStation("B1", 47.510, 19.000);
+          B2 = vehicleRentalStation("B2", 47.510, 19.010);
+
+          biLink(B, B1);
+          biLink(C, B2);
+
+          street(A, B, 1000, StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE);
+          street(B, C, 1000, StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE);
+          street(C, D, 1000, StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE);
+        }
+      }
+    );
+  }
+
+  @Test
+  void turnDirectionsAcrossLegs() {
+    var legs = mapRentalPath().getLegs();
+    assertEquals(3, legs.size());
+
+    var walkSteps = legs.stream().map(leg -> ((StreetLeg) leg).getWalkSteps()).toList();
+
+    assertEquals(RelativeDirection.DEPART, walkSteps.get(0).get(0).getRelativeDirection());
+    assertTurnFromPreviousLeg(walkSteps.get(0), walkSteps.get(1));
+    assertTurnFromPreviousLeg(walkSteps.get(1), walkSteps.get(2));
+  }
+
+  @Test
+  void turnDirectionsDoNotDependOnTheOrderTheWalkStepsAreComputed() {
+    var expected = mapRentalPath()
+      .getLegs()
+      .stream()
+      .map(leg -> directions((StreetLeg) leg))
+      .toList();
+
+    // The last leg computes the walk steps of the legs before it through the previous step
+    var legs = mapRentalPath().getLegs();
+    var lastLeg = directions((StreetLeg) legs.get(2));
+
+    assertEquals(expected.get(2), lastLeg);
+    assertEquals(expected.get(1), directions((StreetLeg) legs.get(1)));
+    assertEquals(expected.get(0), directions((StreetLeg) legs.get(0)));
+  }
+
+  private static void assertTurnFromPreviousLeg(List<WalkStep> previous, List<WalkStep> steps) {
+    var previousStep = previous.get(previous.size() - 1);
+    var firstStep = steps.get(0);
+
+    assertNotEquals(RelativeDirection.DEPART, firstStep.getRelativeDirection());
+    assertEquals(
+      RelativeDirection.calculate(previousStep.getAngle(), firstStep.getAngle(), false),
+      firstStep.getRelativeDirection()
+    );
+  }
+
+  private static List<RelativeDirection> directions(StreetLeg leg) {
+    return leg.getWalkSteps().stream().map(WalkStep::getRelativeDirection).toList();
+  }
+
+  private Itinerary mapRentalPath() {
+    var request = new RouteRequest();
+    request.withPreferences(preferences ->
+      preferences.withRental(rental -> rental.withPickupTime(42).withDropoffTime(15))
+    );
+
+    GraphPath<State, Edge, Vertex> path = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setRequest(request)
+      .setStreetRequest(new StreetRequest(StreetMode.BIKE_RENTAL))
+      .setFrom(A)
+      .setTo(D)
+      .getShortestPathTree()
+      .getPath(D);
+
+    return new GraphPathToItineraryMapper(ZoneIds.UTC, new StreetNotesService(), 0)
+      .generateItinerary(path);
+  }
+}
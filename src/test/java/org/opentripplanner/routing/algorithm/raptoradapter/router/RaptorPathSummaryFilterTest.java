@@ -0,0 +1,72 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.framework.time.TimeUtils.time;
+import static org.opentripplanner.raptor._data.stoparrival.BasicPathTestCase.COST_CALCULATOR;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.TestPathBuilder;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.routing.algorithm.filterchain.api.TransitGeneralizedCostFilterParams;
+import org.opentripplanner.routing.api.request.framework.RequestFunctions;
+
+class RaptorPathSummaryFilterTest implements RaptorTestConstants {
+
+  // Remove paths with a cost higher than twice the cost of another path
+  private static final TransitGeneralizedCostFilterParams COST_FILTER = new TransitGeneralizedCostFilterParams(
+    RequestFunctions.createLinearFunction(0, 2.0),
+    0.0
+  );
+
+  private final RaptorPath<TestTripSchedule> fast = path("10:00", D10m);
+  private final RaptorPath<TestTripSchedule> slow = path("10:00", 3 * D20m);
+  private final RaptorPath<TestTripSchedule> late = path("11:00", D10m);
+
+  @Test
+  void keepAllPathsIfNoFilterIsSet() {
+    var subject = new RaptorPathSummaryFilter<TestTripSchedule>(null, TransitRouter.NOT_SET);
+
+    assertEquals(List.of(fast, slow, late), subject.filter(List.of(fast, slow, late)));
+  }
+
+  @Test
+  void filterOnGeneralizedCost() {
+    var subject = new RaptorPathSummaryFilter<TestTripSchedule>(COST_FILTER, TransitRouter.NOT_SET);
+
+    assertEquals(List.of(fast, late), subject.filter(List.of(fast, slow, late)));
+  }
+
+  @Test
+  void filterOnLatestDepartureTime() {
+    var subject = new RaptorPathSummaryFilter<TestTripSchedule>(null, time("10:30"));
+
+    assertEquals(List.of(fast, slow), subject.filter(List.of(fast, slow, late)));
+  }
+
+  @Test
+  void keepAllPathsIfAllDepartAfterTheLatestDepartureTime() {
+    var subject = new RaptorPathSummaryFilter<TestTripSchedule>(null, time("09:30"));
+
+    assertEquals(List.of(fast, late), subject.filter(List.of(fast, late)));
+  }
+
+  @Test
+  void filterOnGeneralizedCostBeforeLatestDepartureTime() {
+    var subject = new RaptorPathSummaryFilter<TestTripSchedule>(COST_FILTER, time("10:30"));
+
+    // The late path removes the slow path, as in the filter chain, and is then kept for the
+    // filter chain to report that no path departs in the search window
+    assertEquals(List.of(late), subject.filter(List.of(slow, late)));
+  }
+
+  private static RaptorPath<TestTripSchedule> path(String departureTime, int duration) {
+    int departure = time(departureTime);
+    return new TestPathBuilder(COST_CALCULATOR)
+      .access(departure - D2m, STOP_A, D1m)
+      .bus("L1", departure, duration, STOP_B)
+      .egress(D1m);
+  }
+}
@@ -0,0 +1,111 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopTime;
+
+import gnu.trove.set.hash.TIntHashSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripPatternForDateMapperTest {
+
+  private static final LocalDate DATE = LocalDate.of(2022, 11, 1);
+  private static final int SERVICE_CODE = 1;
+
+  private final TripTimes t08_00 = tripTimes("T1", "08:00");
+  private final TripTimes t09_00 = tripTimes("T2", "09:00");
+  private final TripTimes t10_00 = tripTimes("T3", "10:00");
+
+  private final TripPattern pattern = TripPattern
+    .of(TransitModelForTest.id("P1"))
+    .withRoute(TransitModelForTest.route("R1").build())
+    .withStopPattern(
+      new StopPattern(
+        List.of(
+          stopTime(t08_00.getTrip(), 0, TimeUtils.time("08:00")),
+          stopTime(t08_00.getTrip(), 1, TimeUtils.time("08:10"))
+        )
+      )
+    )
+    .build();
+
+  private final TripPatternForDateMapper subject = new TripPatternForDateMapper(
+    Map.of(DATE, new TIntHashSet(new int[] { SERVICE_CODE }))
+  );
+
+  private final TripPatternForDate previous = subject.map(timetable(t08_00, t09_00, t10_00), DATE);
+
+  @Test
+  void unchangedTimetableReturnsPrevious() {
+    assertSame(previous, subject.map(timetable(t10_00, t08_00, t09_00), DATE, previous));
+  }
+
+  @Test
+  void reuseUnchangedTripTimes() {
+    var delayed = new TripTimes(t09_00);
+    delayed.updateDepartureDelay(0, 7200);
+    delayed.updateArrivalDelay(1, 7200);
+    delayed.updateDepartureDelay(1, 7200);
+
+    var result = subject.map(timetable(t08_00, delayed, t10_00), DATE, previous);
+
+    assertEquals(List.of(t08_00, t10_00, delayed), result.tripTimes());
+    assertSame(t08_00, result.getTripTimes(0));
+    assertSame(t10_00, result.getTripTimes(1));
+  }
+
+  @Test
+  void removeDeletedTrips() {
+    var deleted = new TripTimes(t10_00);
+    deleted.deleteTrip();
+
+    var result = subject.map(timetable(t08_00, t09_00, deleted), DATE, previous);
+
+    assertEquals(List.of(t08_00, t09_00), result.tripTimes());
+  }
+
+  @Test
+  void noTripsRunning() {
+    assertNull(subject.map(timetable(), DATE, previous));
+  }
+
+  @Test
+  void mapWithoutPrevious() {
+    var result = subject.map(timetable(t10_00, t08_00), DATE, null);
+
+    assertEquals(List.of(t08_00, t10_00), result.tripTimes());
+  }
+
+  private Timetable timetable(TripTimes... tripTimes) {
+    var timetable = new Timetable(pattern);
+    for (TripTimes it : tripTimes) {
+      timetable.addTripTimes(it);
+    }
+    return timetable;
+  }
+
+  private static TripTimes tripTimes(String tripId, String departure) {
+    Trip trip = TransitModelForTest.trip(tripId).build();
+    int time = TimeUtils.time(departure);
+    var tripTimes = new TripTimes(
+      trip,
+      List.of(stopTime(trip, 0, time), stopTime(trip, 1, time + 600)),
+      new Deduplicator()
+    );
+    tripTimes.setServiceCode(SERVICE_CODE);
+    return tripTimes;
+  }
+}
@@ -0,0 +1,209 @@
+package org.opentripplanner.routing.algorithm.transferoptimization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.stoparrival.BasicPathTestCase.COST_CALCULATOR;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.TestPathBuilder;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.debug.RaptorTimers;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.path.TransitPathLeg;
+import org.opentripplanner.raptor.spi.DefaultSlackProvider;
+import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.routing.algorithm.transferoptimization.api.OptimizedPath;
+import org.opentripplanner.routing.algorithm.transferoptimization.model.TripToTripTransfer;
+import org.opentripplanner.routing.algorithm.transferoptimization.services.OptimizePathDomainService;
+import org.opentripplanner.routing.algorithm.transferoptimization.services.TransferGenerator;
+import org.opentripplanner.routing.algorithm.transferoptimization.services.TransferOptimizedFilterFactory;
+
+class OptimizeTransferServiceTest implements RaptorTestConstants {
+
+  private static final int N_TRIPS = 5;
+  private static final int N_PATHS = 12;
+  private static final int N_THREADS = 4;
+
+  private static final RaptorSlackProvider SLACK_PROVIDER = new DefaultSlackProvider(
+    D30s,
+    D10s,
+    D10s
+  );
+
+  private final TestTransitData data = new TestTransitData().withSlackProvider(SLACK_PROVIDER);
+
+  private final TestPathBuilder pathBuilder = new TestPathBuilder(SLACK_PROVIDER, COST_CALCULATOR);
+
+  private ExecutorService threadPool;
+
+  @BeforeEach
+  void setup() {
+    var schedules = new TestTripSchedule.Builder[N_TRIPS];
+    for (int i = 0; i < N_TRIPS; ++i) {
+      schedules[i] = schedule("10:02 10:10 10:20 10:30").shiftTimes(i * D2m);
+    }
+    data.withRoutes(route("L1", STOP_A, STOP_B, STOP_C, STOP_D).withTimetable(schedules));
+    threadPool = Executors.newFixedThreadPool(N_THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    threadPool.shutdownNow();
+  }
+
+  /**
+   * The paths are optimized by several threads sharing the same transfer cache, the result must
+   * be the same, and in the same order, as when the paths are optimized one at the time.
+   */
+  @Test
+  void optimizeInParallelGivesTheSameResultAsOptimizingSequentially() {
+    var paths = paths();
+
+    var sequential = subject(new TransferGenerator<>(data.transferServiceAdaptor(), data), null);
+    var expected = toStrings(sequential.optimize(paths));
+    assertEquals(N_PATHS, expected.size());
+
+    // Repeat the parallel optimization to give races in the shared cache a chance to show up
+    for (int i = 0; i < 20; ++i) {
+      var generator = new TransferGenerator<>(data.transferServiceAdaptor(), data);
+      var result = subject(generator, threadPool).optimize(paths);
+      assertEquals(expected, toStrings(result));
+    }
+  }
+
+  /**
+   * The transfer generator is shared by all threads, the transfers it returns for a pair of
+   * trips must be the same as the transfers found by a fresh generator.
+   */
+  @Test
+  void optimizeInParallelPopulatesTheTransferCacheCorrectly() {
+    var paths = paths();
+    var shared = new TransferGenerator<>(data.transferServiceAdaptor(), data);
+
+    subject(shared, threadPool).optimize(paths);
+
+    for (var path : paths) {
+      var legs = transitLegs(path);
+      var fresh = new TransferGenerator<>(data.transferServiceAdaptor(), data);
+      assertEquals(
+        fresh.findAllPossibleTransfers(legs).toString(),
+        shared.findAllPossibleTransfers(legs).toString()
+      );
+    }
+  }
+
+  /**
+   * An error thrown while optimizing a path in the thread pool fails the whole request.
+   * Runtime exceptions are handled for each path, and do not reach the thread pool.
+   */
+  @Test
+  void optimizeInParallelFailsIfAWorkerThreadFails() {
+    var testThread = Thread.currentThread();
+    var generator = new TransferGenerator<>(data.transferServiceAdaptor(), data) {
+      @Override
+      public List<List<TripToTripTransfer<TestTripSchedule>>> findAllPossibleTransfers(
+        List<TransitPathLeg<TestTripSchedule>> transitLegs
+      ) {
+        if (Thread.currentThread() != testThread) {
+          throw new AssertionError("Failed in worker thread");
+        }
+        return super.findAllPossibleTransfers(transitLegs);
+      }
+    };
+
+    var ex = assertThrows(
+      IllegalStateException.class,
+      () -> subject(generator, threadPool).optimize(paths())
+    );
+    assertTrue(ex.getCause() instanceof ExecutionException, ex.toString());
+    assertTrue(ex.getMessage().contains("Failed in worker thread"), ex.getMessage());
+  }
+
+  @Test
+  void optimizeInParallelReturnsTheOriginalPathIfAWorkerThreadThrowsARuntimeException() {
+    var testThread = Thread.currentThread();
+    var generator = new TransferGenerator<>(data.transferServiceAdaptor(), data) {
+      @Override
+      public List<List<TripToTripTransfer<TestTripSchedule>>> findAllPossibleTransfers(
+        List<TransitPathLeg<TestTripSchedule>> transitLegs
+      ) {
+        if (Thread.currentThread() != testThread) {
+          throw new IllegalArgumentException("Failed in worker thread");
+        }
+        return super.findAllPossibleTransfers(transitLegs);
+      }
+    };
+    var paths = paths();
+
+    var result = subject(generator, threadPool).optimize(paths);
+
+    assertEquals(N_PATHS, result.size());
+    // The first path is optimized by the calling thread, the rest is returned as is
+    for (int i = 1; i < N_PATHS; ++i) {
+      assertEquals(new OptimizedPath<>(paths.get(i)).toString(), result.get(i).toString());
+    }
+  }
+
+  /**
+   * Create paths boarding trip {@code k} at stop A or B, and transferring to trip {@code k+1}
+   * at stop C. Several paths use the same pair of trips, so the transfers are reused.
+   */
+  private List<RaptorPath<TestTripSchedule>> paths() {
+    List<RaptorPath<TestTripSchedule>> paths = new ArrayList<>();
+    for (int i = 0; i < N_PATHS; ++i) {
+      int k = i % (N_TRIPS - 1);
+      int boardStop = (i / (N_TRIPS - 1)) % 2 == 0 ? STOP_A : STOP_B;
+      var trip1 = data.getRoute(0).getTripSchedule(k);
+      var trip2 = data.getRoute(0).getTripSchedule(k + 1);
+      paths.add(
+        pathBuilder
+          .access(TimeUtils.time("10:00") + k * D2m, boardStop, D1m)
+          .bus(trip1, STOP_C)
+          .bus(trip2, STOP_D)
+          .egress(D1m)
+      );
+    }
+    return paths;
+  }
+
+  private OptimizeTransferService<TestTripSchedule> subject(
+    TransferGenerator<TestTripSchedule> generator,
+    ExecutorService threadPool
+  ) {
+    var domainService = new OptimizePathDomainService<>(
+      generator,
+      COST_CALCULATOR,
+      SLACK_PROVIDER,
+      null,
+      null,
+      0.0,
+      TransferOptimizedFilterFactory.filter(true, false),
+      this::stopIndexToName
+    );
+    return new OptimizeTransferService<>(domainService, threadPool, RaptorTimers.NOOP);
+  }
+
+  private static List<TransitPathLeg<TestTripSchedule>> transitLegs(
+    RaptorPath<TestTripSchedule> path
+  ) {
+    return path.transitLegs().collect(Collectors.toList());
+  }
+
+  private static List<String> toStrings(List<RaptorPath<TestTripSchedule>> paths) {
+    return paths.stream().map(Object::toString).collect(Collectors.toList());
+  }
+}
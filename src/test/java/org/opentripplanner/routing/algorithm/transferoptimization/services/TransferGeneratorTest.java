@@ -106,6 +106,57 @@ public class TransferGeneratorTest implements RaptorTestConstants {
     );
   }
 
+  @Test
+  void reuseTransfersBetweenTheSameTrips() {
+    data.withRoutes(
+      route("L1", STOP_A, STOP_B, STOP_C, STOP_D)
+        .withTimetable(schedule("10:02 10:10 10:20 10:30"), schedule("10:04 10:12 10:22 10:32"))
+    );
+    var subject = new TransferGenerator<>(tsAdaptor, data);
+
+    // The transfers between the two trips are found once, and reused for a path boarding the
+    // first trip later, where the transfer at stop B is not possible
+    var transitLegs = transitLegsSameRoute(STOP_A, STOP_C, STOP_D);
+    assertEquals(
+      "[[TripToTripTransfer{from: [2 10:10 BUS L1], to: [2 10:12 BUS L1]}, " +
+      "TripToTripTransfer{from: [3 10:20 BUS L1], to: [3 10:22 BUS L1]}]]",
+      subject.findAllPossibleTransfers(transitLegs).toString()
+    );
+
+    transitLegs = transitLegsSameRoute(STOP_B, STOP_C, STOP_D);
+    assertEquals(
+      "[[TripToTripTransfer{from: [3 10:20 BUS L1], to: [3 10:22 BUS L1]}]]",
+      subject.findAllPossibleTransfers(transitLegs).toString()
+    );
+  }
+
+  @Test
+  void doNotReuseTransfersOfAnotherTripWithTheSameStartTime() {
+    data.withRoutes(
+      route("L1", STOP_A, STOP_B, STOP_C)
+        .withTimetable(schedule("10:02 10:10 10:20"), schedule("10:02 10:12 10:22")),
+      route("L2", STOP_B, STOP_C, STOP_D).withTimetable(schedule("10:25 10:30 10:40"))
+    );
+    var subject = new TransferGenerator<>(tsAdaptor, data);
+    var trip1 = data.getRoute(0).getTripSchedule(0);
+    var trip2 = data.getRoute(0).getTripSchedule(1);
+    var toTrip = data.getRoute(1).getTripSchedule(0);
+
+    var transitLegs = transitLegs(trip1, toTrip, STOP_A, STOP_C, STOP_D);
+    assertEquals(
+      "[[TripToTripTransfer{from: [2 10:10 BUS L1], to: [2 10:25 BUS L2]}, " +
+      "TripToTripTransfer{from: [3 10:20 BUS L1], to: [3 10:30 BUS L2]}]]",
+      subject.findAllPossibleTransfers(transitLegs).toString()
+    );
+
+    transitLegs = transitLegs(trip2, toTrip, STOP_A, STOP_C, STOP_D);
+    assertEquals(
+      "[[TripToTripTransfer{from: [2 10:12 BUS L1], to: [2 10:25 BUS L2]}, " +
+      "TripToTripTransfer{from: [3 10:22 BUS L1], to: [3 10:30 BUS L2]}]]",
+      subject.findAllPossibleTransfers(transitLegs).toString()
+    );
+  }
+
   @Test
   void findGuaranteedTransferWithNoSlack() {
     data.withRoutes(
@@ -0,0 +1,90 @@
+package org.opentripplanner.routing.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.TimingOutput;
+
+class DebugTimingAggregatorTest {
+
+  private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+  private final MockClock clock = new MockClock();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+  private final DebugTimingAggregator subject = new DebugTimingAggregator(registry, List.of());
+
+  @Test
+  void timingTree() {
+    var debugOutput = route();
+    var tree = debugOutput.timings;
+
+    assertEquals("total", tree.name);
+    assertEquals(List.of("router", "filtering", "rendering"), names(tree));
+
+    var router = tree.children.get(0);
+    assertEquals(List.of("preCalculation", "transit"), names(router));
+
+    var transit = router.children.get(1);
+    assertEquals(
+      List.of(
+        "tripPatternFiltering",
+        "accessEgress",
+        "raptor",
+        "optimizeTransfers",
+        "itineraryCreation"
+      ),
+      names(transit)
+    );
+    assertEquals(2 * MILLIS, transit.children.get(3).time);
+    assertEquals(2 * MILLIS, debugOutput.transitRouterTimes.transferOptimizationTime);
+    assertEquals(MILLIS, debugOutput.transitRouterTimes.itineraryCreationTime);
+  }
+
+  @Test
+  void sumUpTheTimeOfTheFares() {
+    var filtering = route().timings.children.get(1);
+
+    assertEquals(List.of("fares"), names(filtering));
+    assertEquals(6 * MILLIS, filtering.children.get(0).time);
+
+    var faresTimer = registry.get("routing.fares").timer();
+    assertEquals(1, faresTimer.count());
+    assertEquals(6, faresTimer.totalTime(TimeUnit.MILLISECONDS));
+  }
+
+  private DebugOutput route() {
+    clock.add(Duration.ofMillis(1));
+    subject.finishedPrecalculating();
+    subject.startedTransitRouting();
+    subject.finishedPatternFiltering();
+    subject.finishedAccessEgress(1, 1);
+    subject.finishedRaptorSearch();
+    clock.add(Duration.ofMillis(2));
+    subject.finishedTransferOptimization();
+    clock.add(Duration.ofMillis(1));
+    subject.finishedItineraryCreation();
+    subject.finishedTransitRouter();
+    subject.finishedRouting();
+
+    var fareService = subject.timeFares(itinerary -> {
+      clock.add(Duration.ofMillis(3));
+      return null;
+    });
+    fareService.getCost(null);
+    fareService.getCost(null);
+    subject.finishedFiltering();
+
+    return subject.finishedRendering();
+  }
+
+  private static List<String> names(TimingOutput timing) {
+    return timing.children.stream().map(it -> it.name).toList();
+  }
+}
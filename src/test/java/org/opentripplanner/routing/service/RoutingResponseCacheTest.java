@@ -0,0 +1,209 @@
+package org.opentripplanner.routing.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.model.plan.TripPlan;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.response.RoutingError;
+import org.opentripplanner.routing.api.response.RoutingErrorCode;
+import org.opentripplanner.routing.api.response.RoutingResponse;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+class RoutingResponseCacheTest {
+
+  private static final Instant TIME = Instant.parse("2023-03-01T10:00:00Z");
+
+  private final RoutingResponseCache subject = new RoutingResponseCache(10, Duration.ofMinutes(1));
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final TransitLayer transitLayer = transitLayer();
+  private final AtomicInteger routed = new AtomicInteger();
+
+  @Test
+  void routeIdenticalRequestsOnce() {
+    var first = route(request(), transitLayer);
+    var second = route(request(), transitLayer);
+
+    assertEquals(1, routed.get());
+    assertSame(first.getTripPlan(), second.getTripPlan());
+  }
+
+  @Test
+  void routeDifferentRequests() {
+    var request = request();
+    request.setArriveBy(true);
+
+    route(request(), transitLayer);
+    route(request, transitLayer);
+
+    assertEquals(2, routed.get());
+  }
+
+  @Test
+  void doNotCacheRequestsWithJourneyFilters() {
+    var request = request();
+    request.journey().transit().setBannedTrips(List.of(new FeedScopedId("F", "T1")));
+
+    assertNull(RoutingResponseCache.key(request, transitLayer));
+    assertNotNull(RoutingResponseCache.key(request(), transitLayer));
+  }
+
+  @Test
+  void clearCacheWhenTransitLayerIsUpdated() {
+    route(request(), transitLayer);
+    route(request(), transitLayer());
+
+    assertEquals(2, routed.get());
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void doNotCacheResponsesWithRoutingErrors() {
+    var error = new RoutingError(RoutingErrorCode.LOCATION_NOT_FOUND, null);
+    for (int i = 0; i < 2; i++) {
+      subject.route(request(), transitLayer, it -> response(List.of(error)), meterRegistry);
+    }
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void routeConcurrentIdenticalRequestsOnce() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<RoutingResponse>> responses = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        responses.add(
+          executor.submit(() ->
+            subject.route(
+              request(),
+              transitLayer,
+              it -> {
+                started.countDown();
+                await(release);
+                routed.incrementAndGet();
+                return response(List.of());
+              },
+              meterRegistry
+            )
+          )
+        );
+      }
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      release.countDown();
+
+      assertSame(
+        responses.get(0).get(10, TimeUnit.SECONDS).getTripPlan(),
+        responses.get(1).get(10, TimeUnit.SECONDS).getTripPlan()
+      );
+      assertEquals(1, routed.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void routeWaitingRequestIfTheRequestRoutingItIsCancelled() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<RoutingResponse> cancelled = executor.submit(() ->
+        subject.route(
+          request(),
+          transitLayer,
+          it -> {
+            started.countDown();
+            await(release);
+            throw new CancellationException("The client is gone");
+          },
+          meterRegistry
+        )
+      );
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      // Wait until the second request waits for the response of the first one
+      var waiting = new FutureTask<>(() -> route(request(), transitLayer));
+      var waitingThread = new Thread(waiting);
+      waitingThread.start();
+      awaitWaitingState(waitingThread);
+      release.countDown();
+
+      var e = assertThrows(ExecutionException.class, () -> cancelled.get(10, TimeUnit.SECONDS));
+      assertInstanceOf(CancellationException.class, e.getCause());
+      assertNotNull(waiting.get(10, TimeUnit.SECONDS).getTripPlan());
+      assertEquals(1, routed.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private RoutingResponse route(RouteRequest request, TransitLayer transitLayer) {
+    return subject.route(
+      request,
+      transitLayer,
+      it -> {
+        routed.incrementAndGet();
+        return response(List.of());
+      },
+      meterRegistry
+    );
+  }
+
+  private static RouteRequest request() {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(60.0, 10.0));
+    request.setTo(new GenericLocation(60.1, 10.1));
+    request.setDateTime(TIME);
+    return request;
+  }
+
+  private static RoutingResponse response(List<RoutingError> routingErrors) {
+    var tripPlan = new TripPlan(null, null, TIME, List.of());
+    return new RoutingResponse(tripPlan, null, null, null, routingErrors, null);
+  }
+
+  private static TransitLayer transitLayer() {
+    return new TransitLayer(Map.of(), List.of(), null, null, null, null, null, null, null);
+  }
+
+  private static void awaitWaitingState(Thread thread) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertEquals(Thread.State.WAITING, thread.getState());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -166,6 +166,39 @@ class StopTimesHelperTest {
     assertEquals(serviceDate.plusDays(1), stopTime.getServiceDay());
   }
 
+  @Test
+  void stopTimesForStops_sameAsForEachStop() {
+    var stops = List.of(
+      transitService.getRegularStop(stopId),
+      transitService.getRegularStop(new FeedScopedId(feedId, "K"))
+    );
+    var startTime = serviceDate.atStartOfDay(transitService.getTimeZone()).toInstant();
+
+    var result = StopTimesHelper.stopTimesForStops(
+      transitService,
+      stops,
+      startTime,
+      Duration.ofHours(24),
+      10,
+      ArrivalDeparture.BOTH,
+      true
+    );
+
+    assertEquals(stops, List.copyOf(result.keySet()));
+    for (var stop : stops) {
+      var expected = StopTimesHelper.stopTimesForStop(
+        transitService,
+        stop,
+        startTime,
+        Duration.ofHours(24),
+        10,
+        ArrivalDeparture.BOTH,
+        true
+      );
+      assertEquals(describe(expected), describe(result.get(stop)));
+    }
+  }
+
   /**
    * Case 1, midnight, time range one day, should only find one trip, which is on the same day
    */
@@ -294,4 +327,12 @@ class StopTimesHelperTest {
       .findAny()
       .isEmpty();
   }
+
+  private static List<String> describe(List<StopTimesInPattern> stopTimesInPatterns) {
+    return stopTimesInPatterns
+      .stream()
+      .flatMap(it -> it.times.stream())
+      .map(it -> it.getTrip().getId() + "@" + it.getServiceDay() + "#" + it.getStopIndex())
+      .toList();
+  }
 }
@@ -0,0 +1,116 @@
+package org.opentripplanner.service.vehiclepositions.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.service.vehiclepositions.model.RealtimeVehiclePosition;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Trip;
+
+class DefaultVehiclePositionServiceTest {
+
+  private static final Envelope OSLO = new Envelope(10.6, 10.9, 59.8, 60.0);
+  private static final Envelope BERGEN = new Envelope(5.2, 5.4, 60.3, 60.45);
+
+  private static final Trip TRIP = TransitModelForTest.trip("T1").build();
+  private static final TripPattern PATTERN_1 = pattern("P1");
+  private static final TripPattern PATTERN_2 = pattern("P2");
+
+  private final RealtimeVehiclePosition osloCentral = position("V1", 59.911, 10.75);
+  private final RealtimeVehiclePosition osloAirport = position("V2", 60.19, 11.1);
+  private final RealtimeVehiclePosition bergen = position("V3", 60.39, 5.32);
+  private final RealtimeVehiclePosition noCoordinates = RealtimeVehiclePosition
+    .builder()
+    .setTrip(TRIP)
+    .build();
+
+  private final DefaultVehiclePositionService subject = new DefaultVehiclePositionService();
+
+  @Test
+  void getVehiclePositionsInEnvelope() {
+    subject.setVehiclePositions(PATTERN_1, List.of(osloCentral, osloAirport, noCoordinates));
+    subject.setVehiclePositions(PATTERN_2, List.of(bergen));
+
+    assertEquals(List.of(osloCentral), subject.getVehiclePositions(OSLO));
+    assertEquals(List.of(bergen), subject.getVehiclePositions(BERGEN));
+  }
+
+  @Test
+  void moveVehicles() {
+    subject.setVehiclePositions(PATTERN_1, List.of(osloCentral));
+    var moved = position("V1", 60.39, 5.33);
+
+    subject.setVehiclePositions(PATTERN_1, List.of(moved, bergen));
+
+    assertEquals(List.of(), subject.getVehiclePositions(OSLO));
+    assertEquals(2, subject.getVehiclePositions(BERGEN).size());
+  }
+
+  @Test
+  void updateVehiclesThatHaveNotMoved() {
+    subject.setVehiclePositions(PATTERN_1, List.of(osloCentral));
+    var later = RealtimeVehiclePosition
+      .builder()
+      .setVehicleId(osloCentral.vehicleId())
+      .setCoordinates(osloCentral.coordinates())
+      .setTime(Instant.parse("2023-01-01T12:00:00Z"))
+      .setSpeed(12.5)
+      .setTrip(TRIP)
+      .build();
+
+    subject.setVehiclePositions(PATTERN_1, List.of(later));
+
+    // The entry of the vehicle is kept in the index, and returns the new position
+    assertEquals(List.of(later), subject.getVehiclePositions(OSLO));
+  }
+
+  @Test
+  void replaceVehiclesWithoutVehicleId() {
+    var withoutId = RealtimeVehiclePosition
+      .builder()
+      .setCoordinates(new WgsCoordinate(59.911, 10.75))
+      .setTrip(TRIP)
+      .build();
+    subject.setVehiclePositions(PATTERN_1, List.of(withoutId));
+    subject.setVehiclePositions(PATTERN_1, List.of(withoutId, osloCentral, osloCentral));
+
+    assertEquals(3, subject.getVehiclePositions(OSLO).size());
+
+    subject.setVehiclePositions(PATTERN_1, List.of(osloCentral));
+
+    assertEquals(List.of(osloCentral), subject.getVehiclePositions(OSLO));
+  }
+
+  @Test
+  void clearVehiclePositions() {
+    subject.setVehiclePositions(PATTERN_1, List.of(osloCentral));
+    subject.setVehiclePositions(PATTERN_2, List.of(bergen));
+
+    subject.clearVehiclePositions(PATTERN_1);
+
+    assertEquals(List.of(), subject.getVehiclePositions(OSLO));
+    assertEquals(List.of(), subject.getVehiclePositions(PATTERN_1));
+    assertEquals(List.of(bergen), subject.getVehiclePositions(BERGEN));
+  }
+
+  private static RealtimeVehiclePosition position(String vehicleId, double lat, double lon) {
+    return RealtimeVehiclePosition
+      .builder()
+      .setVehicleId(TransitModelForTest.id(vehicleId))
+      .setCoordinates(new WgsCoordinate(lat, lon))
+      .setTrip(TRIP)
+      .build();
+  }
+
+  private static TripPattern pattern(String id) {
+    return TransitModelForTest
+      .tripPattern(id, TransitModelForTest.route("R1").build())
+      .withStopPattern(TransitModelForTest.stopPattern(2))
+      .build();
+  }
+}
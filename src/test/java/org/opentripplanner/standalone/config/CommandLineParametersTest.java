@@ -164,6 +164,19 @@ public class CommandLineParametersTest {
     validateWith().loadStreet().expectNotValid();
   }
 
+  @Test
+  public void incrementalRequiresLoadStreet() {
+    // --incremental can only be used with --loadStreet
+    validateWith().build().save().incremental().expectNotValid();
+
+    subject.loadStreet = true;
+    subject.save = true;
+    subject.incremental = true;
+    assertTrue(subject.doIncrementalBuild());
+    // Is valid
+    subject.inferAndValidate();
+  }
+
   private TestValidation validateWith() {
     return new TestValidation();
   }
@@ -194,6 +207,11 @@ public class CommandLineParametersTest {
       return this;
     }
 
+    TestValidation incremental() {
+      subject.incremental = true;
+      return this;
+    }
+
     TestValidation save() {
       subject.save = true;
       return this;
@@ -3,10 +3,16 @@ package org.opentripplanner.street.model.edge;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.opentripplanner.TestOtpModel;
+import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.framework.i18n.NonLocalizedString;
 import org.opentripplanner.routing.algorithm.GraphRoutingTest;
 import org.opentripplanner.routing.graph.Graph;
@@ -199,6 +205,119 @@ class StreetEdgeSplittingTest extends GraphRoutingTest {
     assertOnlyOriginalRestrictionExists();
   }
 
+  @Test
+  public void joinSplitEdges() {
+    var splitVtx = new SplitterVertex(
+      graph,
+      "Split_Vertex",
+      1.0,
+      0.0,
+      new NonLocalizedString("a name")
+    );
+    var splitResult = streetEdge1.splitDestructively(splitVtx);
+
+    assertTrue(splitResult.head().canJoin(splitResult.tail()));
+    var joined = splitResult.head().join(splitResult.tail());
+
+    assertEquals(V2, joined.getFromVertex());
+    assertEquals(V1, joined.getToVertex());
+    assertEquals(streetEdge1.getDistanceMeters(), joined.getDistanceMeters());
+    assertEquals(streetEdge1.getPermission(), joined.getPermission());
+    assertEquals(streetEdge2, addedRestriction(joined).to);
+  }
+
+  @Test
+  public void joinedEdgeIsEqualToTheOriginalEdge() throws IllegalAccessException {
+    var original = new StreetEdge(
+      V2,
+      V1,
+      GeometryUtils.makeLineString(0.0, 2.0, 0.5, 1.0, 0.0, 0.0),
+      new NonLocalizedString("bent street"),
+      StreetTraversalPermission.PEDESTRIAN_AND_BICYCLE,
+      false
+    );
+    original.setBicycleSafetyFactor(1.5f);
+    original.setWalkSafetyFactor(2.0f);
+    original.setCarSpeed(12.0f);
+    original.setStairs(true);
+    original.setWheelchairAccessible(false);
+    var restriction = disallowTurn(original, streetEdge2);
+
+    // The split point is on the first segment of the geometry
+    var splitVtx = new SplitterVertex(
+      graph,
+      "Split_Vertex",
+      0.25,
+      1.5,
+      new NonLocalizedString("a name")
+    );
+    var splitResult = original.splitDestructively(splitVtx);
+    var joined = splitResult.head().join(splitResult.tail());
+
+    for (Class<?> c = StreetEdge.class; c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("turnRestrictions")) {
+          continue;
+        }
+        field.setAccessible(true);
+        assertTrue(
+          Objects.deepEquals(field.get(original), field.get(joined)),
+          () -> "The field " + field.getName() + " differs"
+        );
+      }
+    }
+
+    // The turn restriction is copied to the joined edge
+    assertEquals(1, joined.getTurnRestrictions().size());
+    var joinedRestriction = joined.getTurnRestrictions().get(0);
+    assertEquals(joined, joinedRestriction.from);
+    assertEquals(restriction.to, joinedRestriction.to);
+    assertEquals(restriction.type, joinedRestriction.type);
+    assertEquals(restriction.modes, joinedRestriction.modes);
+    assertEquals(restriction.time, joinedRestriction.time);
+  }
+
+  @Test
+  public void doNotJoinEdgesWithElevation() {
+    StreetElevationExtension.addToEdge(
+      streetEdge1,
+      new PackedCoordinateSequence.Double(
+        new double[] { 0.0, 10.0, streetEdge1.getDistanceMeters(), 20.0 },
+        2,
+        0
+      ),
+      false
+    );
+    var splitVtx = new SplitterVertex(
+      graph,
+      "Split_Vertex",
+      1.0,
+      0.0,
+      new NonLocalizedString("a name")
+    );
+    var splitResult = streetEdge1.splitDestructively(splitVtx);
+
+    // The elevation profile of the original edge can not be restored
+    assertFalse(splitResult.head().canJoin(splitResult.tail()));
+  }
+
+  @Test
+  public void doNotJoinEdgesWithDifferentProperties() {
+    var splitVtx = new SplitterVertex(
+      graph,
+      "Split_Vertex",
+      1.0,
+      0.0,
+      new NonLocalizedString("a name")
+    );
+    var splitResult = streetEdge1.splitDestructively(splitVtx);
+    splitResult.tail().setPermission(StreetTraversalPermission.PEDESTRIAN);
+
+    assertFalse(splitResult.head().canJoin(splitResult.tail()));
+    assertFalse(splitResult.tail().canJoin(splitResult.head()));
+    assertThrows(IllegalArgumentException.class, () -> splitResult.head().join(splitResult.tail()));
+  }
+
   private Graph graph() {
     TestOtpModel model = modelOf(
       new Builder() {
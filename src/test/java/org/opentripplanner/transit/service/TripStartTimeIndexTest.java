@@ -0,0 +1,80 @@
+package org.opentripplanner.transit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.transit.model._data.TransitModelForTest.stopTime;
+
+import gnu.trove.set.hash.TIntHashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.Direction;
+import org.opentripplanner.transit.model.timetable.Trip;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripStartTimeIndexTest {
+
+  private static final Route ROUTE = TransitModelForTest.route("R1").build();
+  private static final Route OTHER_ROUTE = TransitModelForTest.route("R2").build();
+  private static final int T08_00 = TimeUtils.time("08:00");
+  private static final int T09_00 = TimeUtils.time("09:00");
+  private static final int SERVICE_A = 1;
+  private static final int SERVICE_B = 2;
+
+  private final Trip outbound = trip("outbound", Direction.OUTBOUND);
+  private final Trip inbound = trip("inbound", Direction.INBOUND);
+  private final Trip outboundOtherService = trip("outbound-b", Direction.OUTBOUND);
+
+  private final TripStartTimeIndex subject = TripStartTimeIndex.of(
+    List.of(
+      pattern(ROUTE, SERVICE_A, T08_00, outbound),
+      pattern(ROUTE, SERVICE_A, T08_00, inbound),
+      pattern(ROUTE, SERVICE_B, T08_00, outboundOtherService)
+    )
+  );
+
+  @Test
+  void getTrip() {
+    var serviceA = new TIntHashSet(new int[] { SERVICE_A });
+    var serviceB = new TIntHashSet(new int[] { SERVICE_B });
+
+    assertEquals(outbound, subject.getTrip(ROUTE, Direction.OUTBOUND, T08_00, serviceA));
+    assertEquals(inbound, subject.getTrip(ROUTE, Direction.INBOUND, T08_00, serviceA));
+    assertEquals(
+      outboundOtherService,
+      subject.getTrip(ROUTE, Direction.OUTBOUND, T08_00, serviceB)
+    );
+    assertNull(subject.getTrip(ROUTE, Direction.INBOUND, T08_00, serviceB));
+    assertNull(subject.getTrip(ROUTE, Direction.OUTBOUND, T09_00, serviceA));
+    assertNull(subject.getTrip(OTHER_ROUTE, Direction.OUTBOUND, T08_00, serviceA));
+  }
+
+  @Test
+  void getTrips() {
+    assertEquals(List.of(outbound, inbound, outboundOtherService), subject.getTrips(ROUTE, T08_00));
+    assertEquals(List.of(), subject.getTrips(ROUTE, T09_00));
+    assertEquals(3, subject.size());
+  }
+
+  private static Trip trip(String id, Direction direction) {
+    return TransitModelForTest.trip(id).withDirection(direction).build();
+  }
+
+  private static TripPattern pattern(Route route, int serviceCode, int departure, Trip trip) {
+    var stopTimes = List.of(stopTime(trip, 0, departure), stopTime(trip, 1, departure + 600));
+    var pattern = TripPattern
+      .of(TransitModelForTest.id(trip.getId().getId()))
+      .withStopPattern(new StopPattern(stopTimes))
+      .withRoute(route)
+      .build();
+    var tripTimes = new TripTimes(trip, stopTimes, new Deduplicator());
+    tripTimes.setServiceCode(serviceCode);
+    pattern.getScheduledTimetable().addTripTimes(tripTimes);
+    return pattern;
+  }
+}
@@ -113,6 +113,7 @@ public class SpeedTest {
         TestServerContext.createWorldEnvelopeService(),
         TestServerContext.createVehiclePositionService(),
         TestServerContext.createVehicleRentalService(),
+        null,
         config.flexConfig,
         null,
         null
@@ -0,0 +1,97 @@
+package org.opentripplanner.updater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.service.TransitModel;
+
+class GraphWriterQueueTest {
+
+  /** Runs the scheduled calls only when asked, like a busy writer thread. */
+  private final Deque<Runnable> scheduled = new ArrayDeque<>();
+  private final Executor writer = scheduled::add;
+  private final GraphWriterQueue subject = new GraphWriterQueue(null, null, writer);
+  private final List<String> log = new ArrayList<>();
+
+  @Test
+  void runByPriorityThenInOrder() {
+    var low = subject.createSource("low", GraphWriterPriority.LOW);
+    var high = subject.createSource("high", GraphWriterPriority.HIGH);
+
+    subject.submit(low, new Writer("L1", false));
+    subject.submit(low, new Writer("L2", false));
+    subject.submit(high, new Writer("H1", false));
+    subject.submit(high, new Writer("H2", false));
+    runAll();
+
+    assertEquals(List.of("H1", "H2", "L1", "L2"), log);
+  }
+
+  @Test
+  void coalesceQueuedUpdatesFromSameSource() {
+    var a = subject.createSource("a", GraphWriterPriority.NORMAL);
+    var b = subject.createSource("a", GraphWriterPriority.NORMAL);
+
+    var first = subject.submit(a, new Writer("A1", true));
+    subject.submit(b, new Writer("B1", false));
+    var second = subject.submit(a, new Writer("A2", false));
+    var third = subject.submit(a, new Writer("A3", true));
+
+    runAll();
+
+    assertEquals(List.of("B1", "A3"), log);
+    assertTrue(first.isDone());
+    assertTrue(second.isDone());
+    assertTrue(third.isDone());
+  }
+
+  @Test
+  void failingWriterCompletesFuture() {
+    var source = subject.createSource("a", GraphWriterPriority.NORMAL);
+    var future = subject.submit(
+      source,
+      (graph, transitModel) -> {
+        throw new IllegalStateException("Expected in test");
+      }
+    );
+    subject.submit(source, new Writer("A1", false));
+    runAll();
+
+    assertTrue(future.isDone());
+    assertEquals(List.of("A1"), log);
+  }
+
+  private void runAll() {
+    while (!scheduled.isEmpty()) {
+      scheduled.poll().run();
+    }
+  }
+
+  private class Writer implements GraphWriterRunnable {
+
+    private final String name;
+    private final boolean replacesQueuedUpdates;
+
+    Writer(String name, boolean replacesQueuedUpdates) {
+      this.name = name;
+      this.replacesQueuedUpdates = replacesQueuedUpdates;
+    }
+
+    @Override
+    public void run(Graph graph, TransitModel transitModel) {
+      log.add(name);
+    }
+
+    @Override
+    public boolean replacesQueuedUpdates() {
+      return replacesQueuedUpdates;
+    }
+  }
+}
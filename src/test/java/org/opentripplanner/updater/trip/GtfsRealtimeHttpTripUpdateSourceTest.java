@@ -0,0 +1,117 @@
+package org.opentripplanner.updater.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
+import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import com.google.transit.realtime.GtfsRealtime.VehiclePosition;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GtfsRealtimeHttpTripUpdateSourceTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void readUpdatesInBatches() throws IOException {
+    var source = source(feed(FeedHeader.Incrementality.FULL_DATASET, 5));
+    var batches = new ArrayList<Batch>();
+
+    source.readUpdates(2, (updates, fullDataset, lastBatch) ->
+      batches.add(new Batch(updates, fullDataset, lastBatch))
+    );
+
+    assertEquals(3, batches.size());
+    assertEquals(List.of("T0", "T1"), batches.get(0).tripIds());
+    assertEquals(List.of("T2", "T3"), batches.get(1).tripIds());
+    assertEquals(List.of("T4"), batches.get(2).tripIds());
+    assertTrue(batches.stream().allMatch(Batch::fullDataset));
+    assertEquals(List.of(false, false, true), batches.stream().map(Batch::lastBatch).toList());
+  }
+
+  @Test
+  void lastBatchMayBeEmpty() throws IOException {
+    var source = source(feed(FeedHeader.Incrementality.DIFFERENTIAL, 2));
+    var batches = new ArrayList<Batch>();
+
+    source.readUpdates(2, (updates, fullDataset, lastBatch) ->
+      batches.add(new Batch(updates, fullDataset, lastBatch))
+    );
+
+    assertEquals(2, batches.size());
+    assertEquals(List.of(), batches.get(1).tripIds());
+    assertTrue(batches.get(1).lastBatch());
+    assertFalse(batches.get(0).fullDataset());
+    assertFalse(source.getFullDatasetValueOfLastUpdates());
+  }
+
+  @Test
+  void sameUpdatesAsReadingTheCompleteFeed() throws IOException {
+    var source = source(feed(FeedHeader.Incrementality.FULL_DATASET, 3));
+    var streamed = new ArrayList<TripUpdate>();
+
+    source.readUpdates(100, (updates, fullDataset, lastBatch) -> streamed.addAll(updates));
+
+    assertEquals(source.getUpdates(), streamed);
+  }
+
+  private GtfsRealtimeHttpTripUpdateSource source(FeedMessage feed) throws IOException {
+    var file = tempDir.resolve("trip-updates.pb");
+    Files.write(file, feed.toByteArray());
+    return new GtfsRealtimeHttpTripUpdateSource(
+      new GtfsRealtimeHttpTripUpdateSource.Parameters() {
+        @Override
+        public String getFeedId() {
+          return "F";
+        }
+
+        @Override
+        public String getUrl() {
+          return file.toUri().toString();
+        }
+
+        @Override
+        public Map<String, String> headers() {
+          return Map.of();
+        }
+      }
+    );
+  }
+
+  private static FeedMessage feed(FeedHeader.Incrementality incrementality, int numberOfTrips) {
+    var feed = FeedMessage
+      .newBuilder()
+      .setHeader(
+        FeedHeader.newBuilder().setGtfsRealtimeVersion("2.0").setIncrementality(incrementality)
+      );
+    for (int i = 0; i < numberOfTrips; i++) {
+      var trip = TripDescriptor.newBuilder().setTripId("T" + i);
+      feed.addEntity(
+        FeedEntity.newBuilder().setId("E" + i).setTripUpdate(TripUpdate.newBuilder().setTrip(trip))
+      );
+      // Entities without a trip update are skipped
+      feed.addEntity(
+        FeedEntity.newBuilder().setId("V" + i).setVehicle(VehiclePosition.newBuilder().build())
+      );
+    }
+    return feed.build();
+  }
+
+  private record Batch(List<TripUpdate> updates, boolean fullDataset, boolean lastBatch) {
+    List<String> tripIds() {
+      return updates.stream().map(u -> u.getTrip().getTripId()).toList();
+    }
+  }
+}
@@ -446,6 +446,89 @@ public class TimetableSnapshotSourceTest {
     }
   }
 
+  @Nested
+  class Batches {
+
+    private static final String OTHER_FEED_ID = "OTHER";
+
+    @Test
+    public void interleavedFeeds() throws InvalidProtocolBufferException {
+      var updater = updaterWithoutSnapshotFrequency();
+      var otherUpdates = List.of(TripUpdate.parseFrom(cancellation));
+
+      applyBatch(updater, true, List.of(delayedTripUpdate()), feedId, false);
+      // The other feed applies a dataset in batches between the batches of the first feed
+      applyBatch(updater, true, otherUpdates, OTHER_FEED_ID, false);
+      applyBatch(updater, false, otherUpdates, OTHER_FEED_ID, true);
+      assertFalse(isTripDelayed(updater));
+
+      applyBatch(updater, false, List.of(), feedId, true);
+      assertTrue(isTripDelayed(updater));
+    }
+
+    @Test
+    public void finishBatchesOfAbortedDataset() throws InvalidProtocolBufferException {
+      var updater = updaterWithoutSnapshotFrequency();
+
+      applyBatch(updater, true, List.of(delayedTripUpdate()), feedId, false);
+      applyBatch(updater, false, List.of(TripUpdate.parseFrom(cancellation)), OTHER_FEED_ID, true);
+      assertFalse(isTripDelayed(updater));
+
+      updater.finishBatches(feedId);
+      assertTrue(isTripDelayed(updater));
+
+      // Finishing the batches of a feed without a dataset in progress does nothing
+      var snapshot = updater.getTimetableSnapshot();
+      updater.finishBatches(OTHER_FEED_ID);
+      assertSame(snapshot, updater.getTimetableSnapshot());
+    }
+
+    private TimetableSnapshotSource updaterWithoutSnapshotFrequency() {
+      return new TimetableSnapshotSource(
+        TimetableSnapshotSourceParameters.DEFAULT.withMaxSnapshotFrequencyMs(-1),
+        transitModel,
+        () -> SERVICE_DATE
+      );
+    }
+
+    private void applyBatch(
+      TimetableSnapshotSource updater,
+      boolean fullDataset,
+      List<TripUpdate> updates,
+      String feedId,
+      boolean lastBatch
+    ) {
+      updater.applyTripUpdates(
+        TRIP_MATCHER_NOOP,
+        REQUIRED_NO_DATA,
+        fullDataset,
+        updates,
+        feedId,
+        lastBatch
+      );
+    }
+
+    private TripUpdate delayedTripUpdate() {
+      var tripUpdateBuilder = new TripUpdateBuilder(
+        "1.1",
+        SERVICE_DATE,
+        ScheduleRelationship.SCHEDULED,
+        transitModel.getTimeZone()
+      );
+      tripUpdateBuilder.addDelayedStopTime(2, 60);
+      return tripUpdateBuilder.build();
+    }
+
+    private boolean isTripDelayed(TimetableSnapshotSource updater) {
+      var tripId = new FeedScopedId(feedId, "1.1");
+      var trip = transitModel.getTransitModelIndex().getTripForId().get(tripId);
+      var pattern = transitModel.getTransitModelIndex().getPatternForTrip().get(trip);
+      var timetable = updater.getTimetableSnapshot().resolve(pattern, SERVICE_DATE);
+      var tripTimes = timetable.getTripTimes(timetable.getTripIndex(tripId));
+      return tripTimes.getRealTimeState() == RealTimeState.UPDATED;
+    }
+  }
+
   @Nested
   class Scheduled {
 
@@ -497,6 +580,63 @@ public class TimetableSnapshotSourceTest {
       assertEquals(RealTimeState.SCHEDULED, forToday.getTripTimes(tripIndex2).getRealTimeState());
     }
 
+    @Test
+    public void delayedInParallel() {
+      final FeedScopedId tripId = new FeedScopedId(feedId, "1.1");
+      final FeedScopedId tripId2 = new FeedScopedId(feedId, "1.2");
+      final Trip trip = transitModel.getTransitModelIndex().getTripForId().get(tripId);
+      final TripPattern pattern = transitModel.getTransitModelIndex().getPatternForTrip().get(trip);
+      final int tripIndex = pattern.getScheduledTimetable().getTripIndex(tripId);
+      final int tripIndex2 = pattern.getScheduledTimetable().getTripIndex(tripId2);
+
+      var firstUpdate = new TripUpdateBuilder(
+        tripId.getId(),
+        SERVICE_DATE,
+        ScheduleRelationship.SCHEDULED,
+        transitModel.getTimeZone()
+      );
+      firstUpdate.addDelayedStopTime(2, 1);
+
+      var secondUpdate = new TripUpdateBuilder(
+        tripId2.getId(),
+        SERVICE_DATE,
+        ScheduleRelationship.SCHEDULED,
+        transitModel.getTimeZone()
+      );
+      secondUpdate.addDelayedStopTime(2, 2);
+
+      // The last update of a trip wins, as when the updates are applied in sequence
+      var lastUpdate = new TripUpdateBuilder(
+        tripId.getId(),
+        SERVICE_DATE,
+        ScheduleRelationship.SCHEDULED,
+        transitModel.getTimeZone()
+      );
+      lastUpdate.addDelayedStopTime(2, 3);
+
+      var updater = new TimetableSnapshotSource(
+        TimetableSnapshotSourceParameters.DEFAULT.withParallelTripUpdates(true),
+        transitModel,
+        () -> SERVICE_DATE
+      );
+
+      var result = updater.applyTripUpdates(
+        TRIP_MATCHER_NOOP,
+        REQUIRED_NO_DATA,
+        fullDataset,
+        List.of(firstUpdate.build(), secondUpdate.build(), lastUpdate.build()),
+        feedId
+      );
+
+      assertEquals(3, result.successful());
+
+      final Timetable forToday = updater.getTimetableSnapshot().resolve(pattern, SERVICE_DATE);
+      assertEquals(3, forToday.getTripTimes(tripIndex).getArrivalDelay(1));
+      assertEquals(2, forToday.getTripTimes(tripIndex2).getArrivalDelay(1));
+      assertEquals(RealTimeState.UPDATED, forToday.getTripTimes(tripIndex).getRealTimeState());
+      assertEquals(RealTimeState.UPDATED, forToday.getTripTimes(tripIndex2).getRealTimeState());
+    }
+
     @Test
     public void scheduled() {
       // GIVEN
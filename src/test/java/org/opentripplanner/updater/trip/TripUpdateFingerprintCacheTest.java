@@ -0,0 +1,97 @@
+package org.opentripplanner.updater.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor.ScheduleRelationship;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TripUpdateFingerprintCacheTest {
+
+  private static final LocalDate SERVICE_DATE = LocalDate.of(2022, 12, 1);
+  private static final ZoneId TIME_ZONE = ZoneId.of("Europe/Oslo");
+
+  private static final TripUpdate A = delayed("A", 60);
+  private static final TripUpdate A_CHANGED = delayed("A", 120);
+  private static final TripUpdate B = delayed("B", 60);
+
+  @Test
+  void firstBatchIsAppliedInFull() {
+    var cache = new TripUpdateFingerprintCache();
+    var filtered = cache.filter(List.of(A, B), true);
+
+    assertEquals(List.of(A, B), filtered.updates());
+    assertTrue(filtered.fullDataset());
+    assertEquals(0, filtered.unchanged());
+  }
+
+  @Test
+  void unchangedUpdatesAreSkipped() {
+    var cache = new TripUpdateFingerprintCache();
+    cache.filter(List.of(A, B), true);
+
+    var filtered = cache.filter(List.of(A_CHANGED, B), true);
+
+    assertEquals(List.of(A_CHANGED), filtered.updates());
+    assertFalse(filtered.fullDataset(), "The buffer must not be cleared");
+    assertEquals(1, filtered.unchanged());
+  }
+
+  @Test
+  void timestampIsIgnored() {
+    var cache = new TripUpdateFingerprintCache();
+    cache.filter(List.of(A), true);
+
+    var filtered = cache.filter(List.of(A.toBuilder().setTimestamp(1234).build()), true);
+
+    assertEquals(List.of(), filtered.updates());
+    assertEquals(1, filtered.unchanged());
+  }
+
+  @Test
+  void removedTripAppliesFullDataset() {
+    var cache = new TripUpdateFingerprintCache();
+    cache.filter(List.of(A, B), true);
+
+    var filtered = cache.filter(List.of(A), true);
+
+    assertEquals(List.of(A), filtered.updates());
+    assertTrue(filtered.fullDataset());
+    assertEquals(0, filtered.unchanged());
+  }
+
+  @Test
+  void invalidateAppliesNextBatchInFull() {
+    var cache = new TripUpdateFingerprintCache();
+    cache.filter(List.of(A, B), true);
+    cache.invalidate();
+
+    var filtered = cache.filter(List.of(A, B), true);
+
+    assertEquals(List.of(A, B), filtered.updates());
+    assertTrue(filtered.fullDataset());
+  }
+
+  @Test
+  void incrementalUpdates() {
+    var cache = new TripUpdateFingerprintCache();
+    cache.filter(List.of(A), false);
+    cache.filter(List.of(B), false);
+
+    var filtered = cache.filter(List.of(A, B), false);
+
+    assertEquals(List.of(), filtered.updates());
+    assertEquals(2, filtered.unchanged());
+  }
+
+  private static TripUpdate delayed(String tripId, int delay) {
+    return new TripUpdateBuilder(tripId, SERVICE_DATE, ScheduleRelationship.SCHEDULED, TIME_ZONE)
+      .addDelayedStopTime(1, delay)
+      .build();
+  }
+}
@@ -0,0 +1,295 @@
+package org.opentripplanner.updater.trip.replay;
+
+import static org.opentripplanner.standalone.configure.ConstructApplication.creatTransitLayerForRaptor;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
+import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import com.sun.management.ThreadMXBean;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+import org.opentripplanner.transit.service.TransitModel;
+import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+import org.opentripplanner.updater.trip.BackwardsDelayPropagationType;
+import org.opentripplanner.updater.trip.TimetableSnapshotSource;
+
+/**
+ * Replay a GTFS-RT trip update {@link FeedRecording} against a graph, at a multiple of the
+ * recorded speed, and report how long each payload took to apply. While the payloads are applied,
+ * a number of reader threads fetch the timetable snapshot in a loop, like routing requests do, so
+ * the lock contention is realistic.
+ * <p>
+ * For each payload the report contains:
+ * <ul>
+ *   <li>the time it took to prepare and apply the updates, and the part of it where the snapshot
+ *   buffer was locked</li>
+ *   <li>the time spent committing a new snapshot</li>
+ *   <li>the time the applying thread was blocked or waiting, mostly on the buffer lock</li>
+ *   <li>the heap allocated by the applying thread. Allocations by the common pool, used when trip
+ *   updates are prepared in parallel, are not included.</li>
+ * </ul>
+ */
+public class RealtimeReplay {
+
+  private static final String GRAPH = "g";
+  private static final String RECORDING = "d";
+  private static final String FEED_ID = "f";
+  private static final String SPEED = "s";
+  private static final String READERS = "r";
+  private static final String MAX_SNAPSHOT_FREQUENCY = "m";
+  private static final String PARALLEL = "p";
+
+  private final TimetableSnapshotSource snapshotSource;
+  private final String feedId;
+  private final double speed;
+  private final int numberOfReaders;
+
+  private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+  private final List<Measurement> measurements = new ArrayList<>();
+  private final AtomicLong snapshotReads = new AtomicLong();
+  private final AtomicLong maxSnapshotReadNanos = new AtomicLong();
+
+  RealtimeReplay(
+    TransitModel transitModel,
+    TimetableSnapshotSourceParameters parameters,
+    String feedId,
+    double speed,
+    int numberOfReaders
+  ) {
+    this.snapshotSource = new TimetableSnapshotSource(parameters, transitModel);
+    this.feedId = feedId;
+    this.speed = speed;
+    this.numberOfReaders = numberOfReaders;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = new Options();
+    options.addRequiredOption(GRAPH, "graph", true, "The serialized graph file.");
+    options.addRequiredOption(RECORDING, "dir", true, "The directory of a FeedRecorder recording.");
+    options.addRequiredOption(FEED_ID, "feedId", true, "The feed id the updates belong to.");
+    options.addOption(SPEED, "speed", true, "Times the recorded speed, 0 for max, default: 1");
+    options.addOption(READERS, "readers", true, "Threads reading snapshots, default: 4");
+    options.addOption(MAX_SNAPSHOT_FREQUENCY, "maxSnapshotFrequency", true, "Default: 1000 ms");
+    options.addOption(PARALLEL, "parallel", false, "Prepare trip updates in parallel.");
+
+    CommandLine cmd;
+    try {
+      cmd = new DefaultParser().parse(options, args);
+    } catch (ParseException e) {
+      System.err.println(e.getMessage());
+      new HelpFormatter().printHelp("RealtimeReplay", options);
+      System.exit(-1);
+      return;
+    }
+
+    var transitModel = loadTransitModel(new File(cmd.getOptionValue(GRAPH)));
+    var parameters = TimetableSnapshotSourceParameters.DEFAULT
+      .withMaxSnapshotFrequencyMs(
+        Integer.parseInt(cmd.getOptionValue(MAX_SNAPSHOT_FREQUENCY, "1000"))
+      )
+      .withPurgeExpiredData(false)
+      .withParallelTripUpdates(cmd.hasOption(PARALLEL));
+
+    var replay = new RealtimeReplay(
+      transitModel,
+      parameters,
+      cmd.getOptionValue(FEED_ID),
+      Double.parseDouble(cmd.getOptionValue(SPEED, "1")),
+      Integer.parseInt(cmd.getOptionValue(READERS, "4"))
+    );
+    replay.run(new FeedRecording(new File(cmd.getOptionValue(RECORDING))).payloads());
+    replay.printReport();
+  }
+
+  void run(List<FeedRecording.Payload> payloads) throws InterruptedException {
+    if (threads.isThreadContentionMonitoringSupported()) {
+      threads.setThreadContentionMonitoringEnabled(true);
+    }
+    var running = new AtomicBoolean(true);
+    var readers = new ArrayList<Thread>();
+    for (int i = 0; i < numberOfReaders; i++) {
+      var reader = new Thread(() -> readSnapshots(running), "snapshot-reader-" + i);
+      reader.setDaemon(true);
+      reader.start();
+      readers.add(reader);
+    }
+
+    try {
+      Instant replayStart = Instant.now();
+      for (FeedRecording.Payload payload : payloads) {
+        waitUntilDue(replayStart, payloads.get(0).receivedAt(), payload.receivedAt());
+        measurements.add(apply(payload));
+      }
+    } finally {
+      running.set(false);
+      for (Thread reader : readers) {
+        reader.join();
+      }
+    }
+  }
+
+  private void waitUntilDue(Instant replayStart, Instant firstReceivedAt, Instant receivedAt)
+    throws InterruptedException {
+    if (speed <= 0) {
+      return;
+    }
+    long offset = (long) (Duration.between(firstReceivedAt, receivedAt).toMillis() / speed);
+    long sleep = Duration.between(Instant.now(), replayStart.plusMillis(offset)).toMillis();
+    if (sleep > 0) {
+      Thread.sleep(sleep);
+    }
+  }
+
+  private Measurement apply(FeedRecording.Payload payload) {
+    FeedMessage feed;
+    try {
+      feed = FeedMessage.parseFrom(payload.read());
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalArgumentException("Not a GTFS-RT payload: " + payload.file(), e);
+    }
+    boolean fullDataset =
+      !feed.hasHeader() ||
+      feed.getHeader().getIncrementality() != FeedHeader.Incrementality.DIFFERENTIAL;
+    List<TripUpdate> updates = feed
+      .getEntityList()
+      .stream()
+      .filter(FeedEntity::hasTripUpdate)
+      .map(FeedEntity::getTripUpdate)
+      .toList();
+
+    long threadId = Thread.currentThread().getId();
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long waitedBefore = waitedMillis(threadId);
+
+    var result = snapshotSource.applyTripUpdates(
+      null,
+      BackwardsDelayPropagationType.REQUIRED_NO_DATA,
+      fullDataset,
+      updates,
+      feedId
+    );
+
+    return new Measurement(
+      payload.receivedAt(),
+      updates.size(),
+      result.failed(),
+      result.duration(),
+      result.lockDuration(),
+      result.commitDuration(),
+      Duration.ofMillis(waitedMillis(threadId) - waitedBefore),
+      threads.getThreadAllocatedBytes(threadId) - allocatedBefore
+    );
+  }
+
+  private long waitedMillis(long threadId) {
+    var info = threads.getThreadInfo(threadId);
+    if (info == null || info.getBlockedTime() < 0) {
+      return 0;
+    }
+    return info.getBlockedTime() + info.getWaitedTime();
+  }
+
+  private void readSnapshots(AtomicBoolean running) {
+    while (running.get()) {
+      long start = System.nanoTime();
+      snapshotSource.getTimetableSnapshot();
+      long nanos = System.nanoTime() - start;
+      snapshotReads.incrementAndGet();
+      maxSnapshotReadNanos.accumulateAndGet(nanos, Math::max);
+      Thread.onSpinWait();
+    }
+  }
+
+  void printReport() {
+    System.out.printf(
+      "%-24s %8s %6s %10s %10s %10s %10s %10s%n",
+      "Received",
+      "Updates",
+      "Failed",
+      "Total ms",
+      "Locked ms",
+      "Commit ms",
+      "Waited ms",
+      "Alloc MB"
+    );
+    for (Measurement it : measurements) {
+      System.out.printf(
+        "%-24s %8d %6d %10d %10d %10d %10d %10.1f%n",
+        it.receivedAt(),
+        it.updates(),
+        it.failed(),
+        it.total().toMillis(),
+        it.locked().toMillis(),
+        it.commit().toMillis(),
+        it.waited().toMillis(),
+        it.allocatedBytes() / 1_000_000.0
+      );
+    }
+    System.out.println();
+    printSummary("Total ms", m -> m.total().toMillis());
+    printSummary("Locked ms", m -> m.locked().toMillis());
+    printSummary("Commit ms", m -> m.commit().toMillis());
+    printSummary("Waited ms", m -> m.waited().toMillis());
+    printSummary("Alloc MB", m -> m.allocatedBytes() / 1_000_000);
+    System.out.printf(
+      "%nSnapshot reads: %d, slowest read: %d ms%n",
+      snapshotReads.get(),
+      Duration.ofNanos(maxSnapshotReadNanos.get()).toMillis()
+    );
+  }
+
+  private void printSummary(String name, ToLongFunction<Measurement> value) {
+    if (measurements.isEmpty()) {
+      return;
+    }
+    long[] values = measurements.stream().mapToLong(value).sorted().toArray();
+    System.out.printf(
+      "%-10s min %6d  p50 %6d  p90 %6d  max %6d  sum %8d%n",
+      name,
+      values[0],
+      values[values.length / 2],
+      values[(int) (values.length * 0.9)],
+      values[values.length - 1],
+      measurements.stream().mapToLong(value).sum()
+    );
+  }
+
+  private static TransitModel loadTransitModel(File file) {
+    var serializedGraphObject = SerializedGraphObject.load(file);
+    var transitModel = serializedGraphObject.transitModel;
+    transitModel.index();
+    creatTransitLayerForRaptor(transitModel, TransitTuningParameters.FOR_TEST);
+    return transitModel;
+  }
+
+  List<Measurement> measurements() {
+    return measurements;
+  }
+
+  record Measurement(
+    Instant receivedAt,
+    int updates,
+    int failed,
+    Duration total,
+    Duration locked,
+    Duration commit,
+    Duration waited,
+    long allocatedBytes
+  ) {}
+}
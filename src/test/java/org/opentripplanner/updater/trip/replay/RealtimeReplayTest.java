@@ -0,0 +1,77 @@
+package org.opentripplanner.updater.trip.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.transit.realtime.GtfsRealtime.FeedEntity;
+import com.google.transit.realtime.GtfsRealtime.FeedHeader;
+import com.google.transit.realtime.GtfsRealtime.FeedMessage;
+import com.google.transit.realtime.GtfsRealtime.TripDescriptor;
+import com.google.transit.realtime.GtfsRealtime.TripUpdate;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.updater.TimetableSnapshotSourceParameters;
+
+class RealtimeReplayTest {
+
+  private static final Instant T0 = Instant.parse("2022-11-01T08:00:00Z");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void recordAndReplay() throws InterruptedException {
+    var recording = new FeedRecording(tempDir.toFile());
+    // written out of order, replayed in the order they were received
+    recording.write(T0.plusSeconds(10), feed("1.1", "1.2").toByteArray());
+    recording.write(T0, feed("1.1").toByteArray());
+
+    var payloads = recording.payloads();
+    assertEquals(
+      List.of(T0, T0.plusSeconds(10)),
+      payloads.stream().map(FeedRecording.Payload::receivedAt).toList()
+    );
+
+    var model = ConstantsForTests.buildGtfsGraph(ConstantsForTests.FAKE_GTFS);
+    var transitModel = model.transitModel();
+    var feedId = transitModel.getFeedIds().stream().findFirst().get();
+    var replay = new RealtimeReplay(
+      transitModel,
+      TimetableSnapshotSourceParameters.DEFAULT,
+      feedId,
+      0,
+      2
+    );
+
+    replay.run(payloads);
+
+    assertEquals(
+      List.of(1, 2),
+      replay.measurements().stream().map(RealtimeReplay.Measurement::updates).toList()
+    );
+  }
+
+  private static FeedMessage feed(String... canceledTripIds) {
+    var feed = FeedMessage
+      .newBuilder()
+      .setHeader(
+        FeedHeader
+          .newBuilder()
+          .setGtfsRealtimeVersion("2.0")
+          .setIncrementality(FeedHeader.Incrementality.FULL_DATASET)
+      );
+    for (String tripId : canceledTripIds) {
+      var trip = TripDescriptor
+        .newBuilder()
+        .setTripId(tripId)
+        .setScheduleRelationship(TripDescriptor.ScheduleRelationship.CANCELED);
+      feed.addEntity(
+        FeedEntity.newBuilder().setId(tripId).setTripUpdate(TripUpdate.newBuilder().setTrip(trip))
+      );
+    }
+    return feed.build();
+  }
+}